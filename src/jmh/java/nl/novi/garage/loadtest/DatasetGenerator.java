@@ -0,0 +1,448 @@
+package nl.novi.garage.loadtest;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+// Fills a migrated garage database with a synthetic dataset of the given number of customers.
+// Every customer gets cars, every car APK inspections and repairs with line items over the last
+// three years, paid work is grouped into monthly receipts and some cars get PDF documents.
+// The same seed gives the same dataset. Rows are written with JDBC batches, one transaction per
+// block of customers, and the id sequences are moved past the generated ids afterwards.
+//
+// Usage against a database that was migrated by starting the application once:
+//   ./mvnw -Pbenchmark test-compile exec:exec@dataset -Dloadtest.args="--url jdbc:postgresql://localhost:5432/garage
+//       --user postgres --password root --customers 20000 --documents uploads"
+public class DatasetGenerator {
+
+    private static final int BATCH_SIZE = 1000;
+    private static final int CUSTOMERS_PER_TRANSACTION = 500;
+    private static final int YEARS = 3;
+    private static final BigDecimal INSPECTION_FEE = new BigDecimal("50.00");
+    private static final BigDecimal VAT_RATE = new BigDecimal("0.21");
+
+    private static final String[] FIRST_NAMES = { "Jan", "Maria", "Peter", "Anna", "Kees", "Sandra", "Lisa", "Henk",
+            "Sophie", "Daan", "Emma", "Lucas", "Julia", "Sem", "Tess", "Bram", "Fleur", "Thijs", "Eva", "Ruben" };
+    private static final String[] LAST_NAMES = { "de Jong", "Jansen", "de Vries", "van den Berg", "Bakker", "Visser",
+            "Smit", "Meijer", "de Boer", "Mulder", "de Groot", "Bos", "Vos", "Peters", "Hendriks", "van Dijk" };
+    // Brand and model, the most common cars first
+    private static final String[][] CARS = { { "Volkswagen", "Golf" }, { "Kia", "Picanto" }, { "Toyota", "Yaris" },
+            { "Opel", "Corsa" }, { "Peugeot", "208" }, { "Renault", "Clio" }, { "Volkswagen", "Polo" },
+            { "Ford", "Fiesta" }, { "Skoda", "Octavia" }, { "Toyota", "Aygo" }, { "BMW", "3 Serie" },
+            { "Audi", "A4" }, { "Volvo", "XC60" }, { "Tesla", "Model 3" }, { "Mercedes-Benz", "C-Klasse" } };
+    private static final String[] REPAIR_REPORTS = { "Remblokken en remschijven vervangen.",
+            "Kleine onderhoudsbeurt uitgevoerd.", "Grote onderhoudsbeurt, alle vloeistoffen ververst.",
+            "Distributieriem vervangen.", "Banden gewisseld en uitgebalanceerd.", "Airco service uitgevoerd.",
+            "Uitlaat gerepareerd na APK keuring.", "Koplampen vervangen en afgesteld." };
+    private static final String[] CUSTOM_ACTIONS = { "Ruiten extra schoonmaken", "Leenauto", "Afvoer oude onderdelen",
+            "Spoedtoeslag", "Interieur reinigen" };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Path documentsLocation;
+    private final int customerCount;
+    private final Random random;
+    private final LocalDate today = LocalDate.now(ZoneOffset.UTC);
+
+    private final Map<String, Long> nextIds = new LinkedHashMap<>();
+    private final Map<String, List<Object[]>> rows = new LinkedHashMap<>();
+    private final Map<String, Long> counts = new LinkedHashMap<>();
+    private final Set<String> licensePlates = new HashSet<>();
+    // Stored document contents by hash, shared contents are stored once
+    private final Map<String, Long> contentIds = new HashMap<>();
+    private final Map<Long, Integer> contentReferences = new HashMap<>();
+    private final List<byte[]> sharedDocuments = new ArrayList<>();
+
+    private List<Long> actionIds;
+    private List<BigDecimal> actionPrices;
+    private List<Long> partIds;
+    private List<BigDecimal> partPrices;
+    private long plateCounter;
+
+    public DatasetGenerator(DataSource dataSource, Path documentsLocation, int customerCount, long seed) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        this.documentsLocation = documentsLocation;
+        this.customerCount = customerCount;
+        this.random = new Random(seed);
+        this.plateCounter = seed & 0xFFFF;
+    }
+
+    public static void main(String[] args) {
+        LoadTestArguments arguments = LoadTestArguments.parse(args);
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                arguments.get("url", "jdbc:postgresql://localhost:5432/garage"),
+                arguments.get("user", "postgres"),
+                arguments.get("password", "root"));
+        DatasetGenerator generator = new DatasetGenerator(dataSource,
+                Path.of(arguments.get("documents", "uploads")),
+                arguments.getInt("customers", 1000),
+                arguments.getLong("seed", 42));
+
+        long start = System.nanoTime();
+        Map<String, Long> counts = generator.generate();
+        System.out.printf("Generated %s in %d ms%n", counts, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    // Returns the number of generated rows per table
+    public Map<String, Long> generate() {
+        actionIds = jdbcTemplate.queryForList("SELECT id FROM actions ORDER BY id", Long.class);
+        actionPrices = jdbcTemplate.queryForList("SELECT price FROM actions ORDER BY id", BigDecimal.class);
+        partIds = jdbcTemplate.queryForList("SELECT id FROM parts ORDER BY id", Long.class);
+        partPrices = jdbcTemplate.queryForList("SELECT price FROM parts ORDER BY id", BigDecimal.class);
+        if (actionIds.isEmpty() || partIds.isEmpty()) {
+            throw new IllegalStateException("The action and part catalogs are empty, run the migrations first");
+        }
+        licensePlates.addAll(jdbcTemplate.queryForList("SELECT license_plate FROM cars", String.class));
+        // Contents of an earlier run with the same seed are referenced again instead of stored twice
+        jdbcTemplate.query("SELECT id, content_hash, reference_count FROM document_contents", resultSet -> {
+            contentIds.put(resultSet.getString("content_hash"), resultSet.getLong("id"));
+            contentReferences.put(resultSet.getLong("id"), resultSet.getInt("reference_count"));
+        });
+        for (String table : List.of("customers", "cars", "inspections", "repairs", "repair_actions", "repair_parts",
+                "repair_custom_actions", "receipts", "receipt_repairs", "receipt_inspections", "document_contents",
+                "car_documents")) {
+            nextIds.put(table, jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) + 1 FROM " + table,
+                    Long.class));
+        }
+        for (int i = 0; i < 20; i++) {
+            sharedDocuments.add(pdf("Algemene voorwaarden en werkinstructie " + i, 20 * 1024));
+        }
+
+        for (int from = 0; from < customerCount; from += CUSTOMERS_PER_TRANSACTION) {
+            int blockSize = Math.min(CUSTOMERS_PER_TRANSACTION, customerCount - from);
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int i = 0; i < blockSize; i++) {
+                    generateCustomer();
+                }
+                flush();
+            });
+        }
+
+        // Reference counts are only known at the end, as contents are shared between blocks
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(
+                "UPDATE document_contents SET reference_count = ? WHERE id = ?",
+                contentReferences.entrySet().stream()
+                        .map(entry -> new Object[] { entry.getValue(), entry.getKey() })
+                        .toList()));
+        // The application allocates ids from the sequences, they have to start after the generated ones
+        nextIds.forEach((table, nextId) -> jdbcTemplate.execute(
+                "ALTER SEQUENCE " + table + "_seq RESTART WITH " + nextId));
+        return counts;
+    }
+
+    private void generateCustomer() {
+        long customerId = insert("customers", "name, phonenumber",
+                pick(FIRST_NAMES) + " " + pick(LAST_NAMES), String.format("06%08d", nextIds.get("customers")));
+
+        // Paid work is billed per month, the key is the first day of the month
+        Map<LocalDate, List<Long>> paidRepairs = new LinkedHashMap<>();
+        Map<LocalDate, List<BigDecimal>> paidRepairTotals = new LinkedHashMap<>();
+        Map<LocalDate, List<Long>> paidInspections = new LinkedHashMap<>();
+
+        int carCount = weighted(60, 30, 10) + 1;
+        for (int c = 0; c < carCount; c++) {
+            String[] car = CARS[skewed(CARS.length)];
+            long carId = insert("cars", "customer_id, brand, model, license_plate",
+                    customerId, car[0], car[1], nextLicensePlate());
+
+            // One APK inspection a year, the most recent one may still be planned or running
+            for (int year = 0; year < YEARS; year++) {
+                LocalDate date = today.minusDays(year * 365L + random.nextInt(365));
+                String status = workStatus(date);
+                boolean paid = isPaid(status, date);
+                long inspectionId = insert("inspections", "car_id, date, report, status, is_paid",
+                        carId, Date.valueOf(date), "APK keuring " + date.getYear(), status, paid);
+                if (paid) {
+                    paidInspections.computeIfAbsent(date.withDayOfMonth(1), d -> new ArrayList<>()).add(inspectionId);
+                }
+            }
+
+            int repairCount = geometric(0.3);
+            for (int r = 0; r < repairCount; r++) {
+                LocalDate date = today.minusDays(random.nextInt(YEARS * 365));
+                String status = workStatus(date);
+                boolean paid = isPaid(status, date);
+                BigDecimal total = generateRepair(carId, date, status, paid);
+                if (paid) {
+                    paidRepairs.computeIfAbsent(date.withDayOfMonth(1), d -> new ArrayList<>())
+                            .add(nextIds.get("repairs") - 1);
+                    paidRepairTotals.computeIfAbsent(date.withDayOfMonth(1), d -> new ArrayList<>()).add(total);
+                }
+            }
+
+            if (random.nextInt(100) < 30) {
+                int documentCount = random.nextInt(3) + 1;
+                for (int d = 0; d < documentCount; d++) {
+                    generateDocument(carId, d);
+                }
+            }
+        }
+
+        Set<LocalDate> months = new HashSet<>(paidRepairs.keySet());
+        months.addAll(paidInspections.keySet());
+        for (LocalDate month : months) {
+            List<Long> repairIds = paidRepairs.getOrDefault(month, List.of());
+            List<Long> inspectionIds = paidInspections.getOrDefault(month, List.of());
+            BigDecimal totalExclVat = INSPECTION_FEE.multiply(BigDecimal.valueOf(inspectionIds.size()));
+            for (BigDecimal repairTotal : paidRepairTotals.getOrDefault(month, List.of())) {
+                totalExclVat = totalExclVat.add(repairTotal);
+            }
+            totalExclVat = totalExclVat.setScale(2, RoundingMode.HALF_UP);
+            BigDecimal vat = totalExclVat.multiply(VAT_RATE).setScale(2, RoundingMode.HALF_UP);
+            LocalDate createdDate = month.plusMonths(1).minusDays(1);
+            long receiptId = insert("receipts",
+                    "customer_id, total_excl_vat, vat, total_incl_vat, is_paid, created_date",
+                    customerId, totalExclVat, vat, totalExclVat.add(vat), true,
+                    Date.valueOf(createdDate.isAfter(today) ? today : createdDate));
+            repairIds.forEach(id -> insert("receipt_repairs", "receipt_id, repair_id", receiptId, id));
+            inspectionIds.forEach(id -> insert("receipt_inspections", "receipt_id, inspection_id", receiptId, id));
+        }
+    }
+
+    // Returns the total cost of the repair
+    private BigDecimal generateRepair(long carId, LocalDate date, String status, boolean paid) {
+        long repairId = nextIds.get("repairs");
+        BigDecimal labourTotal = BigDecimal.ZERO;
+        BigDecimal partsTotal = BigDecimal.ZERO;
+        BigDecimal customTotal = BigDecimal.ZERO;
+
+        // Line items are added to the repair first, their ids do not depend on the repair row
+        List<Object[]> actionRows = new ArrayList<>();
+        Set<Integer> actions = new HashSet<>();
+        int actionCount = random.nextInt(3) + 1;
+        while (actions.size() < Math.min(actionCount, actionIds.size())) {
+            int index = skewed(actionIds.size());
+            if (actions.add(index)) {
+                int amount = random.nextInt(100) < 80 ? 1 : 2;
+                labourTotal = labourTotal.add(actionPrices.get(index).multiply(BigDecimal.valueOf(amount)));
+                actionRows.add(new Object[] { repairId, actionIds.get(index), amount });
+            }
+        }
+        List<Object[]> partRows = new ArrayList<>();
+        Set<Integer> parts = new HashSet<>();
+        int partCount = random.nextInt(5);
+        while (parts.size() < Math.min(partCount, partIds.size())) {
+            int index = skewed(partIds.size());
+            if (parts.add(index)) {
+                int amount = random.nextInt(4) + 1;
+                partsTotal = partsTotal.add(partPrices.get(index).multiply(BigDecimal.valueOf(amount)));
+                partRows.add(new Object[] { repairId, partIds.get(index), amount });
+            }
+        }
+        Object[] customRow = null;
+        if (random.nextInt(100) < 20) {
+            BigDecimal price = BigDecimal.valueOf(1000 + random.nextInt(14000), 2);
+            customTotal = price;
+            customRow = new Object[] { repairId, pick(CUSTOM_ACTIONS), price };
+        }
+
+        insert("repairs", "car_id, date, report, status, is_paid, labour_total, parts_total, custom_total",
+                carId, Date.valueOf(date), pick(REPAIR_REPORTS), status, paid, labourTotal, partsTotal, customTotal);
+        actionRows.forEach(row -> insert("repair_actions", "repair_id, action_id, amount", row));
+        partRows.forEach(row -> insert("repair_parts", "repair_id, part_id, amount", row));
+        if (customRow != null) {
+            insert("repair_custom_actions", "repair_id, description, price", customRow);
+        }
+        return labourTotal.add(partsTotal).add(customTotal);
+    }
+
+    private void generateDocument(long carId, int index) {
+        // Most documents are unique scans, some are the same standard documents for many cars
+        byte[] content = random.nextInt(100) < 10
+                ? sharedDocuments.get(random.nextInt(sharedDocuments.size()))
+                : pdf("Werkorder auto " + carId + " document " + index, documentSize());
+        String contentHash = sha256(content);
+        String filepath = "content/" + contentHash.substring(0, 2) + "/" + contentHash;
+
+        Long contentId = contentIds.get(contentHash);
+        if (contentId == null) {
+            store(filepath, content);
+            contentId = insert("document_contents", "content_hash, storage_path, file_size, reference_count",
+                    contentHash, filepath, (long) content.length, 0);
+            contentIds.put(contentHash, contentId);
+        }
+        contentReferences.merge(contentId, 1, Integer::sum);
+
+        insert("car_documents", "car_id, filename, filepath, content_type, file_size, content_hash, uploaded_at",
+                carId, "document-" + carId + "-" + index + ".pdf", filepath, "application/pdf",
+                (long) content.length, contentHash,
+                Timestamp.from(today.minusDays(random.nextInt(YEARS * 365)).atStartOfDay().toInstant(ZoneOffset.UTC)));
+    }
+
+    // Adds a row with the next id of the table, returns the id
+    private long insert(String table, String columns, Object... values) {
+        long id = nextIds.get(table);
+        nextIds.put(table, id + 1);
+        Object[] row = new Object[values.length + 1];
+        row[0] = id;
+        System.arraycopy(values, 0, row, 1, values.length);
+
+        String key = table + "|" + columns;
+        List<Object[]> pending = rows.computeIfAbsent(key, k -> new ArrayList<>());
+        pending.add(row);
+        counts.merge(table, 1L, Long::sum);
+        if (pending.size() == BATCH_SIZE) {
+            // Rows reference rows of earlier tables, so all tables before this one are written first
+            flush();
+        }
+        return id;
+    }
+
+    // Writes the pending rows table by table, in the order the tables were first used
+    private void flush() {
+        rows.forEach((key, pending) -> {
+            if (pending.isEmpty()) {
+                return;
+            }
+            String table = key.substring(0, key.indexOf('|'));
+            String columns = key.substring(key.indexOf('|') + 1);
+            String placeholders = "?" + ", ?".repeat(columns.split(",").length);
+            jdbcTemplate.batchUpdate("INSERT INTO " + table + " (id, " + columns + ") VALUES (" + placeholders + ")",
+                    pending);
+            pending.clear();
+        });
+    }
+
+    private String workStatus(LocalDate date) {
+        if (date.isAfter(today.minusDays(3))) {
+            return "SCHEDULED";
+        }
+        return date.isAfter(today.minusDays(10)) ? "IN_PROGRESS" : "COMPLETED";
+    }
+
+    // Older completed work is almost always paid, recent work only sometimes
+    private boolean isPaid(String status, LocalDate date) {
+        if (!"COMPLETED".equals(status)) {
+            return false;
+        }
+        int percentage = date.isBefore(today.minusDays(30)) ? 95 : 50;
+        return random.nextInt(100) < percentage;
+    }
+
+    // Unique plates like AB-123-C, plates that already exist are skipped
+    private String nextLicensePlate() {
+        String plate;
+        do {
+            long value = plateCounter++;
+            String letters = "";
+            long rest = value / 1000;
+            for (int i = 0; i < 3; i++) {
+                letters = (char) ('A' + rest % 26) + letters;
+                rest /= 26;
+            }
+            plate = letters.substring(0, 2) + "-" + String.format("%03d", value % 1000) + "-" + letters.charAt(2);
+        } while (!licensePlates.add(plate));
+        return plate;
+    }
+
+    // Sizes between 5 KB and 2 MB, most documents are small
+    private int documentSize() {
+        double size = Math.exp(10.5 + random.nextGaussian());
+        return (int) Math.max(5 * 1024, Math.min(2 * 1024 * 1024, size));
+    }
+
+    // A single page PDF showing the title, padded to the given size with a comment block
+    private byte[] pdf(String title, int size) {
+        String text = "BT /F1 18 Tf 72 720 Td (" + title + ") Tj ET";
+        StringBuilder pdf = new StringBuilder("%PDF-1.4\n");
+        List<Integer> offsets = new ArrayList<>();
+        String[] objects = {
+                "<< /Type /Catalog /Pages 2 0 R >>",
+                "<< /Type /Pages /Kids [3 0 R] /Count 1 >>",
+                "<< /Type /Page /Parent 2 0 R /MediaBox [0 0 612 792] /Contents 4 0 R "
+                        + "/Resources << /Font << /F1 5 0 R >> >> >>",
+                "<< /Length " + text.length() + " >>\nstream\n" + text + "\nendstream",
+                "<< /Type /Font /Subtype /Type1 /BaseFont /Helvetica >>" };
+        for (int i = 0; i < objects.length; i++) {
+            offsets.add(pdf.length());
+            pdf.append(i + 1).append(" 0 obj\n").append(objects[i]).append("\nendobj\n");
+        }
+        while (pdf.length() < size - 200) {
+            pdf.append('%').append(Long.toHexString(random.nextLong())).append('\n');
+        }
+        int xref = pdf.length();
+        pdf.append("xref\n0 ").append(objects.length + 1).append("\n0000000000 65535 f \n");
+        offsets.forEach(offset -> pdf.append(String.format("%010d 00000 n \n", offset)));
+        pdf.append("trailer\n<< /Size ").append(objects.length + 1).append(" /Root 1 0 R >>\nstartxref\n")
+                .append(xref).append("\n%%EOF\n");
+        return pdf.toString().getBytes(StandardCharsets.ISO_8859_1);
+    }
+
+    private void store(String filepath, byte[] content) {
+        try {
+            Path target = documentsLocation.resolve(filepath);
+            Files.createDirectories(target.getParent());
+            Files.write(target, content);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String sha256(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private String pick(String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    // Index between 0 and size, low indexes are picked more often
+    private int skewed(int size) {
+        return Math.min(random.nextInt(size), random.nextInt(size));
+    }
+
+    // Index of the chosen weight
+    private int weighted(int... weights) {
+        int total = 0;
+        for (int weight : weights) {
+            total += weight;
+        }
+        int value = random.nextInt(total);
+        for (int i = 0; i < weights.length; i++) {
+            value -= weights[i];
+            if (value < 0) {
+                return i;
+            }
+        }
+        return weights.length - 1;
+    }
+
+    // Number of failures before the first success, the mean is (1 - p) / p
+    private int geometric(double p) {
+        int count = 0;
+        while (random.nextDouble() >= p) {
+            count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,63 @@
+package nl.novi.garage.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Compares the throughput of serving requests on the Tomcat platform thread pool with serving them
+// on virtual threads. Both runs start the LoadTestServer on the same generated dataset and replay the
+// same LoadDriver workload with more concurrent clients than Tomcat has threads. Every SQL statement
+// waits --statement-latency milliseconds, as an in-memory database would otherwise never block a
+// request thread; the connection pool is the same size in both runs.
+//
+//   ./mvnw -Pbenchmark test-compile exec:exec@execution-mode -Dloadtest.args="--concurrency 400
+//       --tomcat-threads 50 --statement-latency 2 --duration 60"
+public class ExecutionModeBenchmark {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    public static void main(String[] args) throws Exception {
+        LoadTestArguments arguments = LoadTestArguments.parse(args)
+                .with("port", "0");
+
+        Map<String, Map<String, LoadDriver.Stats>> results = new LinkedHashMap<>();
+        results.put("platform", run(arguments.with("virtual-threads", "false")));
+        results.put("virtual", run(arguments.with("virtual-threads", "true")));
+
+        Map<String, LoadDriver.Stats> platform = results.get("platform");
+        Map<String, LoadDriver.Stats> virtual = results.get("virtual");
+        System.out.printf("%-20s %12s %12s %12s %12s %9s %9s%n", "operation",
+                "platform/s", "virtual/s", "platform p99", "virtual p99", "p errors", "v errors");
+        platform.forEach((name, stats) -> {
+            LoadDriver.Stats other = virtual.get(name);
+            System.out.printf("%-20s %12.1f %12.1f %12.2f %12.2f %9d %9d%n", name,
+                    stats.throughput(), other.throughput(), stats.p99(), other.p99(), stats.errors(), other.errors());
+        });
+
+        Path output = Path.of(arguments.get("output", "target/execution-mode-result.json"));
+        Files.createDirectories(output.toAbsolutePath().getParent());
+        OBJECT_MAPPER.writer(SerializationFeature.INDENT_OUTPUT).writeValue(output.toFile(), results);
+        System.out.println("Results written to " + output);
+    }
+
+    private static Map<String, LoadDriver.Stats> run(LoadTestArguments arguments) throws Exception {
+        System.out.println("Virtual threads: " + arguments.get("virtual-threads", "false"));
+        try (ConfigurableApplicationContext context = LoadTestServer.start(arguments
+                .with("statement-latency", arguments.get("statement-latency", "2"))
+                .with("tomcat-threads", arguments.get("tomcat-threads", "50")))) {
+            LoadDriver driver = new LoadDriver("http://localhost:" + LoadTestServer.port(context),
+                    arguments.get("username", "admin"), arguments.get("password", "password123"));
+            driver.prepare();
+            return driver.run(arguments.getInt("concurrency", 400),
+                    Duration.ofSeconds(arguments.getLong("warmup", 10)),
+                    Duration.ofSeconds(arguments.getLong("duration", 60)),
+                    arguments.getLong("seed", 42));
+        }
+    }
+}
@@ -0,0 +1,323 @@
+package nl.novi.garage.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Replays a mixed workload against a running application and reports the p50/p99 latency and
+// throughput per operation. A fixed number of workers send requests back to back; each worker
+// picks the next operation from the weighted mix with its own seeded random, so runs with the same
+// options and dataset send the same requests. Requests during the warmup are not recorded.
+//
+//   ./mvnw -Pbenchmark test-compile exec:exec@load-driver -Dloadtest.args="--base-url http://localhost:8080
+//       --concurrency 16 --duration 60 --warmup 15 --output target/loadtest-result.json"
+public class LoadDriver {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    // Name of the result over all operations together
+    static final String TOTAL = "all";
+    private static final String[] SEARCH_TERMS = { "Jan", "Maria", "de Vries", "Bakker", "Emma", "Visser", "Smit" };
+    private static final String[] REPAIR_STATUSES = { "SCHEDULED", "IN_PROGRESS", "COMPLETED" };
+
+    private final HttpClient client;
+    private final String baseUrl;
+    private final String username;
+    private final String password;
+    private final List<Operation> operations = new ArrayList<>();
+    private int totalWeight;
+
+    // Replaced by the login operation, read by all workers
+    private volatile String token;
+    private final List<Long> repairIds = new ArrayList<>();
+    private final List<Long> carIds = new ArrayList<>();
+    private final List<Long> documentIds = new ArrayList<>();
+    // Unpaid repairs with their customer, each is billed at most once
+    private final Queue<long[]> billableRepairs = new ConcurrentLinkedQueue<>();
+
+    LoadDriver(String baseUrl, String username, String password) {
+        this.client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+        this.baseUrl = baseUrl;
+        this.username = username;
+        this.password = password;
+
+        // Weights follow a working day at the counter: mostly lookups, some edits and billing
+        add("login", 5, random -> login());
+        add("customer search", 15, random -> get("/customers/search?q="
+                + SEARCH_TERMS[random.nextInt(SEARCH_TERMS.length)].replace(" ", "%20")));
+        add("repair search", 20, random -> get("/repairs/search/page?status="
+                + REPAIR_STATUSES[random.nextInt(REPAIR_STATUSES.length)]
+                + "&startDate=" + LocalDate.now().minusDays(random.nextInt(365)) + "&size=50"));
+        add("repair details", 15, random -> get("/repairs/" + pick(repairIds, random)));
+        add("car repairs", 10, random -> get("/repairs/car/" + pick(carIds, random)));
+        add("repair edit", 10, random -> send("POST", "/repairs/" + pick(repairIds, random) + "/custom-actions",
+                "{\"description\":\"Belastingtest\",\"price\":" + (10 + random.nextInt(90)) + ".00}"));
+        add("receipt generation", 5, random -> generateReceipt());
+        add("document download", 20, random -> get("/documents/" + pick(documentIds, random) + "/download"));
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestArguments arguments = LoadTestArguments.parse(args);
+        LoadDriver driver = new LoadDriver(arguments.get("base-url", "http://localhost:8080"),
+                arguments.get("username", "admin"), arguments.get("password", "password123"));
+        driver.prepare();
+
+        Map<String, Stats> results = driver.run(arguments.getInt("concurrency", 8),
+                Duration.ofSeconds(arguments.getLong("warmup", 10)),
+                Duration.ofSeconds(arguments.getLong("duration", 60)),
+                arguments.getLong("seed", 42));
+
+        System.out.printf("%-20s %8s %7s %10s %9s %9s %9s%n",
+                "operation", "requests", "errors", "req/s", "p50 ms", "p99 ms", "max ms");
+        results.forEach((name, stats) -> System.out.printf("%-20s %8d %7d %10.1f %9.2f %9.2f %9.2f%n",
+                name, stats.requests(), stats.errors(), stats.throughput(), stats.p50(), stats.p99(), stats.max()));
+
+        Path output = Path.of(arguments.get("output", "target/loadtest-result.json"));
+        Files.createDirectories(output.toAbsolutePath().getParent());
+        OBJECT_MAPPER.writer(SerializationFeature.INDENT_OUTPUT).writeValue(output.toFile(), results);
+        System.out.println("Results written to " + output);
+    }
+
+    // Logs in and collects the ids the operations work on
+    void prepare() throws IOException, InterruptedException {
+        login();
+        for (JsonNode repair : page("/repairs/search/page?isPaid=false&size=500", 4)) {
+            repairIds.add(repair.get("id").asLong());
+        }
+        Map<Long, Long> customerByCar = new HashMap<>();
+        for (JsonNode car : page("/cars/page?size=500", 4)) {
+            carIds.add(car.get("id").asLong());
+            customerByCar.put(car.get("id").asLong(), car.get("customerId").asLong());
+        }
+        for (JsonNode document : page("/documents/page?size=500", 4)) {
+            documentIds.add(document.get("id").asLong());
+        }
+        for (JsonNode repair : page("/repairs/search/page?isPaid=false&status=COMPLETED&size=500", 4)) {
+            Long customerId = customerByCar.get(repair.get("carId").asLong());
+            if (customerId != null) {
+                billableRepairs.add(new long[] { repair.get("id").asLong(), customerId });
+            }
+        }
+        if (repairIds.isEmpty() || carIds.isEmpty() || documentIds.isEmpty()) {
+            throw new IllegalStateException("The dataset has no unpaid repairs, cars or documents, "
+                    + "generate one with the DatasetGenerator first");
+        }
+        System.out.printf("Prepared %d repairs, %d cars, %d documents, %d billable repairs%n",
+                repairIds.size(), carIds.size(), documentIds.size(), billableRepairs.size());
+    }
+
+    Map<String, Stats> run(int concurrency, Duration warmup, Duration duration, long seed) throws Exception {
+        long measureFrom = System.nanoTime() + warmup.toNanos();
+        long until = measureFrom + duration.toNanos();
+
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        List<Future<Map<String, Recorder>>> workers = new ArrayList<>();
+        for (int i = 0; i < concurrency; i++) {
+            Random random = new Random(seed + i);
+            workers.add(executor.submit(() -> work(random, measureFrom, until)));
+        }
+
+        // Every worker records on its own, the recordings are merged at the end
+        Map<String, Recorder> merged = new TreeMap<>();
+        for (Future<Map<String, Recorder>> worker : workers) {
+            worker.get().forEach((name, recorder) -> merged.computeIfAbsent(name, n -> new Recorder()).add(recorder));
+        }
+        executor.shutdown();
+
+        Map<String, Stats> results = new LinkedHashMap<>();
+        Recorder total = new Recorder();
+        merged.forEach((name, recorder) -> {
+            results.put(name, recorder.stats(duration));
+            total.add(recorder);
+        });
+        results.put(TOTAL, total.stats(duration));
+        return results;
+    }
+
+    private Map<String, Recorder> work(Random random, long measureFrom, long until) {
+        Map<String, Recorder> recorders = new HashMap<>();
+        while (System.nanoTime() < until) {
+            Operation operation = next(random);
+            long start = System.nanoTime();
+            int status;
+            try {
+                status = operation.request().send(random);
+            } catch (IOException e) {
+                status = -1;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            if (status == 0) {
+                // Nothing left to do for this operation, for example no more repairs to bill
+                continue;
+            }
+            long end = System.nanoTime();
+            if (start >= measureFrom && end <= until) {
+                recorders.computeIfAbsent(operation.name(), name -> new Recorder()).record(end - start, status);
+            }
+        }
+        return recorders;
+    }
+
+    private int login() throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/auth/login"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(OBJECT_MAPPER.writeValueAsString(
+                                Map.of("username", username, "password", password))))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() == 200) {
+            token = OBJECT_MAPPER.readTree(response.body()).get("token").asText();
+        } else if (token == null) {
+            throw new IllegalStateException("Login as " + username + " failed with status " + response.statusCode());
+        }
+        return response.statusCode();
+    }
+
+    private int generateReceipt() throws IOException, InterruptedException {
+        long[] repair = billableRepairs.poll();
+        if (repair == null) {
+            return 0;
+        }
+        return send("POST", "/receipts/generate",
+                "{\"customerId\":" + repair[1] + ",\"repairIds\":[" + repair[0] + "]}");
+    }
+
+    private int get(String path) throws IOException, InterruptedException {
+        return client.send(request(path).GET().build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private int send(String method, String path, String json) throws IOException, InterruptedException {
+        return client.send(request(path)
+                        .header("Content-Type", "application/json")
+                        .method(method, HttpRequest.BodyPublishers.ofString(json))
+                        .build(),
+                HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Authorization", "Bearer " + token);
+    }
+
+    // Items of up to the given number of pages of a keyset paged endpoint
+    private List<JsonNode> page(String path, int maxPages) throws IOException, InterruptedException {
+        List<JsonNode> items = new ArrayList<>();
+        String cursor = null;
+        for (int i = 0; i < maxPages; i++) {
+            String url = cursor == null ? path : path + "&cursor=" + URLEncoder.encode(cursor, StandardCharsets.UTF_8);
+            HttpResponse<String> response = client.send(request(url).GET().build(),
+                    HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("GET " + url + " failed with status " + response.statusCode());
+            }
+            JsonNode page = OBJECT_MAPPER.readTree(response.body());
+            page.get("items").forEach(items::add);
+            JsonNode next = page.get("next");
+            if (next == null || next.isNull()) {
+                break;
+            }
+            cursor = next.asText();
+        }
+        return items;
+    }
+
+    private void add(String name, int weight, Request request) {
+        operations.add(new Operation(name, weight, request));
+        totalWeight += weight;
+    }
+
+    private Operation next(Random random) {
+        int value = random.nextInt(totalWeight);
+        for (Operation operation : operations) {
+            value -= operation.weight();
+            if (value < 0) {
+                return operation;
+            }
+        }
+        return operations.get(operations.size() - 1);
+    }
+
+    private static long pick(List<Long> ids, Random random) {
+        return ids.get(random.nextInt(ids.size()));
+    }
+
+    // Sends one request and returns its status, 0 when it was skipped
+    private interface Request {
+        int send(Random random) throws IOException, InterruptedException;
+    }
+
+    private record Operation(String name, int weight, Request request) {
+    }
+
+    // Latencies in nanoseconds and the number of failed requests of one operation
+    private static final class Recorder {
+        private long[] latencies = new long[1024];
+        private int count;
+        private long errors;
+
+        void record(long latency, int status) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = latency;
+            if (status < 200 || status >= 400) {
+                errors++;
+            }
+        }
+
+        void add(Recorder other) {
+            for (int i = 0; i < other.count; i++) {
+                record(other.latencies[i], 200);
+            }
+            errors += other.errors;
+        }
+
+        Stats stats(Duration duration) {
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            return new Stats(count, errors, count / (duration.toMillis() / 1000.0),
+                    percentile(sorted, 0.50), percentile(sorted, 0.99),
+                    sorted.length == 0 ? 0 : sorted[sorted.length - 1] / 1_000_000.0);
+        }
+
+        // Nearest-rank percentile in milliseconds
+        private static double percentile(long[] sorted, double percentile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int rank = (int) Math.ceil(percentile * sorted.length);
+            return sorted[Math.max(0, rank - 1)] / 1_000_000.0;
+        }
+    }
+
+    // Latencies in milliseconds, throughput in requests per second
+    public record Stats(long requests, long errors, double throughput, double p50, double p99, double max) {
+    }
+}
@@ -0,0 +1,46 @@
+package nl.novi.garage.loadtest;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Command line options of the load test tools, given as --name value
+final class LoadTestArguments {
+
+    private final Map<String, String> values = new HashMap<>();
+
+    private LoadTestArguments() {
+    }
+
+    static LoadTestArguments parse(String[] args) {
+        LoadTestArguments arguments = new LoadTestArguments();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--") || i + 1 == args.length) {
+                throw new IllegalArgumentException("Expected --name value, got: " + args[i]);
+            }
+            arguments.values.put(args[i].substring(2), args[++i]);
+        }
+        return arguments;
+    }
+
+    // Copy with one option replaced, to run the same setup in another mode
+    LoadTestArguments with(String name, String value) {
+        LoadTestArguments arguments = new LoadTestArguments();
+        arguments.values.putAll(values);
+        arguments.values.put(name, value);
+        return arguments;
+    }
+
+    String get(String name, String defaultValue) {
+        return values.getOrDefault(name, defaultValue);
+    }
+
+    int getInt(String name, int defaultValue) {
+        String value = values.get(name);
+        return value == null ? defaultValue : Integer.parseInt(value);
+    }
+
+    long getLong(String name, long defaultValue) {
+        String value = values.get(name);
+        return value == null ? defaultValue : Long.parseLong(value);
+    }
+}
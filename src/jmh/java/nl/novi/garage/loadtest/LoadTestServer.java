@@ -0,0 +1,104 @@
+package nl.novi.garage.loadtest;
+
+import nl.novi.garage.GarageApplication;
+import nl.novi.garage.services.CacheService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Starts the application on an in-memory H2 database filled by the DatasetGenerator, as a
+// target for the LoadDriver that needs no local PostgreSQL. H2 cannot create the expression and
+// partial indexes of V2__add_indexes.sql, so that migration is left out. Numbers that have to
+// match production are measured against PostgreSQL instead.
+//
+//   ./mvnw -Pbenchmark test-compile exec:exec@loadtest-server -Dloadtest.args="--customers 5000 --port 8080"
+public class LoadTestServer {
+
+    private static final String H2_UNSUPPORTED_MIGRATION = "V2__add_indexes.sql";
+    private static final AtomicInteger DATABASES = new AtomicInteger();
+
+    public static void main(String[] args) throws IOException {
+        ConfigurableApplicationContext context = start(LoadTestArguments.parse(args));
+        System.out.printf("Serving on port %d%n", port(context));
+    }
+
+    // Starts the application on a new, generated database. Options besides the dataset:
+    // --virtual-threads serves requests on virtual threads, --tomcat-threads and --pool-size size the
+    // request thread and connection pools, --statement-latency waits that many milliseconds before
+    // every SQL statement to mimic a database across the network, and --port 0 picks a free port.
+    static ConfigurableApplicationContext start(LoadTestArguments arguments) throws IOException {
+        Path workDirectory = Path.of(arguments.get("work-directory", "target/loadtest"));
+        Path migrations = copyMigrations(workDirectory.resolve("migrations"));
+        Path documents = workDirectory.resolve("documents");
+
+        Map<String, String> properties = new HashMap<>();
+        // A database per start, so consecutive runs in one JVM each get a fresh dataset. PostgreSQL
+        // mode accepts the upsert of stored document content.
+        properties.put("spring.datasource.url",
+                "jdbc:h2:mem:loadtest" + DATABASES.incrementAndGet() + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1");
+        properties.put("spring.datasource.driver-class-name", "org.h2.Driver");
+        properties.put("spring.datasource.username", "sa");
+        properties.put("spring.datasource.password", "");
+        properties.put("schema.migrations.location", "file:" + migrations.toAbsolutePath());
+        properties.put("documents.storage.location", documents.toAbsolutePath().toString());
+        properties.put("server.port", arguments.get("port", "8080"));
+        properties.put("spring.threads.virtual.enabled", arguments.get("virtual-threads", "false"));
+        properties.put("server.tomcat.threads.max", arguments.get("tomcat-threads", "200"));
+        properties.put("spring.datasource.hikari.maximum-pool-size", arguments.get("pool-size", "10"));
+        long statementLatency = arguments.getLong("statement-latency", 0);
+        if (statementLatency > 0) {
+            System.setProperty(SimulatedLatencyStatementInspector.LATENCY_PROPERTY, Long.toString(statementLatency));
+            properties.put("spring.jpa.properties.hibernate.session_factory.statement_inspector",
+                    SimulatedLatencyStatementInspector.class.getName());
+        }
+        // Logging every statement and security decision would dominate the measurements
+        properties.put("spring.jpa.show-sql", "false");
+        properties.put("logging.level.nl.novi.garage", "INFO");
+        properties.put("logging.level.org.springframework.security", "WARN");
+
+        // Passed as command line arguments, default properties would lose to application.properties
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(GarageApplication.class)
+                .run(properties.entrySet().stream()
+                        .map(property -> "--" + property.getKey() + "=" + property.getValue())
+                        .toArray(String[]::new));
+
+        DatasetGenerator generator = new DatasetGenerator(context.getBean(DataSource.class), documents,
+                arguments.getInt("customers", 1000), arguments.getLong("seed", 42));
+        long start = System.nanoTime();
+        Map<String, Long> counts = generator.generate();
+        // The rows were written past Hibernate, cached query results may be stale
+        context.getBean(CacheService.class).evictAll();
+        System.out.printf("Generated %s in %d ms%n", counts, (System.nanoTime() - start) / 1_000_000);
+        return context;
+    }
+
+    static int port(ConfigurableApplicationContext context) {
+        return ((WebServerApplicationContext) context).getWebServer().getPort();
+    }
+
+    private static Path copyMigrations(Path target) throws IOException {
+        Files.createDirectories(target);
+        for (Resource script : new PathMatchingResourcePatternResolver().getResources("classpath:db/migration/V*.sql")) {
+            if (H2_UNSUPPORTED_MIGRATION.equals(script.getFilename())) {
+                continue;
+            }
+            try (InputStream content = script.getInputStream()) {
+                Files.copy(content, target.resolve(script.getFilename()),
+                        StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        return target;
+    }
+}
@@ -0,0 +1,23 @@
+package nl.novi.garage.loadtest;
+
+import nl.novi.garage.metrics.SqlStatementCounter;
+
+// Waits before every SQL statement, so an in-memory H2 database behaves like a database across
+// the network: the request thread blocks while holding its connection. The wait in milliseconds
+// is read from the loadtest.statement-latency system property.
+public class SimulatedLatencyStatementInspector extends SqlStatementCounter {
+
+    static final String LATENCY_PROPERTY = "loadtest.statement-latency";
+
+    private final long latencyMillis = Long.getLong(LATENCY_PROPERTY, 0);
+
+    @Override
+    public String inspect(String sql) {
+        try {
+            Thread.sleep(latencyMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return super.inspect(sql);
+    }
+}
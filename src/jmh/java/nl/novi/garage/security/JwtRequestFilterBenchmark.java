@@ -0,0 +1,59 @@
+package nl.novi.garage.security;
+
+import nl.novi.garage.metrics.MetricsRegistry;
+import nl.novi.garage.services.TokenRevocationService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.concurrent.TimeUnit;
+
+// Authentication of a request with a bearer token through the whole filter. With cached=false
+// every request verifies the token as if it was seen for the first time. The user lookup is
+// an in-memory stand-in, so the numbers exclude the users query.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtRequestFilterBenchmark {
+
+    @Param({ "true", "false" })
+    private boolean cached;
+
+    private JwtRequestFilter filter;
+    private VerifiedTokenCache verifiedTokenCache;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setUp() {
+        JwtService jwtService = new JwtService(JwtServiceBenchmark.SECRET_KEY, 86400000L, "garage-api.novi.nl");
+        UserDetails userDetails = User.withUsername("monteur").password("").roles("MEDEWERKER").build();
+        verifiedTokenCache = new VerifiedTokenCache(10000);
+        filter = new JwtRequestFilter(username -> userDetails, jwtService, verifiedTokenCache,
+                new TokenRevocationService(null), false, new MetricsRegistry());
+
+        request = new MockHttpServletRequest("GET", "/repairs");
+        request.addHeader("Authorization", "Bearer " + jwtService.generateToken(userDetails, "MEDEWERKER"));
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public int doFilter() throws Exception {
+        if (!cached) {
+            verifiedTokenCache.invalidateAll();
+        }
+        try {
+            filter.doFilter(request, response, (req, res) -> {
+            });
+            return response.getStatus();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package nl.novi.garage.security;
+
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.concurrent.TimeUnit;
+
+// Signing and verifying HS256 tokens as done on login and on every authenticated request
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtServiceBenchmark {
+
+    static final String SECRET_KEY = "benchmarkSecretKeyThatIsLongEnoughForHs256Signing";
+
+    private JwtService jwtService;
+    private UserDetails userDetails;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService(SECRET_KEY, 86400000L, "garage-api.novi.nl");
+        userDetails = User.withUsername("monteur").password("").roles("MEDEWERKER").build();
+        token = jwtService.generateToken(userDetails, "MEDEWERKER");
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken(userDetails, "MEDEWERKER");
+    }
+
+    @Benchmark
+    public Claims parseToken() {
+        return jwtService.parseToken(token);
+    }
+
+    @Benchmark
+    public boolean isTokenValid() {
+        return jwtService.isTokenValid(token, userDetails);
+    }
+}
@@ -0,0 +1,69 @@
+package nl.novi.garage.services;
+
+import nl.novi.garage.models.Inspection;
+import nl.novi.garage.models.Repair;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// BigDecimal arithmetic of a receipt: the line cost of each item of a repair and the total
+// excluding VAT over the repairs and inspections of a receipt.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReceiptTotalsBenchmark {
+
+    @Param({ "1", "10", "100" })
+    private int repairCount;
+
+    private ReceiptService receiptService;
+    private RepairService repairService;
+    private List<Repair> repairs;
+    private List<Inspection> inspections;
+    private BigDecimal[] prices;
+    private int[] amounts;
+
+    @Setup
+    public void setUp() {
+        // The calculations use no repositories
+        receiptService = new ReceiptService(null, null, null, null, null, null, null);
+        repairService = new RepairService(null, null, null, null, null, null, null, null, null, null, null);
+
+        repairs = new ArrayList<>();
+        for (int i = 0; i < repairCount; i++) {
+            Repair repair = new Repair();
+            repair.setLabourTotal(new BigDecimal("195.00").add(BigDecimal.valueOf(i)));
+            repair.setPartsTotal(new BigDecimal("91.98"));
+            repair.setCustomTotal(new BigDecimal("12.50"));
+            repairs.add(repair);
+        }
+        inspections = List.of(new Inspection(), new Inspection());
+
+        prices = new BigDecimal[repairCount];
+        amounts = new int[repairCount];
+        for (int i = 0; i < repairCount; i++) {
+            prices[i] = new BigDecimal("45.99").add(BigDecimal.valueOf(i, 2));
+            amounts[i] = i % 4 + 1;
+        }
+    }
+
+    @Benchmark
+    public BigDecimal totalExcludingVat() {
+        return receiptService.calculateTotalExcludingVat(inspections, repairs);
+    }
+
+    @Benchmark
+    public BigDecimal lineCosts() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 0; i < prices.length; i++) {
+            total = total.add(repairService.lineCost(prices[i], amounts[i]));
+        }
+        return total;
+    }
+}
@@ -0,0 +1,90 @@
+package nl.novi.garage.services;
+
+import nl.novi.garage.dtos.action.ActionResponseDTO;
+import nl.novi.garage.dtos.part.PartResponseDTO;
+import nl.novi.garage.dtos.repair.RepairResponseDTO;
+import nl.novi.garage.models.Action;
+import nl.novi.garage.models.Car;
+import nl.novi.garage.models.Customer;
+import nl.novi.garage.models.Part;
+import nl.novi.garage.models.Repair;
+import nl.novi.garage.models.RepairActions;
+import nl.novi.garage.models.RepairCustomActions;
+import nl.novi.garage.models.RepairParts;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Mapping of a repair with its line items to the response DTO, after the line items and
+// catalog entries have been loaded. This is the per-repair work of every repair list.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RepairMappingBenchmark {
+
+    // Number of actions and of parts on the repair
+    @Param({ "1", "5", "20" })
+    private int lineCount;
+
+    private RepairService repairService;
+    private Repair repair;
+    private List<RepairActions> repairActions;
+    private List<RepairParts> repairParts;
+    private List<RepairCustomActions> customActions;
+    private Map<Long, ActionResponseDTO> actionsById;
+    private Map<Long, PartResponseDTO> partsById;
+
+    @Setup
+    public void setUp() {
+        // The mapping uses no repositories
+        repairService = new RepairService(null, null, null, null, null, null, null, null, null, null, null);
+
+        Car car = new Car(new Customer("Jan Jansen", "+31612345678"), "Toyota", "Corolla", "AB-123-CD");
+        car.setId(1L);
+        repair = new Repair(car, LocalDate.of(2024, 3, 15), "COMPLETED", "Remmen vervangen", false);
+        repair.setId(1L);
+        repair.setLabourTotal(new BigDecimal("195.00"));
+        repair.setPartsTotal(new BigDecimal("91.98"));
+        repair.setCustomTotal(new BigDecimal("12.50"));
+
+        repairActions = new ArrayList<>();
+        repairParts = new ArrayList<>();
+        actionsById = new HashMap<>();
+        partsById = new HashMap<>();
+        for (long id = 1; id <= lineCount; id++) {
+            Action action = new Action("Actie " + id, "Omschrijving van actie " + id, new BigDecimal("95.00"));
+            action.setId(id);
+            RepairActions repairAction = new RepairActions(repair, action, 1);
+            repairAction.setId(id);
+            repairActions.add(repairAction);
+            actionsById.put(id, new ActionResponseDTO(id, action.getName(), action.getDescription(),
+                    action.getPrice()));
+
+            Part part = new Part("Onderdeel " + id, new BigDecimal("45.99"), 10);
+            part.setId(id);
+            RepairParts repairPart = new RepairParts(repair, part, 2);
+            repairPart.setId(id);
+            repairParts.add(repairPart);
+            partsById.put(id, new PartResponseDTO(id, part.getName(), part.getPrice(), part.getStock()));
+        }
+        RepairCustomActions customAction = new RepairCustomActions(repair, "Ruiten schoonmaken",
+                new BigDecimal("12.50"));
+        customAction.setId(1L);
+        customActions = List.of(customAction);
+    }
+
+    @Benchmark
+    public RepairResponseDTO mapToResponseDTO() {
+        return repairService.mapToResponseDTO(repair, repairActions, repairParts, customActions,
+                actionsById, partsById);
+    }
+}
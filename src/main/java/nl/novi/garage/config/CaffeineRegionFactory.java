@@ -0,0 +1,154 @@
+package nl.novi.garage.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import nl.novi.garage.dtos.cache.CacheStatsDTO;
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.cache.cfg.spi.DomainDataRegionBuildingContext;
+import org.hibernate.cache.cfg.spi.DomainDataRegionConfig;
+import org.hibernate.cache.spi.access.AccessType;
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.cache.spi.support.RegionFactoryTemplate;
+import org.hibernate.cache.spi.support.StorageAccess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+// Hibernate second-level cache regions backed by Caffeine. Each region is a separate cache
+// bounded by hibernate.cache.caffeine.<region>.maximum_size (default
+// hibernate.cache.caffeine.maximum_size) and expiring after expire_after_write ms, with hit
+// and miss statistics. The update timestamps region is never bounded: dropping a timestamp
+// would let the query cache serve results that are out of date.
+public class CaffeineRegionFactory extends RegionFactoryTemplate {
+
+    static final String SETTINGS_PREFIX = "hibernate.cache.caffeine.";
+    private static final long DEFAULT_MAXIMUM_SIZE = 10_000;
+
+    private final Map<String, Cache<Object, Object>> caches = new ConcurrentHashMap<>();
+    private Map<String, Object> settings = Map.of();
+
+    @Override
+    protected void prepareForUse(SessionFactoryOptions options, Map<String, Object> configValues) {
+        this.settings = new HashMap<>(configValues);
+    }
+
+    @Override
+    protected void releaseFromUse() {
+        caches.values().forEach(Cache::invalidateAll);
+        caches.clear();
+    }
+
+    @Override
+    public AccessType getDefaultAccessType() {
+        return AccessType.READ_WRITE;
+    }
+
+    @Override
+    protected DomainDataStorageAccess createDomainDataStorageAccess(DomainDataRegionConfig regionConfig,
+            DomainDataRegionBuildingContext buildingContext) {
+        return new CaffeineStorageAccess(createCache(regionConfig.getRegionName(), true));
+    }
+
+    @Override
+    protected StorageAccess createQueryResultsRegionStorageAccess(String regionName,
+            SessionFactoryImplementor sessionFactory) {
+        return new CaffeineStorageAccess(createCache(regionName, true));
+    }
+
+    @Override
+    protected StorageAccess createTimestampsRegionStorageAccess(String regionName,
+            SessionFactoryImplementor sessionFactory) {
+        return new CaffeineStorageAccess(createCache(regionName, false));
+    }
+
+    public List<CacheStatsDTO> getStats() {
+        return caches.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey(Comparator.naturalOrder()))
+                .map(entry -> {
+                    Cache<Object, Object> cache = entry.getValue();
+                    cache.cleanUp();
+                    CacheStats stats = cache.stats();
+                    return new CacheStatsDTO(entry.getKey(), cache.estimatedSize(), stats.hitCount(),
+                            stats.missCount(), stats.hitRate(), stats.evictionCount());
+                })
+                .collect(Collectors.toList());
+    }
+
+    private Cache<Object, Object> createCache(String regionName, boolean bounded) {
+        Caffeine<Object, Object> builder = Caffeine.newBuilder().recordStats();
+        if (bounded) {
+            builder.maximumSize(setting(regionName, "maximum_size", DEFAULT_MAXIMUM_SIZE));
+            long timeToLive = setting(regionName, "expire_after_write", 0);
+            if (timeToLive > 0) {
+                builder.expireAfterWrite(Duration.ofMillis(timeToLive));
+            }
+        }
+        Cache<Object, Object> cache = builder.build();
+        caches.put(regionName, cache);
+        return cache;
+    }
+
+    private long setting(String regionName, String name, long defaultValue) {
+        Object value = settings.get(SETTINGS_PREFIX + regionName + "." + name);
+        if (value == null) {
+            value = settings.get(SETTINGS_PREFIX + name);
+        }
+        return value == null ? defaultValue : Long.parseLong(value.toString().trim());
+    }
+
+    private static final class CaffeineStorageAccess implements DomainDataStorageAccess {
+        private final Cache<Object, Object> cache;
+
+        private CaffeineStorageAccess(Cache<Object, Object> cache) {
+            this.cache = cache;
+        }
+
+        @Override
+        public Object getFromCache(Object key, SharedSessionContractImplementor session) {
+            return cache.getIfPresent(key);
+        }
+
+        @Override
+        public void putIntoCache(Object key, Object value, SharedSessionContractImplementor session) {
+            cache.put(key, value);
+        }
+
+        @Override
+        public void removeFromCache(Object key, SharedSessionContractImplementor session) {
+            cache.invalidate(key);
+        }
+
+        @Override
+        public void clearCache(SharedSessionContractImplementor session) {
+            cache.invalidateAll();
+        }
+
+        @Override
+        public boolean contains(Object key) {
+            return cache.asMap().containsKey(key);
+        }
+
+        @Override
+        public void evictData() {
+            cache.invalidateAll();
+        }
+
+        @Override
+        public void evictData(Object key) {
+            cache.invalidate(key);
+        }
+
+        @Override
+        public void release() {
+            cache.invalidateAll();
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package nl.novi.garage.config;
+
+import nl.novi.garage.dtos.action.ActionResponseDTO;
+import nl.novi.garage.dtos.part.PartResponseDTO;
+import nl.novi.garage.services.CatalogCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class CatalogCacheConfig {
+
+    @Bean
+    public CatalogCache<ActionResponseDTO> actionCatalogCache(
+            @Value("${catalog.cache.maximum-size}") long maximumSize,
+            @Value("${catalog.cache.time-to-live}") long timeToLive) {
+        return new CatalogCache<>("actions", maximumSize, Duration.ofMillis(timeToLive), ActionResponseDTO::getId);
+    }
+
+    @Bean
+    public CatalogCache<PartResponseDTO> partCatalogCache(
+            @Value("${catalog.cache.maximum-size}") long maximumSize,
+            @Value("${catalog.cache.time-to-live}") long timeToLive) {
+        return new CatalogCache<>("parts", maximumSize, Duration.ofMillis(timeToLive), PartResponseDTO::getId);
+    }
+}
@@ -0,0 +1,24 @@
+package nl.novi.garage.config;
+
+import nl.novi.garage.metrics.MetricsRegistry;
+import nl.novi.garage.metrics.RequestMetricsFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+public class MetricsConfig {
+
+    // Registered ahead of the security filter chain, so rejected requests are measured as well
+    @Bean
+    public FilterRegistrationBean<RequestMetricsFilter> requestMetricsFilter(MetricsRegistry metricsRegistry,
+            @Value("${sql.statements.request-budget}") int statementBudget,
+            @Value("${sql.statements.repeated-limit}") int repeatedStatementLimit) {
+        FilterRegistrationBean<RequestMetricsFilter> registration = new FilterRegistrationBean<>(
+                new RequestMetricsFilter(metricsRegistry, statementBudget, repeatedStatementLimit));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
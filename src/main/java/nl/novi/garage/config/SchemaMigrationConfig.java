@@ -0,0 +1,27 @@
+package nl.novi.garage.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+// The schema is owned by the versioned scripts in db/migration, Hibernate only validates it
+@Configuration
+public class SchemaMigrationConfig {
+
+    @Bean(initMethod = "migrate")
+    @ConditionalOnProperty(name = "schema.migrations.enabled", havingValue = "true", matchIfMissing = true)
+    public SchemaMigrator schemaMigrator(DataSource dataSource,
+            @Value("${schema.migrations.location}") String location) {
+        return new SchemaMigrator(dataSource, location);
+    }
+
+    // Migrations have to be applied before the EntityManagerFactory validates the schema
+    @Bean
+    public static EntityManagerFactoryDependsOnPostProcessor schemaMigratorDependency() {
+        return new EntityManagerFactoryDependsOnPostProcessor(SchemaMigrator.class);
+    }
+}
@@ -0,0 +1,132 @@
+package nl.novi.garage.config;
+
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.EncodedResource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Applies versioned SQL migrations (V<version>__<description>.sql) that have not run on the
+// database yet, in version order. Every migration runs in its own transaction together with
+// its row in schema_migrations, so a failed run leaves nothing half applied. Concurrent runs,
+// such as two instances starting at once, take turns on the row in schema_migrations_lock: a
+// migration is only applied while holding that row lock and when it is still not recorded.
+public class SchemaMigrator {
+
+    private static final Pattern FILE_NAME = Pattern.compile("V(\\d+)__(\\w+)\\.sql");
+
+    private final DataSource dataSource;
+    private final String location;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public SchemaMigrator(DataSource dataSource, String location) {
+        this.dataSource = dataSource;
+        this.location = location;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+
+    // Returns the versions that were applied by this call
+    public List<Integer> migrate() {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS schema_migrations ("
+                + "version INTEGER NOT NULL PRIMARY KEY, "
+                + "description VARCHAR(200) NOT NULL, "
+                + "installed_at TIMESTAMP NOT NULL)");
+        createLock();
+        Set<Integer> installed = new HashSet<>(
+                jdbcTemplate.queryForList("SELECT version FROM schema_migrations", Integer.class));
+
+        List<Integer> applied = new ArrayList<>();
+        for (Migration migration : findMigrations()) {
+            if (installed.contains(migration.version())) {
+                continue;
+            }
+            if (Boolean.TRUE.equals(transactionTemplate.execute(status -> applyIfMissing(migration)))) {
+                applied.add(migration.version());
+            }
+        }
+        return applied;
+    }
+
+    private void createLock() {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS schema_migrations_lock (id INTEGER NOT NULL PRIMARY KEY)");
+        try {
+            jdbcTemplate.update("INSERT INTO schema_migrations_lock (id) "
+                    + "SELECT 1 WHERE NOT EXISTS (SELECT id FROM schema_migrations_lock WHERE id = 1)");
+        } catch (DuplicateKeyException e) {
+            // Inserted by a concurrent run
+        }
+    }
+
+    // Waits for a concurrent run to commit its migration, which may be this one
+    private boolean applyIfMissing(Migration migration) {
+        jdbcTemplate.queryForObject("SELECT id FROM schema_migrations_lock WHERE id = 1 FOR UPDATE", Integer.class);
+        Integer recorded = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM schema_migrations WHERE version = ?", Integer.class, migration.version());
+        if (recorded != null && recorded > 0) {
+            return false;
+        }
+        apply(migration);
+        return true;
+    }
+
+    private void apply(Migration migration) {
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            ScriptUtils.executeSqlScript(connection,
+                    new EncodedResource(migration.script(), StandardCharsets.UTF_8));
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+        jdbcTemplate.update("INSERT INTO schema_migrations (version, description, installed_at) VALUES (?, ?, ?)",
+                migration.version(), migration.description(), Timestamp.from(Instant.now()));
+    }
+
+    private List<Migration> findMigrations() {
+        ResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+        List<Migration> migrations = new ArrayList<>();
+        try {
+            for (Resource script : resolver.getResources(location + "/V*__*.sql")) {
+                Matcher matcher = FILE_NAME.matcher(script.getFilename());
+                if (!matcher.matches()) {
+                    throw new IllegalStateException("Invalid migration file name: " + script.getFilename());
+                }
+                migrations.add(new Migration(Integer.parseInt(matcher.group(1)),
+                        matcher.group(2).replace('_', ' '), script));
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not read migrations from " + location, e);
+        }
+
+        migrations.sort(Comparator.comparingInt(Migration::version));
+        for (int i = 1; i < migrations.size(); i++) {
+            if (migrations.get(i).version() == migrations.get(i - 1).version()) {
+                throw new IllegalStateException("Duplicate migration version: " + migrations.get(i).version());
+            }
+        }
+        return migrations;
+    }
+
+    private record Migration(int version, String description, Resource script) {
+    }
+}
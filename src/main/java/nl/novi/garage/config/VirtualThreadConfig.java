@@ -0,0 +1,46 @@
+package nl.novi.garage.config;
+
+import nl.novi.garage.metrics.MetricsRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+// Opt-in virtual thread mode, enabled with spring.threads.virtual.enabled=true. Spring Boot then runs
+// Tomcat requests, streamed responses and scheduled work on virtual threads. Without the bounded
+// worker pool nothing limits how many requests wait for a database connection, so the data source
+// is wrapped in a limiter that queues them in front of the pool.
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    @Bean
+    public static BeanPostProcessor connectionLimiter(
+            @Value("${virtual-threads.connection-limit}") int connectionLimit,
+            @Value("${virtual-threads.connection-timeout}") long connectionTimeout,
+            ObjectProvider<MetricsRegistry> metricsRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ConnectionLimitingDataSource) {
+                    return bean;
+                }
+                ConnectionLimitingDataSource limited = new ConnectionLimitingDataSource(
+                        dataSource, connectionLimit, Duration.ofMillis(connectionTimeout));
+                metricsRegistry.ifAvailable(registry -> {
+                    registry.gauge("garage_db_connection_permits_available",
+                            "Connections that can be borrowed without waiting", limited::getAvailablePermits);
+                    registry.gauge("garage_db_connection_waiting",
+                            "Threads waiting for a database connection", limited::getWaitingThreads);
+                });
+                return limited;
+            }
+        };
+    }
+}
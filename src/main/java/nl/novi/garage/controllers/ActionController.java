@@ -1,6 +1,7 @@
 package nl.novi.garage.controllers;
 
 import jakarta.validation.Valid;
+import nl.novi.garage.dtos.cache.CacheStatsDTO;
 import nl.novi.garage.dtos.action.ActionRequestDTO;
 import nl.novi.garage.dtos.action.ActionResponseDTO;
 import nl.novi.garage.services.ActionService;
@@ -78,4 +79,10 @@ public class ActionController {
         List<ActionResponseDTO> actions = actionService.getAllActions();
         return ResponseEntity.ok(actions);
     }
-}
\ No newline at end of file
+
+    @GetMapping("/cache-stats")
+    @PreAuthorize("hasRole('BEHEER')")
+    public ResponseEntity<CacheStatsDTO> getCacheStats() {
+        return ResponseEntity.ok(actionService.getCacheStats());
+    }
+}
@@ -1,10 +1,12 @@
 package nl.novi.garage.controllers;
 
+import io.jsonwebtoken.Claims;
 import jakarta.validation.Valid;
 import nl.novi.garage.dtos.user.UserLoginRequestDTO;
 import nl.novi.garage.dtos.user.UserLoginResponseDTO;
 import nl.novi.garage.security.JwtService;
 import nl.novi.garage.services.AuthService;
+import nl.novi.garage.services.TokenRevocationService;
 import nl.novi.garage.services.UserDetailsServiceImpl;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -23,12 +25,15 @@ public class AuthController {
     private final AuthService authService;
     private final JwtService jwtService;
     private final UserDetailsServiceImpl userDetailsService;
+    private final TokenRevocationService tokenRevocationService;
 
     @Autowired
-    public AuthController(AuthService authService, JwtService jwtService, UserDetailsServiceImpl userDetailsService) {
+    public AuthController(AuthService authService, JwtService jwtService, UserDetailsServiceImpl userDetailsService,
+            TokenRevocationService tokenRevocationService) {
         this.authService = authService;
         this.jwtService = jwtService;
         this.userDetailsService = userDetailsService;
+        this.tokenRevocationService = tokenRevocationService;
     }
 
     @PostMapping("/login")
@@ -53,7 +58,8 @@ public class AuthController {
             String username = jwtService.extractUsername(token);
             UserDetails userDetails = userDetailsService.loadUserByUsername(username);
 
-            if (!jwtService.isTokenValid(token, userDetails)) {
+            if (!jwtService.isTokenValid(token, userDetails)
+                    || tokenRevocationService.isRevoked(jwtService.extractClaim(token, Claims::getId))) {
                 throw new RuntimeException("Token is invalid or expired");
             }
 
@@ -75,6 +81,31 @@ public class AuthController {
         }
     }
 
+    @PostMapping("/logout")
+    public ResponseEntity<Map<String, Object>> logout(@RequestHeader("Authorization") String authHeader) {
+        try {
+            if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+                Map<String, Object> error = new HashMap<>();
+                error.put("timestamp", java.time.LocalDateTime.now().toString());
+                error.put("status", 401);
+                error.put("error", "Unauthorized");
+                error.put("message", "Missing or invalid Authorization header");
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(error);
+            }
+
+            authService.revokeToken(authHeader.substring(7));
+            return ResponseEntity.noContent().build();
+
+        } catch (Exception e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("timestamp", java.time.LocalDateTime.now().toString());
+            error.put("status", 401);
+            error.put("error", "Unauthorized");
+            error.put("message", "Invalid or expired token");
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(error);
+        }
+    }
+
     // Handle unsupported HTTP methods for /login
     @RequestMapping(value = "/login", method = { RequestMethod.GET, RequestMethod.PUT, RequestMethod.DELETE,
             RequestMethod.PATCH })
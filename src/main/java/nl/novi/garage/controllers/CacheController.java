@@ -0,0 +1,34 @@
+package nl.novi.garage.controllers;
+
+import nl.novi.garage.dtos.cache.CacheStatsDTO;
+import nl.novi.garage.services.CacheService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/caches")
+@PreAuthorize("hasRole('BEHEER')")
+public class CacheController {
+
+    private final CacheService cacheService;
+
+    @Autowired
+    public CacheController(CacheService cacheService) {
+        this.cacheService = cacheService;
+    }
+
+    @GetMapping
+    public ResponseEntity<List<CacheStatsDTO>> getRegionStats() {
+        return ResponseEntity.ok(cacheService.getRegionStats());
+    }
+
+    @DeleteMapping
+    public ResponseEntity<Void> evictAll() {
+        cacheService.evictAll();
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -3,6 +3,7 @@ package nl.novi.garage.controllers;
 import jakarta.validation.Valid;
 import nl.novi.garage.dtos.car.CarRequestDTO;
 import nl.novi.garage.dtos.car.CarResponseDTO;
+import nl.novi.garage.dtos.page.PageResponseDTO;
 import nl.novi.garage.services.CarService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -36,6 +37,14 @@ public class CarController {
         return ResponseEntity.ok(cars);
     }
 
+    @GetMapping("/page")
+    public ResponseEntity<PageResponseDTO<CarResponseDTO>> getCarsPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        PageResponseDTO<CarResponseDTO> page = carService.getCarsPage(cursor, size);
+        return ResponseEntity.ok(page);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<CarResponseDTO> getCarById(@PathVariable Long id) {
         CarResponseDTO car = carService.getCarById(id);
@@ -68,29 +77,19 @@ public class CarController {
             @RequestParam(required = false) String model,
             @RequestParam(required = false) String licensePlate) {
 
-        if (licensePlate != null && !licensePlate.trim().isEmpty()) {
-            // For license plate searches, return single car as list for consistency
-            CarResponseDTO car = carService.getCarByLicensePlate(licensePlate);
-            return ResponseEntity.ok(List.of(car));
-        }
-
-        if (brand != null && model != null) {
-            List<CarResponseDTO> cars = carService.searchCarsByBrandAndModel(brand, model);
-            return ResponseEntity.ok(cars);
-        }
-
-        if (brand != null) {
-            List<CarResponseDTO> cars = carService.searchCarsByBrand(brand);
-            return ResponseEntity.ok(cars);
-        }
-
-        if (model != null) {
-            List<CarResponseDTO> cars = carService.searchCarsByModel(model);
-            return ResponseEntity.ok(cars);
-        }
-
-        // If no search parameters provided, return all cars
-        List<CarResponseDTO> cars = carService.getAllCars();
+        // Filters are combined, without any filter all cars are returned
+        List<CarResponseDTO> cars = carService.searchCars(brand, model, licensePlate);
         return ResponseEntity.ok(cars);
     }
+
+    @GetMapping("/search/page")
+    public ResponseEntity<PageResponseDTO<CarResponseDTO>> searchCarsPage(
+            @RequestParam(required = false) String brand,
+            @RequestParam(required = false) String model,
+            @RequestParam(required = false) String licensePlate,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        PageResponseDTO<CarResponseDTO> page = carService.searchCarsPage(brand, model, licensePlate, cursor, size);
+        return ResponseEntity.ok(page);
+    }
 }
\ No newline at end of file
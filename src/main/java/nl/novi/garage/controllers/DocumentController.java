@@ -1,12 +1,13 @@
 package nl.novi.garage.controllers;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import nl.novi.garage.dtos.document.CarDocumentResponseDTO;
 import nl.novi.garage.dtos.document.CarDocumentUploadDTO;
+import nl.novi.garage.dtos.page.PageResponseDTO;
 import nl.novi.garage.models.CarDocument;
 import nl.novi.garage.services.DocumentService;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -15,6 +16,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
 import java.util.List;
@@ -25,10 +27,12 @@ import java.util.List;
 public class DocumentController {
 
     private final DocumentService documentService;
+    private final ObjectMapper objectMapper;
 
     @Autowired
-    public DocumentController(DocumentService documentService) {
+    public DocumentController(DocumentService documentService, ObjectMapper objectMapper) {
         this.documentService = documentService;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping("/cars/{carId}/upload")
@@ -68,37 +72,15 @@ public class DocumentController {
     @GetMapping("/{documentId}/download")
     public ResponseEntity<Resource> downloadDocument(@PathVariable Long documentId) {
         CarDocument document = documentService.getDocumentById(documentId);
-
-        ByteArrayResource resource = new ByteArrayResource(document.getData());
-
-        return ResponseEntity.ok()
-                .contentType(MediaType.parseMediaType(document.getContentType()))
-                .contentLength(document.getFileSize())
-                .header(HttpHeaders.CONTENT_DISPOSITION,
-                        "attachment; filename=\"" + document.getFilename() + "\"")
-                .body(resource);
+        return downloadResponse(document);
     }
 
     @GetMapping("/cars/{carId}/download/{filename}")
     public ResponseEntity<Resource> downloadDocumentByFilename(
             @PathVariable Long carId,
             @PathVariable String filename) {
-        List<CarDocumentResponseDTO> documents = documentService.getDocumentsByCarId(carId);
-        CarDocumentResponseDTO foundDocument = documents.stream()
-                .filter(doc -> doc.getFilename().equals(filename))
-                .findFirst()
-                .orElseThrow(() -> new IllegalArgumentException(
-                        "Document not found with filename: " + filename + " for car ID: " + carId));
-
-        CarDocument document = documentService.getDocumentById(foundDocument.getId());
-        ByteArrayResource resource = new ByteArrayResource(document.getData());
-
-        return ResponseEntity.ok()
-                .contentType(MediaType.parseMediaType(document.getContentType()))
-                .contentLength(document.getFileSize())
-                .header(HttpHeaders.CONTENT_DISPOSITION,
-                        "attachment; filename=\"" + document.getFilename() + "\"")
-                .body(resource);
+        CarDocument document = documentService.getDocumentByCarIdAndFilename(carId, filename);
+        return downloadResponse(document);
     }
 
     @DeleteMapping("/{documentId}")
@@ -120,4 +102,38 @@ public class DocumentController {
         List<CarDocumentResponseDTO> documents = documentService.getAllDocuments();
         return ResponseEntity.ok(documents);
     }
-}
\ No newline at end of file
+
+    // Same content as the full list, written while it is read from the database
+    @GetMapping("/stream")
+    @PreAuthorize("hasRole('BEHEER')")
+    public ResponseEntity<StreamingResponseBody> streamDocuments() {
+        return JsonArrayStream.<CarDocumentResponseDTO>of(objectMapper, documentService::streamAllDocuments);
+    }
+
+    @GetMapping("/page")
+    @PreAuthorize("hasRole('BEHEER')")
+    public ResponseEntity<PageResponseDTO<CarDocumentResponseDTO>> getDocumentsPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        PageResponseDTO<CarDocumentResponseDTO> page = documentService.getDocumentsPage(cursor, size);
+        return ResponseEntity.ok(page);
+    }
+
+    // Streamed from the document store, the content is never loaded into memory as a whole.
+    // Spring MVC answers If-None-Match/If-Modified-Since with 304 based on the ETag and
+    // Last-Modified headers, and turns a Range request on a Resource body into 206 partial content.
+    private ResponseEntity<Resource> downloadResponse(CarDocument document) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(document.getContentType()))
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"" + document.getFilename() + "\"");
+        if (document.getContentHash() != null) {
+            response.eTag(document.getContentHash());
+        }
+        if (document.getUploadedAt() != null) {
+            response.lastModified(document.getUploadedAt());
+        }
+        return response.body(documentService.getDocumentContent(document));
+    }
+}
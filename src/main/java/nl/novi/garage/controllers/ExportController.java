@@ -0,0 +1,65 @@
+package nl.novi.garage.controllers;
+
+import nl.novi.garage.services.ExportService;
+import nl.novi.garage.services.FileFormat;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+import java.util.zip.GZIPOutputStream;
+
+@RestController
+@RequestMapping("/exports")
+@PreAuthorize("hasRole('MEDEWERKER') or hasRole('BEHEER')")
+public class ExportController {
+
+    private final ExportService exportService;
+
+    @Autowired
+    public ExportController(ExportService exportService) {
+        this.exportService = exportService;
+    }
+
+    // All repairs of the period with their line items and receipts as one download. The file is
+    // compressed while it is written when the client accepts gzip.
+    @GetMapping("/repairs")
+    public ResponseEntity<StreamingResponseBody> exportRepairs(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        // Invalid parameters are rejected before the response is committed
+        FileFormat fileFormat = FileFormat.fromName(format);
+        exportService.validateDateRange(startDate, endDate);
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+
+        StreamingResponseBody body = output -> {
+            if (!gzip) {
+                exportService.exportRepairLines(startDate, endDate, fileFormat, output);
+                return;
+            }
+            // Closing writes the gzip trailer, so it only happens when the export completed. An export
+            // that fails midway must not arrive as a complete looking file.
+            GZIPOutputStream compressed = new GZIPOutputStream(output, 64 * 1024);
+            exportService.exportRepairLines(startDate, endDate, fileFormat, compressed);
+            compressed.close();
+        };
+
+        String filename = "repairs-" + startDate + "-" + endDate + "." + fileFormat.getExtension();
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(fileFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(filename).build().toString())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+}
@@ -0,0 +1,69 @@
+package nl.novi.garage.controllers;
+
+import nl.novi.garage.dtos.imports.ImportResultDTO;
+import nl.novi.garage.services.FileFormat;
+import nl.novi.garage.services.ImportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipException;
+
+// Bulk imports of the request body as CSV (with a header row) or NDJSON. Rows that cannot be
+// imported are listed in the result, the other rows are imported.
+@RestController
+@RequestMapping("/imports")
+@PreAuthorize("hasRole('BEHEER')")
+public class ImportController {
+
+    private final ImportService importService;
+
+    @Autowired
+    public ImportController(ImportService importService) {
+        this.importService = importService;
+    }
+
+    @PostMapping("/customers")
+    public ResponseEntity<ImportResultDTO> importCustomers(InputStream body,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestHeader(value = HttpHeaders.CONTENT_ENCODING, required = false) String contentEncoding)
+            throws IOException {
+        FileFormat fileFormat = FileFormat.fromName(format);
+        return ResponseEntity.ok(importService.importCustomers(decode(body, contentEncoding), fileFormat));
+    }
+
+    @PostMapping("/cars")
+    public ResponseEntity<ImportResultDTO> importCars(InputStream body,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestHeader(value = HttpHeaders.CONTENT_ENCODING, required = false) String contentEncoding)
+            throws IOException {
+        FileFormat fileFormat = FileFormat.fromName(format);
+        return ResponseEntity.ok(importService.importCars(decode(body, contentEncoding), fileFormat));
+    }
+
+    @PostMapping("/parts")
+    public ResponseEntity<ImportResultDTO> importParts(InputStream body,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestHeader(value = HttpHeaders.CONTENT_ENCODING, required = false) String contentEncoding)
+            throws IOException {
+        FileFormat fileFormat = FileFormat.fromName(format);
+        return ResponseEntity.ok(importService.importParts(decode(body, contentEncoding), fileFormat));
+    }
+
+    // Large files can be uploaded compressed, they are decompressed while they are read
+    private InputStream decode(InputStream body, String contentEncoding) throws IOException {
+        if (contentEncoding != null && contentEncoding.contains("gzip")) {
+            try {
+                return new GZIPInputStream(body, 64 * 1024);
+            } catch (ZipException e) {
+                throw new IllegalArgumentException("Request body is not gzip compressed");
+            }
+        }
+        return body;
+    }
+}
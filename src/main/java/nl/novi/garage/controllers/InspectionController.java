@@ -3,6 +3,7 @@ package nl.novi.garage.controllers;
 import jakarta.validation.Valid;
 import nl.novi.garage.dtos.inspection.InspectionRequestDTO;
 import nl.novi.garage.dtos.inspection.InspectionResponseDTO;
+import nl.novi.garage.dtos.page.PageResponseDTO;
 import nl.novi.garage.services.InspectionService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
@@ -40,6 +41,14 @@ public class InspectionController {
         return ResponseEntity.ok(inspections);
     }
 
+    @GetMapping("/page")
+    public ResponseEntity<PageResponseDTO<InspectionResponseDTO>> getInspectionsPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        PageResponseDTO<InspectionResponseDTO> page = inspectionService.getInspectionsPage(cursor, size);
+        return ResponseEntity.ok(page);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<InspectionResponseDTO> getInspectionById(@PathVariable Long id) {
         InspectionResponseDTO inspection = inspectionService.getInspectionById(id);
@@ -98,26 +107,24 @@ public class InspectionController {
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
 
-        if (status != null && !status.trim().isEmpty()) {
-            List<InspectionResponseDTO> inspections = inspectionService.getInspectionsByStatus(status);
-            return ResponseEntity.ok(inspections);
-        }
-
-        if (isPaid != null) {
-            List<InspectionResponseDTO> inspections = inspectionService.getInspectionsByPaymentStatus(isPaid);
-            return ResponseEntity.ok(inspections);
-        }
-
-        if (startDate != null && endDate != null) {
-            List<InspectionResponseDTO> inspections = inspectionService.getInspectionsByDateRange(startDate, endDate);
-            return ResponseEntity.ok(inspections);
-        }
-
-        // If no search parameters provided, return all inspections
-        List<InspectionResponseDTO> inspections = inspectionService.getAllInspections();
+        // Filters are combined, without any filter all inspections are returned
+        List<InspectionResponseDTO> inspections = inspectionService.searchInspections(status, isPaid, startDate, endDate);
         return ResponseEntity.ok(inspections);
     }
 
+    @GetMapping("/search/page")
+    public ResponseEntity<PageResponseDTO<InspectionResponseDTO>> searchInspectionsPage(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) Boolean isPaid,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        PageResponseDTO<InspectionResponseDTO> page = inspectionService.searchInspectionsPage(
+                status, isPaid, startDate, endDate, cursor, size);
+        return ResponseEntity.ok(page);
+    }
+
     @GetMapping("/unpaid")
     public ResponseEntity<List<InspectionResponseDTO>> getUnpaidInspections() {
         List<InspectionResponseDTO> inspections = inspectionService.getInspectionsByPaymentStatus(false);
@@ -0,0 +1,28 @@
+package nl.novi.garage.controllers;
+
+import nl.novi.garage.metrics.MetricsRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/metrics")
+@PreAuthorize("hasRole('BEHEER')")
+public class MetricsController {
+
+    // Version 0.0.4 of the Prometheus text exposition format
+    private static final String PROMETHEUS_CONTENT_TYPE = "text/plain;version=0.0.4;charset=utf-8";
+
+    private final MetricsRegistry metricsRegistry;
+
+    @Autowired
+    public MetricsController(MetricsRegistry metricsRegistry) {
+        this.metricsRegistry = metricsRegistry;
+    }
+
+    @GetMapping(produces = PROMETHEUS_CONTENT_TYPE)
+    public ResponseEntity<String> scrape() {
+        return ResponseEntity.ok(metricsRegistry.scrape());
+    }
+}
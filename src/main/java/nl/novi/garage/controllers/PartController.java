@@ -1,9 +1,12 @@
 package nl.novi.garage.controllers;
 
 import jakarta.validation.Valid;
+import nl.novi.garage.dtos.cache.CacheStatsDTO;
 import nl.novi.garage.dtos.part.PartRequestDTO;
 import nl.novi.garage.dtos.part.PartResponseDTO;
+import nl.novi.garage.dtos.part.PartStockReceiptDTO;
 import nl.novi.garage.dtos.part.PartStockUpdateDTO;
+import nl.novi.garage.dtos.part.StockMovementResponseDTO;
 import nl.novi.garage.services.PartService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -62,6 +65,22 @@ public class PartController {
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping("/{id}/stock/receipts")
+    @PreAuthorize("hasRole('BEHEER')")
+    public ResponseEntity<PartResponseDTO> receiveStock(
+            @PathVariable Long id,
+            @Valid @RequestBody PartStockReceiptDTO receiptDTO) {
+        PartResponseDTO response = partService.receiveStock(id, receiptDTO);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/{id}/stock/movements")
+    @PreAuthorize("hasRole('BEHEER')")
+    public ResponseEntity<List<StockMovementResponseDTO>> getStockMovements(@PathVariable Long id) {
+        List<StockMovementResponseDTO> movements = partService.getStockMovements(id);
+        return ResponseEntity.ok(movements);
+    }
+
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('BEHEER')")
     public ResponseEntity<Void> deletePart(@PathVariable Long id) {
@@ -100,4 +119,10 @@ public class PartController {
         List<PartResponseDTO> parts = partService.getOutOfStockParts();
         return ResponseEntity.ok(parts);
     }
-}
\ No newline at end of file
+
+    @GetMapping("/cache-stats")
+    @PreAuthorize("hasRole('BEHEER')")
+    public ResponseEntity<CacheStatsDTO> getCacheStats() {
+        return ResponseEntity.ok(partService.getCacheStats());
+    }
+}
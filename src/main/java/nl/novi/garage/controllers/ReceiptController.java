@@ -1,6 +1,8 @@
 package nl.novi.garage.controllers;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
+import nl.novi.garage.dtos.page.PageResponseDTO;
 import nl.novi.garage.dtos.receipt.ReceiptGenerateRequestDTO;
 import nl.novi.garage.dtos.receipt.ReceiptPaymentDTO;
 import nl.novi.garage.dtos.receipt.ReceiptResponseDTO;
@@ -10,6 +12,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -19,10 +22,12 @@ import java.util.List;
 public class ReceiptController {
 
     private final ReceiptService receiptService;
+    private final ObjectMapper objectMapper;
 
     @Autowired
-    public ReceiptController(ReceiptService receiptService) {
+    public ReceiptController(ReceiptService receiptService, ObjectMapper objectMapper) {
         this.receiptService = receiptService;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping("/generate")
@@ -38,6 +43,20 @@ public class ReceiptController {
         return ResponseEntity.ok(receipts);
     }
 
+    // Same content as the full list, written while it is read from the database
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamReceipts() {
+        return JsonArrayStream.<ReceiptResponseDTO>of(objectMapper, receiptService::streamAllReceipts);
+    }
+
+    @GetMapping("/page")
+    public ResponseEntity<PageResponseDTO<ReceiptResponseDTO>> getReceiptsPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        PageResponseDTO<ReceiptResponseDTO> page = receiptService.getReceiptsPage(cursor, size);
+        return ResponseEntity.ok(page);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<ReceiptResponseDTO> getReceiptById(@PathVariable Long id) {
         ReceiptResponseDTO receipt = receiptService.getReceiptById(id);
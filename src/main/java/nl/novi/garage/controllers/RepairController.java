@@ -1,6 +1,8 @@
 package nl.novi.garage.controllers;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
+import nl.novi.garage.dtos.page.PageResponseDTO;
 import nl.novi.garage.dtos.repair.*;
 import nl.novi.garage.services.RepairService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -9,6 +11,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -19,10 +22,12 @@ import java.util.List;
 public class RepairController {
 
     private final RepairService repairService;
+    private final ObjectMapper objectMapper;
 
     @Autowired
-    public RepairController(RepairService repairService) {
+    public RepairController(RepairService repairService, ObjectMapper objectMapper) {
         this.repairService = repairService;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping
@@ -38,6 +43,20 @@ public class RepairController {
         return ResponseEntity.ok(repairs);
     }
 
+    // Same content as the full list, written while it is read from the database
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamRepairs() {
+        return JsonArrayStream.<RepairResponseDTO>of(objectMapper, repairService::streamAllRepairs);
+    }
+
+    @GetMapping("/page")
+    public ResponseEntity<PageResponseDTO<RepairResponseDTO>> getRepairsPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        PageResponseDTO<RepairResponseDTO> page = repairService.getRepairsPage(cursor, size);
+        return ResponseEntity.ok(page);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<RepairResponseDTO> getRepairById(@PathVariable Long id) {
         RepairResponseDTO repair = repairService.getRepairById(id);
@@ -136,26 +155,24 @@ public class RepairController {
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
 
-        if (status != null && !status.trim().isEmpty()) {
-            List<RepairResponseDTO> repairs = repairService.getRepairsByStatus(status);
-            return ResponseEntity.ok(repairs);
-        }
-
-        if (isPaid != null) {
-            List<RepairResponseDTO> repairs = repairService.getRepairsByPaymentStatus(isPaid);
-            return ResponseEntity.ok(repairs);
-        }
-
-        if (startDate != null && endDate != null) {
-            List<RepairResponseDTO> repairs = repairService.getRepairsByDateRange(startDate, endDate);
-            return ResponseEntity.ok(repairs);
-        }
-
-        // If no search parameters provided, return all repairs
-        List<RepairResponseDTO> repairs = repairService.getAllRepairs();
+        // Filters are combined, without any filter all repairs are returned
+        List<RepairResponseDTO> repairs = repairService.searchRepairs(status, isPaid, startDate, endDate);
         return ResponseEntity.ok(repairs);
     }
 
+    @GetMapping("/search/page")
+    public ResponseEntity<PageResponseDTO<RepairResponseDTO>> searchRepairsPage(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) Boolean isPaid,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        PageResponseDTO<RepairResponseDTO> page = repairService.searchRepairsPage(
+                status, isPaid, startDate, endDate, cursor, size);
+        return ResponseEntity.ok(page);
+    }
+
     @GetMapping("/unpaid")
     public ResponseEntity<List<RepairResponseDTO>> getUnpaidRepairs() {
         List<RepairResponseDTO> repairs = repairService.getRepairsByPaymentStatus(false);
@@ -0,0 +1,42 @@
+package nl.novi.garage.dtos.imports;
+
+public class ImportErrorDTO {
+
+    // Number of the data row in the file, the CSV header is not counted
+    private long row;
+    private String message;
+
+    // Constructors
+    public ImportErrorDTO() {
+    }
+
+    public ImportErrorDTO(long row, String message) {
+        this.row = row;
+        this.message = message;
+    }
+
+    // Getters and Setters
+    public long getRow() {
+        return row;
+    }
+
+    public void setRow(long row) {
+        this.row = row;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    @Override
+    public String toString() {
+        return "ImportErrorDTO{" +
+                "row=" + row +
+                ", message='" + message + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,71 @@
+package nl.novi.garage.dtos.imports;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ImportResultDTO {
+
+    private String type;
+    private long rows;
+    private long imported;
+    private List<ImportErrorDTO> errors = new ArrayList<>();
+
+    // Constructors
+    public ImportResultDTO() {
+    }
+
+    public ImportResultDTO(String type) {
+        this.type = type;
+    }
+
+    public void addError(long row, String message) {
+        errors.add(new ImportErrorDTO(row, message));
+    }
+
+    // Getters and Setters
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public void setRows(long rows) {
+        this.rows = rows;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public void setImported(long imported) {
+        this.imported = imported;
+    }
+
+    public long getFailed() {
+        return errors.size();
+    }
+
+    public List<ImportErrorDTO> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<ImportErrorDTO> errors) {
+        this.errors = errors;
+    }
+
+    @Override
+    public String toString() {
+        return "ImportResultDTO{" +
+                "type='" + type + '\'' +
+                ", rows=" + rows +
+                ", imported=" + imported +
+                ", failed=" + getFailed() +
+                '}';
+    }
+}
@@ -0,0 +1,43 @@
+package nl.novi.garage.dtos.page;
+
+import java.util.List;
+
+public class PageResponseDTO<T> {
+
+    private List<T> items;
+    private String next;
+
+    // Constructors
+    public PageResponseDTO() {
+    }
+
+    public PageResponseDTO(List<T> items, String next) {
+        this.items = items;
+        this.next = next;
+    }
+
+    // Getters and Setters
+    public List<T> getItems() {
+        return items;
+    }
+
+    public void setItems(List<T> items) {
+        this.items = items;
+    }
+
+    public String getNext() {
+        return next;
+    }
+
+    public void setNext(String next) {
+        this.next = next;
+    }
+
+    @Override
+    public String toString() {
+        return "PageResponseDTO{" +
+                "items=" + (items != null ? items.size() : 0) +
+                ", next='" + next + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,35 @@
+package nl.novi.garage.dtos.part;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+public class PartStockReceiptDTO {
+
+    @NotNull(message = "Quantity cannot be null")
+    @Min(value = 1, message = "Quantity must be at least 1")
+    private Integer quantity;
+
+    // Constructors
+    public PartStockReceiptDTO() {
+    }
+
+    public PartStockReceiptDTO(Integer quantity) {
+        this.quantity = quantity;
+    }
+
+    // Getters and Setters
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+
+    @Override
+    public String toString() {
+        return "PartStockReceiptDTO{" +
+                "quantity=" + quantity +
+                '}';
+    }
+}
@@ -0,0 +1,76 @@
+package nl.novi.garage.dtos.part;
+
+import java.time.Instant;
+
+public class StockMovementResponseDTO {
+
+    private Long id;
+    private String type;
+    private Integer quantity;
+    private Long repairId;
+    private Instant createdAt;
+
+    // Constructors
+    public StockMovementResponseDTO() {
+    }
+
+    public StockMovementResponseDTO(Long id, String type, Integer quantity, Long repairId, Instant createdAt) {
+        this.id = id;
+        this.type = type;
+        this.quantity = quantity;
+        this.repairId = repairId;
+        this.createdAt = createdAt;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+
+    public Long getRepairId() {
+        return repairId;
+    }
+
+    public void setRepairId(Long repairId) {
+        this.repairId = repairId;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    @Override
+    public String toString() {
+        return "StockMovementResponseDTO{" +
+                "id=" + id +
+                ", type='" + type + '\'' +
+                ", quantity=" + quantity +
+                ", repairId=" + repairId +
+                ", createdAt=" + createdAt +
+                '}';
+    }
+}
@@ -1,5 +1,6 @@
 package nl.novi.garage.dtos.repair;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
 
@@ -14,6 +15,10 @@ public class RepairResponseDTO {
     private String status;
     private String report;
     private Boolean isPaid;
+    private BigDecimal labourTotal;
+    private BigDecimal partsTotal;
+    private BigDecimal customTotal;
+    private BigDecimal total;
     private List<RepairActionItemDTO> actions;
     private List<RepairPartItemDTO> parts;
     private List<RepairCustomActionItemDTO> customActions;
@@ -95,6 +100,38 @@ public class RepairResponseDTO {
         this.isPaid = isPaid;
     }
 
+    public BigDecimal getLabourTotal() {
+        return labourTotal;
+    }
+
+    public void setLabourTotal(BigDecimal labourTotal) {
+        this.labourTotal = labourTotal;
+    }
+
+    public BigDecimal getPartsTotal() {
+        return partsTotal;
+    }
+
+    public void setPartsTotal(BigDecimal partsTotal) {
+        this.partsTotal = partsTotal;
+    }
+
+    public BigDecimal getCustomTotal() {
+        return customTotal;
+    }
+
+    public void setCustomTotal(BigDecimal customTotal) {
+        this.customTotal = customTotal;
+    }
+
+    public BigDecimal getTotal() {
+        return total;
+    }
+
+    public void setTotal(BigDecimal total) {
+        this.total = total;
+    }
+
     public List<RepairActionItemDTO> getActions() {
         return actions;
     }
@@ -131,6 +168,7 @@ public class RepairResponseDTO {
                 ", status='" + status + '\'' +
                 ", report='" + report + '\'' +
                 ", isPaid=" + isPaid +
+                ", total=" + total +
                 '}';
     }
 }
\ No newline at end of file
@@ -0,0 +1,25 @@
+package nl.novi.garage.metrics;
+
+import nl.novi.garage.services.PartService;
+import nl.novi.garage.services.ReceiptService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+// Gauges read from the database on every scrape. Each is a single count query, so the number of
+// series and the cost of a scrape do not grow with the size of the part catalog.
+@Component
+public class BusinessGauges {
+
+    @Autowired
+    public BusinessGauges(MetricsRegistry metricsRegistry, PartService partService, ReceiptService receiptService,
+            @Value("${metrics.part-stock.low-threshold}") int lowStockThreshold) {
+        metricsRegistry.gauge("garage_parts_out_of_stock", "Number of parts without available stock",
+                partService::countOutOfStockParts);
+        metricsRegistry.gauge("garage_parts_low_stock",
+                "Number of parts with available stock at or below " + lowStockThreshold,
+                () -> partService.countPartsWithLowStock(lowStockThreshold));
+        metricsRegistry.gauge("garage_receipts_unpaid", "Number of unpaid receipts",
+                receiptService::countUnpaidReceipts);
+    }
+}
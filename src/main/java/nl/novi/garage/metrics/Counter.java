@@ -0,0 +1,20 @@
+package nl.novi.garage.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// Monotonic count of events, e.g. cache hits or rejected requests
+public final class Counter {
+
+    private final LongAdder count = new LongAdder();
+
+    Counter() {
+    }
+
+    public void increment() {
+        count.increment();
+    }
+
+    public long count() {
+        return count.sum();
+    }
+}
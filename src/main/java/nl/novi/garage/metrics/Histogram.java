@@ -0,0 +1,63 @@
+package nl.novi.garage.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+// Distribution of observed values over fixed buckets, so percentiles can be computed across
+// instances with histogram_quantile. Recording only increments adders and takes no lock.
+public final class Histogram {
+
+    private final double[] bounds;
+    // One more bucket than bounds, the last one counts values above the highest bound
+    private final LongAdder[] buckets;
+    private final DoubleAdder sum = new DoubleAdder();
+
+    Histogram(double[] bounds) {
+        this.bounds = bounds.clone();
+        this.buckets = new LongAdder[bounds.length + 1];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    public void observe(double value) {
+        int bucket = 0;
+        while (bucket < bounds.length && value > bounds[bucket]) {
+            bucket++;
+        }
+        buckets[bucket].increment();
+        sum.add(value);
+    }
+
+    // Records a duration measured with System.nanoTime() in seconds
+    public void observeNanos(long nanos) {
+        observe((double) nanos / TimeUnit.SECONDS.toNanos(1));
+    }
+
+    public long count() {
+        long count = 0;
+        for (LongAdder bucket : buckets) {
+            count += bucket.sum();
+        }
+        return count;
+    }
+
+    public double sum() {
+        return sum.sum();
+    }
+
+    void write(String name, String labels, StringBuilder out) {
+        String prefix = labels.isEmpty() ? "" : labels + ",";
+        long cumulative = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            cumulative += buckets[i].sum();
+            double bound = i < bounds.length ? bounds[i] : Double.POSITIVE_INFINITY;
+            out.append(name).append("_bucket{").append(prefix).append("le=\"")
+                    .append(MetricsRegistry.format(bound)).append("\"} ").append(cumulative).append('\n');
+        }
+        String suffix = labels.isEmpty() ? " " : "{" + labels + "} ";
+        out.append(name).append("_sum").append(suffix).append(MetricsRegistry.format(sum.sum())).append('\n');
+        out.append(name).append("_count").append(suffix).append(cumulative).append('\n');
+    }
+}
@@ -0,0 +1,137 @@
+package nl.novi.garage.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Supplier;
+
+// Counters, histograms and gauges of the application, rendered in the Prometheus text format.
+// Meters are identified by name and label values and created on first use; callers on hot paths
+// keep the returned meter instead of looking it up again. Gauges are read when they are scraped.
+@Component
+public class MetricsRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(MetricsRegistry.class);
+
+    // Upper bounds in seconds of the latency buckets, from a cache hit to a large export
+    public static final double[] SECONDS_BUCKETS = {
+            0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10 };
+
+    private final Map<String, Family> families = new ConcurrentSkipListMap<>();
+
+    public Counter counter(String name, String help, String... labels) {
+        return (Counter) family(name, help, "counter")
+                .meters.computeIfAbsent(labels(labels), key -> new Counter());
+    }
+
+    public Histogram timer(String name, String help, String... labels) {
+        return histogram(name, help, SECONDS_BUCKETS, labels);
+    }
+
+    public Histogram histogram(String name, String help, double[] buckets, String... labels) {
+        return (Histogram) family(name, help, "histogram")
+                .meters.computeIfAbsent(labels(labels), key -> new Histogram(buckets));
+    }
+
+    public void gauge(String name, String help, Supplier<? extends Number> value) {
+        gauges(name, help, null, () -> Map.of("", value.get()));
+    }
+
+    // One gauge per key of the supplied map, the key is the value of the given label
+    public void gauges(String name, String help, String label, Supplier<? extends Map<String, ? extends Number>> values) {
+        family(name, help, "gauge").values = () -> {
+            Map<String, Number> samples = new HashMap<>();
+            values.get().forEach((key, value) -> samples.put(label == null ? "" : labels(label, key), value));
+            return samples;
+        };
+    }
+
+    public String scrape() {
+        StringBuilder out = new StringBuilder();
+        families.forEach((name, family) -> family.write(name, out));
+        return out.toString();
+    }
+
+    private Family family(String name, String help, String type) {
+        Family family = families.computeIfAbsent(name, key -> new Family(type, help));
+        if (!family.type.equals(type)) {
+            throw new IllegalArgumentException("Metric " + name + " is already registered as a " + family.type);
+        }
+        return family;
+    }
+
+    // Renders label name and value pairs as name="value",..., escaped as the text format requires
+    static String labels(String... labels) {
+        if (labels.length % 2 != 0) {
+            throw new IllegalArgumentException("Labels must be given as name and value pairs");
+        }
+        StringBuilder out = new StringBuilder();
+        for (int i = 0; i < labels.length; i += 2) {
+            if (i > 0) {
+                out.append(',');
+            }
+            out.append(labels[i]).append("=\"").append(labels[i + 1]
+                    .replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n")).append('"');
+        }
+        return out.toString();
+    }
+
+    static String format(double value) {
+        if (value == Double.POSITIVE_INFINITY) {
+            return "+Inf";
+        }
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            return Long.toString((long) value);
+        }
+        return Double.toString(value);
+    }
+
+    private static final class Family {
+        private final String type;
+        private final String help;
+        private final Map<String, Object> meters = new ConcurrentHashMap<>();
+        private volatile Supplier<Map<String, Number>> values;
+
+        private Family(String type, String help) {
+            this.type = type;
+            this.help = help;
+        }
+
+        private void write(String name, StringBuilder out) {
+            Map<String, ?> samples = meters;
+            if (values != null) {
+                try {
+                    samples = values.get();
+                } catch (RuntimeException e) {
+                    // A failing gauge (e.g. the database is down) must not break the rest of the scrape
+                    logger.warn("Cannot read gauge {}: {}", name, e.getMessage());
+                    return;
+                }
+            }
+            if (samples.isEmpty()) {
+                return;
+            }
+
+            out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+            out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+            new TreeMap<>(samples).forEach((labels, sample) -> {
+                if (sample instanceof Histogram histogram) {
+                    histogram.write(name, labels, out);
+                } else {
+                    double value = sample instanceof Counter counter ? counter.count() : ((Number) sample).doubleValue();
+                    out.append(name);
+                    if (!labels.isEmpty()) {
+                        out.append('{').append(labels).append('}');
+                    }
+                    out.append(' ').append(format(value)).append('\n');
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package nl.novi.garage.metrics;
+
+// Counts the repository calls made by the request on the current thread. Work handed to other
+// threads, such as streamed responses, is not counted.
+final class RepositoryCallCounter {
+
+    private static final ThreadLocal<int[]> CALLS = new ThreadLocal<>();
+
+    private RepositoryCallCounter() {
+    }
+
+    static void start() {
+        CALLS.set(new int[1]);
+    }
+
+    static void increment() {
+        int[] calls = CALLS.get();
+        if (calls != null) {
+            calls[0]++;
+        }
+    }
+
+    static int stop() {
+        int[] calls = CALLS.get();
+        CALLS.remove();
+        return calls == null ? 0 : calls[0];
+    }
+}
@@ -0,0 +1,56 @@
+package nl.novi.garage.metrics;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Times every repository call, per repository and method, and counts the calls of the current
+// request. Inherited methods such as findById are attributed to the repository they are called on.
+@Aspect
+@Component
+public class RepositoryMetricsAspect {
+
+    private final MetricsRegistry metricsRegistry;
+    // Keyed by proxy class first, inherited methods such as findById are the same Method for every repository
+    private final Map<Class<?>, Map<Method, Histogram>> timers = new ConcurrentHashMap<>();
+
+    @Autowired
+    public RepositoryMetricsAspect(MetricsRegistry metricsRegistry) {
+        this.metricsRegistry = metricsRegistry;
+    }
+
+    @Around("execution(* org.springframework.data.repository.Repository+.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        Class<?> target = joinPoint.getTarget().getClass();
+        Histogram timer = timers.computeIfAbsent(target, key -> new ConcurrentHashMap<>())
+                .computeIfAbsent(((MethodSignature) joinPoint.getSignature()).getMethod(),
+                        method -> metricsRegistry.timer("garage_repository_seconds", "Duration of repository calls",
+                                "repository", repositoryName(target), "method", method.getName()));
+
+        RepositoryCallCounter.increment();
+        long start = System.nanoTime();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            timer.observeNanos(System.nanoTime() - start);
+        }
+    }
+
+    // The target is the Spring Data proxy, its first repository interface is the one of this application
+    private static String repositoryName(Class<?> target) {
+        for (Class<?> candidate : target.getInterfaces()) {
+            if (Repository.class.isAssignableFrom(candidate)) {
+                return candidate.getSimpleName();
+            }
+        }
+        return target.getSimpleName();
+    }
+}
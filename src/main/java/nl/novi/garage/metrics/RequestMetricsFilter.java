@@ -0,0 +1,96 @@
+package nl.novi.garage.metrics;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.lang.NonNull;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+
+// Times every request and records how many repository calls and SQL statements it made, per method
+// and URI pattern. Requests over the statement budget, or running the same statement over and over,
+// are logged with their endpoint. Runs before the security filters, so the user lookup of the token
+// check is included. Streamed responses are measured until the stream is handed off to another thread.
+public class RequestMetricsFilter extends OncePerRequestFilter {
+
+    // Number of SQL statements the request ran, read by the query budget checks of the tests
+    public static final String SQL_STATEMENTS_ATTRIBUTE = RequestMetricsFilter.class.getName() + ".sqlStatements";
+
+    private static final Logger logger = LoggerFactory.getLogger(RequestMetricsFilter.class);
+
+    // Upper bounds of the call and statement buckets, a steep tail here points at an N+1 pattern
+    private static final double[] CALL_BUCKETS = { 0, 1, 2, 3, 5, 10, 20, 50, 100, 200, 500 };
+
+    private final MetricsRegistry metricsRegistry;
+    private final int statementBudget;
+    private final int repeatedStatementLimit;
+
+    public RequestMetricsFilter(MetricsRegistry metricsRegistry, int statementBudget, int repeatedStatementLimit) {
+        this.metricsRegistry = metricsRegistry;
+        this.statementBudget = statementBudget;
+        this.repeatedStatementLimit = repeatedStatementLimit;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain) throws ServletException, IOException {
+
+        long start = System.nanoTime();
+        RepositoryCallCounter.start();
+        SqlStatementCounter.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            int repositoryCalls = RepositoryCallCounter.stop();
+            Map<String, Integer> statements = SqlStatementCounter.stop();
+            // Requests rejected before reaching a controller have no pattern, raw URIs would explode the label values
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+
+            metricsRegistry.timer("garage_http_request_seconds", "Duration of HTTP requests",
+                    "method", request.getMethod(), "uri", uri, "status", Integer.toString(response.getStatus()))
+                    .observeNanos(System.nanoTime() - start);
+            metricsRegistry.histogram("garage_http_request_repository_calls", "Repository calls per HTTP request",
+                    CALL_BUCKETS, "method", request.getMethod(), "uri", uri)
+                    .observe(repositoryCalls);
+
+            int statementCount = recordStatements(request.getMethod(), uri, statements);
+            request.setAttribute(SQL_STATEMENTS_ATTRIBUTE, statementCount);
+        }
+    }
+
+    private int recordStatements(String method, String uri, Map<String, Integer> statements) {
+        int total = 0;
+        Map.Entry<String, Integer> mostRepeated = null;
+        for (Map.Entry<String, Integer> statement : statements.entrySet()) {
+            total += statement.getValue();
+            if (mostRepeated == null || statement.getValue() > mostRepeated.getValue()) {
+                mostRepeated = statement;
+            }
+        }
+
+        metricsRegistry.histogram("garage_http_request_sql_statements", "SQL statements per HTTP request",
+                CALL_BUCKETS, "method", method, "uri", uri)
+                .observe(total);
+
+        if (mostRepeated != null && mostRepeated.getValue() >= repeatedStatementLimit) {
+            metricsRegistry.counter("garage_http_request_n_plus_one_total",
+                    "Requests that ran the same SQL statement over and over", "method", method, "uri", uri)
+                    .increment();
+            logger.warn("Possible N+1 in {} {}: {} SQL statements, {} times the same statement: {}",
+                    method, uri, total, mostRepeated.getValue(), mostRepeated.getKey());
+        } else if (total > statementBudget) {
+            logger.warn("{} {} ran {} SQL statements, more than the budget of {}",
+                    method, uri, total, statementBudget);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,48 @@
+package nl.novi.garage.metrics;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Times every public method of the services, per class, method and outcome. Calls from one
+// method to another within the same service do not pass the proxy and are not timed separately.
+@Aspect
+@Component
+public class ServiceMetricsAspect {
+
+    private final MetricsRegistry metricsRegistry;
+    // Success timer per method, so the hot path does not build label strings
+    private final Map<Method, Histogram> timers = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ServiceMetricsAspect(MetricsRegistry metricsRegistry) {
+        this.metricsRegistry = metricsRegistry;
+    }
+
+    @Around("execution(public * nl.novi.garage.services..*.*(..)) && @within(org.springframework.stereotype.Service)")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        long start = System.nanoTime();
+        try {
+            Object result = joinPoint.proceed();
+            timers.computeIfAbsent(method, key -> timer(key, "success")).observeNanos(System.nanoTime() - start);
+            return result;
+        } catch (Throwable e) {
+            // Failures are rare, their timer is looked up by name
+            timer(method, "error").observeNanos(System.nanoTime() - start);
+            throw e;
+        }
+    }
+
+    private Histogram timer(Method method, String outcome) {
+        return metricsRegistry.timer("garage_service_seconds", "Duration of service method calls",
+                "service", method.getDeclaringClass().getSimpleName(), "method", method.getName(), "outcome", outcome);
+    }
+}
@@ -0,0 +1,34 @@
+package nl.novi.garage.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Hibernate statement inspector that counts the SQL statements of the request on the current thread,
+// per statement text, so repeated statements of an N+1 pattern stand out. Registered through
+// hibernate.session_factory.statement_inspector; statements outside a request are not counted.
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<Map<String, Integer>> STATEMENTS = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        Map<String, Integer> statements = STATEMENTS.get();
+        if (statements != null) {
+            statements.merge(sql, 1, Integer::sum);
+        }
+        return sql;
+    }
+
+    static void start() {
+        STATEMENTS.set(new HashMap<>());
+    }
+
+    // Returns the number of executions per statement text since start()
+    static Map<String, Integer> stop() {
+        Map<String, Integer> statements = STATEMENTS.get();
+        STATEMENTS.remove();
+        return statements == null ? Map.of() : statements;
+    }
+}
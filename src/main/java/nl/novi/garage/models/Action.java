@@ -2,15 +2,20 @@ package nl.novi.garage.models;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.math.BigDecimal;
 
 @Entity
 @Table(name = "actions")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "actions")
 public class Action {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "actions_seq")
+    @SequenceGenerator(name = "actions_seq", sequenceName = "actions_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Action name cannot be blank")
@@ -5,12 +5,15 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 
+import java.time.Instant;
+
 @Entity
 @Table(name = "car_documents")
 public class CarDocument {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "car_documents_seq")
+    @SequenceGenerator(name = "car_documents_seq", sequenceName = "car_documents_seq", allocationSize = 50)
     private Long id;
 
     @NotNull(message = "Car cannot be null")
@@ -28,26 +31,27 @@ public class CarDocument {
     @Column(nullable = false)
     private String filepath;
 
-    @NotNull(message = "Document data cannot be null")
-    @Lob
-    @Column(nullable = false)
-    private byte[] data;
-
     @Column(name = "content_type")
     private String contentType;
 
     @Column(name = "file_size")
     private Long fileSize;
 
+    // SHA-256 of the content in hex, used as ETag for downloads
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    @Column(name = "uploaded_at")
+    private Instant uploadedAt;
+
     // Constructors
     public CarDocument() {
     }
 
-    public CarDocument(Car car, String filename, String filepath, byte[] data, String contentType, Long fileSize) {
+    public CarDocument(Car car, String filename, String filepath, String contentType, Long fileSize) {
         this.car = car;
         this.filename = filename;
         this.filepath = filepath;
-        this.data = data;
         this.contentType = contentType;
         this.fileSize = fileSize;
     }
@@ -85,14 +89,6 @@ public class CarDocument {
         this.filepath = filepath;
     }
 
-    public byte[] getData() {
-        return data;
-    }
-
-    public void setData(byte[] data) {
-        this.data = data;
-    }
-
     public String getContentType() {
         return contentType;
     }
@@ -109,6 +105,22 @@ public class CarDocument {
         this.fileSize = fileSize;
     }
 
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+
+    public Instant getUploadedAt() {
+        return uploadedAt;
+    }
+
+    public void setUploadedAt(Instant uploadedAt) {
+        this.uploadedAt = uploadedAt;
+    }
+
     @Override
     public String toString() {
         return "CarDocument{" +
@@ -117,6 +129,7 @@ public class CarDocument {
                 ", filepath='" + filepath + '\'' +
                 ", contentType='" + contentType + '\'' +
                 ", fileSize=" + fileSize +
+                ", contentHash='" + contentHash + '\'' +
                 '}';
     }
 }
\ No newline at end of file
@@ -0,0 +1,95 @@
+package nl.novi.garage.models;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+// Stored document payload, shared by every CarDocument with the same content hash
+@Entity
+@Table(name = "document_contents")
+public class DocumentContent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "document_contents_seq")
+    @SequenceGenerator(name = "document_contents_seq", sequenceName = "document_contents_seq", allocationSize = 50)
+    private Long id;
+
+    @NotBlank(message = "Content hash cannot be blank")
+    @Column(name = "content_hash", unique = true, nullable = false, length = 64)
+    private String contentHash;
+
+    @NotBlank(message = "Storage path cannot be blank")
+    @Column(name = "storage_path", nullable = false, length = 500)
+    private String storagePath;
+
+    @Column(name = "file_size")
+    private Long fileSize;
+
+    // Number of CarDocument rows pointing at this content
+    @NotNull(message = "Reference count cannot be null")
+    @Column(name = "reference_count", nullable = false)
+    private Integer referenceCount;
+
+    // Constructors
+    public DocumentContent() {
+    }
+
+    public DocumentContent(String contentHash, String storagePath, Long fileSize) {
+        this.contentHash = contentHash;
+        this.storagePath = storagePath;
+        this.fileSize = fileSize;
+        this.referenceCount = 1;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+
+    public String getStoragePath() {
+        return storagePath;
+    }
+
+    public void setStoragePath(String storagePath) {
+        this.storagePath = storagePath;
+    }
+
+    public Long getFileSize() {
+        return fileSize;
+    }
+
+    public void setFileSize(Long fileSize) {
+        this.fileSize = fileSize;
+    }
+
+    public Integer getReferenceCount() {
+        return referenceCount;
+    }
+
+    public void setReferenceCount(Integer referenceCount) {
+        this.referenceCount = referenceCount;
+    }
+
+    @Override
+    public String toString() {
+        return "DocumentContent{" +
+                "id=" + id +
+                ", contentHash='" + contentHash + '\'' +
+                ", storagePath='" + storagePath + '\'' +
+                ", fileSize=" + fileSize +
+                ", referenceCount=" + referenceCount +
+                '}';
+    }
+}
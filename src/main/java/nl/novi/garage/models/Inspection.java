@@ -12,7 +12,8 @@ import java.time.LocalDate;
 public class Inspection {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "inspections_seq")
+    @SequenceGenerator(name = "inspections_seq", sequenceName = "inspections_seq", allocationSize = 50)
     private Long id;
 
     @NotNull(message = "Car cannot be null")
@@ -2,15 +2,20 @@ package nl.novi.garage.models;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.math.BigDecimal;
 
 @Entity
 @Table(name = "parts")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "parts")
 public class Part {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "parts_seq")
+    @SequenceGenerator(name = "parts_seq", sequenceName = "parts_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Part name cannot be blank")
@@ -26,7 +31,9 @@ public class Part {
 
     @NotNull(message = "Stock cannot be null")
     @Min(value = 0, message = "Stock cannot be negative")
-    @Column(nullable = false)
+    // Only changed by the conditional update statements of PartRepository. Not updatable through
+    // the entity, so saving a part loaded earlier cannot overwrite a decrement committed in between.
+    @Column(nullable = false, updatable = false)
     private Integer stock;
 
     // Constructors
@@ -13,7 +13,8 @@ import java.util.List;
 public class Receipt {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "receipts_seq")
+    @SequenceGenerator(name = "receipts_seq", sequenceName = "receipts_seq", allocationSize = 50)
     private Long id;
 
     @NotNull(message = "Customer cannot be null")
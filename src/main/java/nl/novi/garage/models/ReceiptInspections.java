@@ -8,7 +8,8 @@ import jakarta.validation.constraints.NotNull;
 public class ReceiptInspections {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "receipt_inspections_seq")
+    @SequenceGenerator(name = "receipt_inspections_seq", sequenceName = "receipt_inspections_seq", allocationSize = 50)
     private Long id;
 
     @NotNull(message = "Receipt cannot be null")
@@ -8,7 +8,8 @@ import jakarta.validation.constraints.NotNull;
 public class ReceiptRepairs {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "receipt_repairs_seq")
+    @SequenceGenerator(name = "receipt_repairs_seq", sequenceName = "receipt_repairs_seq", allocationSize = 50)
     private Long id;
 
     @NotNull(message = "Receipt cannot be null")
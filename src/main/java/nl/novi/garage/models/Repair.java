@@ -5,6 +5,7 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 
 @Entity
@@ -12,7 +13,8 @@ import java.time.LocalDate;
 public class Repair {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "repairs_seq")
+    @SequenceGenerator(name = "repairs_seq", sequenceName = "repairs_seq", allocationSize = 50)
     private Long id;
 
     @NotNull(message = "Car cannot be null")
@@ -38,6 +40,18 @@ public class Repair {
     @Column(name = "is_paid", nullable = false)
     private Boolean isPaid;
 
+    // Cost totals of the line items, kept up to date by RepairService with atomic
+    // increments. Not updatable through the entity, so saving a repair loaded earlier
+    // cannot overwrite an increment that was committed in between.
+    @Column(name = "labour_total", nullable = false, updatable = false, precision = 12, scale = 2)
+    private BigDecimal labourTotal = BigDecimal.ZERO;
+
+    @Column(name = "parts_total", nullable = false, updatable = false, precision = 12, scale = 2)
+    private BigDecimal partsTotal = BigDecimal.ZERO;
+
+    @Column(name = "custom_total", nullable = false, updatable = false, precision = 12, scale = 2)
+    private BigDecimal customTotal = BigDecimal.ZERO;
+
     // Constructors
     public Repair() {
     }
@@ -99,6 +113,35 @@ public class Repair {
         this.isPaid = isPaid;
     }
 
+    public BigDecimal getLabourTotal() {
+        return labourTotal;
+    }
+
+    public void setLabourTotal(BigDecimal labourTotal) {
+        this.labourTotal = labourTotal;
+    }
+
+    public BigDecimal getPartsTotal() {
+        return partsTotal;
+    }
+
+    public void setPartsTotal(BigDecimal partsTotal) {
+        this.partsTotal = partsTotal;
+    }
+
+    public BigDecimal getCustomTotal() {
+        return customTotal;
+    }
+
+    public void setCustomTotal(BigDecimal customTotal) {
+        this.customTotal = customTotal;
+    }
+
+    // Total cost of the repair excluding VAT
+    public BigDecimal getTotal() {
+        return labourTotal.add(partsTotal).add(customTotal);
+    }
+
     @Override
     public String toString() {
         return "Repair{" +
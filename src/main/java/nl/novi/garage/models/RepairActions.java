@@ -9,7 +9,8 @@ import jakarta.validation.constraints.NotNull;
 public class RepairActions {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "repair_actions_seq")
+    @SequenceGenerator(name = "repair_actions_seq", sequenceName = "repair_actions_seq", allocationSize = 50)
     private Long id;
 
     @NotNull(message = "Repair cannot be null")
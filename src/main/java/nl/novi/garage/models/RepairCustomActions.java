@@ -10,7 +10,8 @@ import java.math.BigDecimal;
 public class RepairCustomActions {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "repair_custom_actions_seq")
+    @SequenceGenerator(name = "repair_custom_actions_seq", sequenceName = "repair_custom_actions_seq", allocationSize = 50)
     private Long id;
 
     @NotNull(message = "Repair cannot be null")
@@ -9,7 +9,8 @@ import jakarta.validation.constraints.NotNull;
 public class RepairParts {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "repair_parts_seq")
+    @SequenceGenerator(name = "repair_parts_seq", sequenceName = "repair_parts_seq", allocationSize = 50)
     private Long id;
 
     @NotNull(message = "Repair cannot be null")
@@ -0,0 +1,135 @@
+package nl.novi.garage.models;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.Instant;
+import java.util.UUID;
+
+// Append-only stock ledger entry. Part.stock is a snapshot, the available stock of a part is
+// the snapshot plus the quantities of its movements that have not been compacted into it yet.
+@Entity
+@Table(name = "stock_movements")
+public class StockMovement {
+
+    // Movement types
+    public static final String RECEIPT = "RECEIPT";
+    public static final String CONSUMPTION = "CONSUMPTION";
+    public static final String RETURN = "RETURN";
+    public static final String CORRECTION = "CORRECTION";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stock_movements_seq")
+    @SequenceGenerator(name = "stock_movements_seq", sequenceName = "stock_movements_seq", allocationSize = 50)
+    private Long id;
+
+    @NotNull(message = "Part cannot be null")
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "part_id", nullable = false)
+    private Part part;
+
+    // Signed change in stock, negative for consumption
+    @NotNull(message = "Quantity cannot be null")
+    @Column(nullable = false)
+    private Integer quantity;
+
+    @NotBlank(message = "Type cannot be blank")
+    @Column(nullable = false, length = 20)
+    private String type;
+
+    // Repair the stock was booked on or returned from, kept as a plain value so the
+    // history survives deletion of the repair
+    @Column(name = "repair_id")
+    private Long repairId;
+
+    @NotNull(message = "Creation time cannot be null")
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    // Compaction run that folded this movement into Part.stock, null while pending.
+    // Movements that were applied to the snapshot directly get their own batch.
+    @Column(name = "compaction_batch")
+    private UUID compactionBatch;
+
+    // Constructors
+    public StockMovement() {
+    }
+
+    public StockMovement(Part part, Integer quantity, String type, Long repairId, Instant createdAt) {
+        this.part = part;
+        this.quantity = quantity;
+        this.type = type;
+        this.repairId = repairId;
+        this.createdAt = createdAt;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Part getPart() {
+        return part;
+    }
+
+    public void setPart(Part part) {
+        this.part = part;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public Long getRepairId() {
+        return repairId;
+    }
+
+    public void setRepairId(Long repairId) {
+        this.repairId = repairId;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public UUID getCompactionBatch() {
+        return compactionBatch;
+    }
+
+    public void setCompactionBatch(UUID compactionBatch) {
+        this.compactionBatch = compactionBatch;
+    }
+
+    @Override
+    public String toString() {
+        return "StockMovement{" +
+                "id=" + id +
+                ", quantity=" + quantity +
+                ", type='" + type + '\'' +
+                ", repairId=" + repairId +
+                ", createdAt=" + createdAt +
+                ", compactionBatch=" + compactionBatch +
+                '}';
+    }
+}
@@ -1,12 +1,20 @@
 package nl.novi.garage.repositories;
 
+import jakarta.persistence.QueryHint;
+import nl.novi.garage.dtos.document.CarDocumentResponseDTO;
 import nl.novi.garage.models.Car;
 import nl.novi.garage.models.CarDocument;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface CarDocumentRepository extends JpaRepository<CarDocument, Long> {
@@ -19,5 +27,33 @@ public interface CarDocumentRepository extends JpaRepository<CarDocument, Long>
 
     boolean existsByCarIdAndFilename(Long carId, String filename);
 
+    // Number of documents per content hash, used to release shared content when a car is cleared
+    @Query("SELECT d.contentHash, COUNT(d) FROM CarDocument d WHERE d.car.id = :carId GROUP BY d.contentHash")
+    List<Object[]> countContentHashesByCarId(@Param("carId") Long carId);
+
     void deleteByCarId(Long carId);
+
+    // Metadata projections for listings, these only select the columns the response needs
+    @Query("SELECT new nl.novi.garage.dtos.document.CarDocumentResponseDTO("
+            + "d.id, c.id, c.licensePlate, d.filename, d.contentType, d.fileSize) "
+            + "FROM CarDocument d JOIN d.car c WHERE c.id = :carId ORDER BY d.id")
+    List<CarDocumentResponseDTO> findSummariesByCarId(@Param("carId") Long carId);
+
+    @Query("SELECT new nl.novi.garage.dtos.document.CarDocumentResponseDTO("
+            + "d.id, c.id, c.licensePlate, d.filename, d.contentType, d.fileSize) "
+            + "FROM CarDocument d JOIN d.car c ORDER BY d.id")
+    List<CarDocumentResponseDTO> findAllSummaries();
+
+    // Keyset pagination on id
+    @Query("SELECT new nl.novi.garage.dtos.document.CarDocumentResponseDTO("
+            + "d.id, c.id, c.licensePlate, d.filename, d.contentType, d.fileSize) "
+            + "FROM CarDocument d JOIN d.car c WHERE d.id > :id ORDER BY d.id")
+    List<CarDocumentResponseDTO> findSummaryPageAfter(@Param("id") Long id, Pageable pageable);
+
+    // Read through a database cursor for streaming responses, rows arrive in blocks of the fetch size
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new nl.novi.garage.dtos.document.CarDocumentResponseDTO("
+            + "d.id, c.id, c.licensePlate, d.filename, d.contentType, d.fileSize) "
+            + "FROM CarDocument d JOIN d.car c ORDER BY d.id")
+    Stream<CarDocumentResponseDTO> streamAllSummaries();
 }
\ No newline at end of file
@@ -1,22 +1,37 @@
 package nl.novi.garage.repositories;
 
+import jakarta.persistence.QueryHint;
 import nl.novi.garage.models.Car;
 import nl.novi.garage.models.Customer;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface CarRepository extends JpaRepository<Car, Long> {
+public interface CarRepository extends JpaRepository<Car, Long>, JpaSpecificationExecutor<Car> {
 
+    // Lookups by plate and by customer are answered from the query cache until cars change
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Car> findByLicensePlate(String licensePlate);
 
     boolean existsByLicensePlate(String licensePlate);
 
+    // Set-based duplicate check for bulk imports
+    @Query("SELECT c.licensePlate FROM Car c WHERE c.licensePlate IN :licensePlates")
+    List<String> findExistingLicensePlates(@Param("licensePlates") Collection<String> licensePlates);
+
     List<Car> findByCustomer(Customer customer);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Car> findByCustomerId(Long customerId);
 
     List<Car> findByBrandIgnoreCase(String brand);
@@ -26,4 +41,8 @@ public interface CarRepository extends JpaRepository<Car, Long> {
     List<Car> findByBrandIgnoreCaseAndModelIgnoreCase(String brand, String model);
 
     List<Car> findByLicensePlateContainingIgnoreCase(String licensePlate);
+
+    // Keyset pagination on id
+    @Query("SELECT c FROM Car c JOIN FETCH c.customer WHERE c.id > :id ORDER BY c.id")
+    List<Car> findPageAfter(@Param("id") Long id, Pageable pageable);
 }
\ No newline at end of file
@@ -0,0 +1,61 @@
+package nl.novi.garage.repositories;
+
+import jakarta.persistence.criteria.JoinType;
+import nl.novi.garage.models.Car;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+// Search predicates for cars. Every filter that is supplied is combined with AND into
+// one query, filters that are null are left out.
+public final class CarSpecifications {
+
+    // Same order as the keyset pagination of the car list
+    public static final Sort BY_ID = Sort.by("id");
+
+    private CarSpecifications() {
+    }
+
+    public static Specification<Car> matching(String brand, String model, String licensePlate) {
+        return Specification.where(withCustomer())
+                .and(hasBrand(brand))
+                .and(hasModel(model))
+                .and(hasLicensePlate(licensePlate));
+    }
+
+    public static Specification<Car> after(Long id) {
+        return (root, query, cb) -> cb.greaterThan(root.get("id"), id);
+    }
+
+    // The customer is needed for DTO mapping, fetch it in the same query (not for count queries)
+    private static Specification<Car> withCustomer() {
+        return (root, query, cb) -> {
+            if (!Long.class.equals(query.getResultType())) {
+                root.fetch("customer", JoinType.INNER);
+            }
+            return null;
+        };
+    }
+
+    // Compared in upper case like the derived IgnoreCase finders, so both use the same index
+    private static Specification<Car> hasBrand(String brand) {
+        if (brand == null || brand.trim().isEmpty()) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(cb.upper(root.get("brand")), brand.toUpperCase());
+    }
+
+    private static Specification<Car> hasModel(String model) {
+        if (model == null || model.trim().isEmpty()) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(cb.upper(root.get("model")), model.toUpperCase());
+    }
+
+    // License plates are stored in upper case, so this is a plain lookup on the unique index
+    private static Specification<Car> hasLicensePlate(String licensePlate) {
+        if (licensePlate == null || licensePlate.trim().isEmpty()) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(root.get("licensePlate"), licensePlate.toUpperCase());
+    }
+}
@@ -1,9 +1,16 @@
 package nl.novi.garage.repositories;
 
+import jakarta.persistence.QueryHint;
 import nl.novi.garage.models.Customer;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,9 +21,22 @@ public interface CustomerRepository extends JpaRepository<Customer, Long> {
 
     List<Customer> findByNameContainingIgnoreCase(String name);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Customer> findByPhonenumber(String phonenumber);
 
     boolean existsByPhonenumber(String phonenumber);
 
+    // Set-based duplicate check and lookup for bulk imports
+    @Query("SELECT c.phonenumber FROM Customer c WHERE c.phonenumber IN :phonenumbers")
+    List<String> findExistingPhonenumbers(@Param("phonenumbers") Collection<String> phonenumbers);
+
+    List<Customer> findByPhonenumberIn(Collection<String> phonenumbers);
+
+    // Customers are listed with their cars, loaded in the same query instead of one query per customer
+    @EntityGraph(attributePaths = "cars")
+    @Query("SELECT c FROM Customer c")
+    List<Customer> findAllWithCars();
+
+    @EntityGraph(attributePaths = "cars")
     List<Customer> findByNameContainingIgnoreCaseOrPhonenumberContaining(String name, String phonenumber);
 }
\ No newline at end of file
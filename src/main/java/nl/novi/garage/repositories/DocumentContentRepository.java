@@ -0,0 +1,41 @@
+package nl.novi.garage.repositories;
+
+import jakarta.persistence.LockModeType;
+import nl.novi.garage.models.DocumentContent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface DocumentContentRepository extends JpaRepository<DocumentContent, Long> {
+
+    // Creates the row for the content without references, unless it exists. A concurrent transaction
+    // that inserted the same hash is waited for, so afterwards a row is visible to this transaction
+    // (PostgreSQL syntax, H2 accepts it in PostgreSQL mode).
+    @Modifying
+    @Query(value = "INSERT INTO document_contents (id, content_hash, storage_path, file_size, reference_count) "
+            + "VALUES (nextval('document_contents_seq'), :hash, :path, :size, 0) ON CONFLICT DO NOTHING",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("hash") String hash, @Param("path") String path, @Param("size") long size);
+
+    // Serializes uploads, deletes and garbage collection of the same content
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM DocumentContent c WHERE c.contentHash = :hash")
+    Optional<DocumentContent> findByContentHashForUpdate(@Param("hash") String hash);
+
+    // Reference counts are changed with single UPDATE statements so concurrent uploads
+    // and deletes of the same content never lose a decrement
+    @Modifying
+    @Query("UPDATE DocumentContent c SET c.referenceCount = c.referenceCount - :count WHERE c.contentHash = :hash")
+    int decrementReferenceCount(@Param("hash") String hash, @Param("count") long count);
+
+    @Query("SELECT c.contentHash FROM DocumentContent c WHERE c.contentHash IN :hashes AND c.referenceCount <= 0")
+    List<String> findUnreferencedContentHashes(@Param("hashes") Collection<String> hashes);
+}
@@ -2,14 +2,20 @@ package nl.novi.garage.repositories;
 
 import nl.novi.garage.models.Inspection;
 import nl.novi.garage.models.Car;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface InspectionRepository extends JpaRepository<Inspection, Long> {
+public interface InspectionRepository extends JpaRepository<Inspection, Long>, JpaSpecificationExecutor<Inspection> {
 
     List<Inspection> findByCar(Car car);
 
@@ -24,4 +30,16 @@ public interface InspectionRepository extends JpaRepository<Inspection, Long> {
     List<Inspection> findByCarIdAndStatus(Long carId, String status);
 
     List<Inspection> findByCarIdOrderByDateDesc(Long carId);
+
+    @EntityGraph(attributePaths = "car")
+    List<Inspection> findByIdIn(Collection<Long> ids);
+
+    // Keyset pagination, newest first
+    @Query("SELECT i FROM Inspection i JOIN FETCH i.car ORDER BY i.date DESC, i.id DESC")
+    List<Inspection> findPage(Pageable pageable);
+
+    @Query("SELECT i FROM Inspection i JOIN FETCH i.car " +
+            "WHERE i.date < :date OR (i.date = :date AND i.id < :id) " +
+            "ORDER BY i.date DESC, i.id DESC")
+    List<Inspection> findPageAfter(@Param("date") LocalDate date, @Param("id") Long id, Pageable pageable);
 }
\ No newline at end of file
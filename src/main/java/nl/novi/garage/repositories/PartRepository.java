@@ -2,10 +2,15 @@ package nl.novi.garage.repositories;
 
 import nl.novi.garage.models.Part;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 @Repository
 public interface PartRepository extends JpaRepository<Part, Long> {
@@ -14,11 +19,47 @@ public interface PartRepository extends JpaRepository<Part, Long> {
 
     boolean existsByNameIgnoreCase(String name);
 
+    // Set-based duplicate check for bulk imports, takes and returns upper case names
+    @Query("SELECT UPPER(p.name) FROM Part p WHERE UPPER(p.name) IN :names")
+    List<String> findExistingUpperCaseNames(@Param("names") Collection<String> upperCaseNames);
+
     List<Part> findByNameContainingIgnoreCase(String name);
 
-    List<Part> findByStockGreaterThan(Integer stock);
+    // Stock filters compare the available stock: the snapshot plus the pending movements
+    @Query("SELECT p FROM Part p WHERE p.stock + COALESCE((SELECT SUM(m.quantity) FROM StockMovement m " +
+            "WHERE m.part = p AND m.compactionBatch IS NULL), 0) > :stock")
+    List<Part> findByAvailableStockGreaterThan(@Param("stock") Integer stock);
+
+    @Query("SELECT p FROM Part p WHERE p.stock + COALESCE((SELECT SUM(m.quantity) FROM StockMovement m " +
+            "WHERE m.part = p AND m.compactionBatch IS NULL), 0) <= :stock")
+    List<Part> findByAvailableStockLessThanEqual(@Param("stock") Integer stock);
+
+    @Query("SELECT p FROM Part p WHERE p.stock + COALESCE((SELECT SUM(m.quantity) FROM StockMovement m " +
+            "WHERE m.part = p AND m.compactionBatch IS NULL), 0) = :stock")
+    List<Part> findByAvailableStockEquals(@Param("stock") Integer stock);
+
+    @Query("SELECT COUNT(p) FROM Part p WHERE p.stock + COALESCE((SELECT SUM(m.quantity) FROM StockMovement m " +
+            "WHERE m.part = p AND m.compactionBatch IS NULL), 0) <= :stock")
+    long countByAvailableStockLessThanEqual(@Param("stock") Integer stock);
+
+    @Query("SELECT COUNT(p) FROM Part p WHERE p.stock + COALESCE((SELECT SUM(m.quantity) FROM StockMovement m " +
+            "WHERE m.part = p AND m.compactionBatch IS NULL), 0) = :stock")
+    long countByAvailableStockEquals(@Param("stock") Integer stock);
+
+    @Query("SELECT p.stock FROM Part p WHERE p.id = :id")
+    Integer findStockById(@Param("id") Long id);
 
-    List<Part> findByStockLessThanEqual(Integer stock);
+    // Decrements of the snapshot are single conditional UPDATE statements, the row lock taken by
+    // the update serialises concurrent bookings of the same part without locking the table.
+    // Returns the number of updated rows, 0 means the snapshot does not hold enough stock.
+    @Modifying
+    @Query("UPDATE Part p SET p.stock = p.stock - :amount WHERE p.id = :id AND p.stock >= :amount")
+    int decreaseStock(@Param("id") Long id, @Param("amount") int amount);
 
-    List<Part> findByStockEquals(Integer stock);
+    // Folds the movements of a compaction batch into the stock snapshot of their parts
+    @Modifying
+    @Query("UPDATE Part p SET p.stock = p.stock + (SELECT SUM(m.quantity) FROM StockMovement m " +
+            "WHERE m.part = p AND m.compactionBatch = :batch) " +
+            "WHERE p.id IN (SELECT m.part.id FROM StockMovement m WHERE m.compactionBatch = :batch)")
+    int applyStockMovements(@Param("batch") UUID batch);
 }
\ No newline at end of file
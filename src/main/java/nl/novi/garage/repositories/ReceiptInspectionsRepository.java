@@ -3,6 +3,7 @@ package nl.novi.garage.repositories;
 import nl.novi.garage.models.Inspection;
 import nl.novi.garage.models.Receipt;
 import nl.novi.garage.models.ReceiptInspections;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -14,6 +15,8 @@ public interface ReceiptInspectionsRepository extends JpaRepository<ReceiptInspe
 
     List<ReceiptInspections> findByReceipt(Receipt receipt);
 
+    // The inspections and their cars are read in the same query, receipts list all of them
+    @EntityGraph(attributePaths = { "inspection", "inspection.car" })
     List<ReceiptInspections> findByReceiptId(Long receiptId);
 
     List<ReceiptInspections> findByInspection(Inspection inspection);
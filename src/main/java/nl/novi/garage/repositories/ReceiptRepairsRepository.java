@@ -3,6 +3,7 @@ package nl.novi.garage.repositories;
 import nl.novi.garage.models.Receipt;
 import nl.novi.garage.models.ReceiptRepairs;
 import nl.novi.garage.models.Repair;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -14,6 +15,8 @@ public interface ReceiptRepairsRepository extends JpaRepository<ReceiptRepairs,
 
     List<ReceiptRepairs> findByReceipt(Receipt receipt);
 
+    // The repairs and their cars are read in the same query, receipts list all of them
+    @EntityGraph(attributePaths = { "repair", "repair.car" })
     List<ReceiptRepairs> findByReceiptId(Long receiptId);
 
     List<ReceiptRepairs> findByRepair(Repair repair);
@@ -1,14 +1,19 @@
 package nl.novi.garage.repositories;
 
+import jakarta.persistence.QueryHint;
 import nl.novi.garage.models.Customer;
 import nl.novi.garage.models.Receipt;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface ReceiptRepository extends JpaRepository<Receipt, Long> {
@@ -19,6 +24,8 @@ public interface ReceiptRepository extends JpaRepository<Receipt, Long> {
 
     List<Receipt> findByIsPaid(Boolean isPaid);
 
+    long countByIsPaid(Boolean isPaid);
+
     List<Receipt> findByCreatedDate(LocalDate createdDate);
 
     List<Receipt> findByCreatedDateBetween(LocalDate startDate, LocalDate endDate);
@@ -27,4 +34,20 @@ public interface ReceiptRepository extends JpaRepository<Receipt, Long> {
     List<Receipt> findByCustomerIdAndIsPaid(@Param("customerId") Long customerId, @Param("isPaid") Boolean isPaid);
 
     boolean existsByCustomerIdAndIsPaid(Long customerId, Boolean isPaid);
+
+    // Keyset pagination, newest first
+    @Query("SELECT r FROM Receipt r JOIN FETCH r.customer ORDER BY r.createdDate DESC, r.id DESC")
+    List<Receipt> findPage(Pageable pageable);
+
+    @Query("SELECT r FROM Receipt r JOIN FETCH r.customer " +
+            "WHERE r.createdDate < :date OR (r.createdDate = :date AND r.id < :id) " +
+            "ORDER BY r.createdDate DESC, r.id DESC")
+    List<Receipt> findPageAfter(@Param("date") LocalDate date, @Param("id") Long id, Pageable pageable);
+
+    // Read through a database cursor for streaming responses, rows arrive in blocks of the fetch size
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true") })
+    @Query("SELECT r FROM Receipt r JOIN FETCH r.customer ORDER BY r.id")
+    Stream<Receipt> streamAll();
 }
\ No newline at end of file
@@ -6,6 +6,7 @@ import nl.novi.garage.models.Action;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,6 +17,9 @@ public interface RepairActionsRepository extends JpaRepository<RepairActions, Lo
 
     List<RepairActions> findByRepairId(Long repairId);
 
+    // The action is read from the catalog cache, so it is not fetched here
+    List<RepairActions> findByRepairIdIn(Collection<Long> repairIds);
+
     List<RepairActions> findByAction(Action action);
 
     List<RepairActions> findByActionId(Long actionId);
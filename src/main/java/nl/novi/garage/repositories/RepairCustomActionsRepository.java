@@ -5,6 +5,7 @@ import nl.novi.garage.models.Repair;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -14,5 +15,7 @@ public interface RepairCustomActionsRepository extends JpaRepository<RepairCusto
 
     List<RepairCustomActions> findByRepairId(Long repairId);
 
+    List<RepairCustomActions> findByRepairIdIn(Collection<Long> repairIds);
+
     void deleteByRepairId(Long repairId);
 }
\ No newline at end of file
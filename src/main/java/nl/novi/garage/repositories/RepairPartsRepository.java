@@ -6,6 +6,7 @@ import nl.novi.garage.models.Part;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,6 +17,9 @@ public interface RepairPartsRepository extends JpaRepository<RepairParts, Long>
 
     List<RepairParts> findByRepairId(Long repairId);
 
+    // The part is read from the catalog cache, so it is not fetched here
+    List<RepairParts> findByRepairIdIn(Collection<Long> repairIds);
+
     List<RepairParts> findByPart(Part part);
 
     List<RepairParts> findByPartId(Long partId);
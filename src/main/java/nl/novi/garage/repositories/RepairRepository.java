@@ -2,26 +2,116 @@ package nl.novi.garage.repositories;
 
 import nl.novi.garage.models.Repair;
 import nl.novi.garage.models.Car;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface RepairRepository extends JpaRepository<Repair, Long> {
+public interface RepairRepository extends JpaRepository<Repair, Long>, JpaSpecificationExecutor<Repair> {
+
+    // Totals of repair r computed from its line items, used to check and repair the stored totals
+    String LABOUR_TOTAL = "COALESCE((SELECT SUM(a.price * ra.amount) FROM RepairActions ra JOIN ra.action a "
+            + "WHERE ra.repair.id = r.id), 0)";
+    String PARTS_TOTAL = "COALESCE((SELECT SUM(p.price * rp.amount) FROM RepairParts rp JOIN rp.part p "
+            + "WHERE rp.repair.id = r.id), 0)";
+    String CUSTOM_TOTAL = "COALESCE((SELECT SUM(rca.price) FROM RepairCustomActions rca "
+            + "WHERE rca.repair.id = r.id), 0)";
+
+    // Car is always needed for DTO mapping, so fetch it together with the repairs
+    @Override
+    @EntityGraph(attributePaths = "car")
+    List<Repair> findAll();
 
     List<Repair> findByCar(Car car);
 
     List<Repair> findByCarId(Long carId);
 
+    @EntityGraph(attributePaths = "car")
     List<Repair> findByStatus(String status);
 
+    @EntityGraph(attributePaths = "car")
     List<Repair> findByIsPaid(Boolean isPaid);
 
+    @EntityGraph(attributePaths = "car")
     List<Repair> findByDateBetween(LocalDate startDate, LocalDate endDate);
 
     List<Repair> findByCarIdAndStatus(Long carId, String status);
 
+    @EntityGraph(attributePaths = "car")
     List<Repair> findByCarIdOrderByDateDesc(Long carId);
-}
\ No newline at end of file
+
+    @EntityGraph(attributePaths = "car")
+    List<Repair> findByIdIn(Collection<Long> ids);
+
+    // Keyset pagination, newest first
+    @Query("SELECT r FROM Repair r JOIN FETCH r.car ORDER BY r.date DESC, r.id DESC")
+    List<Repair> findPage(Pageable pageable);
+
+    @Query("SELECT r FROM Repair r JOIN FETCH r.car " +
+            "WHERE r.date < :date OR (r.date = :date AND r.id < :id) " +
+            "ORDER BY r.date DESC, r.id DESC")
+    List<Repair> findPageAfter(@Param("date") LocalDate date, @Param("id") Long id, Pageable pageable);
+
+    // Read through a database cursor for streaming responses, rows arrive in blocks of the fetch size
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true") })
+    @Query("SELECT r FROM Repair r JOIN FETCH r.car ORDER BY r.id")
+    Stream<Repair> streamAll();
+
+    // Atomic increments of the cost totals, a negative amount subtracts
+    @Modifying
+    @Query("UPDATE Repair r SET r.labourTotal = r.labourTotal + :amount WHERE r.id = :id")
+    int addToLabourTotal(@Param("id") Long id, @Param("amount") BigDecimal amount);
+
+    @Modifying
+    @Query("UPDATE Repair r SET r.partsTotal = r.partsTotal + :amount WHERE r.id = :id")
+    int addToPartsTotal(@Param("id") Long id, @Param("amount") BigDecimal amount);
+
+    @Modifying
+    @Query("UPDATE Repair r SET r.customTotal = r.customTotal + :amount WHERE r.id = :id")
+    int addToCustomTotal(@Param("id") Long id, @Param("amount") BigDecimal amount);
+
+    // Applies a changed catalog price to every repair that uses the action or part
+    @Modifying
+    @Query("UPDATE Repair r SET r.labourTotal = r.labourTotal + :priceDelta * "
+            + "(SELECT SUM(ra.amount) FROM RepairActions ra WHERE ra.repair.id = r.id AND ra.action.id = :actionId) "
+            + "WHERE r.id IN (SELECT ra.repair.id FROM RepairActions ra WHERE ra.action.id = :actionId)")
+    int adjustLabourTotalsForPriceChange(@Param("actionId") Long actionId, @Param("priceDelta") BigDecimal priceDelta);
+
+    @Modifying
+    @Query("UPDATE Repair r SET r.partsTotal = r.partsTotal + :priceDelta * "
+            + "(SELECT SUM(rp.amount) FROM RepairParts rp WHERE rp.repair.id = r.id AND rp.part.id = :partId) "
+            + "WHERE r.id IN (SELECT rp.repair.id FROM RepairParts rp WHERE rp.part.id = :partId)")
+    int adjustPartsTotalsForPriceChange(@Param("partId") Long partId, @Param("priceDelta") BigDecimal priceDelta);
+
+    @Query("SELECT r.id FROM Repair r WHERE r.labourTotal <> " + LABOUR_TOTAL
+            + " OR r.partsTotal <> " + PARTS_TOTAL + " OR r.customTotal <> " + CUSTOM_TOTAL)
+    List<Long> findIdsWithDriftedTotals();
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM Repair r WHERE r.id = :id")
+    Optional<Repair> findByIdForUpdate(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE Repair r SET r.labourTotal = " + LABOUR_TOTAL + ", r.partsTotal = " + PARTS_TOTAL
+            + ", r.customTotal = " + CUSTOM_TOTAL + " WHERE r.id = :id")
+    int recalculateTotals(@Param("id") Long id);
+}
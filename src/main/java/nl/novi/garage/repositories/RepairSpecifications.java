@@ -0,0 +1,73 @@
+package nl.novi.garage.repositories;
+
+import jakarta.persistence.criteria.JoinType;
+import nl.novi.garage.models.Repair;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+
+// Search predicates for repairs. Every filter that is supplied is combined with AND into
+// one query, filters that are null are left out.
+public final class RepairSpecifications {
+
+    // Same order as the keyset pagination of the repair list, newest first
+    public static final Sort NEWEST_FIRST = Sort.by(Sort.Order.desc("date"), Sort.Order.desc("id"));
+
+    private RepairSpecifications() {
+    }
+
+    public static Specification<Repair> matching(String status, Boolean isPaid,
+            LocalDate startDate, LocalDate endDate) {
+        return Specification.where(withCar())
+                .and(hasStatus(status))
+                .and(hasPaymentStatus(isPaid))
+                .and(dateFrom(startDate))
+                .and(dateUntil(endDate));
+    }
+
+    // Rows after the (date, id) of the last row of the previous page in NEWEST_FIRST order
+    public static Specification<Repair> after(LocalDate date, Long id) {
+        return (root, query, cb) -> cb.or(
+                cb.lessThan(root.get("date"), date),
+                cb.and(cb.equal(root.get("date"), date), cb.lessThan(root.get("id"), id)));
+    }
+
+    // The car is needed for DTO mapping, fetch it in the same query (not for count queries)
+    private static Specification<Repair> withCar() {
+        return (root, query, cb) -> {
+            if (!Long.class.equals(query.getResultType())) {
+                root.fetch("car", JoinType.INNER);
+            }
+            return null;
+        };
+    }
+
+    private static Specification<Repair> hasStatus(String status) {
+        if (status == null || status.trim().isEmpty()) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    private static Specification<Repair> hasPaymentStatus(Boolean isPaid) {
+        if (isPaid == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(root.get("isPaid"), isPaid);
+    }
+
+    private static Specification<Repair> dateFrom(LocalDate startDate) {
+        if (startDate == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("date"), startDate);
+    }
+
+    private static Specification<Repair> dateUntil(LocalDate endDate) {
+        if (endDate == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("date"), endDate);
+    }
+}
@@ -0,0 +1,42 @@
+package nl.novi.garage.repositories;
+
+import nl.novi.garage.models.StockMovement;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface StockMovementRepository extends JpaRepository<StockMovement, Long> {
+
+    List<StockMovement> findByPartIdOrderByCreatedAtAscIdAsc(Long partId);
+
+    @Query("SELECT COALESCE(SUM(m.quantity), 0) FROM StockMovement m " +
+            "WHERE m.part.id = :partId AND m.compactionBatch IS NULL")
+    long sumPendingByPartId(@Param("partId") Long partId);
+
+    // Returns [partId, sum of pending quantities] rows, parts without pending movements are absent
+    @Query("SELECT m.part.id, SUM(m.quantity) FROM StockMovement m " +
+            "WHERE m.part.id IN :partIds AND m.compactionBatch IS NULL GROUP BY m.part.id")
+    List<Object[]> sumPendingByPartIdIn(@Param("partIds") Collection<Long> partIds);
+
+    // Claims the pending movements for a compaction run. Movements committed after this
+    // statement stay pending and are picked up by the next run.
+    @Modifying
+    @Query("UPDATE StockMovement m SET m.compactionBatch = :batch WHERE m.compactionBatch IS NULL")
+    int assignPendingToBatch(@Param("batch") UUID batch);
+
+    @Modifying
+    @Query("UPDATE StockMovement m SET m.compactionBatch = :batch " +
+            "WHERE m.part.id = :partId AND m.compactionBatch IS NULL")
+    int assignPendingToBatchByPartId(@Param("batch") UUID batch, @Param("partId") Long partId);
+
+    @Modifying
+    @Query("DELETE FROM StockMovement m WHERE m.part.id = :partId")
+    int deleteByPartId(@Param("partId") Long partId);
+}
@@ -1,11 +1,17 @@
 package nl.novi.garage.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import nl.novi.garage.metrics.Counter;
+import nl.novi.garage.metrics.Histogram;
+import nl.novi.garage.metrics.MetricsRegistry;
+import nl.novi.garage.services.TokenRevocationService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -23,12 +29,42 @@ public class JwtRequestFilter extends OncePerRequestFilter {
 
     private final UserDetailsService userDetailsService;
     private final JwtService jwtService;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final TokenRevocationService tokenRevocationService;
+
+    // When enabled, authorities come from the signed role claim and the users table is not queried
+    private final boolean statelessAuthorities;
+
+    private final Histogram parseTimer;
+    private final Counter cacheHits;
+    private final Counter cacheMisses;
+    private final Counter missingTokenRejections;
+    private final Counter invalidTokenRejections;
+    private final Counter revokedTokenRejections;
+    private final Counter unauthenticatedRejections;
 
     @Autowired
     public JwtRequestFilter(@Qualifier("userDetailsServiceImpl") UserDetailsService userDetailsService,
-            JwtService jwtService) {
+            JwtService jwtService, VerifiedTokenCache verifiedTokenCache,
+            TokenRevocationService tokenRevocationService,
+            @Value("${jwt.stateless-authorities}") boolean statelessAuthorities,
+            MetricsRegistry metricsRegistry) {
         this.userDetailsService = userDetailsService;
         this.jwtService = jwtService;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.tokenRevocationService = tokenRevocationService;
+        this.statelessAuthorities = statelessAuthorities;
+
+        this.parseTimer = metricsRegistry.timer("garage_jwt_parse_seconds",
+                "Duration of token signature verification and parsing");
+        this.cacheHits = metricsRegistry.counter("garage_jwt_cache_requests_total",
+                "Lookups in the verified token cache", "result", "hit");
+        this.cacheMisses = metricsRegistry.counter("garage_jwt_cache_requests_total",
+                "Lookups in the verified token cache", "result", "miss");
+        this.missingTokenRejections = rejections(metricsRegistry, "missing_token");
+        this.invalidTokenRejections = rejections(metricsRegistry, "invalid_token");
+        this.revokedTokenRejections = rejections(metricsRegistry, "revoked_token");
+        this.unauthenticatedRejections = rejections(metricsRegistry, "unauthenticated");
     }
 
     @Override
@@ -39,7 +75,6 @@ public class JwtRequestFilter extends OncePerRequestFilter {
 
         final String authHeader = request.getHeader("Authorization");
         final String jwt;
-        final String username;
 
         // Let public endpoints pass through without token validation
         String requestPath = request.getRequestURI();
@@ -53,6 +88,7 @@ public class JwtRequestFilter extends OncePerRequestFilter {
 
         // For protected endpoints, require Bearer token
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            missingTokenRejections.increment();
             response.setStatus(HttpServletResponse.SC_FORBIDDEN);
             response.setContentType("application/json");
             response.getWriter().write("{\"error\":\"Access denied\",\"message\":\"Authentication required\"}");
@@ -60,16 +96,35 @@ public class JwtRequestFilter extends OncePerRequestFilter {
         }
 
         jwt = authHeader.substring(7);
+        boolean revoked = false;
 
         try {
-            username = jwtService.extractUsername(jwt);
-
             Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
 
-            if (username != null && authentication == null) {
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
+            if (authentication == null) {
+                // Tokens seen before were already verified, only new ones are parsed and looked up
+                VerifiedToken verifiedToken = verifiedTokenCache.get(jwt);
+                if (verifiedToken != null) {
+                    cacheHits.increment();
+                } else {
+                    cacheMisses.increment();
+                    long start = System.nanoTime();
+                    Claims claims;
+                    try {
+                        claims = jwtService.parseToken(jwt);
+                    } finally {
+                        parseTimer.observeNanos(System.nanoTime() - start);
+                    }
+                    if (claims.getSubject() != null) {
+                        verifiedToken = new VerifiedToken(loadUserDetails(claims), claims.getId());
+                        verifiedTokenCache.put(jwt, verifiedToken, claims.getExpiration());
+                    }
+                }
 
-                if (jwtService.isTokenValid(jwt, userDetails)) {
+                // Revocation is checked on every request, also for cached tokens
+                revoked = verifiedToken != null && tokenRevocationService.isRevoked(verifiedToken.getTokenId());
+                if (verifiedToken != null && !revoked) {
+                    UserDetails userDetails = verifiedToken.getUserDetails();
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                             userDetails,
                             null,
@@ -81,6 +136,7 @@ public class JwtRequestFilter extends OncePerRequestFilter {
             }
         } catch (Exception e) {
             logger.error("Cannot set user authentication: {}", e);
+            invalidTokenRejections.increment();
             response.setStatus(HttpServletResponse.SC_FORBIDDEN);
             response.setContentType("application/json");
             response.getWriter().write("{\"error\":\"Access denied\",\"message\":\"Invalid or expired token\"}");
@@ -90,6 +146,7 @@ public class JwtRequestFilter extends OncePerRequestFilter {
         // Only continue if authentication was successful
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         if (authentication == null || !authentication.isAuthenticated()) {
+            (revoked ? revokedTokenRejections : unauthenticatedRejections).increment();
             response.setStatus(HttpServletResponse.SC_FORBIDDEN);
             response.setContentType("application/json");
             response.getWriter().write("{\"error\":\"Access denied\",\"message\":\"Authentication required\"}");
@@ -98,4 +155,16 @@ public class JwtRequestFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
-}
\ No newline at end of file
+
+    private static Counter rejections(MetricsRegistry metricsRegistry, String reason) {
+        return metricsRegistry.counter("garage_jwt_rejections_total",
+                "Requests rejected by the token check", "reason", reason);
+    }
+
+    private UserDetails loadUserDetails(Claims claims) {
+        if (statelessAuthorities) {
+            return jwtService.toUserDetails(claims);
+        }
+        return this.userDetailsService.loadUserByUsername(claims.getSubject());
+    }
+}
@@ -0,0 +1,23 @@
+package nl.novi.garage.security;
+
+import org.springframework.security.core.userdetails.UserDetails;
+
+// A token that passed signature and expiry checks, with the user it authenticates
+public class VerifiedToken {
+
+    private final UserDetails userDetails;
+    private final String tokenId;
+
+    public VerifiedToken(UserDetails userDetails, String tokenId) {
+        this.userDetails = userDetails;
+        this.tokenId = tokenId;
+    }
+
+    public UserDetails getUserDetails() {
+        return userDetails;
+    }
+
+    public String getTokenId() {
+        return tokenId;
+    }
+}
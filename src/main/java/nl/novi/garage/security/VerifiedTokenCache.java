@@ -0,0 +1,99 @@
+package nl.novi.garage.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.concurrent.TimeUnit;
+
+// Remembers tokens that already passed signature verification together with the user they belong to,
+// so repeat requests with the same token skip parsing and the user lookup. Entries are keyed by a hash
+// of the token, never the token itself, and are evicted when the token expires.
+@Component
+public class VerifiedTokenCache {
+
+    private final Cache<String, Entry> cache;
+
+    @Autowired
+    public VerifiedTokenCache(@Value("${jwt.cache.maximum-size}") long maximumSize) {
+        this(maximumSize, Ticker.systemTicker());
+    }
+
+    VerifiedTokenCache(long maximumSize, Ticker ticker) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new TokenExpiry())
+                .ticker(ticker)
+                .build();
+    }
+
+    public VerifiedToken get(String token) {
+        Entry entry = cache.getIfPresent(hash(token));
+        return entry == null ? null : entry.verifiedToken;
+    }
+
+    public void put(String token, VerifiedToken verifiedToken, Date expiration) {
+        if (expiration == null) {
+            return;
+        }
+        long remaining = expiration.getTime() - System.currentTimeMillis();
+        if (remaining > 0) {
+            cache.put(hash(token), new Entry(verifiedToken, TimeUnit.MILLISECONDS.toNanos(remaining)));
+        }
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public long size() {
+        cache.cleanUp();
+        return cache.estimatedSize();
+    }
+
+    private String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static final class Entry {
+        private final VerifiedToken verifiedToken;
+        private final long timeToLiveNanos;
+
+        private Entry(VerifiedToken verifiedToken, long timeToLiveNanos) {
+            this.verifiedToken = verifiedToken;
+            this.timeToLiveNanos = timeToLiveNanos;
+        }
+    }
+
+    // Each entry lives exactly until the exp claim of its token
+    private static final class TokenExpiry implements Expiry<String, Entry> {
+        @Override
+        public long expireAfterCreate(String key, Entry value, long currentTime) {
+            return value.timeToLiveNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Entry value, long currentTime, long currentDuration) {
+            return value.timeToLiveNanos;
+        }
+
+        @Override
+        public long expireAfterRead(String key, Entry value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -2,13 +2,18 @@ package nl.novi.garage.services;
 
 import nl.novi.garage.dtos.action.ActionRequestDTO;
 import nl.novi.garage.dtos.action.ActionResponseDTO;
+import nl.novi.garage.dtos.cache.CacheStatsDTO;
 import nl.novi.garage.models.Action;
 import nl.novi.garage.repositories.ActionRepository;
+import nl.novi.garage.repositories.RepairRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -16,10 +21,15 @@ import java.util.stream.Collectors;
 public class ActionService {
 
     private final ActionRepository actionRepository;
+    private final RepairRepository repairRepository;
+    private final CatalogCache<ActionResponseDTO> actionCatalogCache;
 
     @Autowired
-    public ActionService(ActionRepository actionRepository) {
+    public ActionService(ActionRepository actionRepository, RepairRepository repairRepository,
+            CatalogCache<ActionResponseDTO> actionCatalogCache) {
         this.actionRepository = actionRepository;
+        this.repairRepository = repairRepository;
+        this.actionCatalogCache = actionCatalogCache;
     }
 
     public ActionResponseDTO createAction(ActionRequestDTO actionRequestDTO) {
@@ -37,23 +47,34 @@ public class ActionService {
 
         // Save action
         Action savedAction = actionRepository.save(action);
+        actionCatalogCache.invalidate(savedAction.getId());
 
         return mapToResponseDTO(savedAction);
     }
 
+    // Served from the catalog cache, the returned actions are shared and must not be modified
     @Transactional(readOnly = true)
     public List<ActionResponseDTO> getAllActions() {
-        List<Action> actions = actionRepository.findAll();
-        return actions.stream()
+        return actionCatalogCache.getAll(() -> actionRepository.findAll().stream()
                 .map(this::mapToResponseDTO)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
 
     @Transactional(readOnly = true)
     public ActionResponseDTO getActionById(Long id) {
-        Action action = actionRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("Action not found with id: " + id));
-        return mapToResponseDTO(action);
+        ActionResponseDTO action = actionCatalogCache.get(id,
+                key -> actionRepository.findById(key).map(this::mapToResponseDTO).orElse(null));
+        if (action == null) {
+            throw new IllegalArgumentException("Action not found with id: " + id);
+        }
+        return action;
+    }
+
+    // Catalog entries of the given actions by id, only the ones not cached yet are queried
+    @Transactional(readOnly = true)
+    public Map<Long, ActionResponseDTO> getActionsById(Collection<Long> ids) {
+        return actionCatalogCache.getAll(ids, missing -> actionRepository.findAllById(missing).stream()
+                .collect(Collectors.toMap(Action::getId, this::mapToResponseDTO)));
     }
 
     @Transactional(readOnly = true)
@@ -74,11 +95,18 @@ public class ActionService {
         }
 
         // Update action fields
+        BigDecimal oldPrice = existingAction.getPrice();
         existingAction.setName(actionRequestDTO.getName());
         existingAction.setDescription(actionRequestDTO.getDescription());
         existingAction.setPrice(actionRequestDTO.getPrice());
 
         Action updatedAction = actionRepository.save(existingAction);
+        actionCatalogCache.invalidate(id);
+
+        // Repair totals follow the catalog price
+        if (oldPrice.compareTo(updatedAction.getPrice()) != 0) {
+            repairRepository.adjustLabourTotalsForPriceChange(id, updatedAction.getPrice().subtract(oldPrice));
+        }
         return mapToResponseDTO(updatedAction);
     }
 
@@ -89,6 +117,7 @@ public class ActionService {
         // TODO: In future, check if action is used in any repairs
         // For now, we can safely delete
         actionRepository.delete(action);
+        actionCatalogCache.invalidate(id);
     }
 
     @Transactional(readOnly = true)
@@ -107,6 +136,10 @@ public class ActionService {
                 .collect(Collectors.toList());
     }
 
+    public CacheStatsDTO getCacheStats() {
+        return actionCatalogCache.getStats();
+    }
+
     // Helper method for DTO mapping
     private ActionResponseDTO mapToResponseDTO(Action action) {
         return new ActionResponseDTO(
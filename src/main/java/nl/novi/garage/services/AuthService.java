@@ -1,5 +1,6 @@
 package nl.novi.garage.services;
 
+import io.jsonwebtoken.Claims;
 import nl.novi.garage.dtos.user.UserLoginRequestDTO;
 import nl.novi.garage.dtos.user.UserLoginResponseDTO;
 import nl.novi.garage.models.User;
@@ -18,15 +19,18 @@ public class AuthService {
     private final AuthenticationManager authenticationManager;
     private final JwtService jwtService;
     private final UserDetailsServiceImpl userDetailsService;
+    private final TokenRevocationService tokenRevocationService;
 
     @Autowired
     public AuthService(
             AuthenticationManager authenticationManager,
             JwtService jwtService,
-            UserDetailsServiceImpl userDetailsService) {
+            UserDetailsServiceImpl userDetailsService,
+            TokenRevocationService tokenRevocationService) {
         this.authenticationManager = authenticationManager;
         this.jwtService = jwtService;
         this.userDetailsService = userDetailsService;
+        this.tokenRevocationService = tokenRevocationService;
     }
 
     public UserLoginResponseDTO authenticate(UserLoginRequestDTO loginRequest) {
@@ -65,10 +69,17 @@ public class AuthService {
         UserDetails userDetails = userDetailsService.loadUserByUsername(username);
 
         // Validate token against user details
-        if (!jwtService.isTokenValid(token, userDetails)) {
+        if (!jwtService.isTokenValid(token, userDetails)
+                || tokenRevocationService.isRevoked(jwtService.extractClaim(token, Claims::getId))) {
             throw new RuntimeException("Token is invalid or expired");
         }
 
         return username;
     }
-}
\ No newline at end of file
+
+    public void revokeToken(String token) {
+        // Parsing verifies the token, so only valid tokens end up on the deny-list
+        Claims claims = jwtService.parseToken(token);
+        tokenRevocationService.revoke(claims.getId(), claims.getExpiration().toInstant());
+    }
+}
@@ -0,0 +1,37 @@
+package nl.novi.garage.services;
+
+import jakarta.persistence.EntityManagerFactory;
+import nl.novi.garage.config.CaffeineRegionFactory;
+import nl.novi.garage.dtos.cache.CacheStatsDTO;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+// Statistics of the Hibernate second-level and query cache regions
+@Service
+public class CacheService {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    public CacheService(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    public List<CacheStatsDTO> getRegionStats() {
+        RegionFactory regionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getCache().getRegionFactory();
+        if (regionFactory instanceof CaffeineRegionFactory caffeineRegionFactory) {
+            return caffeineRegionFactory.getStats();
+        }
+        // Second-level cache disabled or provided by another factory
+        return List.of();
+    }
+
+    public void evictAll() {
+        entityManagerFactory.unwrap(SessionFactoryImplementor.class).getCache().evictAll();
+    }
+}
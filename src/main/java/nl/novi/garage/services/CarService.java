@@ -2,11 +2,15 @@ package nl.novi.garage.services;
 
 import nl.novi.garage.dtos.car.CarRequestDTO;
 import nl.novi.garage.dtos.car.CarResponseDTO;
+import nl.novi.garage.dtos.page.PageResponseDTO;
 import nl.novi.garage.models.Car;
 import nl.novi.garage.models.Customer;
 import nl.novi.garage.repositories.CarRepository;
+import nl.novi.garage.repositories.CarSpecifications;
 import nl.novi.garage.repositories.CustomerRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -19,11 +23,14 @@ public class CarService {
 
     private final CarRepository carRepository;
     private final CustomerRepository customerRepository;
+    private final DocumentService documentService;
 
     @Autowired
-    public CarService(CarRepository carRepository, CustomerRepository customerRepository) {
+    public CarService(CarRepository carRepository, CustomerRepository customerRepository,
+            DocumentService documentService) {
         this.carRepository = carRepository;
         this.customerRepository = customerRepository;
+        this.documentService = documentService;
     }
 
     public CarResponseDTO createCar(CarRequestDTO carRequestDTO) {
@@ -59,6 +66,22 @@ public class CarService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
+    public PageResponseDTO<CarResponseDTO> getCarsPage(String cursor, int size) {
+        Pageable limit = PageCursor.limit(size);
+        Long afterId = (cursor == null || cursor.isEmpty()) ? 0L : PageCursor.decodeId(cursor);
+        List<Car> cars = carRepository.findPageAfter(afterId, limit);
+
+        String next = null;
+        if (cars.size() > size) {
+            cars = cars.subList(0, size);
+            next = PageCursor.encode(cars.get(size - 1).getId());
+        }
+        return new PageResponseDTO<>(cars.stream()
+                .map(this::mapToResponseDTO)
+                .collect(Collectors.toList()), next);
+    }
+
     @Transactional(readOnly = true)
     public CarResponseDTO getCarById(Long id) {
         Car car = carRepository.findById(id)
@@ -119,6 +142,9 @@ public class CarService {
 
         // TODO: In future, check if car has associated inspections/repairs
         // For now, we can safely delete
+
+        // Remove documents through the document service so their stored content is cleaned up too
+        documentService.deleteDocumentsByCarId(id);
         carRepository.delete(car);
     }
 
@@ -146,6 +172,39 @@ public class CarService {
                 .collect(Collectors.toList());
     }
 
+    // All supplied filters are applied together in a single query
+    @Transactional(readOnly = true)
+    public List<CarResponseDTO> searchCars(String brand, String model, String licensePlate) {
+        List<Car> cars = carRepository.findAll(
+                CarSpecifications.matching(brand, model, licensePlate), CarSpecifications.BY_ID);
+        return cars.stream()
+                .map(this::mapToResponseDTO)
+                .collect(Collectors.toList());
+    }
+
+    @Transactional(readOnly = true)
+    public PageResponseDTO<CarResponseDTO> searchCarsPage(String brand, String model, String licensePlate,
+            String cursor, int size) {
+        int limit = PageCursor.limit(size).getPageSize();
+        Specification<Car> specification = CarSpecifications.matching(brand, model, licensePlate);
+        if (cursor != null && !cursor.isEmpty()) {
+            specification = specification.and(CarSpecifications.after(PageCursor.decodeId(cursor)));
+        }
+
+        // Sorted and limited in the database, no count query
+        List<Car> cars = carRepository.findBy(specification,
+                query -> query.sortBy(CarSpecifications.BY_ID).limit(limit).all());
+
+        String next = null;
+        if (cars.size() > size) {
+            cars = cars.subList(0, size);
+            next = PageCursor.encode(cars.get(size - 1).getId());
+        }
+        return new PageResponseDTO<>(cars.stream()
+                .map(this::mapToResponseDTO)
+                .collect(Collectors.toList()), next);
+    }
+
     @Transactional(readOnly = true)
     public List<CarResponseDTO> searchCarsByLicensePlate(String licensePlate) {
         List<Car> cars = carRepository.findByLicensePlateContainingIgnoreCase(licensePlate);
@@ -0,0 +1,102 @@
+package nl.novi.garage.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import nl.novi.garage.dtos.cache.CacheStatsDTO;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+// Read-through cache for a small, read-mostly catalog table. Holds the mapped entries by id
+// plus the complete list, bounded in size and expiring after a fixed time so changes made by
+// other instances show up eventually. Cached values are shared, callers must not modify them.
+public class CatalogCache<V> {
+
+    private static final String ALL = "all";
+
+    private final String name;
+    private final Function<V, Long> idOf;
+    private final Cache<Long, V> entries;
+    private final Cache<String, List<V>> lists;
+
+    public CatalogCache(String name, long maximumSize, Duration timeToLive, Function<V, Long> idOf) {
+        this(name, maximumSize, timeToLive, idOf, Ticker.systemTicker());
+    }
+
+    CatalogCache(String name, long maximumSize, Duration timeToLive, Function<V, Long> idOf, Ticker ticker) {
+        this.name = name;
+        this.idOf = idOf;
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(timeToLive)
+                .ticker(ticker)
+                .recordStats()
+                .build();
+        this.lists = Caffeine.newBuilder()
+                .maximumSize(1)
+                .expireAfterWrite(timeToLive)
+                .ticker(ticker)
+                .recordStats()
+                .build();
+    }
+
+    // Returns null without caching anything when the loader finds no entry
+    public V get(Long id, Function<Long, V> loader) {
+        return entries.get(id, loader);
+    }
+
+    // Entries that are not cached yet are loaded together in one call of the loader
+    public Map<Long, V> getAll(Collection<Long> ids, Function<Collection<Long>, Map<Long, V>> loader) {
+        return entries.getAll(ids, missing -> loader.apply(new HashSet<>(missing)));
+    }
+
+    public List<V> getAll(Supplier<List<V>> loader) {
+        return lists.get(ALL, key -> {
+            List<V> all = List.copyOf(loader.get());
+            for (V value : all) {
+                entries.put(idOf.apply(value), value);
+            }
+            return all;
+        });
+    }
+
+    // Evicts the entry now and again when the surrounding transaction completes, so a
+    // value loaded by another thread before the commit (or after a rollback) is not kept
+    public void invalidate(Long id) {
+        evict(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict(id);
+                }
+            });
+        }
+    }
+
+    public void invalidateAll() {
+        entries.invalidateAll();
+        lists.invalidateAll();
+    }
+
+    public CacheStatsDTO getStats() {
+        entries.cleanUp();
+        CacheStats stats = entries.stats().plus(lists.stats());
+        return new CacheStatsDTO(name, entries.estimatedSize(), stats.hitCount(), stats.missCount(),
+                stats.hitRate(), stats.evictionCount());
+    }
+
+    private void evict(Long id) {
+        entries.invalidate(id);
+        lists.invalidateAll();
+    }
+}
@@ -44,7 +44,7 @@ public class CustomerService {
 
     @Transactional(readOnly = true)
     public List<CustomerResponseDTO> getAllCustomers() {
-        List<Customer> customers = customerRepository.findAll();
+        List<Customer> customers = customerRepository.findAllWithCars();
         return customers.stream()
                 .map(this::mapToResponseDTOWithCars)
                 .collect(Collectors.toList());
@@ -0,0 +1,49 @@
+package nl.novi.garage.services;
+
+import nl.novi.garage.models.DocumentContent;
+import nl.novi.garage.repositories.DocumentContentRepository;
+import nl.novi.garage.storage.DocumentStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+
+// Removes stored content that no document references anymore. Runs in its own transaction after the
+// delete or failed upload that left the content unreferenced has ended, and only removes the file
+// while it holds the lock on the content row, so an upload of the same bytes either sees the row
+// gone and stores the file again, or is waited for and keeps the file.
+@Service
+public class DocumentContentCollector {
+
+    private static final Logger logger = LoggerFactory.getLogger(DocumentContentCollector.class);
+
+    private final DocumentContentRepository documentContentRepository;
+    private final DocumentStore documentStore;
+
+    @Autowired
+    public DocumentContentCollector(DocumentContentRepository documentContentRepository, DocumentStore documentStore) {
+        this.documentContentRepository = documentContentRepository;
+        this.documentStore = documentStore;
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void collect(String contentHash, String storagePath) {
+        // A rolled back upload leaves a file without a row, the row is created to lock the hash
+        documentContentRepository.insertIfAbsent(contentHash, storagePath, 0);
+        DocumentContent content = documentContentRepository.findByContentHashForUpdate(contentHash).orElse(null);
+        if (content == null || content.getReferenceCount() > 0) {
+            return;
+        }
+
+        try {
+            documentStore.delete(content.getStoragePath());
+        } catch (IOException e) {
+            logger.warn("Failed to delete document content {}: {}", content.getStoragePath(), e.getMessage());
+        }
+        documentContentRepository.delete(content);
+    }
+}
@@ -2,25 +2,53 @@ package nl.novi.garage.services;
 
 import nl.novi.garage.dtos.document.CarDocumentResponseDTO;
 import nl.novi.garage.dtos.document.CarDocumentUploadDTO;
+import nl.novi.garage.dtos.page.PageResponseDTO;
 import nl.novi.garage.models.Car;
 import nl.novi.garage.models.CarDocument;
+import nl.novi.garage.models.DocumentContent;
 import nl.novi.garage.repositories.CarDocumentRepository;
 import nl.novi.garage.repositories.CarRepository;
+import nl.novi.garage.repositories.DocumentContentRepository;
+import nl.novi.garage.storage.DocumentStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.Resource;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
 public class DocumentService {
 
+    private static final Logger logger = LoggerFactory.getLogger(DocumentService.class);
+
     private final CarDocumentRepository carDocumentRepository;
     private final CarRepository carRepository;
+    private final DocumentContentRepository documentContentRepository;
+    private final DocumentStore documentStore;
+    private final DocumentContentCollector documentContentCollector;
 
     private static final String[] ALLOWED_CONTENT_TYPES = {
             "application/pdf"
@@ -28,10 +56,21 @@ public class DocumentService {
 
     private static final long MAX_FILE_SIZE = 10 * 1024 * 1024; // 10MB
 
+    // Uploads are written here before their hash is known
+    private static final String STAGING_DIRECTORY = "staging/";
+
+    // A concurrent collection can remove the content row between claiming and locking it
+    private static final int MAX_CONTENT_LOCK_ATTEMPTS = 3;
+
     @Autowired
-    public DocumentService(CarDocumentRepository carDocumentRepository, CarRepository carRepository) {
+    public DocumentService(CarDocumentRepository carDocumentRepository, CarRepository carRepository,
+            DocumentContentRepository documentContentRepository, DocumentStore documentStore,
+            DocumentContentCollector documentContentCollector) {
         this.carDocumentRepository = carDocumentRepository;
         this.carRepository = carRepository;
+        this.documentContentRepository = documentContentRepository;
+        this.documentStore = documentStore;
+        this.documentContentCollector = documentContentCollector;
     }
 
     public CarDocumentResponseDTO uploadDocument(Long carId, MultipartFile file) throws IOException {
@@ -48,19 +87,30 @@ public class DocumentService {
                     "Document with filename '" + file.getOriginalFilename() + "' already exists for this car");
         }
 
+        // Content is addressed by its hash, identical files are stored once. The upload is hashed
+        // while it is staged, so the stream is read once.
+        StagedContent staged;
+        try (InputStream content = file.getInputStream()) {
+            staged = stageContent(content);
+        }
+        String filepath = contentPath(staged.hash());
+        try {
+            retainContent(staged, filepath);
+        } finally {
+            discardStagedContent(staged);
+        }
+
         // Create document entity
         CarDocument document = new CarDocument();
         document.setCar(car);
         document.setFilename(file.getOriginalFilename());
-        document.setFilepath("car_" + carId + "/" + file.getOriginalFilename());
-        document.setData(file.getBytes());
+        document.setFilepath(filepath);
         document.setContentType(file.getContentType());
-        document.setFileSize(file.getSize());
+        document.setFileSize(staged.size());
+        document.setContentHash(staged.hash());
+        document.setUploadedAt(Instant.now());
 
-        // Save document
-        CarDocument savedDocument = carDocumentRepository.save(document);
-
-        return mapToResponseDTO(savedDocument);
+        return mapToResponseDTO(carDocumentRepository.save(document));
     }
 
     public CarDocumentResponseDTO uploadDocument(CarDocumentUploadDTO uploadDTO) {
@@ -85,19 +135,33 @@ public class DocumentService {
                     "Document with filename '" + uploadDTO.getFilename() + "' already exists for this car");
         }
 
+        // Content is addressed by its hash, identical files are stored once
+        StagedContent staged;
+        try {
+            staged = stageContent(new ByteArrayInputStream(uploadDTO.getData()));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to store document: " + e.getMessage(), e);
+        }
+        String filepath = contentPath(staged.hash());
+        try {
+            retainContent(staged, filepath);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to store document: " + e.getMessage(), e);
+        } finally {
+            discardStagedContent(staged);
+        }
+
         // Create document entity
         CarDocument document = new CarDocument();
         document.setCar(car);
         document.setFilename(uploadDTO.getFilename());
-        document.setFilepath("car_" + uploadDTO.getCarId() + "/" + uploadDTO.getFilename());
-        document.setData(uploadDTO.getData());
+        document.setFilepath(filepath);
         document.setContentType(uploadDTO.getContentType());
-        document.setFileSize((long) uploadDTO.getData().length);
+        document.setFileSize(staged.size());
+        document.setContentHash(staged.hash());
+        document.setUploadedAt(Instant.now());
 
-        // Save document
-        CarDocument savedDocument = carDocumentRepository.save(document);
-
-        return mapToResponseDTO(savedDocument);
+        return mapToResponseDTO(carDocumentRepository.save(document));
     }
 
     @Transactional(readOnly = true)
@@ -106,10 +170,7 @@ public class DocumentService {
         carRepository.findById(carId)
                 .orElseThrow(() -> new IllegalArgumentException("Car not found with id: " + carId));
 
-        List<CarDocument> documents = carDocumentRepository.findByCarId(carId);
-        return documents.stream()
-                .map(this::mapToResponseDTO)
-                .collect(Collectors.toList());
+        return carDocumentRepository.findSummariesByCarId(carId);
     }
 
     @Transactional(readOnly = true)
@@ -118,6 +179,22 @@ public class DocumentService {
                 .orElseThrow(() -> new IllegalArgumentException("Document not found with id: " + documentId));
     }
 
+    @Transactional(readOnly = true)
+    public CarDocument getDocumentByCarIdAndFilename(Long carId, String filename) {
+        return carDocumentRepository.findByCarIdAndFilename(carId, filename)
+                .orElseThrow(() -> new IllegalArgumentException(
+                        "Document not found with filename: " + filename + " for car ID: " + carId));
+    }
+
+    @Transactional(readOnly = true)
+    public Resource getDocumentContent(CarDocument document) {
+        try {
+            return documentStore.load(document.getFilepath());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to load document content: " + e.getMessage(), e);
+        }
+    }
+
     @Transactional(readOnly = true)
     public CarDocumentResponseDTO getDocumentResponseById(Long documentId) {
         CarDocument document = getDocumentById(documentId);
@@ -129,6 +206,7 @@ public class DocumentService {
                 .orElseThrow(() -> new IllegalArgumentException("Document not found with id: " + documentId));
 
         carDocumentRepository.delete(document);
+        releaseContent(Map.of(document.getContentHash(), 1L));
     }
 
     public void deleteDocumentsByCarId(Long carId) {
@@ -136,18 +214,151 @@ public class DocumentService {
         carRepository.findById(carId)
                 .orElseThrow(() -> new IllegalArgumentException("Car not found with id: " + carId));
 
+        Map<String, Long> referencesByHash = new HashMap<>();
+        for (Object[] row : carDocumentRepository.countContentHashesByCarId(carId)) {
+            referencesByHash.put((String) row[0], (Long) row[1]);
+        }
         carDocumentRepository.deleteByCarId(carId);
+        releaseContent(referencesByHash);
     }
 
     @Transactional(readOnly = true)
     public List<CarDocumentResponseDTO> getAllDocuments() {
-        List<CarDocument> documents = carDocumentRepository.findAll();
-        return documents.stream()
-                .map(this::mapToResponseDTO)
-                .collect(Collectors.toList());
+        return carDocumentRepository.findAllSummaries();
+    }
+
+    // Metadata of all documents handed to the consumer row by row, no entities are loaded
+    @Transactional(readOnly = true)
+    public void streamAllDocuments(Consumer<CarDocumentResponseDTO> consumer) {
+        try (Stream<CarDocumentResponseDTO> documents = carDocumentRepository.streamAllSummaries()) {
+            documents.forEach(consumer);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public PageResponseDTO<CarDocumentResponseDTO> getDocumentsPage(String cursor, int size) {
+        Pageable limit = PageCursor.limit(size);
+        Long afterId = (cursor == null || cursor.isEmpty()) ? 0L : PageCursor.decodeId(cursor);
+        List<CarDocumentResponseDTO> documents = carDocumentRepository.findSummaryPageAfter(afterId, limit);
+
+        String next = null;
+        if (documents.size() > size) {
+            documents = documents.subList(0, size);
+            next = PageCursor.encode(documents.get(size - 1).getId());
+        }
+        return new PageResponseDTO<>(documents, next);
     }
 
     // Helper methods
+    private String contentPath(String contentHash) {
+        return "content/" + contentHash.substring(0, 2) + "/" + contentHash;
+    }
+
+    // Writes the upload to a staging path of the store, hashing it on the way
+    private StagedContent stageContent(InputStream content) throws IOException {
+        String path = STAGING_DIRECTORY + UUID.randomUUID();
+        MessageDigest digest = newContentDigest();
+        long size = documentStore.store(path, new DigestInputStream(content, digest));
+        return new StagedContent(path, HexFormat.of().formatHex(digest.digest()), size);
+    }
+
+    // Moved into place when this upload stores the content, otherwise it is a duplicate
+    private void discardStagedContent(StagedContent staged) {
+        try {
+            documentStore.delete(staged.path());
+        } catch (IOException e) {
+            logger.warn("Failed to delete staged upload {}: {}", staged.path(), e.getMessage());
+        }
+    }
+
+    // Adds a reference to existing content, or moves the staged upload into place when no document
+    // references the content. The content row stays locked until the transaction ends, so a concurrent
+    // upload, delete or collection of the same content waits instead of moving or removing the file.
+    private void retainContent(StagedContent staged, String filepath) throws IOException {
+        DocumentContent content = lockContent(staged.hash(), filepath, staged.size());
+        if (content.getReferenceCount() > 0) {
+            content.setReferenceCount(content.getReferenceCount() + 1);
+            return;
+        }
+
+        // Created by this transaction, or left unreferenced by a delete that was not collected yet
+        collectContentOnRollback(staged.hash());
+        documentStore.move(staged.path(), filepath);
+        content.setFileSize(staged.size());
+        content.setReferenceCount(1);
+    }
+
+    private DocumentContent lockContent(String contentHash, String filepath, long fileSize) {
+        for (int attempt = 0; attempt < MAX_CONTENT_LOCK_ATTEMPTS; attempt++) {
+            documentContentRepository.insertIfAbsent(contentHash, filepath, fileSize);
+            Optional<DocumentContent> content = documentContentRepository.findByContentHashForUpdate(contentHash);
+            if (content.isPresent()) {
+                return content.get();
+            }
+            // Collected between the insert and the lock, claimed again
+        }
+        throw new IllegalStateException("Could not lock document content " + contentHash);
+    }
+
+    // Drops one reference per deleted document and collects content nobody points at anymore
+    private void releaseContent(Map<String, Long> referencesByHash) {
+        if (referencesByHash.isEmpty()) {
+            return;
+        }
+        referencesByHash.forEach(documentContentRepository::decrementReferenceCount);
+
+        List<String> unreferenced = documentContentRepository.findUnreferencedContentHashes(referencesByHash.keySet());
+        if (!unreferenced.isEmpty()) {
+            collectContentAfterCommit(unreferenced);
+        }
+    }
+
+    private MessageDigest newContentDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    // Content is only collected once the metadata delete is committed, so a rollback keeps the file
+    private void collectContentAfterCommit(List<String> contentHashes) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            contentHashes.forEach(this::collectContent);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                contentHashes.forEach(DocumentService.this::collectContent);
+            }
+        });
+    }
+
+    private void collectContentOnRollback(String contentHash) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    collectContent(contentHash);
+                }
+            }
+        });
+    }
+
+    // The collector checks the references again under the row lock, content that was uploaded
+    // again in the meantime is kept
+    private void collectContent(String contentHash) {
+        try {
+            documentContentCollector.collect(contentHash, contentPath(contentHash));
+        } catch (RuntimeException e) {
+            logger.warn("Failed to collect document content {}: {}", contentHash, e.getMessage());
+        }
+    }
+
     private void validateFile(MultipartFile file) {
         if (file == null || file.isEmpty()) {
             throw new IllegalArgumentException("File cannot be empty");
@@ -179,6 +390,9 @@ public class DocumentService {
         return false;
     }
 
+    private record StagedContent(String path, String hash, long size) {
+    }
+
     private CarDocumentResponseDTO mapToResponseDTO(CarDocument document) {
         return new CarDocumentResponseDTO(
                 document.getId(),
@@ -0,0 +1,216 @@
+package nl.novi.garage.services;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Bulk exports for accounting. All repairs of a period are read with their line items and
+// receipts in a single query through a database cursor and written row by row, one row per
+// line item (a repair without line items gets one row with empty line columns).
+@Service
+public class ExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportService.class);
+
+    // Rows the JDBC driver fetches per round trip from the open cursor
+    private static final int FETCH_SIZE = 1000;
+
+    private static final String REPAIR_LINES_QUERY = "SELECT r.id AS repair_id, r.date AS repair_date, "
+            + "r.status, r.is_paid, c.license_plate, cu.name AS customer_name, "
+            + "r.labour_total, r.parts_total, r.custom_total, "
+            + "li.line_type, li.line_id, li.description, li.unit_price, li.amount, "
+            + "li.unit_price * li.amount AS line_total, "
+            + "rc.id AS receipt_id, rc.created_date AS receipt_date, rc.total_incl_vat AS receipt_total, "
+            + "rc.is_paid AS receipt_paid "
+            + "FROM repairs r "
+            + "JOIN cars c ON c.id = r.car_id "
+            + "JOIN customers cu ON cu.id = c.customer_id "
+            + "LEFT JOIN ("
+            + "SELECT ra.repair_id, 'ACTION' AS line_type, ra.id AS line_id, a.name AS description, "
+            + "a.price AS unit_price, ra.amount FROM repair_actions ra JOIN actions a ON a.id = ra.action_id "
+            + "UNION ALL "
+            + "SELECT rp.repair_id, 'PART', rp.id, p.name, p.price, rp.amount "
+            + "FROM repair_parts rp JOIN parts p ON p.id = rp.part_id "
+            + "UNION ALL "
+            + "SELECT rca.repair_id, 'CUSTOM', rca.id, rca.description, rca.price, 1 "
+            + "FROM repair_custom_actions rca"
+            + ") li ON li.repair_id = r.id "
+            + "LEFT JOIN receipt_repairs rr ON rr.repair_id = r.id "
+            + "LEFT JOIN receipts rc ON rc.id = rr.receipt_id "
+            + "WHERE r.date BETWEEN ? AND ? "
+            + "ORDER BY r.date, r.id, li.line_type, li.line_id, rc.id";
+
+    static final List<String> REPAIR_LINE_COLUMNS = List.of("repair_id", "repair_date", "status", "is_paid",
+            "license_plate", "customer_name", "labour_total", "parts_total", "custom_total", "line_type",
+            "line_id", "description", "unit_price", "amount", "line_total", "receipt_id", "receipt_date",
+            "receipt_total", "receipt_paid");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectWriter jsonWriter;
+
+    @Autowired
+    public ExportService(DataSource dataSource, ObjectMapper objectMapper) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+        // The rows are flushed by the buffered output, not one by one
+        this.jsonWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    public void validateDateRange(LocalDate startDate, LocalDate endDate) {
+        if (startDate == null || endDate == null) {
+            throw new IllegalArgumentException("Start date and end date are required");
+        }
+        if (startDate.isAfter(endDate)) {
+            throw new IllegalArgumentException("Start date must not be after end date");
+        }
+    }
+
+    // Writes the repair lines of the period to the output, which is flushed but not closed.
+    // Runs in a read-only transaction so the driver can keep a server-side cursor open.
+    // Returns the number of rows written.
+    @Transactional(readOnly = true)
+    public long exportRepairLines(LocalDate startDate, LocalDate endDate, FileFormat format, OutputStream output)
+            throws IOException {
+        validateDateRange(startDate, endDate);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), 64 * 1024);
+        RowWriter rowWriter = format == FileFormat.CSV ? new CsvRowWriter(writer) : new NdjsonRowWriter(writer);
+
+        long[] rows = { 0 };
+        try {
+            rowWriter.start();
+            jdbcTemplate.query(REPAIR_LINES_QUERY, (RowCallbackHandler) resultSet -> {
+                try {
+                    rowWriter.write(readRepairLine(resultSet));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                rows[0]++;
+            }, startDate, endDate);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+
+        logger.info("Exported {} repair lines from {} to {} as {}", rows[0], startDate, endDate, format);
+        return rows[0];
+    }
+
+    private Map<String, Object> readRepairLine(ResultSet resultSet) throws SQLException {
+        Map<String, Object> line = new LinkedHashMap<>();
+        line.put("repair_id", resultSet.getLong("repair_id"));
+        line.put("repair_date", resultSet.getObject("repair_date", LocalDate.class));
+        line.put("status", resultSet.getString("status"));
+        line.put("is_paid", resultSet.getBoolean("is_paid"));
+        line.put("license_plate", resultSet.getString("license_plate"));
+        line.put("customer_name", resultSet.getString("customer_name"));
+        line.put("labour_total", resultSet.getBigDecimal("labour_total"));
+        line.put("parts_total", resultSet.getBigDecimal("parts_total"));
+        line.put("custom_total", resultSet.getBigDecimal("custom_total"));
+        line.put("line_type", resultSet.getString("line_type"));
+        line.put("line_id", resultSet.getObject("line_id", Long.class));
+        line.put("description", resultSet.getString("description"));
+        line.put("unit_price", resultSet.getBigDecimal("unit_price"));
+        line.put("amount", resultSet.getObject("amount", Integer.class));
+        line.put("line_total", resultSet.getBigDecimal("line_total"));
+        line.put("receipt_id", resultSet.getObject("receipt_id", Long.class));
+        line.put("receipt_date", resultSet.getObject("receipt_date", LocalDate.class));
+        line.put("receipt_total", resultSet.getBigDecimal("receipt_total"));
+        line.put("receipt_paid", resultSet.getObject("receipt_paid", Boolean.class));
+        return line;
+    }
+
+    private interface RowWriter {
+        void start() throws IOException;
+
+        void write(Map<String, Object> row) throws IOException;
+    }
+
+    // RFC 4180: comma separated, CRLF line ends, fields with a comma, quote or line break quoted
+    private static final class CsvRowWriter implements RowWriter {
+        private final Writer writer;
+
+        private CsvRowWriter(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void start() throws IOException {
+            writer.write(String.join(",", REPAIR_LINE_COLUMNS));
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void write(Map<String, Object> row) throws IOException {
+            boolean first = true;
+            for (Object value : row.values()) {
+                if (!first) {
+                    writer.write(',');
+                }
+                first = false;
+                writer.write(csvField(value));
+            }
+            writer.write("\r\n");
+        }
+
+        private String csvField(Object value) {
+            if (value == null) {
+                return "";
+            }
+            String text = value instanceof BigDecimal decimal ? decimal.toPlainString() : value.toString();
+            if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+                return text;
+            }
+            return '"' + text.replace("\"", "\"\"") + '"';
+        }
+    }
+
+    // One JSON object per line
+    private final class NdjsonRowWriter implements RowWriter {
+        private final Writer writer;
+        private final JsonGenerator generator;
+
+        private NdjsonRowWriter(Writer writer) throws IOException {
+            this.writer = writer;
+            this.generator = jsonWriter.createGenerator(writer)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                    .disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+            // Rows are separated by the line break below instead of the default space
+            this.generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void start() {
+        }
+
+        @Override
+        public void write(Map<String, Object> row) throws IOException {
+            jsonWriter.writeValue(generator, row);
+            generator.flush();
+            writer.write('\n');
+        }
+    }
+}
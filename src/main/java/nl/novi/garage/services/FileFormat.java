@@ -0,0 +1,39 @@
+package nl.novi.garage.services;
+
+import org.springframework.http.MediaType;
+
+import java.util.Locale;
+
+// File formats of the bulk exports and imports
+public enum FileFormat {
+
+    CSV("text/csv", "csv"),
+    NDJSON("application/x-ndjson", "ndjson");
+
+    private final MediaType mediaType;
+    private final String extension;
+
+    FileFormat(String mediaType, String extension) {
+        this.mediaType = MediaType.parseMediaType(mediaType);
+        this.extension = extension;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public static FileFormat fromName(String name) {
+        if (name != null) {
+            for (FileFormat format : values()) {
+                if (format.extension.equals(name.toLowerCase(Locale.ROOT))) {
+                    return format;
+                }
+            }
+        }
+        throw new IllegalArgumentException("Invalid file format: " + name + ". Valid formats are: csv, ndjson");
+    }
+}
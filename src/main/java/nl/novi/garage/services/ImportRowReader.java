@@ -0,0 +1,178 @@
+package nl.novi.garage.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Reads an import file one row at a time as column name -> value. CSV files start with a
+// header row naming the columns (RFC 4180 quoting), NDJSON files hold one JSON object per line.
+// Malformed input is reported with an IllegalArgumentException naming the row.
+final class ImportRowReader implements Closeable {
+
+    private final BufferedReader reader;
+    private final FileFormat format;
+    private final ObjectMapper objectMapper;
+    private List<String> header;
+    private long rowNumber;
+
+    ImportRowReader(InputStream input, FileFormat format, ObjectMapper objectMapper) {
+        this.reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8), 64 * 1024);
+        this.format = format;
+        this.objectMapper = objectMapper;
+    }
+
+    // Number of the row returned by the last call to next()
+    long getRowNumber() {
+        return rowNumber;
+    }
+
+    // Checks that a CSV header names all required columns, NDJSON rows are checked one by one
+    void requireColumns(List<String> columns) throws IOException {
+        if (format != FileFormat.CSV) {
+            return;
+        }
+        List<String> names = readHeader();
+        List<String> missing = columns.stream()
+                .filter(column -> !names.contains(column))
+                .toList();
+        if (!missing.isEmpty()) {
+            throw new IllegalArgumentException("Missing column(s) in CSV header: " + String.join(", ", missing));
+        }
+    }
+
+    // Returns null at the end of the input
+    Map<String, String> next() throws IOException {
+        return format == FileFormat.CSV ? nextCsvRow() : nextJsonRow();
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private List<String> readHeader() throws IOException {
+        if (header == null) {
+            List<String> names = readCsvRecord();
+            header = new ArrayList<>();
+            if (names != null) {
+                for (String name : names) {
+                    // Drops a byte order mark in front of the first column name
+                    header.add(name.replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT));
+                }
+            }
+        }
+        return header;
+    }
+
+    private Map<String, String> nextCsvRow() throws IOException {
+        List<String> names = readHeader();
+        List<String> fields;
+        do {
+            fields = readCsvRecord();
+            if (fields == null) {
+                return null;
+            }
+        } while (fields.size() == 1 && fields.get(0).isBlank());
+
+        rowNumber++;
+        if (fields.size() != names.size()) {
+            throw new IllegalArgumentException("Row " + rowNumber + " has " + fields.size()
+                    + " columns, the header has " + names.size());
+        }
+        Map<String, String> row = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            String value = fields.get(i).trim();
+            row.put(names.get(i), value.isEmpty() ? null : value);
+        }
+        return row;
+    }
+
+    private Map<String, String> nextJsonRow() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+        } while (line.isBlank());
+
+        rowNumber++;
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(line);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Row " + rowNumber + " is not valid JSON");
+        }
+        if (!node.isObject()) {
+            throw new IllegalArgumentException("Row " + rowNumber + " is not a JSON object");
+        }
+        Map<String, String> row = new HashMap<>();
+        for (Iterator<Map.Entry<String, JsonNode>> it = node.fields(); it.hasNext();) {
+            Map.Entry<String, JsonNode> field = it.next();
+            JsonNode value = field.getValue();
+            row.put(field.getKey().toLowerCase(Locale.ROOT), value.isNull() ? null : value.asText().trim());
+        }
+        return row;
+    }
+
+    // One record, which may span several lines when a quoted field contains line breaks.
+    // Returns null at the end of the input.
+    private List<String> readCsvRecord() throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean empty = true;
+        while (true) {
+            int c = reader.read();
+            if (c == -1) {
+                if (quoted) {
+                    rowNumber++;
+                    throw new IllegalArgumentException("Row " + rowNumber + " has an unterminated quoted field");
+                }
+                if (empty) {
+                    return null;
+                }
+                fields.add(field.toString());
+                return fields;
+            }
+            empty = false;
+            if (quoted) {
+                if (c != '"') {
+                    field.append((char) c);
+                    continue;
+                }
+                // A doubled quote is a literal quote, a single one ends the quoted part
+                reader.mark(1);
+                if (reader.read() == '"') {
+                    field.append('"');
+                } else {
+                    reader.reset();
+                    quoted = false;
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                fields.add(field.toString());
+                return fields;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+        }
+    }
+}
@@ -0,0 +1,297 @@
+package nl.novi.garage.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import nl.novi.garage.dtos.car.CarRequestDTO;
+import nl.novi.garage.dtos.customer.CustomerRequestDTO;
+import nl.novi.garage.dtos.imports.ImportErrorDTO;
+import nl.novi.garage.dtos.imports.ImportResultDTO;
+import nl.novi.garage.dtos.part.PartRequestDTO;
+import nl.novi.garage.dtos.part.PartResponseDTO;
+import nl.novi.garage.models.Car;
+import nl.novi.garage.models.Customer;
+import nl.novi.garage.models.Part;
+import nl.novi.garage.repositories.CarRepository;
+import nl.novi.garage.repositories.CustomerRepository;
+import nl.novi.garage.repositories.PartRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+// Bulk imports of customers, cars and parts. The file is read as a stream in chunks of
+// CHUNK_SIZE rows. The rows of a chunk are validated with the rules of the request DTOs and
+// checked for duplicates with one query per chunk, then the valid rows are inserted in one
+// transaction with JDBC batching. Rejected rows are reported with their row number. When the
+// insert of a chunk fails, all its rows are reported and the import goes on with the next chunk.
+@Service
+public class ImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImportService.class);
+
+    // Rows per transaction, also keeps the IN (...) lists of the duplicate checks bounded
+    static final int CHUNK_SIZE = 1000;
+
+    static final List<String> CUSTOMER_COLUMNS = List.of("name", "phonenumber");
+    static final List<String> CAR_COLUMNS = List.of("customer_phonenumber", "brand", "model", "license_plate");
+    static final List<String> PART_COLUMNS = List.of("name", "price", "stock");
+
+    private final CustomerRepository customerRepository;
+    private final CarRepository carRepository;
+    private final PartRepository partRepository;
+    private final StockService stockService;
+    private final CatalogCache<PartResponseDTO> partCatalogCache;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+
+    @Autowired
+    public ImportService(CustomerRepository customerRepository, CarRepository carRepository,
+            PartRepository partRepository, StockService stockService,
+            CatalogCache<PartResponseDTO> partCatalogCache, Validator validator, ObjectMapper objectMapper,
+            EntityManager entityManager, PlatformTransactionManager transactionManager) {
+        this.customerRepository = customerRepository;
+        this.carRepository = carRepository;
+        this.partRepository = partRepository;
+        this.stockService = stockService;
+        this.partCatalogCache = partCatalogCache;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // Columns: name, phonenumber. The phone number identifies the customer.
+    public ImportResultDTO importCustomers(InputStream input, FileFormat format) throws IOException {
+        Set<String> seen = new HashSet<>();
+        return importRows("customers", input, format, CUSTOMER_COLUMNS, (rows, result) -> {
+            Map<ImportRow, CustomerRequestDTO> candidates = new LinkedHashMap<>();
+            for (ImportRow row : rows) {
+                CustomerRequestDTO customer = new CustomerRequestDTO(row.value("name"), row.value("phonenumber"));
+                if (isValid(row, customer, result)
+                        && isFirstInFile(row, customer.getPhonenumber(), seen, "phone number", result)) {
+                    candidates.put(row, customer);
+                }
+            }
+
+            Set<String> existing = new HashSet<>(customerRepository.findExistingPhonenumbers(
+                    candidates.values().stream().map(CustomerRequestDTO::getPhonenumber).toList()));
+            Map<Long, Customer> customers = new LinkedHashMap<>();
+            candidates.forEach((row, customer) -> {
+                if (existing.contains(customer.getPhonenumber())) {
+                    result.addError(row.number(),
+                            "Customer with phone number " + customer.getPhonenumber() + " already exists");
+                } else {
+                    customers.put(row.number(), new Customer(customer.getName(), customer.getPhonenumber()));
+                }
+            });
+            return customers;
+        }, customerRepository::saveAll);
+    }
+
+    // Columns: customer_phonenumber, brand, model, license_plate. The customer must exist already,
+    // license plates are stored in upper case.
+    public ImportResultDTO importCars(InputStream input, FileFormat format) throws IOException {
+        Set<String> seen = new HashSet<>();
+        return importRows("cars", input, format, CAR_COLUMNS, (rows, result) -> {
+            Map<String, Customer> customersByPhonenumber = customerRepository.findByPhonenumberIn(rows.stream()
+                    .map(row -> row.value("customer_phonenumber"))
+                    .filter(phonenumber -> phonenumber != null)
+                    .collect(Collectors.toSet()))
+                    .stream()
+                    .collect(Collectors.toMap(Customer::getPhonenumber, customer -> customer, (a, b) -> a));
+
+            Map<ImportRow, Car> candidates = new LinkedHashMap<>();
+            for (ImportRow row : rows) {
+                String phonenumber = row.value("customer_phonenumber");
+                Customer customer = phonenumber == null ? null : customersByPhonenumber.get(phonenumber);
+                if (customer == null) {
+                    result.addError(row.number(), phonenumber == null
+                            ? "Customer phone number cannot be blank"
+                            : "Customer not found with phone number: " + phonenumber);
+                    continue;
+                }
+                String licensePlate = row.value("license_plate");
+                CarRequestDTO car = new CarRequestDTO(customer.getId(), row.value("brand"), row.value("model"),
+                        licensePlate == null ? null : licensePlate.toUpperCase(Locale.ROOT));
+                if (isValid(row, car, result)
+                        && isFirstInFile(row, car.getLicensePlate(), seen, "license plate", result)) {
+                    candidates.put(row, new Car(customer, car.getBrand(), car.getModel(), car.getLicensePlate()));
+                }
+            }
+
+            Set<String> existing = new HashSet<>(carRepository.findExistingLicensePlates(
+                    candidates.values().stream().map(Car::getLicensePlate).toList()));
+            Map<Long, Car> cars = new LinkedHashMap<>();
+            candidates.forEach((row, car) -> {
+                if (existing.contains(car.getLicensePlate())) {
+                    result.addError(row.number(),
+                            "Car with license plate " + car.getLicensePlate() + " already exists");
+                } else {
+                    cars.put(row.number(), car);
+                }
+            });
+            return cars;
+        }, carRepository::saveAll);
+    }
+
+    // Columns: name, price, stock. Names are unique regardless of case.
+    public ImportResultDTO importParts(InputStream input, FileFormat format) throws IOException {
+        Set<String> seen = new HashSet<>();
+        ImportResultDTO result = importRows("parts", input, format, PART_COLUMNS, (rows, rowResult) -> {
+            Map<ImportRow, PartRequestDTO> candidates = new LinkedHashMap<>();
+            for (ImportRow row : rows) {
+                PartRequestDTO part = new PartRequestDTO(row.value("name"), null, null);
+                String price = row.value("price");
+                String stock = row.value("stock");
+                try {
+                    part.setPrice(price == null ? null : new BigDecimal(price));
+                } catch (NumberFormatException e) {
+                    rowResult.addError(row.number(), "Price must be a number");
+                    continue;
+                }
+                try {
+                    part.setStock(stock == null ? null : Integer.valueOf(stock));
+                } catch (NumberFormatException e) {
+                    rowResult.addError(row.number(), "Stock must be a whole number");
+                    continue;
+                }
+                if (isValid(row, part, rowResult) && isFirstInFile(row,
+                        part.getName().toUpperCase(Locale.ROOT), seen, "part name", rowResult)) {
+                    candidates.put(row, part);
+                }
+            }
+
+            Set<String> existing = new HashSet<>(partRepository.findExistingUpperCaseNames(
+                    candidates.values().stream().map(part -> part.getName().toUpperCase(Locale.ROOT)).toList()));
+            Map<Long, Part> parts = new LinkedHashMap<>();
+            candidates.forEach((row, part) -> {
+                if (existing.contains(part.getName().toUpperCase(Locale.ROOT))) {
+                    rowResult.addError(row.number(), "Part with name '" + part.getName() + "' already exists");
+                } else {
+                    parts.put(row.number(), new Part(part.getName(), part.getPrice(), part.getStock()));
+                }
+            });
+            return parts;
+        }, parts -> {
+            partRepository.saveAll(parts);
+            stockService.recordInitialStock(parts);
+        });
+
+        // New parts appear in the cached catalog lists once the whole import is done
+        if (result.getImported() > 0) {
+            partCatalogCache.invalidateAll();
+        }
+        return result;
+    }
+
+    private <E> ImportResultDTO importRows(String type, InputStream input, FileFormat format, List<String> columns,
+            ChunkValidator<E> chunkValidator, Consumer<List<E>> inserter) throws IOException {
+        ImportResultDTO result = new ImportResultDTO(type);
+        try (ImportRowReader reader = new ImportRowReader(input, format, objectMapper)) {
+            reader.requireColumns(columns);
+
+            List<ImportRow> chunk = new ArrayList<>(CHUNK_SIZE);
+            while (true) {
+                Map<String, String> values;
+                try {
+                    values = reader.next();
+                } catch (IllegalArgumentException e) {
+                    // A malformed row is consumed completely, so reading goes on with the next one
+                    result.setRows(result.getRows() + 1);
+                    result.addError(reader.getRowNumber(), e.getMessage());
+                    continue;
+                }
+                if (values == null) {
+                    break;
+                }
+                result.setRows(result.getRows() + 1);
+                chunk.add(new ImportRow(reader.getRowNumber(), values));
+                if (chunk.size() == CHUNK_SIZE) {
+                    importChunk(chunk, chunkValidator, inserter, result);
+                    chunk.clear();
+                }
+            }
+            importChunk(chunk, chunkValidator, inserter, result);
+        }
+
+        result.getErrors().sort(Comparator.comparingLong(ImportErrorDTO::getRow));
+        logger.info("Imported {} of {} {} rows, {} rejected", result.getImported(), result.getRows(), type,
+                result.getFailed());
+        return result;
+    }
+
+    private <E> void importChunk(List<ImportRow> chunk, ChunkValidator<E> chunkValidator,
+            Consumer<List<E>> inserter, ImportResultDTO result) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+
+        Map<Long, E> valid = chunkValidator.validate(chunk, result);
+        if (!valid.isEmpty()) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> inserter.accept(new ArrayList<>(valid.values())));
+                result.setImported(result.getImported() + valid.size());
+            } catch (DataAccessException | TransactionException e) {
+                // For example a row inserted concurrently with the same unique key
+                logger.warn("Import chunk of {} rows was rolled back", valid.size(), e);
+                valid.keySet().forEach(row -> result.addError(row,
+                        "Not imported, saving the chunk of rows this row belongs to failed"));
+            }
+        }
+        // The entities of this chunk are not needed anymore
+        entityManager.clear();
+    }
+
+    private boolean isValid(ImportRow row, Object request, ImportResultDTO result) {
+        Set<ConstraintViolation<Object>> violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return true;
+        }
+        result.addError(row.number(), violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; ")));
+        return false;
+    }
+
+    private boolean isFirstInFile(ImportRow row, String key, Set<String> seen, String name, ImportResultDTO result) {
+        if (seen.add(key)) {
+            return true;
+        }
+        result.addError(row.number(), "Duplicate " + name + " " + key + " in the import file");
+        return false;
+    }
+
+    // Validates a chunk of rows, reports the rejected ones and returns the entities to insert by row number
+    private interface ChunkValidator<E> {
+        Map<Long, E> validate(List<ImportRow> rows, ImportResultDTO result);
+    }
+
+    private record ImportRow(long number, Map<String, String> values) {
+        String value(String column) {
+            return values.get(column);
+        }
+    }
+}
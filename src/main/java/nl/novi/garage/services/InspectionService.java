@@ -2,11 +2,15 @@ package nl.novi.garage.services;
 
 import nl.novi.garage.dtos.inspection.InspectionRequestDTO;
 import nl.novi.garage.dtos.inspection.InspectionResponseDTO;
+import nl.novi.garage.dtos.page.PageResponseDTO;
 import nl.novi.garage.models.Inspection;
 import nl.novi.garage.models.Car;
 import nl.novi.garage.repositories.InspectionRepository;
+import nl.novi.garage.repositories.InspectionSpecifications;
 import nl.novi.garage.repositories.CarRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -55,6 +59,28 @@ public class InspectionService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
+    public PageResponseDTO<InspectionResponseDTO> getInspectionsPage(String cursor, int size) {
+        Pageable limit = PageCursor.limit(size);
+        List<Inspection> inspections;
+        if (cursor == null || cursor.isEmpty()) {
+            inspections = inspectionRepository.findPage(limit);
+        } else {
+            PageCursor after = PageCursor.decodeDateId(cursor);
+            inspections = inspectionRepository.findPageAfter(after.getDate(), after.getId(), limit);
+        }
+
+        String next = null;
+        if (inspections.size() > size) {
+            inspections = inspections.subList(0, size);
+            Inspection last = inspections.get(size - 1);
+            next = PageCursor.encode(last.getDate(), last.getId());
+        }
+        return new PageResponseDTO<>(inspections.stream()
+                .map(this::mapToResponseDTO)
+                .collect(Collectors.toList()), next);
+    }
+
     @Transactional(readOnly = true)
     public InspectionResponseDTO getInspectionById(Long id) {
         Inspection inspection = inspectionRepository.findById(id)
@@ -98,6 +124,46 @@ public class InspectionService {
                 .collect(Collectors.toList());
     }
 
+    // All supplied filters are applied together in a single query
+    @Transactional(readOnly = true)
+    public List<InspectionResponseDTO> searchInspections(String status, Boolean isPaid,
+            LocalDate startDate, LocalDate endDate) {
+        validateDateRange(startDate, endDate);
+        List<Inspection> inspections = inspectionRepository.findAll(
+                InspectionSpecifications.matching(status, isPaid, startDate, endDate),
+                InspectionSpecifications.NEWEST_FIRST);
+        return inspections.stream()
+                .map(this::mapToResponseDTO)
+                .collect(Collectors.toList());
+    }
+
+    @Transactional(readOnly = true)
+    public PageResponseDTO<InspectionResponseDTO> searchInspectionsPage(String status, Boolean isPaid,
+            LocalDate startDate, LocalDate endDate, String cursor, int size) {
+        validateDateRange(startDate, endDate);
+        int limit = PageCursor.limit(size).getPageSize();
+        Specification<Inspection> specification = InspectionSpecifications.matching(
+                status, isPaid, startDate, endDate);
+        if (cursor != null && !cursor.isEmpty()) {
+            PageCursor after = PageCursor.decodeDateId(cursor);
+            specification = specification.and(InspectionSpecifications.after(after.getDate(), after.getId()));
+        }
+
+        // Sorted and limited in the database, no count query
+        List<Inspection> inspections = inspectionRepository.findBy(specification,
+                query -> query.sortBy(InspectionSpecifications.NEWEST_FIRST).limit(limit).all());
+
+        String next = null;
+        if (inspections.size() > size) {
+            inspections = inspections.subList(0, size);
+            Inspection last = inspections.get(size - 1);
+            next = PageCursor.encode(last.getDate(), last.getId());
+        }
+        return new PageResponseDTO<>(inspections.stream()
+                .map(this::mapToResponseDTO)
+                .collect(Collectors.toList()), next);
+    }
+
     public InspectionResponseDTO updateInspection(Long id, InspectionRequestDTO inspectionRequestDTO) {
         Inspection existingInspection = inspectionRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Inspection not found with id: " + id));
@@ -165,6 +231,12 @@ public class InspectionService {
         inspectionRepository.delete(inspection);
     }
 
+    private void validateDateRange(LocalDate startDate, LocalDate endDate) {
+        if (startDate != null && endDate != null && startDate.isAfter(endDate)) {
+            throw new IllegalArgumentException("Start date must not be after end date");
+        }
+    }
+
     // Helper method for DTO mapping
     private InspectionResponseDTO mapToResponseDTO(Inspection inspection) {
         InspectionResponseDTO dto = new InspectionResponseDTO();
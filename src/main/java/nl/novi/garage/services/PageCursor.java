@@ -0,0 +1,89 @@
+package nl.novi.garage.services;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+
+// Opaque keyset cursor for the paged list endpoints. It holds the sort key of the
+// last row of a page, (date, id) or only id, so the next page continues with a
+// WHERE on that key instead of an OFFSET.
+public final class PageCursor {
+
+    public static final int MAX_PAGE_SIZE = 500;
+
+    private final LocalDate date;
+    private final Long id;
+
+    private PageCursor(LocalDate date, Long id) {
+        this.date = date;
+        this.id = id;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public static String encode(LocalDate date, Long id) {
+        return encode(date + ":" + id);
+    }
+
+    public static String encode(Long id) {
+        return encode(String.valueOf(id));
+    }
+
+    // Cursor of a list sorted on (date, id). An id-only cursor of another list is rejected, it
+    // would match no row and end the list early.
+    public static PageCursor decodeDateId(String cursor) {
+        String value = decodeValue(cursor);
+        int separator = value.indexOf(':');
+        if (separator < 0) {
+            throw invalid(cursor);
+        }
+        try {
+            return new PageCursor(LocalDate.parse(value.substring(0, separator)),
+                    Long.valueOf(value.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw invalid(cursor);
+        }
+    }
+
+    // Cursor of a list sorted on id only
+    public static Long decodeId(String cursor) {
+        try {
+            return Long.valueOf(decodeValue(cursor));
+        } catch (NumberFormatException e) {
+            throw invalid(cursor);
+        }
+    }
+
+    // Fetches one extra row so we know whether there is a next page
+    public static Pageable limit(int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return PageRequest.of(0, size + 1);
+    }
+
+    private static String decodeValue(String cursor) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw invalid(cursor);
+        }
+    }
+
+    private static IllegalArgumentException invalid(String cursor) {
+        return new IllegalArgumentException("Invalid page cursor: " + cursor);
+    }
+
+    private static String encode(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,15 +1,22 @@
 package nl.novi.garage.services;
 
+import nl.novi.garage.dtos.cache.CacheStatsDTO;
 import nl.novi.garage.dtos.part.PartRequestDTO;
 import nl.novi.garage.dtos.part.PartResponseDTO;
+import nl.novi.garage.dtos.part.PartStockReceiptDTO;
 import nl.novi.garage.dtos.part.PartStockUpdateDTO;
+import nl.novi.garage.dtos.part.StockMovementResponseDTO;
 import nl.novi.garage.models.Part;
 import nl.novi.garage.repositories.PartRepository;
+import nl.novi.garage.repositories.RepairRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -17,10 +24,17 @@ import java.util.stream.Collectors;
 public class PartService {
 
     private final PartRepository partRepository;
+    private final StockService stockService;
+    private final RepairRepository repairRepository;
+    private final CatalogCache<PartResponseDTO> partCatalogCache;
 
     @Autowired
-    public PartService(PartRepository partRepository) {
+    public PartService(PartRepository partRepository, StockService stockService,
+            RepairRepository repairRepository, CatalogCache<PartResponseDTO> partCatalogCache) {
         this.partRepository = partRepository;
+        this.stockService = stockService;
+        this.repairRepository = repairRepository;
+        this.partCatalogCache = partCatalogCache;
     }
 
     public PartResponseDTO createPart(PartRequestDTO partRequestDTO) {
@@ -38,23 +52,35 @@ public class PartService {
 
         // Save part
         Part savedPart = partRepository.save(part);
+        stockService.recordInitialStock(savedPart);
+        partCatalogCache.invalidate(savedPart.getId());
 
         return mapToResponseDTO(savedPart);
     }
 
+    // Served from the catalog cache, the returned parts are shared and must not be modified.
+    // StockService evicts a part whenever its available stock changes.
     @Transactional(readOnly = true)
     public List<PartResponseDTO> getAllParts() {
-        List<Part> parts = partRepository.findAll();
-        return parts.stream()
-                .map(this::mapToResponseDTO)
-                .collect(Collectors.toList());
+        return partCatalogCache.getAll(() -> mapToResponseDTOs(partRepository.findAll()));
     }
 
     @Transactional(readOnly = true)
     public PartResponseDTO getPartById(Long id) {
-        Part part = partRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("Part not found with id: " + id));
-        return mapToResponseDTO(part);
+        PartResponseDTO part = partCatalogCache.get(id,
+                key -> partRepository.findById(key).map(this::mapToResponseDTO).orElse(null));
+        if (part == null) {
+            throw new IllegalArgumentException("Part not found with id: " + id);
+        }
+        return part;
+    }
+
+    // Catalog entries of the given parts by id, only the ones not cached yet are queried
+    @Transactional(readOnly = true)
+    public Map<Long, PartResponseDTO> getPartsById(Collection<Long> ids) {
+        return partCatalogCache.getAll(ids, missing -> mapToResponseDTOs(partRepository.findAllById(missing))
+                .stream()
+                .collect(Collectors.toMap(PartResponseDTO::getId, part -> part)));
     }
 
     @Transactional(readOnly = true)
@@ -74,12 +100,19 @@ public class PartService {
             throw new IllegalArgumentException("Part with name '" + partRequestDTO.getName() + "' already exists");
         }
 
-        // Update part fields
+        // Update part fields, a changed stock is booked as a correction in the ledger
+        BigDecimal oldPrice = existingPart.getPrice();
         existingPart.setName(partRequestDTO.getName());
         existingPart.setPrice(partRequestDTO.getPrice());
-        existingPart.setStock(partRequestDTO.getStock());
 
         Part updatedPart = partRepository.save(existingPart);
+        stockService.correct(updatedPart, partRequestDTO.getStock());
+        partCatalogCache.invalidate(id);
+
+        // Repair totals follow the catalog price
+        if (oldPrice.compareTo(updatedPart.getPrice()) != 0) {
+            repairRepository.adjustPartsTotalsForPriceChange(id, updatedPart.getPrice().subtract(oldPrice));
+        }
         return mapToResponseDTO(updatedPart);
     }
 
@@ -87,11 +120,34 @@ public class PartService {
         Part existingPart = partRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Part not found with id: " + id));
 
-        // Update only the stock
-        existingPart.setStock(stockUpdateDTO.getStock());
+        // Book the difference with the counted stock as a correction
+        stockService.correct(existingPart, stockUpdateDTO.getStock());
+        partCatalogCache.invalidate(id);
+        return mapToResponseDTO(existingPart);
+    }
 
-        Part updatedPart = partRepository.save(existingPart);
-        return mapToResponseDTO(updatedPart);
+    public PartResponseDTO receiveStock(Long id, PartStockReceiptDTO receiptDTO) {
+        Part existingPart = partRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Part not found with id: " + id));
+
+        stockService.receive(existingPart, receiptDTO.getQuantity());
+        return mapToResponseDTO(existingPart);
+    }
+
+    @Transactional(readOnly = true)
+    public List<StockMovementResponseDTO> getStockMovements(Long id) {
+        if (!partRepository.existsById(id)) {
+            throw new IllegalArgumentException("Part not found with id: " + id);
+        }
+
+        return stockService.getMovements(id).stream()
+                .map(movement -> new StockMovementResponseDTO(
+                        movement.getId(),
+                        movement.getType(),
+                        movement.getQuantity(),
+                        movement.getRepairId(),
+                        movement.getCreatedAt()))
+                .collect(Collectors.toList());
     }
 
     public void deletePart(Long id) {
@@ -100,47 +156,66 @@ public class PartService {
 
         // TODO: In future, check if part is used in any repairs
         // For now, we can safely delete
+        stockService.deleteMovements(id);
         partRepository.delete(part);
+        partCatalogCache.invalidate(id);
     }
 
     @Transactional(readOnly = true)
     public List<PartResponseDTO> searchPartsByName(String name) {
         List<Part> parts = partRepository.findByNameContainingIgnoreCase(name);
-        return parts.stream()
-                .map(this::mapToResponseDTO)
-                .collect(Collectors.toList());
+        return mapToResponseDTOs(parts);
     }
 
     @Transactional(readOnly = true)
     public List<PartResponseDTO> getPartsWithLowStock(Integer threshold) {
-        List<Part> parts = partRepository.findByStockLessThanEqual(threshold);
-        return parts.stream()
-                .map(this::mapToResponseDTO)
-                .collect(Collectors.toList());
+        List<Part> parts = partRepository.findByAvailableStockLessThanEqual(threshold);
+        return mapToResponseDTOs(parts);
     }
 
     @Transactional(readOnly = true)
     public List<PartResponseDTO> getPartsInStock() {
-        List<Part> parts = partRepository.findByStockGreaterThan(0);
-        return parts.stream()
-                .map(this::mapToResponseDTO)
-                .collect(Collectors.toList());
+        List<Part> parts = partRepository.findByAvailableStockGreaterThan(0);
+        return mapToResponseDTOs(parts);
     }
 
     @Transactional(readOnly = true)
     public List<PartResponseDTO> getOutOfStockParts() {
-        List<Part> parts = partRepository.findByStockEquals(0);
-        return parts.stream()
-                .map(this::mapToResponseDTO)
-                .collect(Collectors.toList());
+        List<Part> parts = partRepository.findByAvailableStockEquals(0);
+        return mapToResponseDTOs(parts);
     }
 
-    // Helper method for DTO mapping
+    @Transactional(readOnly = true)
+    public long countPartsWithLowStock(Integer threshold) {
+        return partRepository.countByAvailableStockLessThanEqual(threshold);
+    }
+
+    @Transactional(readOnly = true)
+    public long countOutOfStockParts() {
+        return partRepository.countByAvailableStockEquals(0);
+    }
+
+    public CacheStatsDTO getCacheStats() {
+        return partCatalogCache.getStats();
+    }
+
+    // Helper methods for DTO mapping, stock is reported as the available stock
     private PartResponseDTO mapToResponseDTO(Part part) {
         return new PartResponseDTO(
                 part.getId(),
                 part.getName(),
                 part.getPrice(),
-                part.getStock());
+                stockService.getAvailableStock(part.getId()));
+    }
+
+    private List<PartResponseDTO> mapToResponseDTOs(List<Part> parts) {
+        Map<Long, Integer> availableStock = stockService.getAvailableStock(parts);
+        return parts.stream()
+                .map(part -> new PartResponseDTO(
+                        part.getId(),
+                        part.getName(),
+                        part.getPrice(),
+                        availableStock.getOrDefault(part.getId(), part.getStock())))
+                .collect(Collectors.toList());
     }
 }
\ No newline at end of file
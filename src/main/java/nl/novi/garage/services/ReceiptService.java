@@ -1,7 +1,9 @@
 package nl.novi.garage.services;
 
+import jakarta.persistence.EntityManager;
 import nl.novi.garage.dtos.customer.CustomerResponseDTO;
 import nl.novi.garage.dtos.inspection.InspectionResponseDTO;
+import nl.novi.garage.dtos.page.PageResponseDTO;
 import nl.novi.garage.dtos.receipt.ReceiptGenerateRequestDTO;
 import nl.novi.garage.dtos.receipt.ReceiptPaymentDTO;
 import nl.novi.garage.dtos.receipt.ReceiptResponseDTO;
@@ -9,6 +11,7 @@ import nl.novi.garage.dtos.repair.RepairResponseDTO;
 import nl.novi.garage.models.*;
 import nl.novi.garage.repositories.*;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -16,8 +19,13 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
@@ -26,15 +34,16 @@ public class ReceiptService {
     private static final BigDecimal VAT_RATE = new BigDecimal("0.21");
     private static final BigDecimal INSPECTION_FEE = new BigDecimal("50.00");
 
+    // Receipts kept in the persistence context while streaming before it is cleared
+    private static final int STREAM_CHUNK_SIZE = 500;
+
     private final ReceiptRepository receiptRepository;
     private final ReceiptInspectionsRepository receiptInspectionsRepository;
     private final ReceiptRepairsRepository receiptRepairsRepository;
     private final CustomerRepository customerRepository;
     private final InspectionRepository inspectionRepository;
     private final RepairRepository repairRepository;
-    private final RepairActionsRepository repairActionsRepository;
-    private final RepairPartsRepository repairPartsRepository;
-    private final RepairCustomActionsRepository repairCustomActionsRepository;
+    private final EntityManager entityManager;
 
     @Autowired
     public ReceiptService(ReceiptRepository receiptRepository,
@@ -43,18 +52,14 @@ public class ReceiptService {
             CustomerRepository customerRepository,
             InspectionRepository inspectionRepository,
             RepairRepository repairRepository,
-            RepairActionsRepository repairActionsRepository,
-            RepairPartsRepository repairPartsRepository,
-            RepairCustomActionsRepository repairCustomActionsRepository) {
+            EntityManager entityManager) {
         this.receiptRepository = receiptRepository;
         this.receiptInspectionsRepository = receiptInspectionsRepository;
         this.receiptRepairsRepository = receiptRepairsRepository;
         this.customerRepository = customerRepository;
         this.inspectionRepository = inspectionRepository;
         this.repairRepository = repairRepository;
-        this.repairActionsRepository = repairActionsRepository;
-        this.repairPartsRepository = repairPartsRepository;
-        this.repairCustomActionsRepository = repairCustomActionsRepository;
+        this.entityManager = entityManager;
     }
 
     public ReceiptResponseDTO generateReceipt(ReceiptGenerateRequestDTO requestDTO) {
@@ -63,13 +68,18 @@ public class ReceiptService {
                 .orElseThrow(() -> new IllegalArgumentException(
                         "Customer not found with id: " + requestDTO.getCustomerId()));
 
-        // Validate and fetch inspections
+        // Validate and fetch inspections, all in one query together with their car
         List<Inspection> inspections = new ArrayList<>();
-        if (requestDTO.getInspectionIds() != null) {
+        if (requestDTO.getInspectionIds() != null && !requestDTO.getInspectionIds().isEmpty()) {
+            Map<Long, Inspection> inspectionsById = inspectionRepository
+                    .findByIdIn(requestDTO.getInspectionIds()).stream()
+                    .collect(Collectors.toMap(Inspection::getId, Function.identity()));
+
             for (Long inspectionId : requestDTO.getInspectionIds()) {
-                Inspection inspection = inspectionRepository.findById(inspectionId)
-                        .orElseThrow(() -> new IllegalArgumentException(
-                                "Inspection not found with id: " + inspectionId));
+                Inspection inspection = inspectionsById.get(inspectionId);
+                if (inspection == null) {
+                    throw new IllegalArgumentException("Inspection not found with id: " + inspectionId);
+                }
 
                 // Verify inspection belongs to customer
                 if (!inspection.getCar().getCustomer().getId().equals(requestDTO.getCustomerId())) {
@@ -88,13 +98,18 @@ public class ReceiptService {
             }
         }
 
-        // Validate and fetch repairs
+        // Validate and fetch repairs, all in one query together with their car
         List<Repair> repairs = new ArrayList<>();
-        if (requestDTO.getRepairIds() != null) {
+        if (requestDTO.getRepairIds() != null && !requestDTO.getRepairIds().isEmpty()) {
+            Map<Long, Repair> repairsById = repairRepository
+                    .findByIdIn(requestDTO.getRepairIds()).stream()
+                    .collect(Collectors.toMap(Repair::getId, Function.identity()));
+
             for (Long repairId : requestDTO.getRepairIds()) {
-                Repair repair = repairRepository.findById(repairId)
-                        .orElseThrow(() -> new IllegalArgumentException(
-                                "Repair not found with id: " + repairId));
+                Repair repair = repairsById.get(repairId);
+                if (repair == null) {
+                    throw new IllegalArgumentException("Repair not found with id: " + repairId);
+                }
 
                 // Verify repair belongs to customer
                 if (!repair.getCar().getCustomer().getId().equals(requestDTO.getCustomerId())) {
@@ -128,16 +143,16 @@ public class ReceiptService {
 
         Receipt savedReceipt = receiptRepository.save(receipt);
 
-        // Create junction entries for inspections
-        for (Inspection inspection : inspections) {
-            ReceiptInspections receiptInspection = new ReceiptInspections(savedReceipt, inspection);
-            receiptInspectionsRepository.save(receiptInspection);
+        // Create junction entries, saved together so Hibernate can batch the inserts
+        if (!inspections.isEmpty()) {
+            receiptInspectionsRepository.saveAll(inspections.stream()
+                    .map(inspection -> new ReceiptInspections(savedReceipt, inspection))
+                    .collect(Collectors.toList()));
         }
-
-        // Create junction entries for repairs
-        for (Repair repair : repairs) {
-            ReceiptRepairs receiptRepair = new ReceiptRepairs(savedReceipt, repair);
-            receiptRepairsRepository.save(receiptRepair);
+        if (!repairs.isEmpty()) {
+            receiptRepairsRepository.saveAll(repairs.stream()
+                    .map(repair -> new ReceiptRepairs(savedReceipt, repair))
+                    .collect(Collectors.toList()));
         }
 
         return mapToResponseDTO(savedReceipt);
@@ -151,6 +166,43 @@ public class ReceiptService {
                 .collect(Collectors.toList());
     }
 
+    // Hands every receipt to the consumer while they are read from the database, memory use
+    // stays the same however many receipts there are
+    @Transactional(readOnly = true)
+    public void streamAllReceipts(Consumer<ReceiptResponseDTO> consumer) {
+        try (Stream<Receipt> receipts = receiptRepository.streamAll()) {
+            Iterator<Receipt> iterator = receipts.iterator();
+            for (int count = 1; iterator.hasNext(); count++) {
+                consumer.accept(mapToResponseDTO(iterator.next()));
+                if (count % STREAM_CHUNK_SIZE == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public PageResponseDTO<ReceiptResponseDTO> getReceiptsPage(String cursor, int size) {
+        Pageable limit = PageCursor.limit(size);
+        List<Receipt> receipts;
+        if (cursor == null || cursor.isEmpty()) {
+            receipts = receiptRepository.findPage(limit);
+        } else {
+            PageCursor after = PageCursor.decodeDateId(cursor);
+            receipts = receiptRepository.findPageAfter(after.getDate(), after.getId(), limit);
+        }
+
+        String next = null;
+        if (receipts.size() > size) {
+            receipts = receipts.subList(0, size);
+            Receipt last = receipts.get(size - 1);
+            next = PageCursor.encode(last.getCreatedDate(), last.getId());
+        }
+        return new PageResponseDTO<>(receipts.stream()
+                .map(this::mapToResponseDTO)
+                .collect(Collectors.toList()), next);
+    }
+
     @Transactional(readOnly = true)
     public ReceiptResponseDTO getReceiptById(Long id) {
         Receipt receipt = receiptRepository.findById(id)
@@ -178,6 +230,11 @@ public class ReceiptService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
+    public long countUnpaidReceipts() {
+        return receiptRepository.countByIsPaid(false);
+    }
+
     public ReceiptResponseDTO markAsPaid(Long id) {
         Receipt receipt = receiptRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Receipt not found with id: " + id));
@@ -225,7 +282,8 @@ public class ReceiptService {
         return mapToResponseDTO(receipt);
     }
 
-    private BigDecimal calculateTotalExcludingVat(List<Inspection> inspections, List<Repair> repairs) {
+    // Package-private for the benchmarks in src/jmh/java
+    BigDecimal calculateTotalExcludingVat(List<Inspection> inspections, List<Repair> repairs) {
         BigDecimal total = BigDecimal.ZERO;
 
         // Add inspection fees (€50 each)
@@ -233,44 +291,16 @@ public class ReceiptService {
             total = total.add(INSPECTION_FEE.multiply(new BigDecimal(inspections.size())));
         }
 
-        // Add repair costs
+        // Add repair costs, read from the totals kept on each repair
         if (repairs != null) {
             for (Repair repair : repairs) {
-                total = total.add(calculateRepairCost(repair));
+                total = total.add(repair.getTotal());
             }
         }
 
         return total.setScale(2, RoundingMode.HALF_UP);
     }
 
-    private BigDecimal calculateRepairCost(Repair repair) {
-        BigDecimal cost = BigDecimal.ZERO;
-
-        // Add action costs
-        List<RepairActions> actions = repairActionsRepository.findByRepairId(repair.getId());
-        for (RepairActions action : actions) {
-            BigDecimal actionCost = action.getAction().getPrice()
-                    .multiply(new BigDecimal(action.getAmount()));
-            cost = cost.add(actionCost);
-        }
-
-        // Add part costs
-        List<RepairParts> parts = repairPartsRepository.findByRepairId(repair.getId());
-        for (RepairParts part : parts) {
-            BigDecimal partCost = part.getPart().getPrice()
-                    .multiply(new BigDecimal(part.getAmount()));
-            cost = cost.add(partCost);
-        }
-
-        // Add custom action costs
-        List<RepairCustomActions> customActions = repairCustomActionsRepository.findByRepairId(repair.getId());
-        for (RepairCustomActions customAction : customActions) {
-            cost = cost.add(customAction.getPrice());
-        }
-
-        return cost;
-    }
-
     // Helper methods for DTO mapping
     private ReceiptResponseDTO mapToResponseDTO(Receipt receipt) {
         CustomerResponseDTO customerDTO = new CustomerResponseDTO(
@@ -342,6 +372,10 @@ public class ReceiptService {
         dto.setStatus(repair.getStatus());
         dto.setReport(repair.getReport());
         dto.setIsPaid(repair.getIsPaid());
+        dto.setLabourTotal(repair.getLabourTotal());
+        dto.setPartsTotal(repair.getPartsTotal());
+        dto.setCustomTotal(repair.getCustomTotal());
+        dto.setTotal(repair.getTotal());
         return dto;
     }
 }
\ No newline at end of file
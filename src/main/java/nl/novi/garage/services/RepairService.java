@@ -1,20 +1,44 @@
 package nl.novi.garage.services;
 
+import jakarta.persistence.EntityManager;
+import nl.novi.garage.dtos.action.ActionResponseDTO;
+import nl.novi.garage.dtos.page.PageResponseDTO;
+import nl.novi.garage.dtos.part.PartResponseDTO;
 import nl.novi.garage.dtos.repair.*;
 import nl.novi.garage.models.*;
 import nl.novi.garage.repositories.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
 public class RepairService {
 
+    private static final Logger logger = LoggerFactory.getLogger(RepairService.class);
+
+    // Keeps IN (...) lists well below the bind parameter limit of the JDBC driver
+    private static final int IN_CLAUSE_BATCH_SIZE = 1000;
+
+    // Repairs mapped per round trip for their line items while streaming, the persistence
+    // context is cleared after each chunk
+    private static final int STREAM_CHUNK_SIZE = 500;
+
     private final RepairRepository repairRepository;
     private final CarRepository carRepository;
     private final RepairActionsRepository repairActionsRepository;
@@ -22,6 +46,10 @@ public class RepairService {
     private final RepairCustomActionsRepository repairCustomActionsRepository;
     private final ActionRepository actionRepository;
     private final PartRepository partRepository;
+    private final StockService stockService;
+    private final ActionService actionService;
+    private final PartService partService;
+    private final EntityManager entityManager;
 
     @Autowired
     public RepairService(RepairRepository repairRepository,
@@ -30,7 +58,11 @@ public class RepairService {
             RepairPartsRepository repairPartsRepository,
             RepairCustomActionsRepository repairCustomActionsRepository,
             ActionRepository actionRepository,
-            PartRepository partRepository) {
+            PartRepository partRepository,
+            StockService stockService,
+            ActionService actionService,
+            PartService partService,
+            EntityManager entityManager) {
         this.repairRepository = repairRepository;
         this.carRepository = carRepository;
         this.repairActionsRepository = repairActionsRepository;
@@ -38,6 +70,10 @@ public class RepairService {
         this.repairCustomActionsRepository = repairCustomActionsRepository;
         this.actionRepository = actionRepository;
         this.partRepository = partRepository;
+        this.stockService = stockService;
+        this.actionService = actionService;
+        this.partService = partService;
+        this.entityManager = entityManager;
     }
 
     public RepairResponseDTO createRepair(RepairRequestDTO repairRequestDTO) {
@@ -63,9 +99,43 @@ public class RepairService {
     @Transactional(readOnly = true)
     public List<RepairResponseDTO> getAllRepairs() {
         List<Repair> repairs = repairRepository.findAll();
-        return repairs.stream()
-                .map(this::mapToResponseDTO)
-                .collect(Collectors.toList());
+        return mapToResponseDTOs(repairs);
+    }
+
+    // Hands every repair to the consumer while they are read from the database, memory use
+    // stays the same however many repairs there are
+    @Transactional(readOnly = true)
+    public void streamAllRepairs(Consumer<RepairResponseDTO> consumer) {
+        List<Repair> chunk = new ArrayList<>(STREAM_CHUNK_SIZE);
+        try (Stream<Repair> repairs = repairRepository.streamAll()) {
+            repairs.forEach(repair -> {
+                chunk.add(repair);
+                if (chunk.size() == STREAM_CHUNK_SIZE) {
+                    writeChunk(chunk, consumer);
+                }
+            });
+        }
+        writeChunk(chunk, consumer);
+    }
+
+    @Transactional(readOnly = true)
+    public PageResponseDTO<RepairResponseDTO> getRepairsPage(String cursor, int size) {
+        Pageable limit = PageCursor.limit(size);
+        List<Repair> repairs;
+        if (cursor == null || cursor.isEmpty()) {
+            repairs = repairRepository.findPage(limit);
+        } else {
+            PageCursor after = PageCursor.decodeDateId(cursor);
+            repairs = repairRepository.findPageAfter(after.getDate(), after.getId(), limit);
+        }
+
+        String next = null;
+        if (repairs.size() > size) {
+            repairs = repairs.subList(0, size);
+            Repair last = repairs.get(size - 1);
+            next = PageCursor.encode(last.getDate(), last.getId());
+        }
+        return new PageResponseDTO<>(mapToResponseDTOs(repairs), next);
     }
 
     @Transactional(readOnly = true)
@@ -82,33 +152,60 @@ public class RepairService {
                 .orElseThrow(() -> new IllegalArgumentException("Car not found with id: " + carId));
 
         List<Repair> repairs = repairRepository.findByCarIdOrderByDateDesc(carId);
-        return repairs.stream()
-                .map(this::mapToResponseDTO)
-                .collect(Collectors.toList());
+        return mapToResponseDTOs(repairs);
     }
 
     @Transactional(readOnly = true)
     public List<RepairResponseDTO> getRepairsByStatus(String status) {
         List<Repair> repairs = repairRepository.findByStatus(status);
-        return repairs.stream()
-                .map(this::mapToResponseDTO)
-                .collect(Collectors.toList());
+        return mapToResponseDTOs(repairs);
     }
 
     @Transactional(readOnly = true)
     public List<RepairResponseDTO> getRepairsByPaymentStatus(Boolean isPaid) {
         List<Repair> repairs = repairRepository.findByIsPaid(isPaid);
-        return repairs.stream()
-                .map(this::mapToResponseDTO)
-                .collect(Collectors.toList());
+        return mapToResponseDTOs(repairs);
     }
 
     @Transactional(readOnly = true)
     public List<RepairResponseDTO> getRepairsByDateRange(LocalDate startDate, LocalDate endDate) {
         List<Repair> repairs = repairRepository.findByDateBetween(startDate, endDate);
-        return repairs.stream()
-                .map(this::mapToResponseDTO)
-                .collect(Collectors.toList());
+        return mapToResponseDTOs(repairs);
+    }
+
+    // All supplied filters are applied together in a single query
+    @Transactional(readOnly = true)
+    public List<RepairResponseDTO> searchRepairs(String status, Boolean isPaid,
+            LocalDate startDate, LocalDate endDate) {
+        validateDateRange(startDate, endDate);
+        List<Repair> repairs = repairRepository.findAll(
+                RepairSpecifications.matching(status, isPaid, startDate, endDate),
+                RepairSpecifications.NEWEST_FIRST);
+        return mapToResponseDTOs(repairs);
+    }
+
+    @Transactional(readOnly = true)
+    public PageResponseDTO<RepairResponseDTO> searchRepairsPage(String status, Boolean isPaid,
+            LocalDate startDate, LocalDate endDate, String cursor, int size) {
+        validateDateRange(startDate, endDate);
+        int limit = PageCursor.limit(size).getPageSize();
+        Specification<Repair> specification = RepairSpecifications.matching(status, isPaid, startDate, endDate);
+        if (cursor != null && !cursor.isEmpty()) {
+            PageCursor after = PageCursor.decodeDateId(cursor);
+            specification = specification.and(RepairSpecifications.after(after.getDate(), after.getId()));
+        }
+
+        // Sorted and limited in the database, no count query
+        List<Repair> repairs = repairRepository.findBy(specification,
+                query -> query.sortBy(RepairSpecifications.NEWEST_FIRST).limit(limit).all());
+
+        String next = null;
+        if (repairs.size() > size) {
+            repairs = repairs.subList(0, size);
+            Repair last = repairs.get(size - 1);
+            next = PageCursor.encode(last.getDate(), last.getId());
+        }
+        return new PageResponseDTO<>(mapToResponseDTOs(repairs), next);
     }
 
     public RepairResponseDTO updateRepair(Long id, RepairRequestDTO repairRequestDTO) {
@@ -150,6 +247,7 @@ public class RepairService {
         // Create repair action
         RepairActions repairAction = new RepairActions(repair, action, addActionDTO.getAmount());
         RepairActions savedRepairAction = repairActionsRepository.save(repairAction);
+        repairRepository.addToLabourTotal(repairId, lineCost(action.getPrice(), addActionDTO.getAmount()));
 
         return new RepairActionItemDTO(
                 savedRepairAction.getId(),
@@ -167,25 +265,19 @@ public class RepairService {
         Part part = partRepository.findById(addPartDTO.getPartId())
                 .orElseThrow(() -> new IllegalArgumentException("Part not found with id: " + addPartDTO.getPartId()));
 
-        // Check stock availability
-        if (part.getStock() < addPartDTO.getAmount()) {
-            throw new IllegalArgumentException(
-                    "Insufficient stock. Available: " + part.getStock() + ", Required: " + addPartDTO.getAmount());
-        }
-
         // Check if part already exists for this repair
         repairPartsRepository.findByRepairIdAndPartId(repairId, addPartDTO.getPartId())
                 .ifPresent(existing -> {
                     throw new IllegalArgumentException("Part already added to this repair");
                 });
 
-        // Reduce stock
-        part.setStock(part.getStock() - addPartDTO.getAmount());
-        partRepository.save(part);
+        // Reserve stock, the check and the decrement happen atomically in the database
+        stockService.consume(part, addPartDTO.getAmount(), repairId);
 
         // Create repair part
         RepairParts repairPart = new RepairParts(repair, part, addPartDTO.getAmount());
         RepairParts savedRepairPart = repairPartsRepository.save(repairPart);
+        repairRepository.addToPartsTotal(repairId, lineCost(part.getPrice(), addPartDTO.getAmount()));
 
         return new RepairPartItemDTO(
                 savedRepairPart.getId(),
@@ -204,6 +296,7 @@ public class RepairService {
         RepairCustomActions customAction = new RepairCustomActions(repair, addCustomActionDTO.getDescription(),
                 addCustomActionDTO.getPrice());
         RepairCustomActions savedCustomAction = repairCustomActionsRepository.save(customAction);
+        repairRepository.addToCustomTotal(repairId, savedCustomAction.getPrice());
 
         return new RepairCustomActionItemDTO(
                 savedCustomAction.getId(),
@@ -216,6 +309,8 @@ public class RepairService {
                 .orElseThrow(() -> new IllegalArgumentException("Action not found in this repair"));
 
         repairActionsRepository.delete(repairAction);
+        repairRepository.addToLabourTotal(repairId,
+                lineCost(repairAction.getAction().getPrice(), repairAction.getAmount()).negate());
     }
 
     public void removePartFromRepair(Long repairId, Long partId) {
@@ -223,11 +318,11 @@ public class RepairService {
                 .orElseThrow(() -> new IllegalArgumentException("Part not found in this repair"));
 
         // Restore stock
-        Part part = repairPart.getPart();
-        part.setStock(part.getStock() + repairPart.getAmount());
-        partRepository.save(part);
+        stockService.returnToStock(Map.of(repairPart.getPart(), repairPart.getAmount()), repairId);
 
         repairPartsRepository.delete(repairPart);
+        repairRepository.addToPartsTotal(repairId,
+                lineCost(repairPart.getPart().getPrice(), repairPart.getAmount()).negate());
     }
 
     public void removeCustomActionFromRepair(Long customActionId) {
@@ -235,6 +330,7 @@ public class RepairService {
                 .orElseThrow(() -> new IllegalArgumentException("Custom action not found with id: " + customActionId));
 
         repairCustomActionsRepository.delete(customAction);
+        repairRepository.addToCustomTotal(customAction.getRepair().getId(), customAction.getPrice().negate());
     }
 
     public RepairResponseDTO markAsPaid(Long id) {
@@ -261,19 +357,109 @@ public class RepairService {
         }
 
         // Restore stock for all parts used in this repair
-        List<RepairParts> repairParts = repairPartsRepository.findByRepairId(id);
-        for (RepairParts repairPart : repairParts) {
-            Part part = repairPart.getPart();
-            part.setStock(part.getStock() + repairPart.getAmount());
-            partRepository.save(part);
+        Map<Part, Integer> returnedAmounts = new HashMap<>();
+        for (RepairParts repairPart : repairPartsRepository.findByRepairId(id)) {
+            returnedAmounts.merge(repairPart.getPart(), repairPart.getAmount(), Integer::sum);
         }
+        stockService.returnToStock(returnedAmounts, id);
 
         // Delete repair (cascade will handle related entities)
         repairRepository.delete(repair);
     }
 
-    // Helper method for DTO mapping
+    // Checks the stored cost totals against the line items and corrects the repairs that
+    // drifted. Each repair is locked before its totals are recomputed, so the recomputation
+    // sees every line item whose increment was committed before it.
+    @Scheduled(fixedDelayString = "${repair.totals.reconciliation.interval}")
+    public int reconcileTotals() {
+        List<Long> driftedIds = repairRepository.findIdsWithDriftedTotals();
+        if (driftedIds.isEmpty()) {
+            return 0;
+        }
+
+        logger.warn("Correcting cost totals of {} repair(s): {}", driftedIds.size(), driftedIds);
+        for (Long id : driftedIds) {
+            repairRepository.findByIdForUpdate(id)
+                    .ifPresent(repair -> repairRepository.recalculateTotals(id));
+        }
+        return driftedIds.size();
+    }
+
+    // Package-private for the benchmarks in src/jmh/java
+    BigDecimal lineCost(BigDecimal price, int amount) {
+        return price.multiply(BigDecimal.valueOf(amount));
+    }
+
+    private void validateDateRange(LocalDate startDate, LocalDate endDate) {
+        if (startDate != null && endDate != null && startDate.isAfter(endDate)) {
+            throw new IllegalArgumentException("Start date must not be after end date");
+        }
+    }
+
+    private void writeChunk(List<Repair> chunk, Consumer<RepairResponseDTO> consumer) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        mapToResponseDTOs(chunk).forEach(consumer);
+        chunk.clear();
+        // Detach the repairs, cars and line items of this chunk
+        entityManager.clear();
+    }
+
+    // Helper methods for DTO mapping
     private RepairResponseDTO mapToResponseDTO(Repair repair) {
+        return mapToResponseDTOs(List.of(repair)).get(0);
+    }
+
+    private List<RepairResponseDTO> mapToResponseDTOs(List<Repair> repairs) {
+        if (repairs.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        // Bulk load the line items of all repairs instead of querying per repair
+        Map<Long, List<RepairActions>> actionsByRepair = new HashMap<>();
+        Map<Long, List<RepairParts>> partsByRepair = new HashMap<>();
+        Map<Long, List<RepairCustomActions>> customActionsByRepair = new HashMap<>();
+
+        List<Long> repairIds = repairs.stream()
+                .map(Repair::getId)
+                .collect(Collectors.toList());
+        for (int from = 0; from < repairIds.size(); from += IN_CLAUSE_BATCH_SIZE) {
+            List<Long> batch = repairIds.subList(from, Math.min(from + IN_CLAUSE_BATCH_SIZE, repairIds.size()));
+            for (RepairActions ra : repairActionsRepository.findByRepairIdIn(batch)) {
+                actionsByRepair.computeIfAbsent(ra.getRepair().getId(), id -> new ArrayList<>()).add(ra);
+            }
+            for (RepairParts rp : repairPartsRepository.findByRepairIdIn(batch)) {
+                partsByRepair.computeIfAbsent(rp.getRepair().getId(), id -> new ArrayList<>()).add(rp);
+            }
+            for (RepairCustomActions ca : repairCustomActionsRepository.findByRepairIdIn(batch)) {
+                customActionsByRepair.computeIfAbsent(ca.getRepair().getId(), id -> new ArrayList<>()).add(ca);
+            }
+        }
+
+        // Names and prices come from the action and part catalogs, only the referenced ids are read
+        Map<Long, ActionResponseDTO> actionsById = actionService.getActionsById(actionsByRepair.values().stream()
+                .flatMap(List::stream)
+                .map(ra -> ra.getAction().getId())
+                .collect(Collectors.toSet()));
+        Map<Long, PartResponseDTO> partsById = partService.getPartsById(partsByRepair.values().stream()
+                .flatMap(List::stream)
+                .map(rp -> rp.getPart().getId())
+                .collect(Collectors.toSet()));
+
+        return repairs.stream()
+                .map(repair -> mapToResponseDTO(repair,
+                        actionsByRepair.getOrDefault(repair.getId(), List.of()),
+                        partsByRepair.getOrDefault(repair.getId(), List.of()),
+                        customActionsByRepair.getOrDefault(repair.getId(), List.of()),
+                        actionsById, partsById))
+                .collect(Collectors.toList());
+    }
+
+    // Maps one repair from already loaded line items and catalog entries, without queries
+    RepairResponseDTO mapToResponseDTO(Repair repair, List<RepairActions> repairActions,
+            List<RepairParts> repairParts, List<RepairCustomActions> customActions,
+            Map<Long, ActionResponseDTO> actionsById, Map<Long, PartResponseDTO> partsById) {
         RepairResponseDTO dto = new RepairResponseDTO();
         dto.setId(repair.getId());
         dto.setCarId(repair.getCar().getId());
@@ -284,32 +470,39 @@ public class RepairService {
         dto.setStatus(repair.getStatus());
         dto.setReport(repair.getReport());
         dto.setIsPaid(repair.getIsPaid());
+        dto.setLabourTotal(repair.getLabourTotal());
+        dto.setPartsTotal(repair.getPartsTotal());
+        dto.setCustomTotal(repair.getCustomTotal());
+        dto.setTotal(repair.getTotal());
 
         // Map actions
-        List<RepairActions> repairActions = repairActionsRepository.findByRepairId(repair.getId());
         dto.setActions(repairActions.stream()
-                .map(ra -> new RepairActionItemDTO(
-                        ra.getId(),
-                        ra.getAction().getId(),
-                        ra.getAction().getName(),
-                        ra.getAction().getDescription(),
-                        ra.getAction().getPrice(),
-                        ra.getAmount()))
+                .map(ra -> {
+                    ActionResponseDTO action = actionsById.get(ra.getAction().getId());
+                    return new RepairActionItemDTO(
+                            ra.getId(),
+                            action.getId(),
+                            action.getName(),
+                            action.getDescription(),
+                            action.getPrice(),
+                            ra.getAmount());
+                })
                 .collect(Collectors.toList()));
 
         // Map parts
-        List<RepairParts> repairParts = repairPartsRepository.findByRepairId(repair.getId());
         dto.setParts(repairParts.stream()
-                .map(rp -> new RepairPartItemDTO(
-                        rp.getId(),
-                        rp.getPart().getId(),
-                        rp.getPart().getName(),
-                        rp.getPart().getPrice(),
-                        rp.getAmount()))
+                .map(rp -> {
+                    PartResponseDTO part = partsById.get(rp.getPart().getId());
+                    return new RepairPartItemDTO(
+                            rp.getId(),
+                            part.getId(),
+                            part.getName(),
+                            part.getPrice(),
+                            rp.getAmount());
+                })
                 .collect(Collectors.toList()));
 
         // Map custom actions
-        List<RepairCustomActions> customActions = repairCustomActionsRepository.findByRepairId(repair.getId());
         dto.setCustomActions(customActions.stream()
                 .map(ca -> new RepairCustomActionItemDTO(
                         ca.getId(),
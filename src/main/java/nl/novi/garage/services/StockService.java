@@ -0,0 +1,176 @@
+package nl.novi.garage.services;
+
+import nl.novi.garage.dtos.part.PartResponseDTO;
+import nl.novi.garage.models.Part;
+import nl.novi.garage.models.StockMovement;
+import nl.novi.garage.repositories.PartRepository;
+import nl.novi.garage.repositories.StockMovementRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+// Keeps part stock as an append-only ledger of movements on top of the Part.stock snapshot.
+// Receipts, returns and upward corrections are plain inserts and never touch the part row.
+// Consumption has to guard against negative stock, so it decrements the snapshot with a
+// conditional update and records an already applied movement. Pending movements are folded
+// into the snapshot periodically, or for a single part when a consumption needs them.
+// Every change of the available stock evicts the part from the catalog cache.
+@Service
+@Transactional
+public class StockService {
+
+    private final StockMovementRepository stockMovementRepository;
+    private final PartRepository partRepository;
+    private final CatalogCache<PartResponseDTO> partCatalogCache;
+
+    @Autowired
+    public StockService(StockMovementRepository stockMovementRepository, PartRepository partRepository,
+            CatalogCache<PartResponseDTO> partCatalogCache) {
+        this.stockMovementRepository = stockMovementRepository;
+        this.partRepository = partRepository;
+        this.partCatalogCache = partCatalogCache;
+    }
+
+    // Records the stock a new part starts with, the snapshot already contains it
+    public void recordInitialStock(Part part) {
+        if (part.getStock() > 0) {
+            stockMovementRepository.save(applied(new StockMovement(
+                    part, part.getStock(), StockMovement.RECEIPT, null, Instant.now())));
+        }
+    }
+
+    // Initial stock of many new parts, written as one batch of inserts
+    public void recordInitialStock(Collection<Part> parts) {
+        Instant now = Instant.now();
+        List<StockMovement> movements = new ArrayList<>();
+        for (Part part : parts) {
+            if (part.getStock() > 0) {
+                movements.add(applied(new StockMovement(part, part.getStock(), StockMovement.RECEIPT, null, now)));
+            }
+        }
+        stockMovementRepository.saveAll(movements);
+    }
+
+    public void receive(Part part, int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Received quantity must be at least 1");
+        }
+        stockMovementRepository.save(new StockMovement(
+                part, quantity, StockMovement.RECEIPT, null, Instant.now()));
+        partCatalogCache.invalidate(part.getId());
+    }
+
+    public void consume(Part part, int amount, Long repairId) {
+        if (!decreaseSnapshot(part.getId(), amount)) {
+            throw new IllegalArgumentException(
+                    "Insufficient stock. Available: " + getAvailableStock(part.getId()) + ", Required: " + amount);
+        }
+        stockMovementRepository.save(applied(new StockMovement(
+                part, -amount, StockMovement.CONSUMPTION, repairId, Instant.now())));
+        partCatalogCache.invalidate(part.getId());
+    }
+
+    // Puts the given amounts per part back in stock, written as one batch of inserts
+    public void returnToStock(Map<Part, Integer> amounts, Long repairId) {
+        Instant now = Instant.now();
+        List<StockMovement> movements = new ArrayList<>();
+        amounts.forEach((part, amount) -> movements.add(
+                new StockMovement(part, amount, StockMovement.RETURN, repairId, now)));
+        stockMovementRepository.saveAll(movements);
+        amounts.keySet().forEach(part -> partCatalogCache.invalidate(part.getId()));
+    }
+
+    // Sets the available stock of a part to the counted value
+    public void correct(Part part, int targetStock) {
+        int delta = targetStock - getAvailableStock(part.getId());
+        if (delta == 0) {
+            return;
+        }
+
+        StockMovement correction = new StockMovement(
+                part, delta, StockMovement.CORRECTION, null, Instant.now());
+        if (delta < 0) {
+            if (!decreaseSnapshot(part.getId(), -delta)) {
+                throw new IllegalStateException("Stock of part " + part.getId() + " changed during the correction");
+            }
+            applied(correction);
+        }
+        stockMovementRepository.save(correction);
+        partCatalogCache.invalidate(part.getId());
+    }
+
+    @Transactional(readOnly = true)
+    public int getAvailableStock(Long partId) {
+        Integer snapshot = partRepository.findStockById(partId);
+        if (snapshot == null) {
+            throw new IllegalArgumentException("Part not found with id: " + partId);
+        }
+        return Math.toIntExact(snapshot + stockMovementRepository.sumPendingByPartId(partId));
+    }
+
+    // Available stock of the given parts without a query per part
+    @Transactional(readOnly = true)
+    public Map<Long, Integer> getAvailableStock(Collection<Part> parts) {
+        Map<Long, Integer> available = new HashMap<>();
+        if (parts.isEmpty()) {
+            return available;
+        }
+
+        for (Part part : parts) {
+            available.put(part.getId(), part.getStock());
+        }
+        for (Object[] row : stockMovementRepository.sumPendingByPartIdIn(available.keySet())) {
+            available.merge((Long) row[0], Math.toIntExact((Long) row[1]), Integer::sum);
+        }
+        return available;
+    }
+
+    @Transactional(readOnly = true)
+    public List<StockMovement> getMovements(Long partId) {
+        return stockMovementRepository.findByPartIdOrderByCreatedAtAscIdAsc(partId);
+    }
+
+    public void deleteMovements(Long partId) {
+        stockMovementRepository.deleteByPartId(partId);
+    }
+
+    // Folds all pending movements into the stock snapshots. Claiming the movements and
+    // applying them are two statements on the same batch id, so movements committed in
+    // between are neither lost nor counted twice.
+    @Scheduled(fixedDelayString = "${stock.compaction.interval}")
+    public int compact() {
+        UUID batch = UUID.randomUUID();
+        if (stockMovementRepository.assignPendingToBatch(batch) == 0) {
+            return 0;
+        }
+        return partRepository.applyStockMovements(batch);
+    }
+
+    private boolean decreaseSnapshot(Long partId, int amount) {
+        if (partRepository.decreaseStock(partId, amount) == 1) {
+            return true;
+        }
+
+        // The snapshot alone is too low, fold in the pending movements of this part and retry
+        UUID batch = UUID.randomUUID();
+        if (stockMovementRepository.assignPendingToBatchByPartId(batch, partId) == 0) {
+            return false;
+        }
+        partRepository.applyStockMovements(batch);
+        return partRepository.decreaseStock(partId, amount) == 1;
+    }
+
+    private StockMovement applied(StockMovement movement) {
+        movement.setCompactionBatch(UUID.randomUUID());
+        return movement;
+    }
+}
@@ -0,0 +1,57 @@
+package nl.novi.garage.services;
+
+import nl.novi.garage.models.RevokedToken;
+import nl.novi.garage.repositories.RevokedTokenRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Deny-list of revoked token IDs. The authoritative list lives in the revoked_tokens table, every
+// instance keeps an in-memory copy that is refreshed periodically so checks never hit the database.
+@Service
+@Transactional
+public class TokenRevocationService {
+
+    private final RevokedTokenRepository revokedTokenRepository;
+
+    // Snapshot of the table, replaced as a whole on every refresh
+    private volatile Set<String> revokedTokenIds = Set.of();
+
+    // Tokens revoked on this instance, kept until they expire so a refresh that
+    // ran before the revocation was committed cannot drop them
+    private final Map<String, Instant> locallyRevoked = new ConcurrentHashMap<>();
+
+    @Autowired
+    public TokenRevocationService(RevokedTokenRepository revokedTokenRepository) {
+        this.revokedTokenRepository = revokedTokenRepository;
+    }
+
+    public boolean isRevoked(String tokenId) {
+        return tokenId != null && (revokedTokenIds.contains(tokenId) || locallyRevoked.containsKey(tokenId));
+    }
+
+    public void revoke(String tokenId, Instant expiresAt) {
+        if (tokenId == null || tokenId.isBlank()) {
+            throw new IllegalArgumentException("Token has no ID and cannot be revoked");
+        }
+
+        if (!revokedTokenRepository.existsByTokenId(tokenId)) {
+            revokedTokenRepository.save(new RevokedToken(tokenId, expiresAt, Instant.now()));
+        }
+        locallyRevoked.put(tokenId, expiresAt);
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.refresh-interval}")
+    public void refresh() {
+        Instant now = Instant.now();
+        revokedTokenRepository.deleteExpired(now);
+        revokedTokenIds = Set.copyOf(revokedTokenRepository.findActiveTokenIds(now));
+        locallyRevoked.values().removeIf(expiresAt -> !expiresAt.isAfter(now));
+    }
+}
@@ -0,0 +1,21 @@
+package nl.novi.garage.storage;
+
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+// Backend that holds the content of car documents. The database only keeps the
+// metadata and the path under which the content is stored here.
+public interface DocumentStore {
+
+    // Streams the content to the given path and returns the number of bytes written
+    long store(String path, InputStream content) throws IOException;
+
+    // Moves stored content to another path, replacing what is stored there
+    void move(String source, String target) throws IOException;
+
+    Resource load(String path) throws IOException;
+
+    void delete(String path) throws IOException;
+}
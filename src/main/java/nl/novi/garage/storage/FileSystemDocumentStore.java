@@ -0,0 +1,69 @@
+package nl.novi.garage.storage;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+
+@Component
+public class FileSystemDocumentStore implements DocumentStore {
+
+    private final Path root;
+
+    public FileSystemDocumentStore(@Value("${documents.storage.location}") String location) {
+        this.root = Paths.get(location).toAbsolutePath().normalize();
+    }
+
+    @Override
+    public long store(String path, InputStream content) throws IOException {
+        Path target = resolve(path);
+        Files.createDirectories(target.getParent());
+
+        // Write to a temporary file first so readers never see a half written document
+        Path temp = Files.createTempFile(target.getParent(), ".upload-", ".tmp");
+        try {
+            long size = Files.copy(content, temp, StandardCopyOption.REPLACE_EXISTING);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return size;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public void move(String source, String target) throws IOException {
+        Path destination = resolve(target);
+        Files.createDirectories(destination.getParent());
+        Files.move(resolve(source), destination, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    @Override
+    public Resource load(String path) throws IOException {
+        Path file = resolve(path);
+        if (!Files.isReadable(file)) {
+            throw new NoSuchFileException(path);
+        }
+        return new FileSystemResource(file);
+    }
+
+    @Override
+    public void delete(String path) throws IOException {
+        Files.deleteIfExists(resolve(path));
+    }
+
+    private Path resolve(String path) {
+        Path resolved = root.resolve(path).normalize();
+        if (!resolved.startsWith(root) || resolved.equals(root)) {
+            throw new IllegalArgumentException("Invalid document path: " + path);
+        }
+        return resolved;
+    }
+}
@@ -0,0 +1,191 @@
+-- Baseline schema, matches the JPA entities (Hibernate only validates it)
+
+CREATE SEQUENCE users_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE customers_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE cars_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE car_documents_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE document_contents_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE actions_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE parts_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE stock_movements_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE inspections_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE repairs_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE repair_actions_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE repair_parts_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE repair_custom_actions_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE receipts_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE receipt_repairs_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE receipt_inspections_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE revoked_tokens_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE users (
+    id BIGINT NOT NULL,
+    name VARCHAR(100) NOT NULL,
+    username VARCHAR(50) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    role VARCHAR(255) NOT NULL,
+    CONSTRAINT pk_users PRIMARY KEY (id),
+    CONSTRAINT uk_users_username UNIQUE (username)
+);
+
+CREATE TABLE customers (
+    id BIGINT NOT NULL,
+    name VARCHAR(100) NOT NULL,
+    phonenumber VARCHAR(20) NOT NULL,
+    CONSTRAINT pk_customers PRIMARY KEY (id)
+);
+
+CREATE TABLE cars (
+    id BIGINT NOT NULL,
+    customer_id BIGINT NOT NULL,
+    brand VARCHAR(50) NOT NULL,
+    model VARCHAR(50) NOT NULL,
+    license_plate VARCHAR(10) NOT NULL,
+    CONSTRAINT pk_cars PRIMARY KEY (id),
+    CONSTRAINT uk_cars_license_plate UNIQUE (license_plate),
+    CONSTRAINT fk_cars_customer FOREIGN KEY (customer_id) REFERENCES customers (id)
+);
+
+CREATE TABLE document_contents (
+    id BIGINT NOT NULL,
+    content_hash VARCHAR(64) NOT NULL,
+    storage_path VARCHAR(500) NOT NULL,
+    file_size BIGINT,
+    reference_count INTEGER NOT NULL,
+    CONSTRAINT pk_document_contents PRIMARY KEY (id),
+    CONSTRAINT uk_document_contents_content_hash UNIQUE (content_hash)
+);
+
+CREATE TABLE car_documents (
+    id BIGINT NOT NULL,
+    car_id BIGINT NOT NULL,
+    filename VARCHAR(255) NOT NULL,
+    filepath VARCHAR(500) NOT NULL,
+    content_type VARCHAR(255),
+    file_size BIGINT,
+    content_hash VARCHAR(64),
+    uploaded_at TIMESTAMP(6) WITH TIME ZONE,
+    CONSTRAINT pk_car_documents PRIMARY KEY (id),
+    CONSTRAINT fk_car_documents_car FOREIGN KEY (car_id) REFERENCES cars (id)
+);
+
+CREATE TABLE actions (
+    id BIGINT NOT NULL,
+    name VARCHAR(100) NOT NULL,
+    description VARCHAR(500) NOT NULL,
+    price NUMERIC(10, 2) NOT NULL,
+    CONSTRAINT pk_actions PRIMARY KEY (id)
+);
+
+CREATE TABLE parts (
+    id BIGINT NOT NULL,
+    name VARCHAR(100) NOT NULL,
+    price NUMERIC(10, 2) NOT NULL,
+    stock INTEGER NOT NULL,
+    CONSTRAINT pk_parts PRIMARY KEY (id),
+    CONSTRAINT ck_parts_stock CHECK (stock >= 0)
+);
+
+CREATE TABLE stock_movements (
+    id BIGINT NOT NULL,
+    part_id BIGINT NOT NULL,
+    quantity INTEGER NOT NULL,
+    type VARCHAR(20) NOT NULL,
+    repair_id BIGINT,
+    created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    compaction_batch UUID,
+    CONSTRAINT pk_stock_movements PRIMARY KEY (id),
+    CONSTRAINT fk_stock_movements_part FOREIGN KEY (part_id) REFERENCES parts (id)
+);
+
+CREATE TABLE inspections (
+    id BIGINT NOT NULL,
+    car_id BIGINT NOT NULL,
+    date DATE NOT NULL,
+    report VARCHAR(2000) NOT NULL,
+    status VARCHAR(50) NOT NULL,
+    is_paid BOOLEAN NOT NULL,
+    CONSTRAINT pk_inspections PRIMARY KEY (id),
+    CONSTRAINT fk_inspections_car FOREIGN KEY (car_id) REFERENCES cars (id)
+);
+
+CREATE TABLE repairs (
+    id BIGINT NOT NULL,
+    car_id BIGINT NOT NULL,
+    date DATE NOT NULL,
+    report VARCHAR(2000) NOT NULL,
+    status VARCHAR(50) NOT NULL,
+    is_paid BOOLEAN NOT NULL,
+    CONSTRAINT pk_repairs PRIMARY KEY (id),
+    CONSTRAINT fk_repairs_car FOREIGN KEY (car_id) REFERENCES cars (id)
+);
+
+CREATE TABLE repair_actions (
+    id BIGINT NOT NULL,
+    repair_id BIGINT NOT NULL,
+    action_id BIGINT NOT NULL,
+    amount INTEGER NOT NULL,
+    CONSTRAINT pk_repair_actions PRIMARY KEY (id),
+    CONSTRAINT ck_repair_actions_amount CHECK (amount >= 1),
+    CONSTRAINT fk_repair_actions_repair FOREIGN KEY (repair_id) REFERENCES repairs (id),
+    CONSTRAINT fk_repair_actions_action FOREIGN KEY (action_id) REFERENCES actions (id)
+);
+
+CREATE TABLE repair_parts (
+    id BIGINT NOT NULL,
+    repair_id BIGINT NOT NULL,
+    part_id BIGINT NOT NULL,
+    amount INTEGER NOT NULL,
+    CONSTRAINT pk_repair_parts PRIMARY KEY (id),
+    CONSTRAINT ck_repair_parts_amount CHECK (amount >= 1),
+    CONSTRAINT fk_repair_parts_repair FOREIGN KEY (repair_id) REFERENCES repairs (id),
+    CONSTRAINT fk_repair_parts_part FOREIGN KEY (part_id) REFERENCES parts (id)
+);
+
+CREATE TABLE repair_custom_actions (
+    id BIGINT NOT NULL,
+    repair_id BIGINT NOT NULL,
+    description VARCHAR(500) NOT NULL,
+    price NUMERIC(10, 2) NOT NULL,
+    CONSTRAINT pk_repair_custom_actions PRIMARY KEY (id),
+    CONSTRAINT fk_repair_custom_actions_repair FOREIGN KEY (repair_id) REFERENCES repairs (id)
+);
+
+CREATE TABLE receipts (
+    id BIGINT NOT NULL,
+    customer_id BIGINT NOT NULL,
+    total_excl_vat NUMERIC(10, 2) NOT NULL,
+    vat NUMERIC(10, 2) NOT NULL,
+    total_incl_vat NUMERIC(10, 2) NOT NULL,
+    is_paid BOOLEAN NOT NULL,
+    created_date DATE NOT NULL,
+    CONSTRAINT pk_receipts PRIMARY KEY (id),
+    CONSTRAINT fk_receipts_customer FOREIGN KEY (customer_id) REFERENCES customers (id)
+);
+
+CREATE TABLE receipt_repairs (
+    id BIGINT NOT NULL,
+    receipt_id BIGINT NOT NULL,
+    repair_id BIGINT NOT NULL,
+    CONSTRAINT pk_receipt_repairs PRIMARY KEY (id),
+    CONSTRAINT fk_receipt_repairs_receipt FOREIGN KEY (receipt_id) REFERENCES receipts (id),
+    CONSTRAINT fk_receipt_repairs_repair FOREIGN KEY (repair_id) REFERENCES repairs (id)
+);
+
+CREATE TABLE receipt_inspections (
+    id BIGINT NOT NULL,
+    receipt_id BIGINT NOT NULL,
+    inspection_id BIGINT NOT NULL,
+    CONSTRAINT pk_receipt_inspections PRIMARY KEY (id),
+    CONSTRAINT fk_receipt_inspections_receipt FOREIGN KEY (receipt_id) REFERENCES receipts (id),
+    CONSTRAINT fk_receipt_inspections_inspection FOREIGN KEY (inspection_id) REFERENCES inspections (id)
+);
+
+CREATE TABLE revoked_tokens (
+    id BIGINT NOT NULL,
+    token_id VARCHAR(64) NOT NULL,
+    expires_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    revoked_at TIMESTAMP(6) WITH TIME ZONE,
+    CONSTRAINT pk_revoked_tokens PRIMARY KEY (id),
+    CONSTRAINT uk_revoked_tokens_token_id UNIQUE (token_id)
+);
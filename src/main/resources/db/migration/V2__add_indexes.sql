@@ -0,0 +1,61 @@
+-- Indexes for the repository finders. Columns that are only filtered together are
+-- combined, the unpaid queues use partial indexes because paid rows are the vast
+-- majority and are never looked up through them.
+
+-- Cars: customer overview, brand/model search (IgnoreCase queries compare upper(...))
+CREATE INDEX ix_cars_customer_id ON cars (customer_id);
+CREATE INDEX ix_cars_brand_model ON cars (upper(brand), upper(model));
+CREATE INDEX ix_cars_model ON cars (upper(model));
+
+-- Customers
+CREATE INDEX ix_customers_phonenumber ON customers (phonenumber);
+CREATE INDEX ix_customers_name ON customers (name);
+
+-- Repairs: per car newest first, status and date filters, keyset pages (date, id)
+CREATE INDEX ix_repairs_car_id_date ON repairs (car_id, date DESC);
+CREATE INDEX ix_repairs_status_date ON repairs (status, date DESC, id DESC);
+CREATE INDEX ix_repairs_date_id ON repairs (date DESC, id DESC);
+CREATE INDEX ix_repairs_unpaid ON repairs (date DESC, id DESC) WHERE is_paid = false;
+
+-- Inspections: same access paths as repairs
+CREATE INDEX ix_inspections_car_id_date ON inspections (car_id, date DESC);
+CREATE INDEX ix_inspections_status_date ON inspections (status, date DESC, id DESC);
+CREATE INDEX ix_inspections_date_id ON inspections (date DESC, id DESC);
+CREATE INDEX ix_inspections_unpaid ON inspections (date DESC, id DESC) WHERE is_paid = false;
+
+-- Repair line items: loaded per repair (and per repair + item), the second index
+-- serves lookups from the catalog side and foreign key checks on delete
+CREATE INDEX ix_repair_actions_repair_id_action_id ON repair_actions (repair_id, action_id);
+CREATE INDEX ix_repair_actions_action_id ON repair_actions (action_id);
+CREATE INDEX ix_repair_parts_repair_id_part_id ON repair_parts (repair_id, part_id);
+CREATE INDEX ix_repair_parts_part_id ON repair_parts (part_id);
+CREATE INDEX ix_repair_custom_actions_repair_id ON repair_custom_actions (repair_id);
+
+-- Catalog lookups by name (IgnoreCase queries compare upper(...))
+CREATE INDEX ix_actions_name ON actions (upper(name));
+CREATE INDEX ix_parts_name ON parts (upper(name));
+
+-- Stock ledger: pending movements per part, history per part, compaction batches
+CREATE INDEX ix_stock_movements_pending ON stock_movements (part_id) WHERE compaction_batch IS NULL;
+CREATE INDEX ix_stock_movements_part_id_created_at ON stock_movements (part_id, created_at, id);
+CREATE INDEX ix_stock_movements_compaction_batch ON stock_movements (compaction_batch);
+
+-- Receipts: per customer and payment status, keyset pages (created_date, id)
+CREATE INDEX ix_receipts_customer_id_is_paid ON receipts (customer_id, is_paid);
+CREATE INDEX ix_receipts_created_date_id ON receipts (created_date DESC, id DESC);
+CREATE INDEX ix_receipts_unpaid ON receipts (created_date DESC, id DESC) WHERE is_paid = false;
+CREATE INDEX ix_receipt_repairs_receipt_id ON receipt_repairs (receipt_id);
+CREATE INDEX ix_receipt_repairs_repair_id ON receipt_repairs (repair_id);
+CREATE INDEX ix_receipt_inspections_receipt_id ON receipt_inspections (receipt_id);
+CREATE INDEX ix_receipt_inspections_inspection_id ON receipt_inspections (inspection_id);
+
+-- Documents: lookup by car and filename, content reference counting
+CREATE INDEX ix_car_documents_car_id_filename ON car_documents (car_id, filename);
+CREATE INDEX ix_car_documents_content_hash ON car_documents (content_hash);
+CREATE INDEX ix_document_contents_unreferenced ON document_contents (content_hash) WHERE reference_count <= 0;
+
+-- Revocation list refresh and cleanup
+CREATE INDEX ix_revoked_tokens_expires_at ON revoked_tokens (expires_at);
+
+-- Users by role
+CREATE INDEX ix_users_role ON users (role);
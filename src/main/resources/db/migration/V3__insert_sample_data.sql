@@ -0,0 +1,175 @@
+-- Sample data and demo accounts, applied once when the schema is created
+
+-- Insert initial users with encrypted passwords
+-- Password for all users: "password123"
+-- Encrypted using BCrypt with strength 10
+
+INSERT INTO users (id, name, username, password, role) VALUES
+    (1, 'Admin Beheerder', 'admin', '$2a$10$uRpCJfNKRKlu5cTRYsbUwug/CcEyGl6PhirUyD2IBGaOGBZZ5EeL2', 'BEHEER'),
+    (2, 'Garage Medewerker', 'medewerker', '$2a$10$uRpCJfNKRKlu5cTRYsbUwug/CcEyGl6PhirUyD2IBGaOGBZZ5EeL2', 'MEDEWERKER'),
+    (3, 'Auto Monteur', 'monteur', '$2a$10$uRpCJfNKRKlu5cTRYsbUwug/CcEyGl6PhirUyD2IBGaOGBZZ5EeL2', 'MONTEUR'),
+    (4, 'Henk de Beheerder', 'henk', '$2a$10$uRpCJfNKRKlu5cTRYsbUwug/CcEyGl6PhirUyD2IBGaOGBZZ5EeL2', 'BEHEER'),
+    (5, 'Piet de Medewerker', 'piet', '$2a$10$uRpCJfNKRKlu5cTRYsbUwug/CcEyGl6PhirUyD2IBGaOGBZZ5EeL2', 'MEDEWERKER'),
+    (6, 'Jan de Monteur', 'jan', '$2a$10$uRpCJfNKRKlu5cTRYsbUwug/CcEyGl6PhirUyD2IBGaOGBZZ5EeL2', 'MONTEUR');
+
+-- Insert sample customers
+INSERT INTO customers (id, name, phonenumber) VALUES
+    (1, 'Jan Jansen', '+31612345678'),
+    (2, 'Maria van der Berg', '0687654321'),
+    (3, 'Peter de Vries', '+31-6-11223344'),
+    (4, 'Anna Bakker', '06 98765432'),
+    (5, 'Robert Smith', '+31 6 55667788'),
+    (6, 'Lisa de Jong', '0612398765'),
+    (7, 'Kees van Dijk', '+31-612-345-123'),
+    (8, 'Sandra Mulder', '06-87654321');
+
+-- Insert sample cars
+INSERT INTO cars (id, customer_id, brand, model, license_plate) VALUES
+    (1, 1, 'Volkswagen', 'Golf', '12-ABC-3'),
+    (2, 1, 'Toyota', 'Yaris', 'XY-123-Z'),
+    (3, 2, 'BMW', '3 Serie', 'AB-123-CD'),
+    (4, 3, 'Mercedes', 'C-Klasse', '99-XYZ-9'),
+    (5, 4, 'Audi', 'A4', 'ZZ-999-AA'),
+    (6, 4, 'Ford', 'Focus', '11-BBB-22'),
+    (7, 5, 'Opel', 'Corsa', 'CC-456-DD'),
+    (8, 6, 'Renault', 'Clio', 'EE-789-FF'),
+    (9, 7, 'Peugeot', '308', 'GG-321-HH'),
+    (10, 8, 'Skoda', 'Octavia', 'II-654-JJ'),
+    (11, 8, 'Hyundai', 'i30', 'KK-987-LL');
+
+-- Insert sample parts
+INSERT INTO parts (id, name, price, stock) VALUES
+    (1, 'Remblokken set', 45.99, 25),
+    (2, 'Motorolie 5W-30', 35.50, 40),
+    (3, 'Luchtfilter', 12.75, 30),
+    (4, 'Bougies set', 28.90, 15),
+    (5, 'Ruitenwissers', 22.50, 18),
+    (6, 'Accu 12V', 89.99, 8),
+    (7, 'Koppeling set', 285.00, 5),
+    (8, 'Remschijven vooras', 125.50, 12),
+    (9, 'Distributieriem', 65.75, 10),
+    (10, 'Radiateur', 195.00, 6),
+    (11, 'Uitlaat demper', 78.25, 14),
+    (12, 'Brandstoffilter', 18.90, 22),
+    (13, 'Koelvloeistof', 24.50, 35),
+    (14, 'Schokbrekers set', 156.75, 8),
+    (15, 'Startmotor', 245.00, 4),
+    (16, 'Dynamo', 189.90, 3),
+    (17, 'Koplampen set', 145.50, 7),
+    (18, 'Remklauw', 98.75, 9),
+    (19, 'Veerpoten', 325.00, 6),
+    (20, 'Katalysator', 455.00, 2);
+
+-- Insert sample actions
+INSERT INTO actions (id, name, description, price) VALUES
+    (1, 'APK Keuring', 'Algemene Periodieke Keuring conform RDW eisen', 50.00),
+    (2, 'Kleine beurt', 'Olie verversen, filters controleren, vloeistoffen bijvullen', 125.00),
+    (3, 'Grote beurt', 'Uitgebreide onderhoudsbeurt met alle vloeistoffen en filters', 285.00),
+    (4, 'Remmen vervangen', 'Vervangen van remblokken en/of remschijven inclusief montage', 195.00),
+    (5, 'Banden wisselen', 'Seizoensbanden wisselen en balanceren', 45.00),
+    (6, 'Airco service', 'Airconditioning reinigen en koelmiddel bijvullen', 89.00),
+    (7, 'Uitlijning wielen', 'Uitlijning voorwielen en bandenprofiel controleren', 75.00),
+    (8, 'Accu vervangen', 'Oude accu vervangen door nieuwe inclusief installatie', 125.00),
+    (9, 'Reparatie uitlaat', 'Reparatie of vervanging van uitlaatdemper/pijp', 145.00),
+    (10, 'Motor diagnose', 'Computerscan en diagnose van motorproblemen', 85.00),
+    (11, 'Koppeling vervangen', 'Volledige koppeling vervangen inclusief druklager', 425.00),
+    (12, 'Distributieriem', 'Vervangen van distributieriem en spanrollen', 295.00),
+    (13, 'Verlichting reparatie', 'Reparatie of vervanging van voor/achterlichten', 65.00),
+    (14, 'Koelsysteem spoelen', 'Koelsysteem doorspoelen en nieuwe koelvloeistof', 95.00),
+    (15, 'Startmotor reparatie', 'Reparatie of vervanging van startmotor', 185.00);
+
+-- Insert sample inspections
+INSERT INTO inspections (id, car_id, date, report, status, is_paid) VALUES
+    (1, 1, '2024-01-15', 'APK keuring uitgevoerd. Auto voldoet aan alle eisen. Geen gebreken geconstateerd.', 'COMPLETED', true),
+    (2, 2, '2024-01-22', 'APK keuring uitgevoerd. Kleine gebreken aan ruitenwissers en verlichting geconstateerd.', 'COMPLETED', true),
+    (3, 3, '2024-02-05', 'APK keuring uitgevoerd. Ernstige gebreken aan remmen geconstateerd. Auto afgekeurd.', 'COMPLETED', false),
+    (4, 4, '2024-02-12', 'APK keuring in uitvoering. Voorlopige bevindingen: mogelijke problemen met uitlaat.', 'IN_PROGRESS', false),
+    (5, 5, '2024-02-18', 'APK keuring voltooid. Auto goedgekeurd met kleine aanbevelingen voor onderhoud.', 'COMPLETED', true),
+    (6, 6, '2024-02-25', 'APK keuring uitgevoerd. Banden onder minimum profiel, vervangen vereist.', 'COMPLETED', false),
+    (7, 7, '2024-03-01', 'APK keuring gepland voor vandaag. Wachten op beschikbaarheid monteur.', 'SCHEDULED', false),
+    (8, 8, '2024-03-05', 'APK keuring voltooid. Geen gebreken. Auto in uitstekende staat.', 'COMPLETED', true),
+    (9, 9, '2024-03-10', 'APK keuring uitgevoerd. Vervangen van koplampen vereist voor goedkeuring.', 'COMPLETED', false),
+    (10, 10, '2024-03-15', 'APK keuring in voorbereiding. Auto wordt voorbereid voor keuring.', 'SCHEDULED', false);
+
+-- Insert sample repairs
+INSERT INTO repairs (id, car_id, date, status, report, is_paid) VALUES
+    (1, 3, '2024-02-06', 'COMPLETED', 'Remblokken en remschijven vervangen. Auto weer veilig voor de weg.', true),
+    (2, 2, '2024-01-23', 'COMPLETED', 'Ruitenwissers vervangen en verlichting gerepareerd na APK keuring.', true),
+    (3, 6, '2024-02-26', 'IN_PROGRESS', 'Nieuwe banden besteld. Montage gepland voor morgen.', false),
+    (4, 9, '2024-03-11', 'SCHEDULED', 'Koplampen besteld voor vervanging na APK keuring.', false),
+    (5, 1, '2024-01-20', 'COMPLETED', 'Grote onderhoudsbeurt uitgevoerd. Alle vloeistoffen vervangen.', true),
+    (6, 5, '2024-02-20', 'COMPLETED', 'Kleine onderhoudsbeurt en airco service uitgevoerd.', false),
+    (7, 7, '2024-03-02', 'IN_PROGRESS', 'Diagnose motorproblemen lopende. Mogelijke koppeling problemen.', false),
+    (8, 4, '2024-02-15', 'COMPLETED', 'Uitlaat demper vervangen na APK keuring. Probleem opgelost.', true),
+    (9, 8, '2024-03-06', 'SCHEDULED', 'Distributieriem vervanging gepland voor volgende week.', false),
+    (10, 10, '2024-03-12', 'COMPLETED', 'Accu vervangen en motor diagnose uitgevoerd.', false);
+
+-- Insert repair actions (linking repairs to standard actions)
+INSERT INTO repair_actions (id, repair_id, action_id, amount) VALUES
+    -- Repair 1 (car 3): Remmen vervangen
+    (1, 1, 4, 1),  -- Remmen vervangen
+    -- Repair 2 (car 2): Ruitenwissers en verlichting
+    (2, 2, 13, 1), -- Verlichting reparatie
+    -- Repair 4 (car 9): Koplampen
+    (3, 4, 13, 1), -- Verlichting reparatie
+    -- Repair 5 (car 1): Grote beurt
+    (4, 5, 3, 1),  -- Grote beurt
+    -- Repair 6 (car 5): Kleine beurt en airco
+    (5, 6, 2, 1),  -- Kleine beurt
+    (6, 6, 6, 1),  -- Airco service
+    -- Repair 7 (car 7): Motor diagnose
+    (7, 7, 10, 1), -- Motor diagnose
+    -- Repair 8 (car 4): Uitlaat reparatie
+    (8, 8, 9, 1),  -- Reparatie uitlaat
+    -- Repair 9 (car 8): Distributieriem
+    (9, 9, 12, 1), -- Distributieriem
+    -- Repair 10 (car 10): Accu en diagnose
+    (10, 10, 8, 1), -- Accu vervangen
+    (11, 10, 10, 1); -- Motor diagnose
+
+-- Insert repair parts (linking repairs to parts used)
+INSERT INTO repair_parts (id, repair_id, part_id, amount) VALUES
+    -- Repair 1 (car 3): Remmen vervangen - remblokken en remschijven
+    (1, 1, 1, 1),  -- Remblokken set
+    (2, 1, 8, 1),  -- Remschijven vooras
+    -- Repair 2 (car 2): Ruitenwissers vervangen
+    (3, 2, 5, 1),  -- Ruitenwissers
+    -- Repair 4 (car 9): Koplampen vervangen
+    (4, 4, 17, 1), -- Koplampen set
+    -- Repair 5 (car 1): Grote beurt - olie, filters
+    (5, 5, 2, 1),  -- Motorolie 5W-30
+    (6, 5, 3, 1),  -- Luchtfilter
+    (7, 5, 12, 1), -- Brandstoffilter
+    (8, 5, 13, 1), -- Koelvloeistof
+    -- Repair 6 (car 5): Kleine beurt - alleen olie
+    (9, 6, 2, 1),  -- Motorolie 5W-30
+    -- Repair 8 (car 4): Uitlaat demper vervangen
+    (10, 8, 11, 1), -- Uitlaat demper
+    -- Repair 9 (car 8): Distributieriem
+    (11, 9, 9, 1),  -- Distributieriem
+    -- Repair 10 (car 10): Accu vervangen
+    (12, 10, 6, 1); -- Accu 12V
+
+-- Insert custom repair actions (specific work not covered by standard actions)
+INSERT INTO repair_custom_actions (id, repair_id, description, price) VALUES
+    (1, 1, 'Extra controle wielophanging na remmen reparatie', 25.00),
+    (2, 2, 'Reiniging koplampen voor betere lichtopbrengst', 15.00),
+    (3, 3, 'Speciale banden uitlijning na vervangen', 35.00),
+    (4, 5, 'Controle en bijstellen carburateur', 45.00),
+    (5, 6, 'Reiniging luchtfilter behuizing', 20.00),
+    (6, 7, 'Uitgebreide computerdiagnose transmissie', 65.00),
+    (7, 8, 'Controle en reiniging katalysator', 55.00),
+    (8, 9, 'Controle waterpomp tijdens distributieriem vervanging', 40.00),
+    (9, 10, 'Controle en testen elektrische bedrading', 30.00);
+
+-- Rows above use explicit ids, continue the id sequences after them
+ALTER SEQUENCE users_seq RESTART WITH 7;
+ALTER SEQUENCE customers_seq RESTART WITH 9;
+ALTER SEQUENCE cars_seq RESTART WITH 12;
+ALTER SEQUENCE parts_seq RESTART WITH 21;
+ALTER SEQUENCE actions_seq RESTART WITH 16;
+ALTER SEQUENCE inspections_seq RESTART WITH 11;
+ALTER SEQUENCE repairs_seq RESTART WITH 11;
+ALTER SEQUENCE repair_actions_seq RESTART WITH 12;
+ALTER SEQUENCE repair_parts_seq RESTART WITH 13;
+ALTER SEQUENCE repair_custom_actions_seq RESTART WITH 10;
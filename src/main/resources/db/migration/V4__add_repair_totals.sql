@@ -0,0 +1,17 @@
+-- Cost totals per repair, maintained when line items are added or removed
+
+ALTER TABLE repairs ADD COLUMN labour_total NUMERIC(12, 2) NOT NULL DEFAULT 0;
+ALTER TABLE repairs ADD COLUMN parts_total NUMERIC(12, 2) NOT NULL DEFAULT 0;
+ALTER TABLE repairs ADD COLUMN custom_total NUMERIC(12, 2) NOT NULL DEFAULT 0;
+
+-- Fill the totals of the existing repairs from their line items
+UPDATE repairs SET
+    labour_total = COALESCE((SELECT SUM(a.price * ra.amount)
+        FROM repair_actions ra JOIN actions a ON a.id = ra.action_id
+        WHERE ra.repair_id = repairs.id), 0),
+    parts_total = COALESCE((SELECT SUM(p.price * rp.amount)
+        FROM repair_parts rp JOIN parts p ON p.id = rp.part_id
+        WHERE rp.repair_id = repairs.id), 0),
+    custom_total = COALESCE((SELECT SUM(rca.price)
+        FROM repair_custom_actions rca
+        WHERE rca.repair_id = repairs.id), 0);
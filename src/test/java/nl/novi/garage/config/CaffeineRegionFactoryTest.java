@@ -0,0 +1,134 @@
+package nl.novi.garage.config;
+
+import nl.novi.garage.dtos.cache.CacheStatsDTO;
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.cache.cfg.spi.DomainDataRegionConfig;
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.cache.spi.support.StorageAccess;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CaffeineRegionFactoryTest {
+
+    private CaffeineRegionFactory regionFactory;
+
+    @BeforeEach
+    void setUp() {
+        regionFactory = new CaffeineRegionFactory();
+        regionFactory.start(mock(SessionFactoryOptions.class), Map.of(
+                "hibernate.cache.caffeine.maximum_size", "100",
+                "hibernate.cache.caffeine.parts.maximum_size", "2"));
+    }
+
+    @Test
+    void domainRegion_ShouldEvictEntries_WhenRegionLimitExceeded() {
+        // Arrange
+        StorageAccess parts = regionFactory.createDomainDataStorageAccess(regionConfig("parts"), null);
+
+        // Act
+        for (long id = 1; id <= 10; id++) {
+            parts.putIntoCache(id, "part " + id, null);
+        }
+
+        // Assert
+        CacheStatsDTO stats = statsOf("parts");
+        assertTrue(stats.getSize() <= 2);
+        assertTrue(stats.getEvictionCount() >= 8);
+    }
+
+    @Test
+    void domainRegion_ShouldUseDefaultLimit_WhenRegionHasNoOwnLimit() {
+        // Arrange
+        StorageAccess cars = regionFactory.createDomainDataStorageAccess(regionConfig("cars"), null);
+
+        // Act
+        for (long id = 1; id <= 10; id++) {
+            cars.putIntoCache(id, "car " + id, null);
+        }
+
+        // Assert
+        assertEquals(10, statsOf("cars").getSize());
+        assertEquals(0, statsOf("cars").getEvictionCount());
+    }
+
+    @Test
+    void domainRegion_ShouldRecordHitsAndMisses() {
+        // Arrange
+        DomainDataStorageAccess actions = regionFactory.createDomainDataStorageAccess(regionConfig("actions"), null);
+        actions.putIntoCache(1L, "APK Keuring", null);
+
+        // Act
+        Object hit = actions.getFromCache(1L, null);
+        Object miss = actions.getFromCache(2L, null);
+
+        // Assert
+        assertEquals("APK Keuring", hit);
+        assertNull(miss);
+        CacheStatsDTO stats = statsOf("actions");
+        assertEquals(1, stats.getHitCount());
+        assertEquals(1, stats.getMissCount());
+        assertEquals(0.5, stats.getHitRate());
+    }
+
+    @Test
+    void evictData_ShouldEmptyRegion() {
+        // Arrange
+        StorageAccess customers = regionFactory.createDomainDataStorageAccess(regionConfig("customers"), null);
+        customers.putIntoCache(1L, "Jan Jansen", null);
+
+        // Act
+        customers.evictData(1L);
+
+        // Assert
+        assertFalse(customers.contains(1L));
+    }
+
+    @Test
+    void timestampsRegion_ShouldNotBeBounded() {
+        // Arrange
+        StorageAccess timestamps = regionFactory.createTimestampsRegionStorageAccess(
+                "default-update-timestamps-region", null);
+
+        // Act
+        for (int i = 0; i < 200; i++) {
+            timestamps.putIntoCache("table" + i, (long) i, null);
+        }
+
+        // Assert
+        assertEquals(200, statsOf("default-update-timestamps-region").getSize());
+    }
+
+    @Test
+    void getStats_ShouldListRegionsByName() {
+        // Arrange
+        regionFactory.createDomainDataStorageAccess(regionConfig("parts"), null);
+        regionFactory.createQueryResultsRegionStorageAccess("default-query-results-region", null);
+        regionFactory.createDomainDataStorageAccess(regionConfig("actions"), null);
+
+        // Act
+        List<CacheStatsDTO> stats = regionFactory.getStats();
+
+        // Assert
+        assertEquals(List.of("actions", "default-query-results-region", "parts"),
+                stats.stream().map(CacheStatsDTO::getName).toList());
+    }
+
+    private DomainDataRegionConfig regionConfig(String regionName) {
+        DomainDataRegionConfig config = mock(DomainDataRegionConfig.class);
+        when(config.getRegionName()).thenReturn(regionName);
+        return config;
+    }
+
+    private CacheStatsDTO statsOf(String regionName) {
+        return regionFactory.getStats().stream()
+                .filter(stats -> stats.getName().equals(regionName))
+                .findFirst()
+                .orElseThrow();
+    }
+}
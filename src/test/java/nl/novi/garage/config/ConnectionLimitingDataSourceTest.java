@@ -0,0 +1,87 @@
+package nl.novi.garage.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ConnectionLimitingDataSourceTest {
+
+    private DataSource target;
+    private ConnectionLimitingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        target = mock(DataSource.class);
+        when(target.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+        dataSource = new ConnectionLimitingDataSource(target, 2, Duration.ofMillis(50));
+    }
+
+    @Test
+    void getConnection_ShouldThrowException_WhenAllConnectionsAreBorrowed() throws SQLException {
+        // Arrange
+        dataSource.getConnection();
+        dataSource.getConnection();
+
+        // Act & Assert
+        SQLTransientConnectionException exception = assertThrows(SQLTransientConnectionException.class,
+                () -> dataSource.getConnection());
+        assertEquals("No database connection available within 50 ms, all 2 are in use", exception.getMessage());
+        verify(target, times(2)).getConnection();
+    }
+
+    @Test
+    void close_ShouldReturnPermitOnce_WhenClosedTwice() throws SQLException {
+        // Arrange
+        Connection connection = dataSource.getConnection();
+
+        // Act
+        connection.close();
+        connection.close();
+
+        // Assert
+        assertEquals(2, dataSource.getAvailablePermits());
+    }
+
+    @Test
+    void close_ShouldCloseTargetConnection() throws SQLException {
+        // Arrange
+        Connection targetConnection = mock(Connection.class);
+        when(target.getConnection()).thenReturn(targetConnection);
+        Connection connection = dataSource.getConnection();
+
+        // Act
+        connection.setAutoCommit(false);
+        connection.close();
+
+        // Assert
+        verify(targetConnection).setAutoCommit(false);
+        verify(targetConnection).close();
+        assertEquals(2, dataSource.getAvailablePermits());
+    }
+
+    @Test
+    void getConnection_ShouldReturnPermit_WhenTargetFails() throws SQLException {
+        // Arrange
+        when(target.getConnection()).thenThrow(new SQLException("Connection refused"));
+
+        // Act & Assert
+        assertThrows(SQLException.class, () -> dataSource.getConnection());
+        assertEquals(2, dataSource.getAvailablePermits());
+    }
+
+    @Test
+    void constructor_ShouldThrowException_WhenLimitIsBelowOne() {
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> new ConnectionLimitingDataSource(target, 0, Duration.ofSeconds(1)));
+        assertEquals("Connection limit must be at least 1", exception.getMessage());
+    }
+}
@@ -0,0 +1,115 @@
+package nl.novi.garage.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SchemaMigratorTest {
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        jdbcTemplate = new JdbcTemplate(database);
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void migrate_ShouldApplyAllMigrationsInVersionOrder() {
+        // Arrange
+        SchemaMigrator migrator = new SchemaMigrator(database, "classpath:db/test-migration/valid");
+
+        // Act
+        List<Integer> applied = migrator.migrate();
+
+        // Assert
+        assertEquals(List.of(1, 2, 10), applied);
+        assertEquals("Garage Oost", jdbcTemplate.queryForObject(
+                "SELECT name FROM garages WHERE id = 2", String.class));
+        assertEquals("insert garages", jdbcTemplate.queryForObject(
+                "SELECT description FROM schema_migrations WHERE version = 2", String.class));
+    }
+
+    @Test
+    void migrate_ShouldSkipMigrationsThatAreAlreadyApplied() {
+        // Arrange
+        SchemaMigrator migrator = new SchemaMigrator(database, "classpath:db/test-migration/valid");
+        migrator.migrate();
+
+        // Act
+        List<Integer> applied = migrator.migrate();
+
+        // Assert
+        assertTrue(applied.isEmpty());
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM garages", Integer.class));
+        assertEquals(3, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM schema_migrations", Integer.class));
+    }
+
+    @Test
+    void migrate_ShouldRollBackAndNotRecordMigration_WhenScriptFails() {
+        // Arrange
+        SchemaMigrator migrator = new SchemaMigrator(database, "classpath:db/test-migration/failing");
+
+        // Act & Assert
+        assertThrows(RuntimeException.class, migrator::migrate);
+
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM garages", Integer.class));
+        assertEquals(List.of(1), jdbcTemplate.queryForList(
+                "SELECT version FROM schema_migrations ORDER BY version", Integer.class));
+    }
+
+    @Test
+    void migrate_ShouldSkipMigrationsThatAConcurrentRunApplies() throws Exception {
+        // Arrange
+        // Only creates the bookkeeping tables, the directory itself holds no migrations
+        new SchemaMigrator(database, "classpath:db/test-migration").migrate();
+        SchemaMigrator migrator = new SchemaMigrator(database, "classpath:db/test-migration/valid");
+
+        // Act
+        CompletableFuture<List<Integer>> applied = new TransactionTemplate(new DataSourceTransactionManager(database))
+                .execute(status -> {
+                    // A concurrent run holds the lock and records the migrations as applied
+                    jdbcTemplate.queryForObject("SELECT id FROM schema_migrations_lock WHERE id = 1 FOR UPDATE",
+                            Integer.class);
+                    for (int version : List.of(1, 2, 10)) {
+                        jdbcTemplate.update("INSERT INTO schema_migrations (version, description, installed_at) "
+                                + "VALUES (?, 'concurrent run', CURRENT_TIMESTAMP)", version);
+                    }
+                    CompletableFuture<List<Integer>> run = CompletableFuture.supplyAsync(migrator::migrate);
+                    try {
+                        Thread.sleep(200);
+                    } catch (InterruptedException e) {
+                        throw new IllegalStateException(e);
+                    }
+                    assertFalse(run.isDone());
+                    return run;
+                });
+
+        // Assert
+        assertTrue(applied.get(5, TimeUnit.SECONDS).isEmpty());
+        assertEquals(3, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM schema_migrations", Integer.class));
+        assertEquals(List.of("concurrent run"), jdbcTemplate.queryForList(
+                "SELECT DISTINCT description FROM schema_migrations", String.class));
+    }
+}
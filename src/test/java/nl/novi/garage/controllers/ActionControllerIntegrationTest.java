@@ -1,6 +1,7 @@
 package nl.novi.garage.controllers;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import nl.novi.garage.dtos.cache.CacheStatsDTO;
 import nl.novi.garage.dtos.action.ActionRequestDTO;
 import nl.novi.garage.dtos.action.ActionResponseDTO;
 import nl.novi.garage.services.ActionService;
@@ -255,4 +256,19 @@ class ActionControllerIntegrationTest {
 
         verify(actionService, times(1)).getActionById(999L);
     }
-}
\ No newline at end of file
+
+    @Test
+    void getCacheStats_ShouldReturnCatalogCacheStatistics() throws Exception {
+        // Arrange
+        when(actionService.getCacheStats()).thenReturn(new CacheStatsDTO("actions", 8, 40, 10, 0.8, 0));
+
+        // Act & Assert
+        mockMvc.perform(get("/actions/cache-stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("actions"))
+                .andExpect(jsonPath("$.hitCount").value(40))
+                .andExpect(jsonPath("$.missCount").value(10));
+
+        verify(actionService, times(1)).getCacheStats();
+    }
+}
@@ -0,0 +1,62 @@
+package nl.novi.garage.controllers;
+
+import nl.novi.garage.dtos.cache.CacheStatsDTO;
+import nl.novi.garage.services.CacheService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = CacheController.class, excludeFilters = {
+        @org.springframework.context.annotation.ComponentScan.Filter(type = org.springframework.context.annotation.FilterType.ASSIGNABLE_TYPE, classes = {
+                nl.novi.garage.security.JwtRequestFilter.class,
+                nl.novi.garage.security.JwtService.class,
+                nl.novi.garage.services.UserDetailsServiceImpl.class
+        })
+}, excludeAutoConfiguration = {
+        org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration.class,
+        org.springframework.boot.autoconfigure.security.servlet.SecurityFilterAutoConfiguration.class,
+        org.springframework.boot.autoconfigure.security.servlet.UserDetailsServiceAutoConfiguration.class
+})
+class CacheControllerIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private CacheService cacheService;
+
+    @Test
+    void getRegionStats_ShouldReturnStatsPerRegion() throws Exception {
+        // Arrange
+        when(cacheService.getRegionStats()).thenReturn(List.of(
+                new CacheStatsDTO("cars", 12, 90, 10, 0.9, 0),
+                new CacheStatsDTO("parts", 5000, 300, 100, 0.75, 42)));
+
+        // Act & Assert
+        mockMvc.perform(get("/caches"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].name").value("cars"))
+                .andExpect(jsonPath("$[0].hitRate").value(0.9))
+                .andExpect(jsonPath("$[1].evictionCount").value(42));
+
+        verify(cacheService, times(1)).getRegionStats();
+    }
+
+    @Test
+    void evictAll_ShouldReturnNoContent() throws Exception {
+        // Act & Assert
+        mockMvc.perform(delete("/caches"))
+                .andExpect(status().isNoContent());
+
+        verify(cacheService, times(1)).evictAll();
+    }
+}
@@ -3,6 +3,7 @@ package nl.novi.garage.controllers;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import nl.novi.garage.dtos.car.CarRequestDTO;
 import nl.novi.garage.dtos.car.CarResponseDTO;
+import nl.novi.garage.dtos.page.PageResponseDTO;
 import nl.novi.garage.services.CarService;
 import nl.novi.garage.security.JwtService;
 import nl.novi.garage.services.UserDetailsServiceImpl;
@@ -150,7 +151,7 @@ class CarControllerIntegrationTest {
         @Test
         void searchCarsByLicensePlate_ShouldReturnCar_WhenLicensePlateExists() throws Exception {
                 // Arrange
-                when(carService.getCarByLicensePlate("AB-123-CD")).thenReturn(carResponseDTO);
+                when(carService.searchCars(null, null, "AB-123-CD")).thenReturn(List.of(carResponseDTO));
 
                 // Act & Assert
                 mockMvc.perform(get("/cars/search")
@@ -161,7 +162,7 @@ class CarControllerIntegrationTest {
                                 .andExpect(jsonPath("$[0].licensePlate").value("AB-123-CD"))
                                 .andExpect(jsonPath("$[0].brand").value("Toyota"));
 
-                verify(carService, times(1)).getCarByLicensePlate("AB-123-CD");
+                verify(carService, times(1)).searchCars(null, null, "AB-123-CD");
         }
 
         @Test
@@ -230,7 +231,7 @@ class CarControllerIntegrationTest {
         void searchCars_ShouldSearchByModel_WhenModelParameterProvided() throws Exception {
                 // Arrange
                 List<CarResponseDTO> cars = Arrays.asList(carResponseDTO);
-                when(carService.searchCarsByModel("Corolla")).thenReturn(cars);
+                when(carService.searchCars(null, "Corolla", null)).thenReturn(cars);
 
                 // Act & Assert
                 mockMvc.perform(get("/cars/search")
@@ -240,14 +241,14 @@ class CarControllerIntegrationTest {
                                 .andExpect(jsonPath("$.length()").value(1))
                                 .andExpect(jsonPath("$[0].model").value("Corolla"));
 
-                verify(carService, times(1)).searchCarsByModel("Corolla");
+                verify(carService, times(1)).searchCars(null, "Corolla", null);
         }
 
         @Test
         void searchCars_ShouldReturnAllCars_WhenNoParameters() throws Exception {
                 // Arrange
                 List<CarResponseDTO> cars = Arrays.asList(carResponseDTO);
-                when(carService.getAllCars()).thenReturn(cars);
+                when(carService.searchCars(null, null, null)).thenReturn(cars);
 
                 // Act & Assert
                 mockMvc.perform(get("/cars/search"))
@@ -255,14 +256,14 @@ class CarControllerIntegrationTest {
                                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                                 .andExpect(jsonPath("$.length()").value(1));
 
-                verify(carService, times(1)).getAllCars();
+                verify(carService, times(1)).searchCars(null, null, null);
         }
 
         @Test
         void searchCars_ShouldSearchByBrand_WhenBrandParameterProvided() throws Exception {
                 // Arrange
                 List<CarResponseDTO> cars = Arrays.asList(carResponseDTO);
-                when(carService.searchCarsByBrand("Toyota")).thenReturn(cars);
+                when(carService.searchCars("Toyota", null, null)).thenReturn(cars);
 
                 // Act & Assert
                 mockMvc.perform(get("/cars/search")
@@ -272,14 +273,14 @@ class CarControllerIntegrationTest {
                                 .andExpect(jsonPath("$.length()").value(1))
                                 .andExpect(jsonPath("$[0].brand").value("Toyota"));
 
-                verify(carService, times(1)).searchCarsByBrand("Toyota");
+                verify(carService, times(1)).searchCars("Toyota", null, null);
         }
 
         @Test
         void searchCars_ShouldSearchByBrandAndModel_WhenBothParametersProvided() throws Exception {
                 // Arrange
                 List<CarResponseDTO> cars = Arrays.asList(carResponseDTO);
-                when(carService.searchCarsByBrandAndModel("Toyota", "Corolla")).thenReturn(cars);
+                when(carService.searchCars("Toyota", "Corolla", null)).thenReturn(cars);
 
                 // Act & Assert
                 mockMvc.perform(get("/cars/search")
@@ -291,13 +292,13 @@ class CarControllerIntegrationTest {
                                 .andExpect(jsonPath("$[0].brand").value("Toyota"))
                                 .andExpect(jsonPath("$[0].model").value("Corolla"));
 
-                verify(carService, times(1)).searchCarsByBrandAndModel("Toyota", "Corolla");
+                verify(carService, times(1)).searchCars("Toyota", "Corolla", null);
         }
 
         @Test
         void searchCars_ShouldSearchByLicensePlate_WhenLicensePlateParameterProvided() throws Exception {
                 // Arrange
-                when(carService.getCarByLicensePlate("AB-123")).thenReturn(carResponseDTO);
+                when(carService.searchCars(null, null, "AB-123")).thenReturn(List.of(carResponseDTO));
 
                 // Act & Assert
                 mockMvc.perform(get("/cars/search")
@@ -307,7 +308,25 @@ class CarControllerIntegrationTest {
                                 .andExpect(jsonPath("$.length()").value(1))
                                 .andExpect(jsonPath("$[0].licensePlate").value("AB-123-CD"));
 
-                verify(carService, times(1)).getCarByLicensePlate("AB-123");
+                verify(carService, times(1)).searchCars(null, null, "AB-123");
+        }
+
+        @Test
+        void searchCarsPage_ShouldCombineFiltersAndReturnPage() throws Exception {
+                // Arrange
+                PageResponseDTO<CarResponseDTO> page = new PageResponseDTO<>(List.of(carResponseDTO), "next-cursor");
+                when(carService.searchCarsPage("Toyota", "Corolla", null, null, 10)).thenReturn(page);
+
+                // Act & Assert
+                mockMvc.perform(get("/cars/search/page")
+                                .param("brand", "Toyota")
+                                .param("model", "Corolla")
+                                .param("size", "10"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.items[0].brand").value("Toyota"))
+                                .andExpect(jsonPath("$.next").value("next-cursor"));
+
+                verify(carService, times(1)).searchCarsPage("Toyota", "Corolla", null, null, 10);
         }
 
         @Test
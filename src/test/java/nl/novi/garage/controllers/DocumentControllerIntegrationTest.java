@@ -12,12 +12,16 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.core.io.ByteArrayResource;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.time.Instant;
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
@@ -85,7 +89,6 @@ class DocumentControllerIntegrationTest {
         carDocument.setCar(testCar);
         carDocument.setFilename("test-document.pdf");
         carDocument.setFilepath("car_1/test-document.pdf");
-        carDocument.setData("test pdf content".getBytes());
         carDocument.setContentType("application/pdf");
         carDocument.setFileSize(16L);
     }
@@ -198,6 +201,8 @@ class DocumentControllerIntegrationTest {
     void downloadDocument_ShouldReturnFileContent_WhenDocumentExists() throws Exception {
         // Arrange
         when(documentService.getDocumentById(1L)).thenReturn(carDocument);
+        when(documentService.getDocumentContent(carDocument))
+                .thenReturn(new ByteArrayResource("test pdf content".getBytes()));
 
         // Act & Assert
         mockMvc.perform(get("/documents/1/download"))
@@ -210,11 +215,57 @@ class DocumentControllerIntegrationTest {
     }
 
     @Test
-    void downloadDocumentByFilename_ShouldReturnFileContent_WhenDocumentExists() throws Exception {
+    void downloadDocument_ShouldReturnValidators_WhenContentHashIsKnown() throws Exception {
         // Arrange
-        List<CarDocumentResponseDTO> documents = Arrays.asList(documentResponseDTO);
-        when(documentService.getDocumentsByCarId(1L)).thenReturn(documents);
+        carDocument.setContentHash("abc123");
+        carDocument.setUploadedAt(Instant.parse("2024-03-01T10:00:00Z"));
         when(documentService.getDocumentById(1L)).thenReturn(carDocument);
+        when(documentService.getDocumentContent(carDocument))
+                .thenReturn(new ByteArrayResource("test pdf content".getBytes()));
+
+        // Act & Assert
+        mockMvc.perform(get("/documents/1/download"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"abc123\""))
+                .andExpect(header().string("Last-Modified", "Fri, 01 Mar 2024 10:00:00 GMT"))
+                .andExpect(header().string("Accept-Ranges", "bytes"));
+    }
+
+    @Test
+    void downloadDocument_ShouldReturnNotModified_WhenETagMatches() throws Exception {
+        // Arrange
+        carDocument.setContentHash("abc123");
+        when(documentService.getDocumentById(1L)).thenReturn(carDocument);
+        when(documentService.getDocumentContent(carDocument))
+                .thenReturn(new ByteArrayResource("test pdf content".getBytes()));
+
+        // Act & Assert
+        mockMvc.perform(get("/documents/1/download").header("If-None-Match", "\"abc123\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    void downloadDocument_ShouldReturnPartialContent_WhenRangeRequested() throws Exception {
+        // Arrange
+        carDocument.setContentHash("abc123");
+        when(documentService.getDocumentById(1L)).thenReturn(carDocument);
+        when(documentService.getDocumentContent(carDocument))
+                .thenReturn(new ByteArrayResource("test pdf content".getBytes()));
+
+        // Act & Assert
+        mockMvc.perform(get("/documents/1/download").header("Range", "bytes=5-7"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string("Content-Range", "bytes 5-7/16"))
+                .andExpect(content().bytes("pdf".getBytes()));
+    }
+
+    @Test
+    void downloadDocumentByFilename_ShouldReturnFileContent_WhenDocumentExists() throws Exception {
+        // Arrange
+        when(documentService.getDocumentByCarIdAndFilename(1L, "test-document.pdf")).thenReturn(carDocument);
+        when(documentService.getDocumentContent(carDocument))
+                .thenReturn(new ByteArrayResource("test pdf content".getBytes()));
 
         // Act & Assert
         mockMvc.perform(get("/documents/cars/1/download/test-document.pdf"))
@@ -223,22 +274,23 @@ class DocumentControllerIntegrationTest {
                 .andExpect(header().string("Content-Disposition", "attachment; filename=\"test-document.pdf\""))
                 .andExpect(content().bytes("test pdf content".getBytes()));
 
-        verify(documentService, times(1)).getDocumentsByCarId(1L);
-        verify(documentService, times(1)).getDocumentById(1L);
+        verify(documentService, times(1)).getDocumentByCarIdAndFilename(1L, "test-document.pdf");
+        verify(documentService, never()).getDocumentsByCarId(anyLong());
     }
 
     @Test
     void downloadDocumentByFilename_ShouldReturnNotFound_WhenDocumentNotExists() throws Exception {
         // Arrange
-        List<CarDocumentResponseDTO> documents = Arrays.asList(documentResponseDTO);
-        when(documentService.getDocumentsByCarId(1L)).thenReturn(documents);
+        when(documentService.getDocumentByCarIdAndFilename(1L, "non-existent.pdf"))
+                .thenThrow(new IllegalArgumentException(
+                        "Document not found with filename: non-existent.pdf for car ID: 1"));
 
         // Act & Assert
         mockMvc.perform(get("/documents/cars/1/download/non-existent.pdf"))
                 .andExpect(status().isBadRequest());
 
-        verify(documentService, times(1)).getDocumentsByCarId(1L);
-        verify(documentService, never()).getDocumentById(anyLong());
+        verify(documentService, times(1)).getDocumentByCarIdAndFilename(1L, "non-existent.pdf");
+        verify(documentService, never()).getDocumentContent(any());
     }
 
     @Test
@@ -365,4 +417,28 @@ class DocumentControllerIntegrationTest {
 
         verify(documentService, times(1)).deleteDocument(999L);
     }
-}
\ No newline at end of file
+
+    @Test
+    void streamDocuments_ShouldWriteDocumentsAsJsonArray() throws Exception {
+        // Arrange
+        doAnswer(invocation -> {
+            Consumer<CarDocumentResponseDTO> consumer = invocation.getArgument(0);
+            consumer.accept(documentResponseDTO);
+            return null;
+        }).when(documentService).streamAllDocuments(any());
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/documents/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].carId").value(1))
+                .andExpect(jsonPath("$[0].filename").value(documentResponseDTO.getFilename()));
+
+        verify(documentService, times(1)).streamAllDocuments(any());
+    }
+}
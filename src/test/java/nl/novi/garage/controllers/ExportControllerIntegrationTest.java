@@ -0,0 +1,166 @@
+package nl.novi.garage.controllers;
+
+import nl.novi.garage.services.ExportService;
+import nl.novi.garage.services.FileFormat;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = ExportController.class, excludeFilters = {
+        @org.springframework.context.annotation.ComponentScan.Filter(type = org.springframework.context.annotation.FilterType.ASSIGNABLE_TYPE, classes = {
+                nl.novi.garage.security.JwtRequestFilter.class,
+                nl.novi.garage.security.JwtService.class,
+                nl.novi.garage.services.UserDetailsServiceImpl.class
+        })
+}, excludeAutoConfiguration = {
+        org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration.class,
+        org.springframework.boot.autoconfigure.security.servlet.SecurityFilterAutoConfiguration.class,
+        org.springframework.boot.autoconfigure.security.servlet.UserDetailsServiceAutoConfiguration.class
+})
+class ExportControllerIntegrationTest {
+
+    private static final String CSV = "repair_id,repair_date\r\n1,2024-03-15\r\n";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ExportService exportService;
+
+    @Test
+    void exportRepairs_ShouldStreamGzippedCsv_WhenClientAcceptsGzip() throws Exception {
+        // Arrange
+        when(exportService.exportRepairLines(any(), any(), eq(FileFormat.CSV), any())).thenAnswer(invocation -> {
+            OutputStream output = invocation.getArgument(3);
+            output.write(CSV.getBytes(StandardCharsets.UTF_8));
+            return 1L;
+        });
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/exports/repairs")
+                .param("startDate", "2024-03-01")
+                .param("endDate", "2024-03-31")
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        MvcResult response = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/csv"))
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"repairs-2024-03-01-2024-03-31.csv\""))
+                .andReturn();
+        byte[] body = response.getResponse().getContentAsByteArray();
+        try (GZIPInputStream unzipped = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            assertEquals(CSV, new String(unzipped.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        verify(exportService, times(1)).exportRepairLines(eq(LocalDate.of(2024, 3, 1)),
+                eq(LocalDate.of(2024, 3, 31)), eq(FileFormat.CSV), any());
+    }
+
+    @Test
+    void exportRepairs_ShouldNotFinishGzipStream_WhenExportFailsMidway() throws Exception {
+        // Arrange
+        when(exportService.exportRepairLines(any(), any(), eq(FileFormat.CSV), any())).thenAnswer(invocation -> {
+            OutputStream output = invocation.getArgument(3);
+            // Random lines barely compress, so compressed data is sent before the export fails
+            for (int i = 0; i < 10_000; i++) {
+                output.write((UUID.randomUUID() + "\n").getBytes(StandardCharsets.UTF_8));
+            }
+            throw new QueryTimeoutException("Query timed out");
+        });
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/exports/repairs")
+                .param("startDate", "2024-03-01")
+                .param("endDate", "2024-03-31")
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        try {
+            mockMvc.perform(asyncDispatch(result));
+        } catch (Exception e) {
+            // The failure surfaces on the dispatch, what matters is what the client received
+        }
+
+        // Assert
+        byte[] body = result.getResponse().getContentAsByteArray();
+        assertTrue(body.length > 0);
+        try (GZIPInputStream unzipped = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            assertThrows(EOFException.class, unzipped::readAllBytes);
+        }
+    }
+
+    @Test
+    void exportRepairs_ShouldStreamPlainNdjson_WhenClientDoesNotAcceptGzip() throws Exception {
+        // Arrange
+        when(exportService.exportRepairLines(any(), any(), eq(FileFormat.NDJSON), any())).thenAnswer(invocation -> {
+            OutputStream output = invocation.getArgument(3);
+            output.write("{\"repair_id\":1}\n".getBytes(StandardCharsets.UTF_8));
+            return 1L;
+        });
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/exports/repairs")
+                .param("startDate", "2024-03-01")
+                .param("endDate", "2024-03-31")
+                .param("format", "ndjson"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(content().string("{\"repair_id\":1}\n"));
+    }
+
+    @Test
+    void exportRepairs_ShouldReturnBadRequest_WhenFormatUnknown() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/exports/repairs")
+                .param("startDate", "2024-03-01")
+                .param("endDate", "2024-03-31")
+                .param("format", "xlsx"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Invalid file format: xlsx. Valid formats are: csv, ndjson"));
+
+        verify(exportService, never()).exportRepairLines(any(), any(), any(), any());
+    }
+
+    @Test
+    void exportRepairs_ShouldReturnBadRequest_WhenDateRangeInvalid() throws Exception {
+        // Arrange
+        doThrow(new IllegalArgumentException("Start date must not be after end date"))
+                .when(exportService).validateDateRange(any(), any());
+
+        // Act & Assert
+        mockMvc.perform(get("/exports/repairs")
+                .param("startDate", "2024-04-01")
+                .param("endDate", "2024-03-01"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Start date must not be after end date"));
+    }
+}
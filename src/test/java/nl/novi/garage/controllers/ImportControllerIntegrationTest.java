@@ -0,0 +1,131 @@
+package nl.novi.garage.controllers;
+
+import nl.novi.garage.dtos.imports.ImportResultDTO;
+import nl.novi.garage.services.FileFormat;
+import nl.novi.garage.services.ImportService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = ImportController.class, excludeFilters = {
+        @org.springframework.context.annotation.ComponentScan.Filter(type = org.springframework.context.annotation.FilterType.ASSIGNABLE_TYPE, classes = {
+                nl.novi.garage.security.JwtRequestFilter.class,
+                nl.novi.garage.security.JwtService.class,
+                nl.novi.garage.services.UserDetailsServiceImpl.class
+        })
+}, excludeAutoConfiguration = {
+        org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration.class,
+        org.springframework.boot.autoconfigure.security.servlet.SecurityFilterAutoConfiguration.class,
+        org.springframework.boot.autoconfigure.security.servlet.UserDetailsServiceAutoConfiguration.class
+})
+class ImportControllerIntegrationTest {
+
+    private static final String CSV = "name,phonenumber\nJan Jansen,+31612345678\nK,+31687654321\n";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ImportService importService;
+
+    @Test
+    void importCustomers_ShouldReturnResultWithRowErrors() throws Exception {
+        // Arrange
+        ImportResultDTO importResult = new ImportResultDTO("customers");
+        importResult.setRows(2);
+        importResult.setImported(1);
+        importResult.addError(2, "Name must be between 2 and 100 characters");
+        when(importService.importCustomers(any(InputStream.class), eq(FileFormat.CSV))).thenReturn(importResult);
+
+        // Act & Assert
+        mockMvc.perform(post("/imports/customers")
+                .contentType("text/csv")
+                .content(CSV))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.type").value("customers"))
+                .andExpect(jsonPath("$.rows").value(2))
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.errors[0].row").value(2))
+                .andExpect(jsonPath("$.errors[0].message").value("Name must be between 2 and 100 characters"));
+    }
+
+    @Test
+    void importParts_ShouldDecompressBody_WhenGzipEncoded() throws Exception {
+        // Arrange
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write("{\"name\":\"Oliefilter\",\"price\":12.5,\"stock\":3}\n".getBytes(StandardCharsets.UTF_8));
+        }
+        when(importService.importParts(any(InputStream.class), eq(FileFormat.NDJSON))).thenAnswer(invocation -> {
+            InputStream input = invocation.getArgument(0);
+            assertEquals("{\"name\":\"Oliefilter\",\"price\":12.5,\"stock\":3}\n",
+                    new String(input.readAllBytes(), StandardCharsets.UTF_8));
+            return new ImportResultDTO("parts");
+        });
+
+        // Act & Assert
+        mockMvc.perform(post("/imports/parts")
+                .param("format", "ndjson")
+                .contentType("application/x-ndjson")
+                .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                .content(compressed.toByteArray()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.type").value("parts"));
+
+        verify(importService, times(1)).importParts(any(InputStream.class), eq(FileFormat.NDJSON));
+    }
+
+    @Test
+    void importCars_ShouldReturnBadRequest_WhenBodyNotGzip() throws Exception {
+        // Act & Assert
+        mockMvc.perform(post("/imports/cars")
+                .contentType("text/csv")
+                .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                .content(CSV))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Request body is not gzip compressed"));
+
+        verifyNoInteractions(importService);
+    }
+
+    @Test
+    void importCars_ShouldReturnBadRequest_WhenFormatUnknown() throws Exception {
+        // Act & Assert
+        mockMvc.perform(post("/imports/cars")
+                .param("format", "xlsx")
+                .content(CSV))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Invalid file format: xlsx. Valid formats are: csv, ndjson"));
+
+        verifyNoInteractions(importService);
+    }
+
+    @Test
+    void importCustomers_ShouldReturnBadRequest_WhenHeaderInvalid() throws Exception {
+        // Arrange
+        when(importService.importCustomers(any(InputStream.class), eq(FileFormat.CSV)))
+                .thenThrow(new IllegalArgumentException("Missing column(s) in CSV header: phonenumber"));
+
+        // Act & Assert
+        mockMvc.perform(post("/imports/customers")
+                .contentType("text/csv")
+                .content("name\nJan Jansen\n"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Missing column(s) in CSV header: phonenumber"));
+    }
+}
@@ -3,6 +3,7 @@ package nl.novi.garage.controllers;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import nl.novi.garage.dtos.inspection.InspectionRequestDTO;
 import nl.novi.garage.dtos.inspection.InspectionResponseDTO;
+import nl.novi.garage.dtos.page.PageResponseDTO;
 import nl.novi.garage.services.InspectionService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -280,7 +281,7 @@ class InspectionControllerIntegrationTest {
     void searchInspections_ShouldSearchByStatus_WhenStatusParameterProvided() throws Exception {
         // Arrange
         List<InspectionResponseDTO> inspections = Arrays.asList(inspectionResponseDTO);
-        when(inspectionService.getInspectionsByStatus("COMPLETED")).thenReturn(inspections);
+        when(inspectionService.searchInspections("COMPLETED", null, null, null)).thenReturn(inspections);
 
         // Act & Assert
         mockMvc.perform(get("/inspections/search")
@@ -290,14 +291,14 @@ class InspectionControllerIntegrationTest {
                 .andExpect(jsonPath("$.length()").value(1))
                 .andExpect(jsonPath("$[0].status").value("COMPLETED"));
 
-        verify(inspectionService, times(1)).getInspectionsByStatus("COMPLETED");
+        verify(inspectionService, times(1)).searchInspections("COMPLETED", null, null, null);
     }
 
     @Test
     void searchInspections_ShouldSearchByPaymentStatus_WhenIsPaidParameterProvided() throws Exception {
         // Arrange
         List<InspectionResponseDTO> inspections = Arrays.asList(inspectionResponseDTO);
-        when(inspectionService.getInspectionsByPaymentStatus(true)).thenReturn(inspections);
+        when(inspectionService.searchInspections(null, true, null, null)).thenReturn(inspections);
 
         // Act & Assert
         mockMvc.perform(get("/inspections/search")
@@ -307,14 +308,14 @@ class InspectionControllerIntegrationTest {
                 .andExpect(jsonPath("$.length()").value(1))
                 .andExpect(jsonPath("$[0].isPaid").value(true));
 
-        verify(inspectionService, times(1)).getInspectionsByPaymentStatus(true);
+        verify(inspectionService, times(1)).searchInspections(null, true, null, null);
     }
 
     @Test
     void searchInspections_ShouldSearchByDateRange_WhenDateParametersProvided() throws Exception {
         // Arrange
         List<InspectionResponseDTO> inspections = Arrays.asList(inspectionResponseDTO);
-        when(inspectionService.getInspectionsByDateRange(any(LocalDate.class), any(LocalDate.class)))
+        when(inspectionService.searchInspections(null, null, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31)))
                 .thenReturn(inspections);
 
         // Act & Assert
@@ -325,7 +326,28 @@ class InspectionControllerIntegrationTest {
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.length()").value(1));
 
-        verify(inspectionService, times(1)).getInspectionsByDateRange(any(LocalDate.class), any(LocalDate.class));
+        verify(inspectionService, times(1)).searchInspections(null, null, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31));
+    }
+
+    @Test
+    void searchInspectionsPage_ShouldPassCursorAndFilters() throws Exception {
+        // Arrange
+        PageResponseDTO<InspectionResponseDTO> page = new PageResponseDTO<>(Arrays.asList(inspectionResponseDTO), null);
+        when(inspectionService.searchInspectionsPage("COMPLETED", true, LocalDate.of(2024, 1, 1), null, "abc", 50))
+                .thenReturn(page);
+
+        // Act & Assert
+        mockMvc.perform(get("/inspections/search/page")
+                .param("status", "COMPLETED")
+                .param("isPaid", "true")
+                .param("startDate", "2024-01-01")
+                .param("cursor", "abc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.next").doesNotExist());
+
+        verify(inspectionService, times(1))
+                .searchInspectionsPage("COMPLETED", true, LocalDate.of(2024, 1, 1), null, "abc", 50);
     }
 
     @Test
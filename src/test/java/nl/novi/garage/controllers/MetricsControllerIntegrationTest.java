@@ -0,0 +1,50 @@
+package nl.novi.garage.controllers;
+
+import nl.novi.garage.metrics.MetricsRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = MetricsController.class, excludeFilters = {
+        @org.springframework.context.annotation.ComponentScan.Filter(type = org.springframework.context.annotation.FilterType.ASSIGNABLE_TYPE, classes = {
+                nl.novi.garage.security.JwtRequestFilter.class,
+                nl.novi.garage.security.JwtService.class,
+                nl.novi.garage.services.UserDetailsServiceImpl.class
+        })
+}, excludeAutoConfiguration = {
+        org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration.class,
+        org.springframework.boot.autoconfigure.security.servlet.SecurityFilterAutoConfiguration.class,
+        org.springframework.boot.autoconfigure.security.servlet.UserDetailsServiceAutoConfiguration.class
+})
+class MetricsControllerIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private MetricsRegistry metricsRegistry;
+
+    @Test
+    void scrape_ShouldReturnPrometheusTextFormat() throws Exception {
+        // Arrange
+        when(metricsRegistry.scrape()).thenReturn("""
+                # HELP garage_receipts_unpaid Number of unpaid receipts
+                # TYPE garage_receipts_unpaid gauge
+                garage_receipts_unpaid 3
+                """);
+
+        // Act & Assert
+        mockMvc.perform(get("/metrics"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/plain"))
+                .andExpect(content().string(org.hamcrest.Matchers.containsString("garage_receipts_unpaid 3\n")));
+
+        verify(metricsRegistry, times(1)).scrape();
+    }
+}
@@ -1,9 +1,12 @@
 package nl.novi.garage.controllers;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import nl.novi.garage.dtos.cache.CacheStatsDTO;
 import nl.novi.garage.dtos.part.PartRequestDTO;
 import nl.novi.garage.dtos.part.PartResponseDTO;
+import nl.novi.garage.dtos.part.PartStockReceiptDTO;
 import nl.novi.garage.dtos.part.PartStockUpdateDTO;
+import nl.novi.garage.dtos.part.StockMovementResponseDTO;
 import nl.novi.garage.services.PartService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,6 +17,7 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.Arrays;
 import java.util.List;
 
@@ -195,6 +199,52 @@ class PartControllerIntegrationTest {
         verify(partService, times(1)).updatePartStock(eq(1L), any(PartStockUpdateDTO.class));
     }
 
+    @Test
+    void receiveStock_ShouldReturnUpdatedPart_WhenValidRequest() throws Exception {
+        // Arrange
+        PartResponseDTO updatedResponse = new PartResponseDTO(1L, "Remblokken set", new BigDecimal("45.99"), 35);
+
+        when(partService.receiveStock(eq(1L), any(PartStockReceiptDTO.class))).thenReturn(updatedResponse);
+
+        // Act & Assert
+        mockMvc.perform(post("/parts/1/stock/receipts")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new PartStockReceiptDTO(10))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.stock").value(35));
+
+        verify(partService, times(1)).receiveStock(eq(1L), any(PartStockReceiptDTO.class));
+    }
+
+    @Test
+    void receiveStock_ShouldReturnBadRequest_WhenQuantityNotPositive() throws Exception {
+        // Act & Assert
+        mockMvc.perform(post("/parts/1/stock/receipts")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new PartStockReceiptDTO(0))))
+                .andExpect(status().isBadRequest());
+
+        verify(partService, never()).receiveStock(anyLong(), any(PartStockReceiptDTO.class));
+    }
+
+    @Test
+    void getStockMovements_ShouldReturnLedger() throws Exception {
+        // Arrange
+        List<StockMovementResponseDTO> movements = Arrays.asList(
+                new StockMovementResponseDTO(1L, "RECEIPT", 25, null, Instant.parse("2024-02-01T09:00:00Z")),
+                new StockMovementResponseDTO(2L, "CONSUMPTION", -2, 3L, Instant.parse("2024-02-15T10:30:00Z")));
+
+        when(partService.getStockMovements(1L)).thenReturn(movements);
+
+        // Act & Assert
+        mockMvc.perform(get("/parts/1/stock/movements"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[1].type").value("CONSUMPTION"))
+                .andExpect(jsonPath("$[1].quantity").value(-2))
+                .andExpect(jsonPath("$[1].repairId").value(3));
+    }
+
     @Test
     void deletePart_ShouldReturnNoContent_WhenPartExists() throws Exception {
         // Arrange
@@ -299,4 +349,19 @@ class PartControllerIntegrationTest {
 
         verify(partService, times(1)).createPart(any(PartRequestDTO.class));
     }
-}
\ No newline at end of file
+
+    @Test
+    void getCacheStats_ShouldReturnCatalogCacheStatistics() throws Exception {
+        // Arrange
+        when(partService.getCacheStats()).thenReturn(new CacheStatsDTO("parts", 8, 12, 10, 0.55, 0));
+
+        // Act & Assert
+        mockMvc.perform(get("/parts/cache-stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("parts"))
+                .andExpect(jsonPath("$.hitCount").value(12))
+                .andExpect(jsonPath("$.missCount").value(10));
+
+        verify(partService, times(1)).getCacheStats();
+    }
+}
@@ -0,0 +1,145 @@
+package nl.novi.garage.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import nl.novi.garage.security.VerifiedTokenCache;
+import nl.novi.garage.services.CacheService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Runs the endpoints that map entities with their associations against the sample data on H2 and
+// fails when one of them runs more SQL statements than its budget. The caches are emptied before
+// every test, so the budgets hold for a cold start; each budget includes the user lookup of the
+// token check. A budget that grows with the number of rows is an N+1 regression.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:query-budget;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.show-sql=false",
+        "logging.level.nl.novi.garage=INFO",
+        "logging.level.org.springframework.security=INFO"
+})
+@AutoConfigureMockMvc
+class QueryBudgetIntegrationTest {
+
+    // H2 cannot create the expression and partial indexes of this migration
+    private static final String H2_UNSUPPORTED_MIGRATION = "V2__add_indexes.sql";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CacheService cacheService;
+
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private String authorization;
+
+    @DynamicPropertySource
+    static void migrations(DynamicPropertyRegistry registry) throws IOException {
+        Path migrations = Files.createTempDirectory("query-budget-migrations");
+        for (Resource script : new PathMatchingResourcePatternResolver().getResources("classpath:db/migration/V*.sql")) {
+            if (!H2_UNSUPPORTED_MIGRATION.equals(script.getFilename())) {
+                try (InputStream content = script.getInputStream()) {
+                    Files.copy(content, migrations.resolve(script.getFilename()));
+                }
+            }
+        }
+        registry.add("schema.migrations.location", () -> "file:" + migrations.toAbsolutePath());
+        registry.add("documents.storage.location",
+                () -> migrations.resolveSibling(migrations.getFileName() + "-documents").toString());
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        cacheService.evictAll();
+        verifiedTokenCache.invalidateAll();
+        String response = mockMvc.perform(post("/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"admin\",\"password\":\"password123\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        authorization = "Bearer " + objectMapper.readTree(response).get("token").asText();
+    }
+
+    @Test
+    void getRepairById_ShouldStayWithinBudget() throws Exception {
+        mockMvc.perform(get("/repairs/1").header("Authorization", authorization))
+                .andExpect(status().isOk())
+                .andExpect(SqlStatementBudget.atMost(6));
+    }
+
+    @Test
+    void getAllRepairs_ShouldStayWithinBudget() throws Exception {
+        mockMvc.perform(get("/repairs").header("Authorization", authorization))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(10))
+                .andExpect(SqlStatementBudget.atMost(8));
+    }
+
+    @Test
+    void getRepairsByCarId_ShouldStayWithinBudget() throws Exception {
+        mockMvc.perform(get("/repairs/car/3").header("Authorization", authorization))
+                .andExpect(status().isOk())
+                .andExpect(SqlStatementBudget.atMost(9));
+    }
+
+    @Test
+    void getCustomerById_ShouldStayWithinBudget() throws Exception {
+        mockMvc.perform(get("/customers/1").header("Authorization", authorization))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cars.length()").value(2))
+                .andExpect(SqlStatementBudget.atMost(3));
+    }
+
+    @Test
+    void getAllCustomers_ShouldStayWithinBudget() throws Exception {
+        mockMvc.perform(get("/customers").header("Authorization", authorization))
+                .andExpect(status().isOk())
+                .andExpect(SqlStatementBudget.atMost(2));
+    }
+
+    @Test
+    void searchCustomers_ShouldStayWithinBudget() throws Exception {
+        mockMvc.perform(get("/customers/search").param("q", "de").header("Authorization", authorization))
+                .andExpect(status().isOk())
+                .andExpect(SqlStatementBudget.atMost(2));
+    }
+
+    @Test
+    void getReceiptById_ShouldStayWithinBudget() throws Exception {
+        String receipt = mockMvc.perform(post("/receipts/generate").header("Authorization", authorization)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"customerId\":4,\"inspectionIds\":[6],\"repairIds\":[6]}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        long receiptId = objectMapper.readTree(receipt).get("id").asLong();
+        cacheService.evictAll();
+
+        mockMvc.perform(get("/receipts/" + receiptId).header("Authorization", authorization))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.inspections.length()").value(1))
+                .andExpect(jsonPath("$.repairs.length()").value(1))
+                .andExpect(SqlStatementBudget.atMost(4));
+    }
+}
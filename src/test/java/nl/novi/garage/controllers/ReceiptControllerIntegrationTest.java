@@ -13,11 +13,14 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.CannotCreateTransactionException;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
@@ -132,6 +135,20 @@ class ReceiptControllerIntegrationTest {
         verify(receiptService, times(1)).generateReceipt(any(ReceiptGenerateRequestDTO.class));
     }
 
+    @Test
+    void generateReceipt_ShouldReturnServiceUnavailable_WhenNoDatabaseConnectionAvailable() throws Exception {
+        // Arrange
+        when(receiptService.generateReceipt(any(ReceiptGenerateRequestDTO.class)))
+                .thenThrow(new CannotCreateTransactionException("Could not open JPA EntityManager for transaction"));
+
+        // Act & Assert
+        mockMvc.perform(post("/receipts/generate")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(receiptGenerateRequestDTO)))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.message").value("The database is busy, please try again later"));
+    }
+
     @Test
     void getAllReceipts_ShouldReturnReceiptList() throws Exception {
         // Arrange
@@ -386,4 +403,42 @@ class ReceiptControllerIntegrationTest {
 
         verify(receiptService, times(1)).generateReceipt(any(ReceiptGenerateRequestDTO.class));
     }
-}
\ No newline at end of file
+
+    @Test
+    void streamReceipts_ShouldWriteReceiptsAsJsonArray() throws Exception {
+        // Arrange
+        doAnswer(invocation -> {
+            Consumer<ReceiptResponseDTO> consumer = invocation.getArgument(0);
+            consumer.accept(receiptResponseDTO);
+            consumer.accept(receiptResponseDTO);
+            return null;
+        }).when(receiptService).streamAllReceipts(any());
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/receipts/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].id").value(1));
+
+        verify(receiptService, times(1)).streamAllReceipts(any());
+    }
+
+    @Test
+    void streamReceipts_ShouldWriteEmptyArray_WhenNoReceipts() throws Exception {
+        // Act
+        MvcResult result = mockMvc.perform(get("/receipts/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[]"));
+    }
+}
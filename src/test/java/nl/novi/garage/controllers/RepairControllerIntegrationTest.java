@@ -1,6 +1,8 @@
 package nl.novi.garage.controllers;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import nl.novi.garage.dtos.page.PageResponseDTO;
 import nl.novi.garage.dtos.repair.*;
 import nl.novi.garage.services.RepairService;
 import org.junit.jupiter.api.BeforeEach;
@@ -8,14 +10,18 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.QueryTimeoutException;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Consumer;
 
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -184,6 +190,38 @@ class RepairControllerIntegrationTest {
         verify(repairService, times(1)).getAllRepairs();
     }
 
+    @Test
+    void getRepairsPage_ShouldReturnItemsAndNextCursor() throws Exception {
+        // Arrange
+        PageResponseDTO<RepairResponseDTO> page = new PageResponseDTO<>(List.of(repairResponseDTO), "abc");
+        when(repairService.getRepairsPage("xyz", 1)).thenReturn(page);
+
+        // Act & Assert
+        mockMvc.perform(get("/repairs/page")
+                .param("cursor", "xyz")
+                .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].id").value(1))
+                .andExpect(jsonPath("$.next").value("abc"));
+
+        verify(repairService, times(1)).getRepairsPage("xyz", 1);
+    }
+
+    @Test
+    void getRepairsPage_ShouldUseDefaultSize_WhenNoParametersProvided() throws Exception {
+        // Arrange
+        when(repairService.getRepairsPage(null, 50)).thenReturn(new PageResponseDTO<>(List.of(), null));
+
+        // Act & Assert
+        mockMvc.perform(get("/repairs/page"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(0))
+                .andExpect(jsonPath("$.next").doesNotExist());
+
+        verify(repairService, times(1)).getRepairsPage(null, 50);
+    }
+
     @Test
     void getRepairById_ShouldReturnRepair_WhenRepairExists() throws Exception {
         // Arrange
@@ -396,7 +434,7 @@ class RepairControllerIntegrationTest {
     void searchRepairs_ShouldSearchByStatus_WhenStatusParameterProvided() throws Exception {
         // Arrange
         List<RepairResponseDTO> repairs = Arrays.asList(repairResponseDTO);
-        when(repairService.getRepairsByStatus("IN_PROGRESS")).thenReturn(repairs);
+        when(repairService.searchRepairs("IN_PROGRESS", null, null, null)).thenReturn(repairs);
 
         // Act & Assert
         mockMvc.perform(get("/repairs/search")
@@ -406,14 +444,14 @@ class RepairControllerIntegrationTest {
                 .andExpect(jsonPath("$.length()").value(1))
                 .andExpect(jsonPath("$[0].status").value("IN_PROGRESS"));
 
-        verify(repairService, times(1)).getRepairsByStatus("IN_PROGRESS");
+        verify(repairService, times(1)).searchRepairs("IN_PROGRESS", null, null, null);
     }
 
     @Test
     void searchRepairs_ShouldSearchByPaymentStatus_WhenIsPaidParameterProvided() throws Exception {
         // Arrange
         List<RepairResponseDTO> repairs = Arrays.asList(repairResponseDTO);
-        when(repairService.getRepairsByPaymentStatus(false)).thenReturn(repairs);
+        when(repairService.searchRepairs(null, false, null, null)).thenReturn(repairs);
 
         // Act & Assert
         mockMvc.perform(get("/repairs/search")
@@ -423,7 +461,46 @@ class RepairControllerIntegrationTest {
                 .andExpect(jsonPath("$.length()").value(1))
                 .andExpect(jsonPath("$[0].isPaid").value(false));
 
-        verify(repairService, times(1)).getRepairsByPaymentStatus(false);
+        verify(repairService, times(1)).searchRepairs(null, false, null, null);
+    }
+
+    @Test
+    void searchRepairs_ShouldCombineAllFilters_WhenSeveralParametersProvided() throws Exception {
+        // Arrange
+        List<RepairResponseDTO> repairs = Arrays.asList(repairResponseDTO);
+        when(repairService.searchRepairs("IN_PROGRESS", false, LocalDate.of(2024, 2, 1), LocalDate.of(2024, 2, 29)))
+                .thenReturn(repairs);
+
+        // Act & Assert
+        mockMvc.perform(get("/repairs/search")
+                .param("status", "IN_PROGRESS")
+                .param("isPaid", "false")
+                .param("startDate", "2024-02-01")
+                .param("endDate", "2024-02-29"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1));
+
+        verify(repairService, times(1))
+                .searchRepairs("IN_PROGRESS", false, LocalDate.of(2024, 2, 1), LocalDate.of(2024, 2, 29));
+        verify(repairService, never()).getRepairsByStatus(anyString());
+    }
+
+    @Test
+    void searchRepairsPage_ShouldReturnPageWithNextCursor() throws Exception {
+        // Arrange
+        PageResponseDTO<RepairResponseDTO> page = new PageResponseDTO<>(Arrays.asList(repairResponseDTO), "next-cursor");
+        when(repairService.searchRepairsPage("IN_PROGRESS", false, null, null, null, 1)).thenReturn(page);
+
+        // Act & Assert
+        mockMvc.perform(get("/repairs/search/page")
+                .param("status", "IN_PROGRESS")
+                .param("isPaid", "false")
+                .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.next").value("next-cursor"));
+
+        verify(repairService, times(1)).searchRepairsPage("IN_PROGRESS", false, null, null, null, 1);
     }
 
     @Test
@@ -487,4 +564,58 @@ class RepairControllerIntegrationTest {
 
         verify(repairService, times(1)).addPartToRepair(eq(1L), any(AddPartToRepairDTO.class));
     }
-}
\ No newline at end of file
+
+    @Test
+    void streamRepairs_ShouldWriteRepairsAsJsonArray() throws Exception {
+        // Arrange
+        doAnswer(invocation -> {
+            Consumer<RepairResponseDTO> consumer = invocation.getArgument(0);
+            consumer.accept(repairResponseDTO);
+            return null;
+        }).when(repairService).streamAllRepairs(any());
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/repairs/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(1))
+                .andExpect(jsonPath("$[0].status").value("IN_PROGRESS"));
+
+        verify(repairService, times(1)).streamAllRepairs(any());
+        verify(repairService, never()).getAllRepairs();
+    }
+
+    @Test
+    void streamRepairs_ShouldNotCloseJsonArray_WhenSourceFailsMidStream() throws Exception {
+        // Arrange
+        doAnswer(invocation -> {
+            Consumer<RepairResponseDTO> consumer = invocation.getArgument(0);
+            // Enough to fill the buffers, so the response is committed when the source fails
+            for (int i = 0; i < 100; i++) {
+                consumer.accept(repairResponseDTO);
+            }
+            throw new QueryTimeoutException("Query timed out");
+        }).when(repairService).streamAllRepairs(any());
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/repairs/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        try {
+            mockMvc.perform(asyncDispatch(result));
+        } catch (Exception e) {
+            // The failure surfaces on the dispatch, what matters is what the client received
+        }
+
+        // Assert
+        String body = result.getResponse().getContentAsString();
+        assertTrue(body.startsWith("[{"));
+        assertThrows(JsonProcessingException.class, () -> objectMapper.readTree(body));
+    }
+}
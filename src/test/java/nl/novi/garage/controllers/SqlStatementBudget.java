@@ -0,0 +1,24 @@
+package nl.novi.garage.controllers;
+
+import nl.novi.garage.metrics.RequestMetricsFilter;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Query budget for requests against the full application, read from the statement count that the
+// RequestMetricsFilter leaves on the request. Use as .andExpect(SqlStatementBudget.atMost(5)).
+final class SqlStatementBudget {
+
+    private SqlStatementBudget() {
+    }
+
+    static ResultMatcher atMost(int budget) {
+        return result -> {
+            Object statements = result.getRequest().getAttribute(RequestMetricsFilter.SQL_STATEMENTS_ATTRIBUTE);
+            assertNotNull(statements, "No SQL statement count on the request, is the RequestMetricsFilter registered?");
+            assertTrue((Integer) statements <= budget, () -> result.getRequest().getMethod() + " "
+                    + result.getRequest().getRequestURI() + " ran " + statements
+                    + " SQL statements, the budget is " + budget);
+        };
+    }
+}
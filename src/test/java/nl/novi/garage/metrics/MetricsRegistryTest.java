@@ -0,0 +1,135 @@
+package nl.novi.garage.metrics;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetricsRegistryTest {
+
+    private MetricsRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new MetricsRegistry();
+    }
+
+    @Test
+    void counter_ShouldReturnSameCounter_ForSameNameAndLabels() {
+        // Act
+        registry.counter("requests_total", "Requests", "result", "hit").increment();
+        registry.counter("requests_total", "Requests", "result", "hit").increment();
+        registry.counter("requests_total", "Requests", "result", "miss").increment();
+
+        // Assert
+        assertEquals(2, registry.counter("requests_total", "Requests", "result", "hit").count());
+        assertEquals("""
+                # HELP requests_total Requests
+                # TYPE requests_total counter
+                requests_total{result="hit"} 2
+                requests_total{result="miss"} 1
+                """, registry.scrape());
+    }
+
+    @Test
+    void histogram_ShouldRenderCumulativeBuckets() {
+        // Arrange
+        Histogram histogram = registry.histogram("calls", "Calls per request", new double[] { 1, 5 },
+                "uri", "/repairs/{id}");
+
+        // Act
+        histogram.observe(1);
+        histogram.observe(3);
+        histogram.observe(7);
+
+        // Assert
+        assertEquals(3, histogram.count());
+        assertEquals(11.0, histogram.sum());
+        assertEquals("""
+                # HELP calls Calls per request
+                # TYPE calls histogram
+                calls_bucket{uri="/repairs/{id}",le="1"} 1
+                calls_bucket{uri="/repairs/{id}",le="5"} 2
+                calls_bucket{uri="/repairs/{id}",le="+Inf"} 3
+                calls_sum{uri="/repairs/{id}"} 11
+                calls_count{uri="/repairs/{id}"} 3
+                """, registry.scrape());
+    }
+
+    @Test
+    void timer_ShouldRecordNanosAsSeconds() {
+        // Arrange
+        Histogram timer = registry.timer("parse_seconds", "Parse time");
+
+        // Act
+        timer.observeNanos(2_500_000);
+
+        // Assert
+        assertEquals(0.0025, timer.sum(), 1e-12);
+        String scrape = registry.scrape();
+        assertTrue(scrape.contains("parse_seconds_bucket{le=\"0.001\"} 0\n"));
+        assertTrue(scrape.contains("parse_seconds_bucket{le=\"0.0025\"} 1\n"));
+        assertTrue(scrape.contains("parse_seconds_count 1\n"));
+    }
+
+    @Test
+    void gauges_ShouldBeReadOnEveryScrape() {
+        // Arrange
+        Map<String, Integer> stock = new LinkedHashMap<>();
+        stock.put("2", 0);
+        stock.put("1", 12);
+        registry.gauges("part_stock", "Stock", "part_id", () -> stock);
+        registry.gauge("unpaid", "Unpaid receipts", () -> 3L);
+
+        // Act
+        stock.put("1", 11);
+        String scrape = registry.scrape();
+
+        // Assert
+        assertEquals("""
+                # HELP part_stock Stock
+                # TYPE part_stock gauge
+                part_stock{part_id="1"} 11
+                part_stock{part_id="2"} 0
+                # HELP unpaid Unpaid receipts
+                # TYPE unpaid gauge
+                unpaid 3
+                """, scrape);
+    }
+
+    @Test
+    void scrape_ShouldSkipGauge_WhenItFails() {
+        // Arrange
+        registry.gauge("broken", "Fails", () -> {
+            throw new IllegalStateException("Database unavailable");
+        });
+        registry.counter("working_total", "Works").increment();
+
+        // Act
+        String scrape = registry.scrape();
+
+        // Assert
+        assertFalse(scrape.contains("broken"));
+        assertTrue(scrape.contains("working_total 1\n"));
+    }
+
+    @Test
+    void labels_ShouldEscapeValues() {
+        // Act & Assert
+        assertEquals("name=\"a \\\"b\\\" \\\\ c\\nd\"", MetricsRegistry.labels("name", "a \"b\" \\ c\nd"));
+    }
+
+    @Test
+    void counter_ShouldThrowException_WhenNameIsRegisteredWithOtherType() {
+        // Arrange
+        registry.timer("duration", "Duration");
+
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> registry.counter("duration", "Duration"));
+        assertEquals("Metric duration is already registered as a histogram", exception.getMessage());
+    }
+}
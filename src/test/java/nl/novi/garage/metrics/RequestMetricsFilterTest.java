@@ -0,0 +1,80 @@
+package nl.novi.garage.metrics;
+
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestMetricsFilterTest {
+
+    private final SqlStatementCounter statementCounter = new SqlStatementCounter();
+
+    private MetricsRegistry registry;
+    private RequestMetricsFilter filter;
+    private MockHttpServletRequest request;
+
+    @BeforeEach
+    void setUp() {
+        registry = new MetricsRegistry();
+        filter = new RequestMetricsFilter(registry, 5, 3);
+        request = new MockHttpServletRequest("GET", "/customers");
+    }
+
+    @Test
+    void doFilter_ShouldCountStatementsOfRequest() throws Exception {
+        // Arrange
+        FilterChain chain = (req, res) -> {
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/customers");
+            RepositoryCallCounter.increment();
+            statementCounter.inspect("select c from customers c");
+            statementCounter.inspect("select c from cars c where c.customer_id=?");
+        };
+
+        // Act
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        // Assert
+        assertEquals(2, request.getAttribute(RequestMetricsFilter.SQL_STATEMENTS_ATTRIBUTE));
+        assertEquals(2.0, registry.histogram("garage_http_request_sql_statements", "",
+                new double[0], "method", "GET", "uri", "/customers").sum());
+        assertEquals(1.0, registry.histogram("garage_http_request_repository_calls", "",
+                new double[0], "method", "GET", "uri", "/customers").sum());
+        assertFalse(registry.scrape().contains("garage_http_request_n_plus_one_total"));
+    }
+
+    @Test
+    void doFilter_ShouldCountPossibleNPlusOne_WhenSameStatementIsRepeated() throws Exception {
+        // Arrange
+        FilterChain chain = (req, res) -> {
+            statementCounter.inspect("select c from customers c");
+            for (int i = 0; i < 3; i++) {
+                statementCounter.inspect("select c from cars c where c.customer_id=?");
+            }
+        };
+
+        // Act
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        // Assert
+        assertEquals(4, request.getAttribute(RequestMetricsFilter.SQL_STATEMENTS_ATTRIBUTE));
+        assertEquals(1, registry.counter("garage_http_request_n_plus_one_total", "",
+                "method", "GET", "uri", "UNKNOWN").count());
+    }
+
+    @Test
+    void inspect_ShouldNotCount_OutsideRequest() throws Exception {
+        // Arrange
+        statementCounter.inspect("select 1");
+
+        // Act
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+        });
+
+        // Assert
+        assertEquals(0, request.getAttribute(RequestMetricsFilter.SQL_STATEMENTS_ATTRIBUTE));
+    }
+}
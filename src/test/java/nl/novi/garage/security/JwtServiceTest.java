@@ -0,0 +1,74 @@
+package nl.novi.garage.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.security.SignatureException;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtServiceTest {
+
+    private static final String SECRET = "eengeheimesleuteldieniemandmagwetenenhijmoetlangzijn";
+
+    private final JwtService jwtService = new JwtService(SECRET, 60_000, "garage-api.novi.nl");
+
+    private final UserDetails user = User.withUsername("monteur").password("secret").roles("MONTEUR").build();
+
+    @Test
+    void parseToken_ShouldReturnClaimsWithTokenId() {
+        // Act
+        Claims claims = jwtService.parseToken(jwtService.generateToken(user, "MONTEUR"));
+
+        // Assert
+        assertEquals("monteur", claims.getSubject());
+        assertEquals("MONTEUR", claims.get("role", String.class));
+        assertNotNull(claims.getId());
+    }
+
+    @Test
+    void generateToken_ShouldUseUniqueTokenIds() {
+        String first = jwtService.extractClaim(jwtService.generateToken(user, "MONTEUR"), Claims::getId);
+        String second = jwtService.extractClaim(jwtService.generateToken(user, "MONTEUR"), Claims::getId);
+
+        assertNotEquals(first, second);
+    }
+
+    @Test
+    void parseToken_ShouldThrowException_WhenSignedWithOtherKey() {
+        // Arrange
+        JwtService other = new JwtService(SECRET + "-other", 60_000, "garage-api.novi.nl");
+        String token = other.generateToken(user, "MONTEUR");
+
+        // Act & Assert
+        assertThrows(SignatureException.class, () -> jwtService.parseToken(token));
+    }
+
+    @Test
+    void parseToken_ShouldThrowException_WhenExpired() {
+        // Arrange
+        JwtService expired = new JwtService(SECRET, -1_000, "garage-api.novi.nl");
+        String token = expired.generateToken(user, "MONTEUR");
+
+        // Act & Assert
+        assertThrows(ExpiredJwtException.class, () -> jwtService.parseToken(token));
+    }
+
+    @Test
+    void toUserDetails_ShouldBuildAuthoritiesFromRoleClaim() {
+        // Arrange
+        Claims claims = jwtService.parseToken(jwtService.generateToken(user, "BEHEER"));
+
+        // Act
+        UserDetails result = jwtService.toUserDetails(claims);
+
+        // Assert
+        assertEquals("monteur", result.getUsername());
+        assertEquals(1, result.getAuthorities().size());
+        GrantedAuthority authority = result.getAuthorities().iterator().next();
+        assertEquals("ROLE_BEHEER", authority.getAuthority());
+    }
+}
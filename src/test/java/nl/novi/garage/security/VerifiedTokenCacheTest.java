@@ -0,0 +1,72 @@
+package nl.novi.garage.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VerifiedTokenCacheTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    private VerifiedTokenCache cache;
+    private VerifiedToken verifiedToken;
+
+    @BeforeEach
+    void setUp() {
+        cache = new VerifiedTokenCache(2, nanos::get);
+        UserDetails userDetails = User.withUsername("jan").password("secret").roles("MONTEUR").build();
+        verifiedToken = new VerifiedToken(userDetails, "token-id");
+    }
+
+    @Test
+    void get_ShouldReturnVerifiedToken_WhenTokenWasVerified() {
+        // Arrange
+        cache.put("token", verifiedToken, new Date(System.currentTimeMillis() + 60_000));
+
+        // Act & Assert
+        assertSame(verifiedToken, cache.get("token"));
+        assertNull(cache.get("other-token"));
+    }
+
+    @Test
+    void get_ShouldReturnNull_WhenTokenHasExpired() {
+        // Arrange
+        cache.put("token", verifiedToken, new Date(System.currentTimeMillis() + 60_000));
+
+        // Act
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(61));
+
+        // Assert
+        assertNull(cache.get("token"));
+    }
+
+    @Test
+    void put_ShouldIgnoreTokensThatAlreadyExpired() {
+        // Act
+        cache.put("token", verifiedToken, new Date(System.currentTimeMillis() - 1_000));
+        cache.put("no-expiry", verifiedToken, null);
+
+        // Assert
+        assertNull(cache.get("token"));
+        assertNull(cache.get("no-expiry"));
+    }
+
+    @Test
+    void put_ShouldStayWithinMaximumSize() {
+        // Act
+        Date expiration = new Date(System.currentTimeMillis() + 60_000);
+        for (int i = 0; i < 10; i++) {
+            cache.put("token-" + i, verifiedToken, expiration);
+        }
+
+        // Assert
+        assertTrue(cache.size() <= 2);
+    }
+}
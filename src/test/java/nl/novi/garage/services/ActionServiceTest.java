@@ -4,17 +4,22 @@ import nl.novi.garage.dtos.action.ActionRequestDTO;
 import nl.novi.garage.dtos.action.ActionResponseDTO;
 import nl.novi.garage.models.Action;
 import nl.novi.garage.repositories.ActionRepository;
+import nl.novi.garage.repositories.RepairRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -25,6 +30,11 @@ class ActionServiceTest {
 
     @Mock
     private ActionRepository actionRepository;
+    @Mock
+    private RepairRepository repairRepository;
+    @Spy
+    private CatalogCache<ActionResponseDTO> actionCatalogCache =
+            new CatalogCache<>("actions", 100, Duration.ofMinutes(10), ActionResponseDTO::getId);
 
     @InjectMocks
     private ActionService actionService;
@@ -187,6 +197,25 @@ class ActionServiceTest {
         assertEquals(updatedAction.getPrice(), result.getPrice());
         verify(actionRepository, times(1)).findById(1L);
         verify(actionRepository, times(1)).save(any(Action.class));
+        verify(repairRepository, times(1)).adjustLabourTotalsForPriceChange(1L, new BigDecimal("25.00"));
+    }
+
+    @Test
+    void updateAction_ShouldNotAdjustRepairTotals_WhenPriceUnchanged() {
+        // Arrange
+        ActionRequestDTO updateDTO = new ActionRequestDTO();
+        updateDTO.setName("APK Keuring");
+        updateDTO.setDescription("Updated description");
+        updateDTO.setPrice(new BigDecimal("50.0"));
+
+        when(actionRepository.findById(1L)).thenReturn(Optional.of(testAction));
+        when(actionRepository.save(any(Action.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        actionService.updateAction(1L, updateDTO);
+
+        // Assert
+        verify(repairRepository, never()).adjustLabourTotalsForPriceChange(anyLong(), any(BigDecimal.class));
     }
 
     @Test
@@ -298,4 +327,59 @@ class ActionServiceTest {
         assertEquals(testAction.getDescription(), result.get(0).getDescription());
         verify(actionRepository, times(1)).findByDescriptionContainingIgnoreCase(searchDescription);
     }
-}
\ No newline at end of file
+
+    @Test
+    void getActionById_ShouldServeRepeatedLookupsFromCache() {
+        // Arrange
+        when(actionRepository.findById(1L)).thenReturn(Optional.of(testAction));
+
+        // Act
+        actionService.getActionById(1L);
+        ActionResponseDTO result = actionService.getActionById(1L);
+
+        // Assert
+        assertEquals("APK Keuring", result.getName());
+        verify(actionRepository, times(1)).findById(1L);
+        assertEquals(1, actionService.getCacheStats().getHitCount());
+    }
+
+    @Test
+    void getActionsById_ShouldOnlyQueryActionsThatAreNotCached() {
+        // Arrange
+        Action secondAction = new Action("Olie verversen", "Motorolie en filter vervangen", new BigDecimal("89.00"));
+        secondAction.setId(2L);
+        when(actionRepository.findById(1L)).thenReturn(Optional.of(testAction));
+        when(actionRepository.findAllById(Set.of(2L))).thenReturn(Arrays.asList(secondAction));
+        actionService.getActionById(1L);
+
+        // Act
+        Map<Long, ActionResponseDTO> result = actionService.getActionsById(Set.of(1L, 2L));
+
+        // Assert
+        assertEquals(2, result.size());
+        assertEquals("Olie verversen", result.get(2L).getName());
+        verify(actionRepository, times(1)).findAllById(Set.of(2L));
+    }
+
+    @Test
+    void updateAction_ShouldEvictCachedAction() {
+        // Arrange
+        when(actionRepository.findById(1L)).thenReturn(Optional.of(testAction));
+        when(actionRepository.save(any(Action.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        actionService.getActionById(1L);
+
+        ActionRequestDTO updateDTO = new ActionRequestDTO();
+        updateDTO.setName("APK Keuring");
+        updateDTO.setDescription("Nieuwe omschrijving");
+        updateDTO.setPrice(new BigDecimal("50.00"));
+
+        // Act
+        actionService.updateAction(1L, updateDTO);
+        ActionResponseDTO result = actionService.getActionById(1L);
+
+        // Assert
+        assertEquals("Nieuwe omschrijving", result.getDescription());
+        verify(actionCatalogCache, times(1)).invalidate(1L);
+        verify(actionRepository, times(3)).findById(1L);
+    }
+}
@@ -0,0 +1,78 @@
+package nl.novi.garage.services;
+
+import jakarta.persistence.EntityManagerFactory;
+import nl.novi.garage.config.CaffeineRegionFactory;
+import nl.novi.garage.dtos.cache.CacheStatsDTO;
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.cache.spi.CacheImplementor;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CacheServiceTest {
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+    @Mock
+    private SessionFactoryImplementor sessionFactory;
+    @Mock
+    private CacheImplementor cache;
+
+    private CacheService cacheService;
+
+    @BeforeEach
+    void setUp() {
+        // Constructed by hand, the session factory is an EntityManagerFactory as well
+        cacheService = new CacheService(entityManagerFactory);
+        when(entityManagerFactory.unwrap(SessionFactoryImplementor.class)).thenReturn(sessionFactory);
+        when(sessionFactory.getCache()).thenReturn(cache);
+    }
+
+    @Test
+    void getRegionStats_ShouldReturnStatsOfCaffeineRegions() {
+        // Arrange
+        CaffeineRegionFactory regionFactory = new CaffeineRegionFactory();
+        regionFactory.start(mock(SessionFactoryOptions.class), Map.of());
+        regionFactory.buildTimestampsRegion("default-update-timestamps-region", sessionFactory);
+        when(cache.getRegionFactory()).thenReturn(regionFactory);
+
+        // Act
+        List<CacheStatsDTO> result = cacheService.getRegionStats();
+
+        // Assert
+        assertEquals(1, result.size());
+        assertEquals("default-update-timestamps-region", result.get(0).getName());
+    }
+
+    @Test
+    void getRegionStats_ShouldReturnEmptyList_WhenOtherRegionFactory() {
+        // Arrange
+        when(cache.getRegionFactory()).thenReturn(mock(RegionFactory.class));
+
+        // Act
+        List<CacheStatsDTO> result = cacheService.getRegionStats();
+
+        // Assert
+        assertTrue(result.isEmpty());
+    }
+
+    @Test
+    void evictAll_ShouldEvictAllRegions() {
+        // Act
+        cacheService.evictAll();
+
+        // Assert
+        verify(cache, times(1)).evictAll();
+    }
+}
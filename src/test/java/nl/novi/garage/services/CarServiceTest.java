@@ -2,20 +2,29 @@ package nl.novi.garage.services;
 
 import nl.novi.garage.dtos.car.CarRequestDTO;
 import nl.novi.garage.dtos.car.CarResponseDTO;
+import nl.novi.garage.dtos.page.PageResponseDTO;
 import nl.novi.garage.models.Car;
 import nl.novi.garage.models.Customer;
 import nl.novi.garage.repositories.CarRepository;
+import nl.novi.garage.repositories.CarSpecifications;
 import nl.novi.garage.repositories.CustomerRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.repository.query.FluentQuery.FetchableFluentQuery;
 
+import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -30,6 +39,12 @@ class CarServiceTest {
     @Mock
     private CustomerRepository customerRepository;
 
+    @Mock
+    private DocumentService documentService;
+
+    @Mock(answer = Answers.RETURNS_SELF)
+    private FetchableFluentQuery<Car> query;
+
     @InjectMocks
     private CarService carService;
 
@@ -153,6 +168,97 @@ class CarServiceTest {
         verify(carRepository, times(1)).findAll();
     }
 
+    @Test
+    void getCarsPage_ShouldReturnNextCursor_WhenMoreCarsExist() {
+        // Arrange
+        Car car2 = new Car();
+        car2.setId(2L);
+        car2.setCustomer(testCustomer);
+        car2.setBrand("Honda");
+        car2.setModel("Civic");
+        car2.setLicensePlate("XY-456-ZW");
+
+        when(carRepository.findPageAfter(eq(0L), any(Pageable.class))).thenReturn(Arrays.asList(testCar, car2));
+
+        // Act
+        PageResponseDTO<CarResponseDTO> result = carService.getCarsPage(null, 1);
+
+        // Assert
+        assertEquals(1, result.getItems().size());
+        assertEquals(testCar.getId(), result.getItems().get(0).getId());
+        assertNotNull(result.getNext());
+        assertEquals(testCar.getId(), PageCursor.decodeId(result.getNext()));
+    }
+
+    @Test
+    void getCarsPage_ShouldContinueAfterCursor_AndEndWithoutNextCursor() {
+        // Arrange
+        when(carRepository.findPageAfter(eq(1L), any(Pageable.class))).thenReturn(Arrays.asList());
+
+        // Act
+        PageResponseDTO<CarResponseDTO> result = carService.getCarsPage(PageCursor.encode(1L), 10);
+
+        // Assert
+        assertTrue(result.getItems().isEmpty());
+        assertNull(result.getNext());
+    }
+
+    @Test
+    void searchCars_ShouldRunOneCombinedQuery() {
+        // Arrange
+        when(carRepository.findAll(ArgumentMatchers.<Specification<Car>>any(), eq(CarSpecifications.BY_ID)))
+                .thenReturn(Arrays.asList(testCar));
+
+        // Act
+        List<CarResponseDTO> result = carService.searchCars("toyota", "corolla", null);
+
+        // Assert
+        assertEquals(1, result.size());
+        assertEquals(testCar.getLicensePlate(), result.get(0).getLicensePlate());
+        verify(carRepository, never()).findByBrandIgnoreCaseAndModelIgnoreCase(anyString(), anyString());
+    }
+
+    @Test
+    void searchCarsPage_ShouldEndWithoutNextCursor_WhenLastPage() {
+        // Arrange
+        when(query.all()).thenReturn(Arrays.asList(testCar));
+        doAnswer(invocation -> invocation.<Function<FetchableFluentQuery<Car>, List<Car>>>getArgument(1)
+                .apply(query)).when(carRepository).findBy(ArgumentMatchers.<Specification<Car>>any(), any());
+
+        // Act
+        PageResponseDTO<CarResponseDTO> result = carService.searchCarsPage("Toyota", null, null,
+                PageCursor.encode(0L), 10);
+
+        // Assert
+        assertEquals(1, result.getItems().size());
+        assertNull(result.getNext());
+        verify(query).sortBy(CarSpecifications.BY_ID);
+        verify(query).limit(11);
+    }
+
+    @Test
+    void getCarsPage_ShouldThrowException_WhenCursorIsInvalid() {
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> carService.getCarsPage("not-a-cursor", 10));
+
+        assertEquals("Invalid page cursor: not-a-cursor", exception.getMessage());
+        verify(carRepository, never()).findPageAfter(anyLong(), any(Pageable.class));
+    }
+
+    @Test
+    void getCarsPage_ShouldThrowException_WhenCursorBelongsToDateSortedList() {
+        // Arrange
+        String repairCursor = PageCursor.encode(LocalDate.of(2024, 3, 1), 5L);
+
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> carService.getCarsPage(repairCursor, 10));
+
+        assertEquals("Invalid page cursor: " + repairCursor, exception.getMessage());
+        verify(carRepository, never()).findPageAfter(anyLong(), any(Pageable.class));
+    }
+
     @Test
     void getCarById_ShouldReturnCar_WhenCarExists() {
         // Arrange
@@ -319,6 +425,7 @@ class CarServiceTest {
 
         // Assert
         verify(carRepository, times(1)).findById(1L);
+        verify(documentService, times(1)).deleteDocumentsByCarId(1L);
         verify(carRepository, times(1)).delete(testCar);
     }
 
@@ -333,6 +440,7 @@ class CarServiceTest {
 
         assertEquals("Car not found with id: 999", exception.getMessage());
         verify(carRepository, times(1)).findById(999L);
+        verify(documentService, never()).deleteDocumentsByCarId(anyLong());
         verify(carRepository, never()).delete(any(Car.class));
     }
 
@@ -0,0 +1,136 @@
+package nl.novi.garage.services;
+
+import nl.novi.garage.dtos.action.ActionResponseDTO;
+import nl.novi.garage.dtos.cache.CacheStatsDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogCacheTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private CatalogCache<ActionResponseDTO> cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new CatalogCache<>("actions", 100, Duration.ofMinutes(10), ActionResponseDTO::getId, nanos::get);
+    }
+
+    @Test
+    void get_ShouldLoadOnce_WhileEntryIsFresh() {
+        // Act
+        ActionResponseDTO first = cache.get(1L, this::load);
+        ActionResponseDTO second = cache.get(1L, this::load);
+
+        // Assert
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void get_ShouldReload_WhenTimeToLiveHasPassed() {
+        // Arrange
+        cache.get(1L, this::load);
+
+        // Act
+        nanos.addAndGet(TimeUnit.MINUTES.toNanos(11));
+        cache.get(1L, this::load);
+
+        // Assert
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void get_ShouldNotCacheMissingEntries() {
+        // Act
+        assertNull(cache.get(99L, id -> null));
+
+        // Assert
+        assertEquals(1L, cache.get(1L, this::load).getId());
+        assertEquals(1, cache.getStats().getSize());
+    }
+
+    @Test
+    void getAll_ShouldOnlyLoadEntriesThatAreNotCached() {
+        // Arrange
+        cache.get(1L, this::load);
+        List<Collection<Long>> requested = new ArrayList<>();
+
+        // Act
+        Map<Long, ActionResponseDTO> result = cache.getAll(Arrays.asList(1L, 2L, 3L), missing -> {
+            requested.add(missing);
+            return missing.stream().collect(Collectors.toMap(id -> id, this::load));
+        });
+
+        // Assert
+        assertEquals(3, result.size());
+        assertEquals(1, requested.size());
+        assertEquals(2, requested.get(0).size());
+        assertFalse(requested.get(0).contains(1L));
+    }
+
+    @Test
+    void getAll_ShouldCacheListAndItsEntries() {
+        // Act
+        List<ActionResponseDTO> all = cache.getAll(() -> Arrays.asList(load(1L), load(2L)));
+        cache.getAll(() -> Arrays.asList(load(1L), load(2L)));
+        ActionResponseDTO second = cache.get(2L, this::load);
+
+        // Assert
+        assertEquals(2, all.size());
+        assertSame(all.get(1), second);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void invalidate_ShouldEvictEntryAndList() {
+        // Arrange
+        cache.getAll(() -> Arrays.asList(load(1L), load(2L)));
+
+        // Act
+        cache.invalidate(1L);
+        cache.get(1L, this::load);
+        cache.get(2L, this::load);
+        cache.getAll(() -> Arrays.asList(load(1L), load(2L)));
+
+        // Assert
+        assertEquals(5, loads.get());
+    }
+
+    @Test
+    void getStats_ShouldCountHitsAndMisses() {
+        // Arrange
+        cache.get(1L, this::load);
+        cache.get(1L, this::load);
+        cache.get(1L, this::load);
+
+        // Act
+        CacheStatsDTO stats = cache.getStats();
+
+        // Assert
+        assertEquals("actions", stats.getName());
+        assertEquals(1, stats.getSize());
+        assertEquals(2, stats.getHitCount());
+        assertEquals(1, stats.getMissCount());
+    }
+
+    private ActionResponseDTO load(Long id) {
+        loads.incrementAndGet();
+        return new ActionResponseDTO(id, "Actie " + id, "Omschrijving " + id, new BigDecimal("10.00"));
+    }
+}
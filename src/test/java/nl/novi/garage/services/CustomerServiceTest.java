@@ -88,7 +88,7 @@ class CustomerServiceTest {
         customer2.setPhonenumber("0687654321");
 
         List<Customer> customers = Arrays.asList(testCustomer, customer2);
-        when(customerRepository.findAll()).thenReturn(customers);
+        when(customerRepository.findAllWithCars()).thenReturn(customers);
 
         // Act
         List<CustomerResponseDTO> result = customerService.getAllCustomers();
@@ -98,7 +98,7 @@ class CustomerServiceTest {
         assertEquals(2, result.size());
         assertEquals(testCustomer.getName(), result.get(0).getName());
         assertEquals(customer2.getName(), result.get(1).getName());
-        verify(customerRepository, times(1)).findAll();
+        verify(customerRepository, times(1)).findAllWithCars();
     }
 
     @Test
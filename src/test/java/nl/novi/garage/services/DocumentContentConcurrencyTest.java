@@ -0,0 +1,239 @@
+package nl.novi.garage.services;
+
+import nl.novi.garage.dtos.document.CarDocumentResponseDTO;
+import nl.novi.garage.dtos.document.CarDocumentUploadDTO;
+import nl.novi.garage.models.DocumentContent;
+import nl.novi.garage.repositories.DocumentContentRepository;
+import nl.novi.garage.storage.DocumentStore;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Uploads and deletes documents with the same content from several threads at once against H2 and
+// checks that content referenced by a committed document is never removed from the store. H2 runs
+// in PostgreSQL mode for the upsert of the content row.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:document-content;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.show-sql=false",
+        "logging.level.nl.novi.garage=INFO",
+        "logging.level.org.springframework.security=INFO"
+})
+class DocumentContentConcurrencyTest {
+
+    // H2 cannot create the expression and partial indexes of this migration
+    private static final String H2_UNSUPPORTED_MIGRATION = "V2__add_indexes.sql";
+
+    private static final int THREADS = 8;
+    private static final int ROUNDS = 20;
+
+    @Autowired
+    private DocumentService documentService;
+
+    @Autowired
+    private DocumentContentRepository documentContentRepository;
+
+    @Autowired
+    private DocumentStore documentStore;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @DynamicPropertySource
+    static void migrations(DynamicPropertyRegistry registry) throws IOException {
+        Path migrations = Files.createTempDirectory("document-content-migrations");
+        for (Resource script : new PathMatchingResourcePatternResolver().getResources("classpath:db/migration/V*.sql")) {
+            if (!H2_UNSUPPORTED_MIGRATION.equals(script.getFilename())) {
+                try (InputStream content = script.getInputStream()) {
+                    Files.copy(content, migrations.resolve(script.getFilename()));
+                }
+            }
+        }
+        registry.add("schema.migrations.location", () -> "file:" + migrations.toAbsolutePath());
+        registry.add("documents.storage.location",
+                () -> migrations.resolveSibling(migrations.getFileName() + "-documents").toString());
+    }
+
+    @Test
+    void concurrentFirstUploads_ShouldStoreContentOnceAndKeepIt() throws Exception {
+        // Arrange
+        byte[] data = newContent();
+        List<Callable<CarDocumentResponseDTO>> uploads = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            uploads.add(() -> documentService.uploadDocument(upload(data)));
+        }
+
+        // Act
+        runConcurrently(uploads);
+
+        // Assert
+        DocumentContent content = documentContentRepository.findAll().stream()
+                .filter(candidate -> candidate.getContentHash().equals(sha256(data)))
+                .findFirst().orElseThrow();
+        assertEquals(THREADS, content.getReferenceCount());
+        assertTrue(documentStore.load(content.getStoragePath()).exists());
+    }
+
+    @Test
+    void concurrentFirstUploads_ShouldKeepContent_WhenOneRollsBack() throws Exception {
+        for (int round = 0; round < ROUNDS; round++) {
+            // Arrange
+            byte[] data = newContent();
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+            // Act
+            List<CarDocumentResponseDTO> uploaded = runConcurrently(List.of(
+                    () -> transaction.execute(status -> {
+                        documentService.uploadDocument(upload(data));
+                        status.setRollbackOnly();
+                        return null;
+                    }),
+                    () -> documentService.uploadDocument(upload(data))));
+
+            // Assert
+            assertContentStored(uploaded.get(1).getId(), 1);
+        }
+    }
+
+    @Test
+    void deleteOfLastReference_ShouldKeepContentOfConcurrentUpload() throws Exception {
+        for (int round = 0; round < ROUNDS; round++) {
+            // Arrange
+            byte[] data = newContent();
+            CarDocumentResponseDTO first = documentService.uploadDocument(upload(data));
+
+            // Act
+            List<CarDocumentResponseDTO> results = runConcurrently(List.of(
+                    () -> {
+                        documentService.deleteDocument(first.getId());
+                        return null;
+                    },
+                    () -> documentService.uploadDocument(upload(data))));
+
+            // Assert
+            assertContentStored(results.get(1).getId(), 1);
+        }
+    }
+
+    @Test
+    void rolledBackUpload_ShouldKeepContentOfCommittedDocument() throws Exception {
+        // Arrange
+        byte[] data = newContent();
+        CarDocumentResponseDTO committed = documentService.uploadDocument(upload(data));
+
+        // Act
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            documentService.uploadDocument(upload(data));
+            status.setRollbackOnly();
+        });
+
+        // Assert
+        assertContentStored(committed.getId(), 1);
+    }
+
+    @Test
+    void rolledBackFirstUpload_ShouldRemoveItsContent() {
+        // Arrange
+        byte[] data = newContent();
+        String contentHash = sha256(data);
+
+        // Act
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            documentService.uploadDocument(upload(data));
+            status.setRollbackOnly();
+        });
+
+        // Assert
+        assertTrue(documentContentRepository.findAll().stream()
+                .noneMatch(content -> content.getContentHash().equals(contentHash)));
+        assertThrows(NoSuchFileException.class,
+                () -> documentStore.load("content/" + contentHash.substring(0, 2) + "/" + contentHash));
+    }
+
+    private void assertContentStored(Long documentId, int referenceCount) throws IOException {
+        String contentHash = documentService.getDocumentById(documentId).getContentHash();
+        DocumentContent content = documentContentRepository.findAll().stream()
+                .filter(candidate -> candidate.getContentHash().equals(contentHash))
+                .findFirst().orElseThrow();
+        assertEquals(referenceCount, content.getReferenceCount());
+        try (InputStream stored = documentService.getDocumentContent(
+                documentService.getDocumentById(documentId)).getInputStream()) {
+            assertEquals(contentHash, HexFormat.of().formatHex(digest().digest(stored.readAllBytes())));
+        }
+    }
+
+    // Starts all tasks at the same moment and returns their results in order
+    private <T> List<T> runConcurrently(List<Callable<T>> tasks) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(tasks.size());
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<T>> futures = new ArrayList<>();
+            for (Callable<T> task : tasks) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return task.call();
+                }));
+            }
+            start.countDown();
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private CarDocumentUploadDTO upload(byte[] data) {
+        CarDocumentUploadDTO upload = new CarDocumentUploadDTO();
+        upload.setCarId(1L);
+        upload.setFilename("document-" + UUID.randomUUID() + ".pdf");
+        upload.setContentType("application/pdf");
+        upload.setData(data);
+        return upload;
+    }
+
+    private byte[] newContent() {
+        return ("%PDF-1.4 " + UUID.randomUUID()).getBytes();
+    }
+
+    private String sha256(byte[] data) {
+        return HexFormat.of().formatHex(digest().digest(data));
+    }
+
+    private MessageDigest digest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
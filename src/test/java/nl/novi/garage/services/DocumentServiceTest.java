@@ -5,21 +5,36 @@ import nl.novi.garage.dtos.document.CarDocumentUploadDTO;
 import nl.novi.garage.models.Car;
 import nl.novi.garage.models.CarDocument;
 import nl.novi.garage.models.Customer;
+import nl.novi.garage.models.DocumentContent;
 import nl.novi.garage.repositories.CarDocumentRepository;
 import nl.novi.garage.repositories.CarRepository;
+import nl.novi.garage.repositories.DocumentContentRepository;
+import nl.novi.garage.storage.DocumentStore;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
 import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -34,6 +49,15 @@ class DocumentServiceTest {
     @Mock
     private CarRepository carRepository;
 
+    @Mock
+    private DocumentContentRepository documentContentRepository;
+
+    @Mock
+    private DocumentStore documentStore;
+
+    @Mock
+    private DocumentContentCollector documentContentCollector;
+
     @InjectMocks
     private DocumentService documentService;
 
@@ -42,6 +66,8 @@ class DocumentServiceTest {
     private CarDocument testDocument;
     private CarDocumentUploadDTO testUploadDTO;
     private MockMultipartFile testFile;
+    private String contentHash;
+    private String contentPath;
 
     @BeforeEach
     void setUp() {
@@ -57,14 +83,17 @@ class DocumentServiceTest {
         testCar.setModel("Corolla");
         testCar.setLicensePlate("AB-123-CD");
 
+        contentHash = sha256("test pdf content");
+        contentPath = "content/" + contentHash.substring(0, 2) + "/" + contentHash;
+
         testDocument = new CarDocument();
         testDocument.setId(1L);
         testDocument.setCar(testCar);
         testDocument.setFilename("test-document.pdf");
-        testDocument.setFilepath("car_1/test-document.pdf");
-        testDocument.setData("test pdf content".getBytes());
+        testDocument.setFilepath(contentPath);
         testDocument.setContentType("application/pdf");
         testDocument.setFileSize(16L);
+        testDocument.setContentHash(contentHash);
 
         testUploadDTO = new CarDocumentUploadDTO();
         testUploadDTO.setCarId(1L);
@@ -84,6 +113,9 @@ class DocumentServiceTest {
         // Arrange
         when(carRepository.findById(1L)).thenReturn(Optional.of(testCar));
         when(carDocumentRepository.existsByCarIdAndFilename(1L, "test-document.pdf")).thenReturn(false);
+        when(documentContentRepository.findByContentHashForUpdate(contentHash))
+                .thenReturn(Optional.of(storedContent(0)));
+        stageUploads();
         when(carDocumentRepository.save(any(CarDocument.class))).thenReturn(testDocument);
 
         // Act
@@ -99,14 +131,185 @@ class DocumentServiceTest {
         assertEquals(testCar.getLicensePlate(), result.getCarLicensePlate());
         verify(carRepository, times(1)).findById(1L);
         verify(carDocumentRepository, times(1)).existsByCarIdAndFilename(1L, "test-document.pdf");
+        verify(documentStore, times(1)).move(startsWith("staging/"), eq(contentPath));
         verify(carDocumentRepository, times(1)).save(any(CarDocument.class));
     }
 
     @Test
-    void uploadDocument_WithUploadDTO_ShouldReturnDocumentResponseDTO_WhenValidRequest() {
+    void uploadDocument_WithMultipartFile_ShouldStoreContentHash() throws IOException {
+        // Arrange
+        stageUploads();
+        when(carRepository.findById(1L)).thenReturn(Optional.of(testCar));
+        when(carDocumentRepository.existsByCarIdAndFilename(1L, "test-document.pdf")).thenReturn(false);
+        when(documentContentRepository.findByContentHashForUpdate(contentHash))
+                .thenReturn(Optional.of(storedContent(1)));
+        when(carDocumentRepository.save(any(CarDocument.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        documentService.uploadDocument(1L, testFile);
+
+        // Assert
+        ArgumentCaptor<CarDocument> captor = ArgumentCaptor.forClass(CarDocument.class);
+        verify(carDocumentRepository).save(captor.capture());
+        assertEquals(contentHash, captor.getValue().getContentHash());
+        assertEquals(contentPath, captor.getValue().getFilepath());
+        assertEquals(16L, captor.getValue().getFileSize());
+        assertNotNull(captor.getValue().getUploadedAt());
+    }
+
+    @Test
+    void uploadDocument_WithMultipartFile_ShouldStoreNewContentOnce() throws IOException {
+        // Arrange
+        stageUploads();
+        DocumentContent content = storedContent(0);
+        when(carRepository.findById(1L)).thenReturn(Optional.of(testCar));
+        when(carDocumentRepository.existsByCarIdAndFilename(1L, "test-document.pdf")).thenReturn(false);
+        when(documentContentRepository.findByContentHashForUpdate(contentHash)).thenReturn(Optional.of(content));
+        when(carDocumentRepository.save(any(CarDocument.class))).thenReturn(testDocument);
+
+        // Act
+        documentService.uploadDocument(1L, testFile);
+
+        // Assert
+        verify(documentContentRepository, times(1)).insertIfAbsent(contentHash, contentPath, 16L);
+        verify(documentStore, times(1)).move(startsWith("staging/"), eq(contentPath));
+        assertEquals(1, content.getReferenceCount());
+    }
+
+    @Test
+    void uploadDocument_WithMultipartFile_ShouldReadUploadOnce() throws IOException {
+        // Arrange
+        stageUploads();
+        MultipartFile file = spy(testFile);
+        when(carRepository.findById(1L)).thenReturn(Optional.of(testCar));
+        when(carDocumentRepository.existsByCarIdAndFilename(1L, "test-document.pdf")).thenReturn(false);
+        when(documentContentRepository.findByContentHashForUpdate(contentHash))
+                .thenReturn(Optional.of(storedContent(0)));
+        when(carDocumentRepository.save(any(CarDocument.class))).thenReturn(testDocument);
+
+        // Act
+        documentService.uploadDocument(1L, file);
+
+        // Assert
+        verify(file, times(1)).getInputStream();
+        verify(documentContentRepository, times(1)).insertIfAbsent(contentHash, contentPath, 16L);
+    }
+
+    @Test
+    void uploadDocument_WithMultipartFile_ShouldShareExistingContent_WhenHashIsKnown() throws IOException {
+        // Arrange
+        stageUploads();
+        DocumentContent content = storedContent(1);
+        when(carRepository.findById(1L)).thenReturn(Optional.of(testCar));
+        when(carDocumentRepository.existsByCarIdAndFilename(1L, "test-document.pdf")).thenReturn(false);
+        when(documentContentRepository.findByContentHashForUpdate(contentHash)).thenReturn(Optional.of(content));
+        when(carDocumentRepository.save(any(CarDocument.class))).thenReturn(testDocument);
+
+        // Act
+        documentService.uploadDocument(1L, testFile);
+
+        // Assert
+        assertEquals(2, content.getReferenceCount());
+        verify(documentStore, never()).move(anyString(), anyString());
+        verify(documentStore, times(1)).delete(startsWith("staging/"));
+    }
+
+    @Test
+    void uploadDocument_WithMultipartFile_ShouldClaimContentAgain_WhenCollectedBeforeLock() throws IOException {
+        // Arrange
+        stageUploads();
+        when(carRepository.findById(1L)).thenReturn(Optional.of(testCar));
+        when(carDocumentRepository.existsByCarIdAndFilename(1L, "test-document.pdf")).thenReturn(false);
+        when(documentContentRepository.findByContentHashForUpdate(contentHash))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(storedContent(0)));
+        when(carDocumentRepository.save(any(CarDocument.class))).thenReturn(testDocument);
+
+        // Act
+        documentService.uploadDocument(1L, testFile);
+
+        // Assert
+        verify(documentContentRepository, times(2)).insertIfAbsent(contentHash, contentPath, 16L);
+        verify(documentStore, times(1)).move(startsWith("staging/"), eq(contentPath));
+    }
+
+    @Test
+    void uploadDocument_WithUploadDTO_ShouldStoreContentHash() throws IOException {
+        // Arrange
+        stageUploads();
+        when(carRepository.findById(1L)).thenReturn(Optional.of(testCar));
+        when(carDocumentRepository.existsByCarIdAndFilename(1L, "test-document.pdf")).thenReturn(false);
+        when(documentContentRepository.findByContentHashForUpdate(contentHash))
+                .thenReturn(Optional.of(storedContent(1)));
+        when(carDocumentRepository.save(any(CarDocument.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        documentService.uploadDocument(testUploadDTO);
+
+        // Assert
+        ArgumentCaptor<CarDocument> captor = ArgumentCaptor.forClass(CarDocument.class);
+        verify(carDocumentRepository).save(captor.capture());
+        assertEquals(contentHash, captor.getValue().getContentHash());
+    }
+
+    @Test
+    void uploadDocument_WithMultipartFile_ShouldCollectStoredContent_WhenRolledBack() throws IOException {
         // Arrange
+        stageUploads();
         when(carRepository.findById(1L)).thenReturn(Optional.of(testCar));
         when(carDocumentRepository.existsByCarIdAndFilename(1L, "test-document.pdf")).thenReturn(false);
+        when(documentContentRepository.findByContentHashForUpdate(contentHash))
+                .thenReturn(Optional.of(storedContent(0)));
+        when(carDocumentRepository.save(any(CarDocument.class))).thenThrow(new IllegalStateException("db down"));
+
+        // Act
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            assertThrows(IllegalStateException.class, () -> documentService.uploadDocument(1L, testFile));
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(
+                            TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Assert
+        verify(documentContentCollector, times(1)).collect(contentHash, contentPath);
+        verify(documentStore, never()).delete(contentPath);
+    }
+
+    @Test
+    void uploadDocument_WithMultipartFile_ShouldKeepSharedContent_WhenRolledBack() throws IOException {
+        // Arrange
+        stageUploads();
+        when(carRepository.findById(1L)).thenReturn(Optional.of(testCar));
+        when(carDocumentRepository.existsByCarIdAndFilename(1L, "test-document.pdf")).thenReturn(false);
+        when(documentContentRepository.findByContentHashForUpdate(contentHash))
+                .thenReturn(Optional.of(storedContent(1)));
+        when(carDocumentRepository.save(any(CarDocument.class))).thenThrow(new IllegalStateException("db down"));
+
+        // Act
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            assertThrows(IllegalStateException.class, () -> documentService.uploadDocument(1L, testFile));
+
+            // Assert
+            assertTrue(TransactionSynchronizationManager.getSynchronizations().isEmpty());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        verify(documentContentCollector, never()).collect(anyString(), anyString());
+        verify(documentStore, never()).delete(contentPath);
+    }
+
+    @Test
+    void uploadDocument_WithUploadDTO_ShouldReturnDocumentResponseDTO_WhenValidRequest() throws IOException {
+        // Arrange
+        stageUploads();
+        when(carRepository.findById(1L)).thenReturn(Optional.of(testCar));
+        when(carDocumentRepository.existsByCarIdAndFilename(1L, "test-document.pdf")).thenReturn(false);
+        when(documentContentRepository.findByContentHashForUpdate(contentHash))
+                .thenReturn(Optional.of(storedContent(0)));
         when(carDocumentRepository.save(any(CarDocument.class))).thenReturn(testDocument);
 
         // Act
@@ -121,6 +324,7 @@ class DocumentServiceTest {
         assertEquals(testDocument.getFileSize(), result.getFileSize());
         verify(carRepository, times(1)).findById(1L);
         verify(carDocumentRepository, times(1)).existsByCarIdAndFilename(1L, "test-document.pdf");
+        verify(documentStore, times(1)).move(startsWith("staging/"), eq(contentPath));
         verify(carDocumentRepository, times(1)).save(any(CarDocument.class));
     }
 
@@ -210,9 +414,9 @@ class DocumentServiceTest {
         document2.setContentType("application/pdf");
         document2.setFileSize(20L);
 
-        List<CarDocument> documents = Arrays.asList(testDocument, document2);
+        List<CarDocumentResponseDTO> documents = Arrays.asList(toSummary(testDocument), toSummary(document2));
         when(carRepository.findById(1L)).thenReturn(Optional.of(testCar));
-        when(carDocumentRepository.findByCarId(1L)).thenReturn(documents);
+        when(carDocumentRepository.findSummariesByCarId(1L)).thenReturn(documents);
 
         // Act
         List<CarDocumentResponseDTO> result = documentService.getDocumentsByCarId(1L);
@@ -223,7 +427,8 @@ class DocumentServiceTest {
         assertEquals(testDocument.getFilename(), result.get(0).getFilename());
         assertEquals(document2.getFilename(), result.get(1).getFilename());
         verify(carRepository, times(1)).findById(1L);
-        verify(carDocumentRepository, times(1)).findByCarId(1L);
+        verify(carDocumentRepository, times(1)).findSummariesByCarId(1L);
+        verify(carDocumentRepository, never()).findByCarId(anyLong());
     }
 
     @Test
@@ -237,7 +442,7 @@ class DocumentServiceTest {
 
         assertEquals("Car not found with id: 999", exception.getMessage());
         verify(carRepository, times(1)).findById(999L);
-        verify(carDocumentRepository, never()).findByCarId(anyLong());
+        verify(carDocumentRepository, never()).findSummariesByCarId(anyLong());
     }
 
     @Test
@@ -285,9 +490,11 @@ class DocumentServiceTest {
     }
 
     @Test
-    void deleteDocument_ShouldDeleteSuccessfully_WhenDocumentExists() {
+    void deleteDocument_ShouldDeleteSuccessfully_WhenDocumentExists() throws IOException {
         // Arrange
         when(carDocumentRepository.findById(1L)).thenReturn(Optional.of(testDocument));
+        when(documentContentRepository.findUnreferencedContentHashes(Set.of(contentHash)))
+                .thenReturn(List.of(contentHash));
 
         // Act
         documentService.deleteDocument(1L);
@@ -295,6 +502,62 @@ class DocumentServiceTest {
         // Assert
         verify(carDocumentRepository, times(1)).findById(1L);
         verify(carDocumentRepository, times(1)).delete(testDocument);
+        verify(documentContentRepository, times(1)).decrementReferenceCount(contentHash, 1L);
+        verify(documentContentCollector, times(1)).collect(contentHash, contentPath);
+    }
+
+    @Test
+    void deleteDocument_ShouldKeepContent_WhenStillReferenced() throws IOException {
+        // Arrange
+        when(carDocumentRepository.findById(1L)).thenReturn(Optional.of(testDocument));
+        when(documentContentRepository.findUnreferencedContentHashes(Set.of(contentHash))).thenReturn(List.of());
+
+        // Act
+        documentService.deleteDocument(1L);
+
+        // Assert
+        verify(documentContentRepository, times(1)).decrementReferenceCount(contentHash, 1L);
+        verify(documentContentCollector, never()).collect(anyString(), anyString());
+    }
+
+    @Test
+    void getDocumentByCarIdAndFilename_ShouldReturnDocument_WhenDocumentExists() {
+        // Arrange
+        when(carDocumentRepository.findByCarIdAndFilename(1L, "test-document.pdf"))
+                .thenReturn(Optional.of(testDocument));
+
+        // Act
+        CarDocument result = documentService.getDocumentByCarIdAndFilename(1L, "test-document.pdf");
+
+        // Assert
+        assertSame(testDocument, result);
+        verify(carDocumentRepository, never()).findByCarId(anyLong());
+    }
+
+    @Test
+    void getDocumentByCarIdAndFilename_ShouldThrowException_WhenDocumentNotFound() {
+        // Arrange
+        when(carDocumentRepository.findByCarIdAndFilename(1L, "missing.pdf")).thenReturn(Optional.empty());
+
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> documentService.getDocumentByCarIdAndFilename(1L, "missing.pdf"));
+
+        assertEquals("Document not found with filename: missing.pdf for car ID: 1", exception.getMessage());
+    }
+
+    @Test
+    void getDocumentContent_ShouldLoadContentFromStore() throws IOException {
+        // Arrange
+        Resource content = new ByteArrayResource("test pdf content".getBytes());
+        when(documentStore.load(contentPath)).thenReturn(content);
+
+        // Act
+        Resource result = documentService.getDocumentContent(testDocument);
+
+        // Assert
+        assertSame(content, result);
+        verify(documentStore, times(1)).load(contentPath);
     }
 
     @Test
@@ -312,9 +575,14 @@ class DocumentServiceTest {
     }
 
     @Test
-    void deleteDocumentsByCarId_ShouldDeleteSuccessfully_WhenCarExists() {
+    void deleteDocumentsByCarId_ShouldDeleteSuccessfully_WhenCarExists() throws IOException {
         // Arrange
         when(carRepository.findById(1L)).thenReturn(Optional.of(testCar));
+        List<Object[]> contentHashCounts = new ArrayList<>();
+        contentHashCounts.add(new Object[] { contentHash, 2L });
+        when(carDocumentRepository.countContentHashesByCarId(1L)).thenReturn(contentHashCounts);
+        when(documentContentRepository.findUnreferencedContentHashes(Set.of(contentHash)))
+                .thenReturn(List.of(contentHash));
 
         // Act
         documentService.deleteDocumentsByCarId(1L);
@@ -322,6 +590,8 @@ class DocumentServiceTest {
         // Assert
         verify(carRepository, times(1)).findById(1L);
         verify(carDocumentRepository, times(1)).deleteByCarId(1L);
+        verify(documentContentRepository, times(1)).decrementReferenceCount(contentHash, 2L);
+        verify(documentContentCollector, times(1)).collect(contentHash, contentPath);
     }
 
     @Test
@@ -348,8 +618,8 @@ class DocumentServiceTest {
         document2.setContentType("application/pdf");
         document2.setFileSize(25L);
 
-        List<CarDocument> documents = Arrays.asList(testDocument, document2);
-        when(carDocumentRepository.findAll()).thenReturn(documents);
+        List<CarDocumentResponseDTO> documents = Arrays.asList(toSummary(testDocument), toSummary(document2));
+        when(carDocumentRepository.findAllSummaries()).thenReturn(documents);
 
         // Act
         List<CarDocumentResponseDTO> result = documentService.getAllDocuments();
@@ -359,7 +629,23 @@ class DocumentServiceTest {
         assertEquals(2, result.size());
         assertEquals(testDocument.getFilename(), result.get(0).getFilename());
         assertEquals(document2.getFilename(), result.get(1).getFilename());
-        verify(carDocumentRepository, times(1)).findAll();
+        verify(carDocumentRepository, times(1)).findAllSummaries();
+        verify(carDocumentRepository, never()).findAll();
+    }
+
+    @Test
+    void streamAllDocuments_ShouldPassEverySummaryToConsumer() {
+        // Arrange
+        when(carDocumentRepository.streamAllSummaries()).thenReturn(Stream.of(toSummary(testDocument)));
+        List<CarDocumentResponseDTO> written = new ArrayList<>();
+
+        // Act
+        documentService.streamAllDocuments(written::add);
+
+        // Assert
+        assertEquals(1, written.size());
+        assertEquals(testDocument.getFilename(), written.get(0).getFilename());
+        verify(carDocumentRepository, never()).findAllSummaries();
     }
 
     @Test
@@ -400,4 +686,30 @@ class DocumentServiceTest {
         verify(carRepository, times(1)).findById(1L);
         verify(carDocumentRepository, never()).save(any(CarDocument.class));
     }
-}
\ No newline at end of file
+
+    private CarDocumentResponseDTO toSummary(CarDocument document) {
+        return new CarDocumentResponseDTO(document.getId(), document.getCar().getId(),
+                document.getCar().getLicensePlate(), document.getFilename(), document.getContentType(),
+                document.getFileSize());
+    }
+
+    // Reads the upload like the file system store does, so it is hashed while it is staged
+    private void stageUploads() throws IOException {
+        when(documentStore.store(startsWith("staging/"), any(InputStream.class)))
+                .thenAnswer(invocation -> (long) invocation.getArgument(1, InputStream.class).readAllBytes().length);
+    }
+
+    private DocumentContent storedContent(int referenceCount) {
+        DocumentContent content = new DocumentContent(contentHash, contentPath, 16L);
+        content.setReferenceCount(referenceCount);
+        return content;
+    }
+
+    private String sha256(String content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content.getBytes()));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
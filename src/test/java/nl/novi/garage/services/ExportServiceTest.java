@@ -0,0 +1,148 @@
+package nl.novi.garage.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExportServiceTest {
+
+    private EmbeddedDatabase database;
+    private ExportService exportService;
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .addScript("db/migration/V1__create_schema.sql")
+                .addScript("db/migration/V4__add_repair_totals.sql")
+                .build();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.update("INSERT INTO customers (id, name, phonenumber) VALUES (1, 'Jan Jansen', '+31612345678')");
+        jdbcTemplate.update("INSERT INTO cars (id, customer_id, brand, model, license_plate) "
+                + "VALUES (1, 1, 'Toyota', 'Corolla', 'AB-123-CD')");
+        jdbcTemplate.update("INSERT INTO actions (id, name, description, price) "
+                + "VALUES (1, 'APK Keuring', 'Algemene Periodieke Keuring', 50.00)");
+        jdbcTemplate.update("INSERT INTO parts (id, name, price, stock) VALUES (1, 'Remblokken set', 45.99, 10)");
+        jdbcTemplate.update("INSERT INTO repairs (id, car_id, date, report, status, is_paid, labour_total, "
+                + "parts_total, custom_total) VALUES (1, 1, DATE '2024-03-15', 'Remmen', 'COMPLETED', true, "
+                + "50.00, 91.98, 12.50)");
+        jdbcTemplate.update("INSERT INTO repairs (id, car_id, date, report, status, is_paid) "
+                + "VALUES (2, 1, DATE '2024-03-20', 'Controle', 'IN_PROGRESS', false)");
+        jdbcTemplate.update("INSERT INTO repairs (id, car_id, date, report, status, is_paid) "
+                + "VALUES (3, 1, DATE '2024-04-02', 'Olie', 'COMPLETED', false)");
+        jdbcTemplate.update("INSERT INTO repair_actions (id, repair_id, action_id, amount) VALUES (1, 1, 1, 1)");
+        jdbcTemplate.update("INSERT INTO repair_parts (id, repair_id, part_id, amount) VALUES (1, 1, 1, 2)");
+        jdbcTemplate.update("INSERT INTO repair_custom_actions (id, repair_id, description, price) "
+                + "VALUES (1, 1, 'Ruit \"extra\", schoonmaken', 12.50)");
+        jdbcTemplate.update("INSERT INTO receipts (id, customer_id, total_excl_vat, vat, total_incl_vat, is_paid, "
+                + "created_date) VALUES (1, 1, 154.48, 32.44, 186.92, true, DATE '2024-03-31')");
+        jdbcTemplate.update("INSERT INTO receipt_repairs (id, receipt_id, repair_id) VALUES (1, 1, 1)");
+
+        // Configured like the application's mapper, dates as ISO strings
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        exportService = new ExportService(database, objectMapper);
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void exportRepairLines_ShouldWriteOneCsvRowPerLineItem() throws IOException {
+        // Arrange
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // Act
+        long rows = exportService.exportRepairLines(LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 31),
+                FileFormat.CSV, output);
+
+        // Assert
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertEquals(4, rows);
+        assertEquals(5, lines.length);
+        assertEquals(String.join(",", ExportService.REPAIR_LINE_COLUMNS), lines[0]);
+        assertEquals("1,2024-03-15,COMPLETED,true,AB-123-CD,Jan Jansen,50.00,91.98,12.50,ACTION,1,APK Keuring,"
+                + "50.00,1,50.00,1,2024-03-31,186.92,true", lines[1]);
+        assertEquals("1,2024-03-15,COMPLETED,true,AB-123-CD,Jan Jansen,50.00,91.98,12.50,CUSTOM,1,"
+                + "\"Ruit \"\"extra\"\", schoonmaken\",12.50,1,12.50,1,2024-03-31,186.92,true", lines[2]);
+        assertTrue(lines[3].contains(",PART,1,Remblokken set,45.99,2,91.98,"));
+        assertEquals("2,2024-03-20,IN_PROGRESS,false,AB-123-CD,Jan Jansen,0.00,0.00,0.00,,,,,,,,,,", lines[4]);
+    }
+
+    @Test
+    void exportRepairLines_ShouldWriteOneJsonObjectPerLine() throws IOException {
+        // Arrange
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // Act
+        long rows = exportService.exportRepairLines(LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 31),
+                FileFormat.NDJSON, output);
+
+        // Assert
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(4, rows);
+        assertEquals(4, lines.length);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals(1, first.get("repair_id").asLong());
+        assertEquals("2024-03-15", first.get("repair_date").asText());
+        assertEquals("ACTION", first.get("line_type").asText());
+        assertEquals(186.92, first.get("receipt_total").asDouble());
+        JsonNode last = objectMapper.readTree(lines[3]);
+        assertEquals(2, last.get("repair_id").asLong());
+        assertTrue(last.get("line_type").isNull());
+    }
+
+    @Test
+    void exportRepairLines_ShouldWriteOnlyHeader_WhenNoRepairsInPeriod() throws IOException {
+        // Arrange
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // Act
+        long rows = exportService.exportRepairLines(LocalDate.of(2023, 1, 1), LocalDate.of(2023, 12, 31),
+                FileFormat.CSV, output);
+
+        // Assert
+        assertEquals(0, rows);
+        assertEquals(String.join(",", ExportService.REPAIR_LINE_COLUMNS) + "\r\n",
+                output.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void validateDateRange_ShouldThrowException_WhenStartDateAfterEndDate() {
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> exportService.validateDateRange(LocalDate.of(2024, 4, 1), LocalDate.of(2024, 3, 1)));
+
+        assertEquals("Start date must not be after end date", exception.getMessage());
+    }
+
+    @Test
+    void fromName_ShouldThrowException_WhenFormatUnknown() {
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> FileFormat.fromName("xlsx"));
+
+        assertEquals("Invalid file format: xlsx. Valid formats are: csv, ndjson", exception.getMessage());
+        assertEquals(FileFormat.NDJSON, FileFormat.fromName("NDJSON"));
+    }
+}
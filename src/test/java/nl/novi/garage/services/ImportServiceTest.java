@@ -0,0 +1,258 @@
+package nl.novi.garage.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import nl.novi.garage.dtos.imports.ImportResultDTO;
+import nl.novi.garage.dtos.part.PartResponseDTO;
+import nl.novi.garage.models.Car;
+import nl.novi.garage.models.Customer;
+import nl.novi.garage.models.Part;
+import nl.novi.garage.repositories.CarRepository;
+import nl.novi.garage.repositories.CustomerRepository;
+import nl.novi.garage.repositories.PartRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ImportServiceTest {
+
+    private static ValidatorFactory validatorFactory;
+
+    @Mock
+    private CustomerRepository customerRepository;
+    @Mock
+    private CarRepository carRepository;
+    @Mock
+    private PartRepository partRepository;
+    @Mock
+    private StockService stockService;
+    @Mock
+    private CatalogCache<PartResponseDTO> partCatalogCache;
+    @Mock
+    private EntityManager entityManager;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ImportService importService;
+
+    @BeforeAll
+    static void createValidator() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+    }
+
+    @AfterAll
+    static void closeValidator() {
+        validatorFactory.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        Validator validator = validatorFactory.getValidator();
+        importService = new ImportService(customerRepository, carRepository, partRepository, stockService,
+                partCatalogCache, validator, new ObjectMapper(), entityManager, transactionManager);
+    }
+
+    @Test
+    void importCustomers_ShouldInsertValidRowsAndReportTheOthers() throws IOException {
+        // Arrange
+        String csv = "\uFEFFName,Phonenumber\r\n"
+                + "\"Jansen, Jan\",+31612345678\r\n"
+                + "Piet Pietersen,+31687654321\r\n"
+                + "K,+31611111111\r\n"
+                + "Klaas Klaassen,+31612345678\r\n"
+                + "\r\n"
+                + "Marie de Vries,+31622222222\r\n";
+        when(customerRepository.findExistingPhonenumbers(anyCollection())).thenReturn(List.of("+31687654321"));
+
+        // Act
+        ImportResultDTO result = importService.importCustomers(input(csv), FileFormat.CSV);
+
+        // Assert
+        assertEquals("customers", result.getType());
+        assertEquals(5, result.getRows());
+        assertEquals(2, result.getImported());
+        assertEquals(3, result.getFailed());
+        assertEquals(2, result.getErrors().get(0).getRow());
+        assertEquals("Customer with phone number +31687654321 already exists",
+                result.getErrors().get(0).getMessage());
+        assertEquals(3, result.getErrors().get(1).getRow());
+        assertEquals("Name must be between 2 and 100 characters", result.getErrors().get(1).getMessage());
+        assertEquals(4, result.getErrors().get(2).getRow());
+        assertEquals("Duplicate phone number +31612345678 in the import file",
+                result.getErrors().get(2).getMessage());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Customer>> captor = ArgumentCaptor.forClass(List.class);
+        verify(customerRepository, times(1)).saveAll(captor.capture());
+        assertEquals("Jansen, Jan", captor.getValue().get(0).getName());
+        assertEquals("Marie de Vries", captor.getValue().get(1).getName());
+        verify(customerRepository, times(1)).findExistingPhonenumbers(anyCollection());
+        verify(transactionManager, times(1)).commit(any());
+    }
+
+    @Test
+    void importCustomers_ShouldWorkInChunks() throws IOException {
+        // Arrange
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < ImportService.CHUNK_SIZE + 1; i++) {
+            ndjson.append("{\"name\":\"Klant ").append(i).append("\",\"phonenumber\":\"+316")
+                    .append(String.format("%08d", i)).append("\"}\n");
+        }
+        when(customerRepository.findExistingPhonenumbers(anyCollection())).thenReturn(List.of());
+
+        // Act
+        ImportResultDTO result = importService.importCustomers(input(ndjson.toString()), FileFormat.NDJSON);
+
+        // Assert
+        assertEquals(ImportService.CHUNK_SIZE + 1, result.getImported());
+        assertTrue(result.getErrors().isEmpty());
+        verify(customerRepository, times(2)).findExistingPhonenumbers(anyCollection());
+        verify(customerRepository, times(2)).saveAll(anyList());
+        verify(transactionManager, times(2)).commit(any());
+        verify(entityManager, times(2)).clear();
+    }
+
+    @Test
+    void importCustomers_ShouldReportMalformedRowsAndContinue() throws IOException {
+        // Arrange
+        String ndjson = "{\"name\":\"Jan Jansen\",\"phonenumber\":\"+31612345678\"}\n"
+                + "{\"name\":\"Piet\n"
+                + "[1, 2]\n"
+                + "{\"name\":\"Marie de Vries\",\"phonenumber\":\"+31622222222\"}\n";
+        when(customerRepository.findExistingPhonenumbers(anyCollection())).thenReturn(List.of());
+
+        // Act
+        ImportResultDTO result = importService.importCustomers(input(ndjson), FileFormat.NDJSON);
+
+        // Assert
+        assertEquals(4, result.getRows());
+        assertEquals(2, result.getImported());
+        assertEquals("Row 2 is not valid JSON", result.getErrors().get(0).getMessage());
+        assertEquals("Row 3 is not a JSON object", result.getErrors().get(1).getMessage());
+    }
+
+    @Test
+    void importCustomers_ShouldThrowException_WhenHeaderMissesColumn() {
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> importService.importCustomers(input("name,phone\r\nJan Jansen,+31612345678\r\n"),
+                        FileFormat.CSV));
+
+        assertEquals("Missing column(s) in CSV header: phonenumber", exception.getMessage());
+        verifyNoInteractions(customerRepository);
+    }
+
+    @Test
+    void importCustomers_ShouldReportWholeChunk_WhenSaveFails() throws IOException {
+        // Arrange
+        when(customerRepository.findExistingPhonenumbers(anyCollection())).thenReturn(List.of());
+        when(customerRepository.saveAll(anyList())).thenThrow(new DataIntegrityViolationException("duplicate"));
+
+        // Act
+        ImportResultDTO result = importService.importCustomers(
+                input("name,phonenumber\nJan Jansen,+31612345678\nPiet Pietersen,+31687654321\n"), FileFormat.CSV);
+
+        // Assert
+        assertEquals(0, result.getImported());
+        assertEquals(2, result.getFailed());
+        assertEquals("Not imported, saving the chunk of rows this row belongs to failed",
+                result.getErrors().get(1).getMessage());
+        verify(transactionManager, times(1)).rollback(any());
+        verify(entityManager, times(1)).clear();
+    }
+
+    @Test
+    void importCars_ShouldResolveCustomersByPhoneNumber() throws IOException {
+        // Arrange
+        Customer customer = new Customer("Jan Jansen", "+31612345678");
+        customer.setId(1L);
+        String csv = "customer_phonenumber,brand,model,license_plate\n"
+                + "+31612345678,Toyota,Corolla,ab-123-cd\n"
+                + "+31699999999,Volkswagen,Golf,XY-987-ZW\n"
+                + "+31612345678,Volkswagen,Polo,12-ABC-3\n"
+                + ",Ford,Focus,GH-456-IJ\n";
+        when(customerRepository.findByPhonenumberIn(anyCollection())).thenReturn(List.of(customer));
+        when(carRepository.findExistingLicensePlates(anyCollection())).thenReturn(List.of("12-ABC-3"));
+
+        // Act
+        ImportResultDTO result = importService.importCars(input(csv), FileFormat.CSV);
+
+        // Assert
+        assertEquals(1, result.getImported());
+        assertEquals("Customer not found with phone number: +31699999999", result.getErrors().get(0).getMessage());
+        assertEquals("Car with license plate 12-ABC-3 already exists", result.getErrors().get(1).getMessage());
+        assertEquals("Customer phone number cannot be blank", result.getErrors().get(2).getMessage());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Car>> captor = ArgumentCaptor.forClass(List.class);
+        verify(carRepository, times(1)).saveAll(captor.capture());
+        assertEquals("AB-123-CD", captor.getValue().get(0).getLicensePlate());
+        assertSame(customer, captor.getValue().get(0).getCustomer());
+    }
+
+    @Test
+    void importParts_ShouldRecordInitialStockAndInvalidateCatalog() throws IOException {
+        // Arrange
+        String csv = "name,price,stock\n"
+                + "Remblokken set,45.99,10\n"
+                + "Oliefilter,duur,5\n"
+                + "Luchtfilter,12.50,veel\n"
+                + "bougie,8.25,40\n"
+                + "Ruitenwisser,15.00,0\n";
+        when(partRepository.findExistingUpperCaseNames(anyCollection())).thenReturn(List.of("BOUGIE"));
+
+        // Act
+        ImportResultDTO result = importService.importParts(input(csv), FileFormat.CSV);
+
+        // Assert
+        assertEquals(2, result.getImported());
+        assertEquals("Price must be a number", result.getErrors().get(0).getMessage());
+        assertEquals("Stock must be a whole number", result.getErrors().get(1).getMessage());
+        assertEquals("Part with name 'bougie' already exists", result.getErrors().get(2).getMessage());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Part>> captor = ArgumentCaptor.forClass(List.class);
+        verify(partRepository, times(1)).saveAll(captor.capture());
+        assertEquals(new BigDecimal("45.99"), captor.getValue().get(0).getPrice());
+        verify(stockService, times(1)).recordInitialStock(captor.getValue());
+        verify(partCatalogCache, times(1)).invalidateAll();
+    }
+
+    @Test
+    void importParts_ShouldNotInvalidateCatalog_WhenNothingImported() throws IOException {
+        // Act
+        ImportResultDTO result = importService.importParts(input("name,price,stock\nX,1.00,1\n"), FileFormat.CSV);
+
+        // Assert
+        assertEquals(0, result.getImported());
+        assertEquals("Part name must be between 2 and 100 characters", result.getErrors().get(0).getMessage());
+        verify(partRepository, never()).saveAll(anyList());
+        verify(partCatalogCache, never()).invalidateAll();
+    }
+
+    private InputStream input(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -6,13 +6,16 @@ import nl.novi.garage.models.Inspection;
 import nl.novi.garage.models.Car;
 import nl.novi.garage.models.Customer;
 import nl.novi.garage.repositories.InspectionRepository;
+import nl.novi.garage.repositories.InspectionSpecifications;
 import nl.novi.garage.repositories.CarRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.jpa.domain.Specification;
 
 import java.time.LocalDate;
 import java.util.Arrays;
@@ -435,4 +438,32 @@ class InspectionServiceTest {
         verify(inspectionRepository, times(1)).findById(999L);
         verify(inspectionRepository, never()).delete(any(Inspection.class));
     }
-}
\ No newline at end of file
+
+    @Test
+    void searchInspections_ShouldRunOneCombinedQuery() {
+        // Arrange
+        when(inspectionRepository.findAll(ArgumentMatchers.<Specification<Inspection>>any(),
+                eq(InspectionSpecifications.NEWEST_FIRST)))
+                .thenReturn(Arrays.asList(testInspection));
+
+        // Act
+        List<InspectionResponseDTO> result = inspectionService.searchInspections("COMPLETED", true,
+                LocalDate.of(2024, 1, 1), null);
+
+        // Assert
+        assertEquals(1, result.size());
+        verify(inspectionRepository, never()).findByStatus(anyString());
+        verify(inspectionRepository, never()).findByDateBetween(any(LocalDate.class), any(LocalDate.class));
+    }
+
+    @Test
+    void searchInspectionsPage_ShouldThrowException_WhenStartDateAfterEndDate() {
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> inspectionService.searchInspectionsPage(null, null,
+                        LocalDate.of(2024, 3, 1), LocalDate.of(2024, 2, 1), null, 10));
+
+        assertEquals("Start date must not be after end date", exception.getMessage());
+        verify(inspectionRepository, never()).findBy(ArgumentMatchers.<Specification<Inspection>>any(), any());
+    }
+}
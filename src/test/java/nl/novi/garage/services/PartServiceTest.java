@@ -2,19 +2,27 @@ package nl.novi.garage.services;
 
 import nl.novi.garage.dtos.part.PartRequestDTO;
 import nl.novi.garage.dtos.part.PartResponseDTO;
+import nl.novi.garage.dtos.part.PartStockReceiptDTO;
 import nl.novi.garage.dtos.part.PartStockUpdateDTO;
+import nl.novi.garage.dtos.part.StockMovementResponseDTO;
 import nl.novi.garage.models.Part;
+import nl.novi.garage.models.StockMovement;
 import nl.novi.garage.repositories.PartRepository;
+import nl.novi.garage.repositories.RepairRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -26,6 +34,13 @@ class PartServiceTest {
 
     @Mock
     private PartRepository partRepository;
+    @Mock
+    private StockService stockService;
+    @Mock
+    private RepairRepository repairRepository;
+    @Spy
+    private CatalogCache<PartResponseDTO> partCatalogCache =
+            new CatalogCache<>("parts", 100, Duration.ofMinutes(10), PartResponseDTO::getId);
 
     @InjectMocks
     private PartService partService;
@@ -56,6 +71,7 @@ class PartServiceTest {
         // Arrange
         when(partRepository.existsByNameIgnoreCase("Remblokken set")).thenReturn(false);
         when(partRepository.save(any(Part.class))).thenReturn(testPart);
+        when(stockService.getAvailableStock(1L)).thenReturn(25);
 
         // Act
         PartResponseDTO result = partService.createPart(testPartRequestDTO);
@@ -68,6 +84,7 @@ class PartServiceTest {
         assertEquals(testPart.getStock(), result.getStock());
         verify(partRepository, times(1)).existsByNameIgnoreCase("Remblokken set");
         verify(partRepository, times(1)).save(any(Part.class));
+        verify(stockService, times(1)).recordInitialStock(testPart);
     }
 
     @Test
@@ -95,6 +112,7 @@ class PartServiceTest {
 
         List<Part> parts = Arrays.asList(testPart, part2);
         when(partRepository.findAll()).thenReturn(parts);
+        when(stockService.getAvailableStock(parts)).thenReturn(Map.of(1L, 28, 2L, 40));
 
         // Act
         List<PartResponseDTO> result = partService.getAllParts();
@@ -104,6 +122,8 @@ class PartServiceTest {
         assertEquals(2, result.size());
         assertEquals(testPart.getName(), result.get(0).getName());
         assertEquals(part2.getName(), result.get(1).getName());
+        assertEquals(28, result.get(0).getStock());
+        assertEquals(40, result.get(1).getStock());
         verify(partRepository, times(1)).findAll();
     }
 
@@ -111,6 +131,7 @@ class PartServiceTest {
     void getPartById_ShouldReturnPart_WhenPartExists() {
         // Arrange
         when(partRepository.findById(1L)).thenReturn(Optional.of(testPart));
+        when(stockService.getAvailableStock(1L)).thenReturn(25);
 
         // Act
         PartResponseDTO result = partService.getPartById(1L);
@@ -181,6 +202,7 @@ class PartServiceTest {
         when(partRepository.findById(1L)).thenReturn(Optional.of(testPart));
         when(partRepository.existsByNameIgnoreCase("Updated part")).thenReturn(false);
         when(partRepository.save(any(Part.class))).thenReturn(updatedPart);
+        when(stockService.getAvailableStock(1L)).thenReturn(20);
 
         // Act
         PartResponseDTO result = partService.updatePart(1L, updateDTO);
@@ -192,6 +214,8 @@ class PartServiceTest {
         assertEquals(updatedPart.getStock(), result.getStock());
         verify(partRepository, times(1)).findById(1L);
         verify(partRepository, times(1)).save(any(Part.class));
+        verify(stockService, times(1)).correct(updatedPart, 20);
+        verify(repairRepository, times(1)).adjustPartsTotalsForPriceChange(1L, new BigDecimal("4.01"));
     }
 
     @Test
@@ -215,16 +239,10 @@ class PartServiceTest {
     }
 
     @Test
-    void updatePartStock_ShouldReturnUpdatedPart_WhenValidRequest() {
+    void updatePartStock_ShouldBookCorrection_WhenValidRequest() {
         // Arrange
-        Part updatedPart = new Part();
-        updatedPart.setId(1L);
-        updatedPart.setName("Remblokken set");
-        updatedPart.setPrice(new BigDecimal("45.99"));
-        updatedPart.setStock(30);
-
         when(partRepository.findById(1L)).thenReturn(Optional.of(testPart));
-        when(partRepository.save(any(Part.class))).thenReturn(updatedPart);
+        when(stockService.getAvailableStock(1L)).thenReturn(30);
 
         // Act
         PartResponseDTO result = partService.updatePartStock(1L, testStockUpdateDTO);
@@ -233,7 +251,61 @@ class PartServiceTest {
         assertNotNull(result);
         assertEquals(30, result.getStock());
         verify(partRepository, times(1)).findById(1L);
-        verify(partRepository, times(1)).save(any(Part.class));
+        verify(stockService, times(1)).correct(testPart, 30);
+        verify(partRepository, never()).save(any(Part.class));
+    }
+
+    @Test
+    void receiveStock_ShouldBookReceipt_WhenValidRequest() {
+        // Arrange
+        when(partRepository.findById(1L)).thenReturn(Optional.of(testPart));
+        when(stockService.getAvailableStock(1L)).thenReturn(35);
+
+        // Act
+        PartResponseDTO result = partService.receiveStock(1L, new PartStockReceiptDTO(10));
+
+        // Assert
+        assertEquals(35, result.getStock());
+        verify(stockService, times(1)).receive(testPart, 10);
+        verify(partRepository, never()).save(any(Part.class));
+    }
+
+    @Test
+    void getStockMovements_ShouldReturnLedgerOfPart() {
+        // Arrange
+        StockMovement receipt = new StockMovement(testPart, 25, StockMovement.RECEIPT, null,
+                Instant.parse("2024-02-01T09:00:00Z"));
+        receipt.setId(1L);
+        StockMovement consumption = new StockMovement(testPart, -2, StockMovement.CONSUMPTION, 3L,
+                Instant.parse("2024-02-15T10:30:00Z"));
+        consumption.setId(2L);
+
+        when(partRepository.existsById(1L)).thenReturn(true);
+        when(stockService.getMovements(1L)).thenReturn(Arrays.asList(receipt, consumption));
+
+        // Act
+        List<StockMovementResponseDTO> result = partService.getStockMovements(1L);
+
+        // Assert
+        assertEquals(2, result.size());
+        assertEquals("RECEIPT", result.get(0).getType());
+        assertEquals(25, result.get(0).getQuantity());
+        assertEquals("CONSUMPTION", result.get(1).getType());
+        assertEquals(-2, result.get(1).getQuantity());
+        assertEquals(3L, result.get(1).getRepairId());
+    }
+
+    @Test
+    void getStockMovements_ShouldThrowException_WhenPartNotFound() {
+        // Arrange
+        when(partRepository.existsById(999L)).thenReturn(false);
+
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> partService.getStockMovements(999L));
+
+        assertEquals("Part not found with id: 999", exception.getMessage());
+        verify(stockService, never()).getMovements(anyLong());
     }
 
     @Test
@@ -246,6 +318,7 @@ class PartServiceTest {
 
         // Assert
         verify(partRepository, times(1)).findById(1L);
+        verify(stockService, times(1)).deleteMovements(1L);
         verify(partRepository, times(1)).delete(testPart);
     }
 
@@ -285,7 +358,7 @@ class PartServiceTest {
         // Arrange
         Integer threshold = 10;
         List<Part> parts = Arrays.asList(testPart);
-        when(partRepository.findByStockLessThanEqual(threshold)).thenReturn(parts);
+        when(partRepository.findByAvailableStockLessThanEqual(threshold)).thenReturn(parts);
 
         // Act
         List<PartResponseDTO> result = partService.getPartsWithLowStock(threshold);
@@ -293,14 +366,40 @@ class PartServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals(1, result.size());
-        verify(partRepository, times(1)).findByStockLessThanEqual(threshold);
+        verify(partRepository, times(1)).findByAvailableStockLessThanEqual(threshold);
+    }
+
+    @Test
+    void countPartsWithLowStock_ShouldCountWithoutLoadingParts() {
+        // Arrange
+        when(partRepository.countByAvailableStockLessThanEqual(5)).thenReturn(3L);
+
+        // Act
+        long result = partService.countPartsWithLowStock(5);
+
+        // Assert
+        assertEquals(3L, result);
+        verify(partRepository, never()).findByAvailableStockLessThanEqual(anyInt());
+    }
+
+    @Test
+    void countOutOfStockParts_ShouldCountPartsWithoutAvailableStock() {
+        // Arrange
+        when(partRepository.countByAvailableStockEquals(0)).thenReturn(2L);
+
+        // Act
+        long result = partService.countOutOfStockParts();
+
+        // Assert
+        assertEquals(2L, result);
+        verify(partRepository, never()).findByAvailableStockEquals(anyInt());
     }
 
     @Test
     void getPartsInStock_ShouldReturnPartsWithStock() {
         // Arrange
         List<Part> parts = Arrays.asList(testPart);
-        when(partRepository.findByStockGreaterThan(0)).thenReturn(parts);
+        when(partRepository.findByAvailableStockGreaterThan(0)).thenReturn(parts);
 
         // Act
         List<PartResponseDTO> result = partService.getPartsInStock();
@@ -308,14 +407,14 @@ class PartServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals(1, result.size());
-        verify(partRepository, times(1)).findByStockGreaterThan(0);
+        verify(partRepository, times(1)).findByAvailableStockGreaterThan(0);
     }
 
     @Test
     void getOutOfStockParts_ShouldReturnPartsWithZeroStock() {
         // Arrange
         List<Part> parts = Arrays.asList();
-        when(partRepository.findByStockEquals(0)).thenReturn(parts);
+        when(partRepository.findByAvailableStockEquals(0)).thenReturn(parts);
 
         // Act
         List<PartResponseDTO> result = partService.getOutOfStockParts();
@@ -323,6 +422,39 @@ class PartServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals(0, result.size());
-        verify(partRepository, times(1)).findByStockEquals(0);
+        verify(partRepository, times(1)).findByAvailableStockEquals(0);
+    }
+
+    @Test
+    void getAllParts_ShouldServeRepeatedCallsFromCache() {
+        // Arrange
+        when(partRepository.findAll()).thenReturn(Arrays.asList(testPart));
+        when(stockService.getAvailableStock(anyCollection())).thenReturn(Map.of(1L, 25));
+
+        // Act
+        partService.getAllParts();
+        List<PartResponseDTO> result = partService.getAllParts();
+        PartResponseDTO byId = partService.getPartById(1L);
+
+        // Assert
+        assertEquals(1, result.size());
+        assertEquals(25, byId.getStock());
+        verify(partRepository, times(1)).findAll();
+        verify(partRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void updatePartStock_ShouldEvictCachedPart() {
+        // Arrange
+        when(partRepository.findById(1L)).thenReturn(Optional.of(testPart));
+        when(stockService.getAvailableStock(1L)).thenReturn(25, 30);
+        partService.getPartById(1L);
+
+        // Act
+        partService.updatePartStock(1L, testStockUpdateDTO);
+
+        // Assert
+        verify(partCatalogCache, times(1)).invalidate(1L);
+        assertEquals(30, partService.getPartById(1L).getStock());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,119 @@
+package nl.novi.garage.services;
+
+import nl.novi.garage.models.Part;
+import nl.novi.garage.repositories.PartRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Edits the name and price of a part that was loaded before another transaction changed its stock
+// and checks against H2 that saving the part keeps the stock committed in between.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:part-stock;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.show-sql=false",
+        "logging.level.nl.novi.garage=INFO",
+        "logging.level.org.springframework.security=INFO"
+})
+class PartStockConcurrencyTest {
+
+    // H2 cannot create the expression and partial indexes of this migration
+    private static final String H2_UNSUPPORTED_MIGRATION = "V2__add_indexes.sql";
+
+    @Autowired
+    private PartRepository partRepository;
+
+    @Autowired
+    private StockService stockService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @DynamicPropertySource
+    static void migrations(DynamicPropertyRegistry registry) throws IOException {
+        Path migrations = Files.createTempDirectory("part-stock-migrations");
+        for (Resource script : new PathMatchingResourcePatternResolver().getResources("classpath:db/migration/V*.sql")) {
+            if (!H2_UNSUPPORTED_MIGRATION.equals(script.getFilename())) {
+                try (InputStream content = script.getInputStream()) {
+                    Files.copy(content, migrations.resolve(script.getFilename()));
+                }
+            }
+        }
+        registry.add("schema.migrations.location", () -> "file:" + migrations.toAbsolutePath());
+    }
+
+    @Test
+    void savePart_ShouldKeepStockDecrease_WhenDecreasedAfterLoading() {
+        // Arrange
+        Part part = partRepository.save(new Part(newName(), new BigDecimal("45.99"), 10));
+
+        // Act
+        editAfter(part.getId(), () -> stockService.consume(part, 3, null));
+
+        // Assert
+        Part saved = partRepository.findById(part.getId()).orElseThrow();
+        assertTrue(saved.getName().startsWith("Edited part"));
+        assertEquals(0, new BigDecimal("49.99").compareTo(saved.getPrice()));
+        assertEquals(7, partRepository.findStockById(part.getId()));
+        assertEquals(7, stockService.getAvailableStock(part.getId()));
+    }
+
+    @Test
+    void savePart_ShouldKeepCompactedMovements_WhenCompactedAfterLoading() {
+        // Arrange
+        Part part = partRepository.save(new Part(newName(), new BigDecimal("45.99"), 10));
+
+        // Act
+        editAfter(part.getId(), () -> {
+            stockService.receive(part, 5);
+            stockService.compact();
+        });
+
+        // Assert
+        assertEquals(15, partRepository.findStockById(part.getId()));
+        assertEquals(15, stockService.getAvailableStock(part.getId()));
+    }
+
+    // Loads the part, commits the stock change from another thread and then saves a new name and price
+    private void editAfter(Long partId, Runnable stockChange) {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                Part loaded = partRepository.findById(partId).orElseThrow();
+                try {
+                    executor.submit(stockChange).get();
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+                loaded.setName("Edited part " + UUID.randomUUID());
+                loaded.setPrice(new BigDecimal("49.99"));
+                partRepository.save(loaded);
+            });
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private String newName() {
+        return "Part " + UUID.randomUUID();
+    }
+}
@@ -1,5 +1,6 @@
 package nl.novi.garage.services;
 
+import jakarta.persistence.EntityManager;
 import nl.novi.garage.dtos.receipt.ReceiptGenerateRequestDTO;
 import nl.novi.garage.dtos.receipt.ReceiptPaymentDTO;
 import nl.novi.garage.dtos.receipt.ReceiptResponseDTO;
@@ -18,6 +19,7 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.ArrayList;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -39,11 +41,7 @@ class ReceiptServiceTest {
     @Mock
     private RepairRepository repairRepository;
     @Mock
-    private RepairActionsRepository repairActionsRepository;
-    @Mock
-    private RepairPartsRepository repairPartsRepository;
-    @Mock
-    private RepairCustomActionsRepository repairCustomActionsRepository;
+    private EntityManager entityManager;
 
     @InjectMocks
     private ReceiptService receiptService;
@@ -110,15 +108,9 @@ class ReceiptServiceTest {
     void generateReceipt_ShouldReturnReceiptResponseDTO_WhenValidRequest() {
         // Arrange
         when(customerRepository.findById(1L)).thenReturn(Optional.of(testCustomer));
-        when(inspectionRepository.findById(1L)).thenReturn(Optional.of(testInspection));
-        when(repairRepository.findById(1L)).thenReturn(Optional.of(testRepair));
-        when(repairActionsRepository.findByRepairId(1L)).thenReturn(new ArrayList<>());
-        when(repairPartsRepository.findByRepairId(1L)).thenReturn(new ArrayList<>());
-        when(repairCustomActionsRepository.findByRepairId(1L)).thenReturn(new ArrayList<>());
+        when(inspectionRepository.findByIdIn(Arrays.asList(1L))).thenReturn(Arrays.asList(testInspection));
+        when(repairRepository.findByIdIn(Arrays.asList(1L))).thenReturn(Arrays.asList(testRepair));
         when(receiptRepository.save(any(Receipt.class))).thenReturn(testReceipt);
-        when(receiptInspectionsRepository.save(any(ReceiptInspections.class)))
-                .thenReturn(new ReceiptInspections());
-        when(receiptRepairsRepository.save(any(ReceiptRepairs.class))).thenReturn(new ReceiptRepairs());
 
         // Act
         ReceiptResponseDTO result = receiptService.generateReceipt(testRequestDTO);
@@ -133,11 +125,57 @@ class ReceiptServiceTest {
         assertFalse(result.getIsPaid());
 
         verify(customerRepository, times(1)).findById(1L);
-        verify(inspectionRepository, times(1)).findById(1L);
-        verify(repairRepository, times(1)).findById(1L);
+        verify(inspectionRepository, times(1)).findByIdIn(Arrays.asList(1L));
+        verify(repairRepository, times(1)).findByIdIn(Arrays.asList(1L));
+        verify(inspectionRepository, never()).findById(anyLong());
+        verify(repairRepository, never()).findById(anyLong());
         verify(receiptRepository, times(1)).save(any(Receipt.class));
-        verify(receiptInspectionsRepository, times(1)).save(any(ReceiptInspections.class));
-        verify(receiptRepairsRepository, times(1)).save(any(ReceiptRepairs.class));
+        verify(receiptInspectionsRepository, times(1)).saveAll(anyList());
+        verify(receiptRepairsRepository, times(1)).saveAll(anyList());
+    }
+
+    @Test
+    void generateReceipt_ShouldSumStoredRepairTotals() {
+        // Arrange
+        testRepair.setLabourTotal(new BigDecimal("100.00"));
+        testRepair.setPartsTotal(new BigDecimal("25.50"));
+        Repair secondRepair = new Repair();
+        secondRepair.setId(2L);
+        secondRepair.setCar(testCar);
+        secondRepair.setIsPaid(false);
+        secondRepair.setLabourTotal(new BigDecimal("40.00"));
+        secondRepair.setCustomTotal(new BigDecimal("10.00"));
+        testRequestDTO.setInspectionIds(null);
+        testRequestDTO.setRepairIds(Arrays.asList(1L, 2L));
+
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(testCustomer));
+        when(repairRepository.findByIdIn(Arrays.asList(1L, 2L))).thenReturn(Arrays.asList(testRepair, secondRepair));
+        when(receiptRepository.save(any(Receipt.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        ReceiptResponseDTO result = receiptService.generateReceipt(testRequestDTO);
+
+        // Assert
+        assertEquals(new BigDecimal("175.50"), result.getTotalExclVat());
+        assertEquals(new BigDecimal("36.86"), result.getVat());
+        verify(receiptRepairsRepository, times(1)).saveAll(anyList());
+        verify(receiptInspectionsRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void generateReceipt_ShouldThrowException_WhenRepairNotFound() {
+        // Arrange
+        testRequestDTO.setInspectionIds(null);
+        testRequestDTO.setRepairIds(Arrays.asList(1L, 2L));
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(testCustomer));
+        when(repairRepository.findByIdIn(Arrays.asList(1L, 2L))).thenReturn(Arrays.asList(testRepair));
+
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> receiptService.generateReceipt(testRequestDTO));
+
+        assertEquals("Repair not found with id: 2", exception.getMessage());
+        verify(receiptRepository, never()).save(any(Receipt.class));
     }
 
     @Test
@@ -158,7 +196,7 @@ class ReceiptServiceTest {
     void generateReceipt_ShouldThrowException_WhenInspectionNotFound() {
         // Arrange
         when(customerRepository.findById(1L)).thenReturn(Optional.of(testCustomer));
-        when(inspectionRepository.findById(1L)).thenReturn(Optional.empty());
+        when(inspectionRepository.findByIdIn(Arrays.asList(1L))).thenReturn(new ArrayList<>());
 
         // Act & Assert
         IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
@@ -166,7 +204,7 @@ class ReceiptServiceTest {
 
         assertEquals("Inspection not found with id: 1", exception.getMessage());
         verify(customerRepository, times(1)).findById(1L);
-        verify(inspectionRepository, times(1)).findById(1L);
+        verify(inspectionRepository, times(1)).findByIdIn(Arrays.asList(1L));
         verify(receiptRepository, never()).save(any(Receipt.class));
     }
 
@@ -180,7 +218,7 @@ class ReceiptServiceTest {
         testInspection.setCar(otherCar);
 
         when(customerRepository.findById(1L)).thenReturn(Optional.of(testCustomer));
-        when(inspectionRepository.findById(1L)).thenReturn(Optional.of(testInspection));
+        when(inspectionRepository.findByIdIn(Arrays.asList(1L))).thenReturn(Arrays.asList(testInspection));
 
         // Act & Assert
         IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
@@ -196,7 +234,7 @@ class ReceiptServiceTest {
         testInspection.setIsPaid(true);
 
         when(customerRepository.findById(1L)).thenReturn(Optional.of(testCustomer));
-        when(inspectionRepository.findById(1L)).thenReturn(Optional.of(testInspection));
+        when(inspectionRepository.findByIdIn(Arrays.asList(1L))).thenReturn(Arrays.asList(testInspection));
 
         // Act & Assert
         IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
@@ -211,7 +249,7 @@ class ReceiptServiceTest {
         // Arrange
         testRequestDTO.setRepairIds(null); // Only inspection
         when(customerRepository.findById(1L)).thenReturn(Optional.of(testCustomer));
-        when(inspectionRepository.findById(1L)).thenReturn(Optional.of(testInspection));
+        when(inspectionRepository.findByIdIn(Arrays.asList(1L))).thenReturn(Arrays.asList(testInspection));
 
         Receipt expectedReceipt = new Receipt();
         expectedReceipt.setId(1L);
@@ -223,8 +261,6 @@ class ReceiptServiceTest {
         expectedReceipt.setCreatedDate(LocalDate.now());
 
         when(receiptRepository.save(any(Receipt.class))).thenReturn(expectedReceipt);
-        when(receiptInspectionsRepository.save(any(ReceiptInspections.class)))
-                .thenReturn(new ReceiptInspections());
 
         // Act
         ReceiptResponseDTO result = receiptService.generateReceipt(testRequestDTO);
@@ -236,8 +272,8 @@ class ReceiptServiceTest {
         assertEquals(new BigDecimal("60.50"), result.getTotalInclVat());
 
         verify(receiptRepository, times(1)).save(any(Receipt.class));
-        verify(receiptInspectionsRepository, times(1)).save(any(ReceiptInspections.class));
-        verify(receiptRepairsRepository, never()).save(any(ReceiptRepairs.class));
+        verify(receiptInspectionsRepository, times(1)).saveAll(anyList());
+        verify(receiptRepairsRepository, never()).saveAll(anyList());
     }
 
     @Test
@@ -266,6 +302,36 @@ class ReceiptServiceTest {
         verify(receiptRepository, times(1)).findAll();
     }
 
+    @Test
+    void streamAllReceipts_ShouldPassEveryReceiptToConsumer() {
+        // Arrange
+        when(receiptRepository.streamAll()).thenReturn(Stream.of(testReceipt));
+        List<ReceiptResponseDTO> written = new ArrayList<>();
+
+        // Act
+        receiptService.streamAllReceipts(written::add);
+
+        // Assert
+        assertEquals(1, written.size());
+        assertEquals(testReceipt.getId(), written.get(0).getId());
+        assertEquals(testCustomer.getName(), written.get(0).getCustomer().getName());
+        verify(entityManager, never()).clear();
+    }
+
+    @Test
+    void streamAllReceipts_ShouldClearPersistenceContextPerChunk() {
+        // Arrange
+        when(receiptRepository.streamAll()).thenReturn(Stream.generate(() -> testReceipt).limit(1200));
+        List<ReceiptResponseDTO> written = new ArrayList<>();
+
+        // Act
+        receiptService.streamAllReceipts(written::add);
+
+        // Assert
+        assertEquals(1200, written.size());
+        verify(entityManager, times(2)).clear();
+    }
+
     @Test
     void getReceiptById_ShouldReturnReceiptWithDetails_WhenReceiptExists() {
         // Arrange
@@ -333,6 +399,19 @@ class ReceiptServiceTest {
         verify(receiptRepository, times(1)).findByIsPaid(false);
     }
 
+    @Test
+    void countUnpaidReceipts_ShouldReturnNumberOfUnpaidReceipts() {
+        // Arrange
+        when(receiptRepository.countByIsPaid(false)).thenReturn(7L);
+
+        // Act
+        long result = receiptService.countUnpaidReceipts();
+
+        // Assert
+        assertEquals(7L, result);
+        verify(receiptRepository, times(1)).countByIsPaid(false);
+    }
+
     @Test
     void markAsPaid_ShouldMarkReceiptAndRelatedItemsAsPaid() {
         // Arrange
@@ -1,20 +1,35 @@
 package nl.novi.garage.services;
 
+import jakarta.persistence.EntityManager;
+import nl.novi.garage.dtos.action.ActionResponseDTO;
+import nl.novi.garage.dtos.page.PageResponseDTO;
+import nl.novi.garage.dtos.part.PartResponseDTO;
 import nl.novi.garage.dtos.repair.*;
 import nl.novi.garage.models.*;
 import nl.novi.garage.repositories.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.repository.query.FluentQuery.FetchableFluentQuery;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -37,6 +52,16 @@ class RepairServiceTest {
     private ActionRepository actionRepository;
     @Mock
     private PartRepository partRepository;
+    @Mock
+    private StockService stockService;
+    @Mock
+    private ActionService actionService;
+    @Mock
+    private PartService partService;
+    @Mock
+    private EntityManager entityManager;
+    @Mock(answer = Answers.RETURNS_SELF)
+    private FetchableFluentQuery<Repair> query;
 
     @InjectMocks
     private RepairService repairService;
@@ -95,9 +120,9 @@ class RepairServiceTest {
         // Arrange
         when(carRepository.findById(1L)).thenReturn(Optional.of(testCar));
         when(repairRepository.save(any(Repair.class))).thenReturn(testRepair);
-        when(repairActionsRepository.findByRepairId(1L)).thenReturn(Arrays.asList());
-        when(repairPartsRepository.findByRepairId(1L)).thenReturn(Arrays.asList());
-        when(repairCustomActionsRepository.findByRepairId(1L)).thenReturn(Arrays.asList());
+        when(repairActionsRepository.findByRepairIdIn(anyCollection())).thenReturn(Arrays.asList());
+        when(repairPartsRepository.findByRepairIdIn(anyCollection())).thenReturn(Arrays.asList());
+        when(repairCustomActionsRepository.findByRepairIdIn(anyCollection())).thenReturn(Arrays.asList());
 
         // Act
         RepairResponseDTO result = repairService.createRepair(testRepairRequestDTO);
@@ -144,9 +169,9 @@ class RepairServiceTest {
 
         List<Repair> repairs = Arrays.asList(testRepair, repair2);
         when(repairRepository.findAll()).thenReturn(repairs);
-        when(repairActionsRepository.findByRepairId(anyLong())).thenReturn(Arrays.asList());
-        when(repairPartsRepository.findByRepairId(anyLong())).thenReturn(Arrays.asList());
-        when(repairCustomActionsRepository.findByRepairId(anyLong())).thenReturn(Arrays.asList());
+        when(repairActionsRepository.findByRepairIdIn(anyCollection())).thenReturn(Arrays.asList());
+        when(repairPartsRepository.findByRepairIdIn(anyCollection())).thenReturn(Arrays.asList());
+        when(repairCustomActionsRepository.findByRepairIdIn(anyCollection())).thenReturn(Arrays.asList());
 
         // Act
         List<RepairResponseDTO> result = repairService.getAllRepairs();
@@ -159,13 +184,215 @@ class RepairServiceTest {
         verify(repairRepository, times(1)).findAll();
     }
 
+    @Test
+    void streamAllRepairs_ShouldPassEveryRepairToConsumerAndDetachThem() {
+        // Arrange
+        Repair repair2 = new Repair();
+        repair2.setId(2L);
+        repair2.setCar(testCar);
+        repair2.setDate(LocalDate.of(2024, 3, 15));
+        repair2.setStatus("COMPLETED");
+        repair2.setIsPaid(true);
+
+        when(repairRepository.streamAll()).thenReturn(Stream.of(testRepair, repair2));
+        when(repairActionsRepository.findByRepairIdIn(anyCollection())).thenReturn(Arrays.asList());
+        when(repairPartsRepository.findByRepairIdIn(anyCollection())).thenReturn(Arrays.asList());
+        when(repairCustomActionsRepository.findByRepairIdIn(anyCollection())).thenReturn(Arrays.asList());
+        List<RepairResponseDTO> written = new ArrayList<>();
+
+        // Act
+        repairService.streamAllRepairs(written::add);
+
+        // Assert
+        assertEquals(2, written.size());
+        assertEquals(testRepair.getId(), written.get(0).getId());
+        assertEquals(2L, written.get(1).getId());
+        verify(repairActionsRepository, times(1)).findByRepairIdIn(anyCollection());
+        verify(entityManager, times(1)).clear();
+    }
+
+    @Test
+    void streamAllRepairs_ShouldWriteNothing_WhenNoRepairs() {
+        // Arrange
+        when(repairRepository.streamAll()).thenReturn(Stream.empty());
+        List<RepairResponseDTO> written = new ArrayList<>();
+
+        // Act
+        repairService.streamAllRepairs(written::add);
+
+        // Assert
+        assertTrue(written.isEmpty());
+        verifyNoInteractions(repairActionsRepository, entityManager);
+    }
+
+    @Test
+    void getAllRepairs_ShouldLoadLineItemsOnceForAllRepairs() {
+        // Arrange
+        Repair repair2 = new Repair();
+        repair2.setId(2L);
+        repair2.setCar(testCar);
+        repair2.setDate(LocalDate.of(2024, 3, 15));
+        repair2.setStatus("COMPLETED");
+        repair2.setReport("Onderhoudsbeurt voltooid");
+        repair2.setIsPaid(true);
+
+        RepairActions repairAction = new RepairActions(repair2, testAction, 1);
+        repairAction.setId(1L);
+        RepairParts repairPart = new RepairParts(testRepair, testPart, 2);
+        repairPart.setId(1L);
+
+        when(repairRepository.findAll()).thenReturn(Arrays.asList(testRepair, repair2));
+        when(repairActionsRepository.findByRepairIdIn(anyCollection())).thenReturn(Arrays.asList(repairAction));
+        when(repairPartsRepository.findByRepairIdIn(anyCollection())).thenReturn(Arrays.asList(repairPart));
+        when(repairCustomActionsRepository.findByRepairIdIn(anyCollection())).thenReturn(Arrays.asList());
+        when(actionService.getActionsById(Set.of(1L))).thenReturn(Map.of(1L, new ActionResponseDTO(
+                1L, testAction.getName(), testAction.getDescription(), testAction.getPrice())));
+        when(partService.getPartsById(Set.of(1L))).thenReturn(Map.of(1L, new PartResponseDTO(
+                1L, testPart.getName(), testPart.getPrice(), 25)));
+
+        // Act
+        List<RepairResponseDTO> result = repairService.getAllRepairs();
+
+        // Assert
+        assertEquals(2, result.size());
+        assertTrue(result.get(0).getActions().isEmpty());
+        assertEquals(1, result.get(0).getParts().size());
+        assertEquals(testPart.getName(), result.get(0).getParts().get(0).getPartName());
+        assertEquals(1, result.get(1).getActions().size());
+        assertEquals(testAction.getName(), result.get(1).getActions().get(0).getActionName());
+        assertTrue(result.get(1).getParts().isEmpty());
+        verify(repairActionsRepository, times(1)).findByRepairIdIn(anyCollection());
+        verify(repairPartsRepository, times(1)).findByRepairIdIn(anyCollection());
+        verify(repairCustomActionsRepository, times(1)).findByRepairIdIn(anyCollection());
+        verify(repairActionsRepository, never()).findByRepairId(anyLong());
+        verify(actionService, times(1)).getActionsById(Set.of(1L));
+        verify(partService, times(1)).getPartsById(Set.of(1L));
+    }
+
+    @Test
+    void getRepairsPage_ShouldUseDateAndIdOfLastRepairAsNextCursor() {
+        // Arrange
+        Repair olderRepair = new Repair();
+        olderRepair.setId(2L);
+        olderRepair.setCar(testCar);
+        olderRepair.setDate(LocalDate.of(2024, 1, 10));
+        olderRepair.setStatus("COMPLETED");
+        olderRepair.setReport("Onderhoudsbeurt voltooid");
+        olderRepair.setIsPaid(true);
+
+        PageCursor cursor = PageCursor.decodeDateId(PageCursor.encode(LocalDate.of(2024, 3, 1), 5L));
+        when(repairRepository.findPageAfter(eq(cursor.getDate()), eq(cursor.getId()), any(Pageable.class)))
+                .thenReturn(Arrays.asList(testRepair, olderRepair));
+        when(repairActionsRepository.findByRepairIdIn(anyCollection())).thenReturn(Arrays.asList());
+        when(repairPartsRepository.findByRepairIdIn(anyCollection())).thenReturn(Arrays.asList());
+        when(repairCustomActionsRepository.findByRepairIdIn(anyCollection())).thenReturn(Arrays.asList());
+
+        // Act
+        PageResponseDTO<RepairResponseDTO> result = repairService
+                .getRepairsPage(PageCursor.encode(LocalDate.of(2024, 3, 1), 5L), 1);
+
+        // Assert
+        assertEquals(1, result.getItems().size());
+        assertEquals(testRepair.getId(), result.getItems().get(0).getId());
+        PageCursor next = PageCursor.decodeDateId(result.getNext());
+        assertEquals(testRepair.getDate(), next.getDate());
+        assertEquals(testRepair.getId(), next.getId());
+        verify(repairRepository, never()).findPage(any(Pageable.class));
+    }
+
+    @Test
+    void searchRepairs_ShouldRunOneCombinedQuery() {
+        // Arrange
+        when(repairRepository.findAll(ArgumentMatchers.<Specification<Repair>>any(),
+                eq(RepairSpecifications.NEWEST_FIRST)))
+                .thenReturn(Arrays.asList(testRepair));
+        when(repairActionsRepository.findByRepairIdIn(anyCollection())).thenReturn(Arrays.asList());
+        when(repairPartsRepository.findByRepairIdIn(anyCollection())).thenReturn(Arrays.asList());
+        when(repairCustomActionsRepository.findByRepairIdIn(anyCollection())).thenReturn(Arrays.asList());
+
+        // Act
+        List<RepairResponseDTO> result = repairService.searchRepairs("IN_PROGRESS", false,
+                LocalDate.of(2024, 2, 1), LocalDate.of(2024, 2, 29));
+
+        // Assert
+        assertEquals(1, result.size());
+        verify(repairRepository, times(1)).findAll(ArgumentMatchers.<Specification<Repair>>any(),
+                eq(RepairSpecifications.NEWEST_FIRST));
+        verify(repairRepository, never()).findByStatus(anyString());
+        verify(repairRepository, never()).findByIsPaid(anyBoolean());
+    }
+
+    @Test
+    void searchRepairs_ShouldThrowException_WhenStartDateAfterEndDate() {
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> repairService.searchRepairs(null, null, LocalDate.of(2024, 3, 1), LocalDate.of(2024, 2, 1)));
+
+        assertEquals("Start date must not be after end date", exception.getMessage());
+        verify(repairRepository, never()).findAll(ArgumentMatchers.<Specification<Repair>>any(), any(Sort.class));
+    }
+
+    @Test
+    void searchRepairsPage_ShouldLimitInDatabaseAndReturnNextCursor() {
+        // Arrange
+        Repair olderRepair = new Repair();
+        olderRepair.setId(2L);
+        olderRepair.setCar(testCar);
+        olderRepair.setDate(LocalDate.of(2024, 1, 10));
+        olderRepair.setStatus("IN_PROGRESS");
+        olderRepair.setIsPaid(false);
+
+        when(query.all()).thenReturn(Arrays.asList(testRepair, olderRepair));
+        doAnswer(invocation -> invocation.<Function<FetchableFluentQuery<Repair>, List<Repair>>>getArgument(1)
+                .apply(query)).when(repairRepository).findBy(ArgumentMatchers.<Specification<Repair>>any(), any());
+        when(repairActionsRepository.findByRepairIdIn(anyCollection())).thenReturn(Arrays.asList());
+        when(repairPartsRepository.findByRepairIdIn(anyCollection())).thenReturn(Arrays.asList());
+        when(repairCustomActionsRepository.findByRepairIdIn(anyCollection())).thenReturn(Arrays.asList());
+
+        // Act
+        PageResponseDTO<RepairResponseDTO> result = repairService.searchRepairsPage("IN_PROGRESS", false,
+                null, null, null, 1);
+
+        // Assert
+        assertEquals(1, result.getItems().size());
+        PageCursor next = PageCursor.decodeDateId(result.getNext());
+        assertEquals(testRepair.getDate(), next.getDate());
+        assertEquals(testRepair.getId(), next.getId());
+        verify(query).sortBy(RepairSpecifications.NEWEST_FIRST);
+        verify(query).limit(2);
+        verify(repairRepository, never()).findAll(ArgumentMatchers.<Specification<Repair>>any(), any(Pageable.class));
+    }
+
+    @Test
+    void getRepairsPage_ShouldThrowException_WhenCursorHasNoDate() {
+        // Arrange
+        String carCursor = PageCursor.encode(5L);
+
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> repairService.getRepairsPage(carCursor, 10));
+
+        assertEquals("Invalid page cursor: " + carCursor, exception.getMessage());
+        verify(repairRepository, never()).findPageAfter(any(), any(), any(Pageable.class));
+    }
+
+    @Test
+    void getRepairsPage_ShouldThrowException_WhenSizeIsTooLarge() {
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> repairService.getRepairsPage(null, PageCursor.MAX_PAGE_SIZE + 1));
+
+        assertEquals("Page size must be between 1 and " + PageCursor.MAX_PAGE_SIZE, exception.getMessage());
+        verify(repairRepository, never()).findPage(any(Pageable.class));
+    }
+
     @Test
     void getRepairById_ShouldReturnRepair_WhenRepairExists() {
         // Arrange
         when(repairRepository.findById(1L)).thenReturn(Optional.of(testRepair));
-        when(repairActionsRepository.findByRepairId(1L)).thenReturn(Arrays.asList());
-        when(repairPartsRepository.findByRepairId(1L)).thenReturn(Arrays.asList());
-        when(repairCustomActionsRepository.findByRepairId(1L)).thenReturn(Arrays.asList());
+        when(repairActionsRepository.findByRepairIdIn(anyCollection())).thenReturn(Arrays.asList());
+        when(repairPartsRepository.findByRepairIdIn(anyCollection())).thenReturn(Arrays.asList());
+        when(repairCustomActionsRepository.findByRepairIdIn(anyCollection())).thenReturn(Arrays.asList());
 
         // Act
         RepairResponseDTO result = repairService.getRepairById(1L);
@@ -217,6 +444,7 @@ class RepairServiceTest {
         verify(repairRepository, times(1)).findById(1L);
         verify(actionRepository, times(1)).findById(1L);
         verify(repairActionsRepository, times(1)).save(any(RepairActions.class));
+        verify(repairRepository, times(1)).addToLabourTotal(1L, new BigDecimal("195.00"));
     }
 
     @Test
@@ -244,16 +472,9 @@ class RepairServiceTest {
         RepairParts repairPart = new RepairParts(testRepair, testPart, 2);
         repairPart.setId(1L);
 
-        Part updatedPart = new Part();
-        updatedPart.setId(1L);
-        updatedPart.setName("Remblokken set");
-        updatedPart.setPrice(new BigDecimal("45.99"));
-        updatedPart.setStock(23); // Reduced by 2
-
         when(repairRepository.findById(1L)).thenReturn(Optional.of(testRepair));
         when(partRepository.findById(1L)).thenReturn(Optional.of(testPart));
         when(repairPartsRepository.findByRepairIdAndPartId(1L, 1L)).thenReturn(Optional.empty());
-        when(partRepository.save(any(Part.class))).thenReturn(updatedPart);
         when(repairPartsRepository.save(any(RepairParts.class))).thenReturn(repairPart);
 
         // Act
@@ -268,8 +489,10 @@ class RepairServiceTest {
         assertEquals(2, result.getAmount());
         verify(repairRepository, times(1)).findById(1L);
         verify(partRepository, times(1)).findById(1L);
-        verify(partRepository, times(1)).save(any(Part.class));
+        verify(stockService, times(1)).consume(testPart, 2, 1L);
+        verify(partRepository, never()).save(any(Part.class));
         verify(repairPartsRepository, times(1)).save(any(RepairParts.class));
+        verify(repairRepository, times(1)).addToPartsTotal(1L, new BigDecimal("91.98"));
     }
 
     @Test
@@ -279,6 +502,9 @@ class RepairServiceTest {
 
         when(repairRepository.findById(1L)).thenReturn(Optional.of(testRepair));
         when(partRepository.findById(1L)).thenReturn(Optional.of(testPart));
+        when(repairPartsRepository.findByRepairIdAndPartId(1L, 1L)).thenReturn(Optional.empty());
+        doThrow(new IllegalArgumentException("Insufficient stock. Available: 25, Required: 30"))
+                .when(stockService).consume(testPart, 30, 1L);
 
         // Act & Assert
         IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
@@ -289,6 +515,24 @@ class RepairServiceTest {
         verify(repairPartsRepository, never()).save(any(RepairParts.class));
     }
 
+    @Test
+    void addPartToRepair_ShouldNotReserveStock_WhenPartAlreadyAdded() {
+        // Arrange
+        AddPartToRepairDTO addPartDTO = new AddPartToRepairDTO(1L, 2);
+
+        when(repairRepository.findById(1L)).thenReturn(Optional.of(testRepair));
+        when(partRepository.findById(1L)).thenReturn(Optional.of(testPart));
+        when(repairPartsRepository.findByRepairIdAndPartId(1L, 1L))
+                .thenReturn(Optional.of(new RepairParts(testRepair, testPart, 1)));
+
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> repairService.addPartToRepair(1L, addPartDTO));
+
+        assertEquals("Part already added to this repair", exception.getMessage());
+        verify(stockService, never()).consume(any(Part.class), anyInt(), anyLong());
+    }
+
     @Test
     void addCustomActionToRepair_ShouldReturnRepairCustomActionItemDTO_WhenValidRequest() {
         // Arrange
@@ -311,28 +555,57 @@ class RepairServiceTest {
         assertEquals(customAction.getPrice(), result.getPrice());
         verify(repairRepository, times(1)).findById(1L);
         verify(repairCustomActionsRepository, times(1)).save(any(RepairCustomActions.class));
+        verify(repairRepository, times(1)).addToCustomTotal(1L, new BigDecimal("25.00"));
     }
 
     @Test
     void removePartFromRepair_ShouldRestoreStock_WhenValidRequest() {
         // Arrange
         RepairParts repairPart = new RepairParts(testRepair, testPart, 2);
-        Part updatedPart = new Part();
-        updatedPart.setId(1L);
-        updatedPart.setName("Remblokken set");
-        updatedPart.setPrice(new BigDecimal("45.99"));
-        updatedPart.setStock(27); // Restored by 2
 
         when(repairPartsRepository.findByRepairIdAndPartId(1L, 1L)).thenReturn(Optional.of(repairPart));
-        when(partRepository.save(any(Part.class))).thenReturn(updatedPart);
 
         // Act
         repairService.removePartFromRepair(1L, 1L);
 
         // Assert
         verify(repairPartsRepository, times(1)).findByRepairIdAndPartId(1L, 1L);
-        verify(partRepository, times(1)).save(any(Part.class));
+        verify(stockService, times(1)).returnToStock(Map.of(testPart, 2), 1L);
+        verify(partRepository, never()).save(any(Part.class));
         verify(repairPartsRepository, times(1)).delete(repairPart);
+        verify(repairRepository, times(1)).addToPartsTotal(1L, new BigDecimal("-91.98"));
+    }
+
+    @Test
+    void removeActionFromRepair_ShouldSubtractFromLabourTotal() {
+        // Arrange
+        RepairActions repairAction = new RepairActions(testRepair, testAction, 2);
+
+        when(repairActionsRepository.findByRepairIdAndActionId(1L, 1L)).thenReturn(Optional.of(repairAction));
+
+        // Act
+        repairService.removeActionFromRepair(1L, 1L);
+
+        // Assert
+        verify(repairActionsRepository, times(1)).delete(repairAction);
+        verify(repairRepository, times(1)).addToLabourTotal(1L, new BigDecimal("-390.00"));
+    }
+
+    @Test
+    void removeCustomActionFromRepair_ShouldSubtractFromCustomTotal() {
+        // Arrange
+        RepairCustomActions customAction = new RepairCustomActions(testRepair,
+                "Extra controle na reparatie", new BigDecimal("25.00"));
+        customAction.setId(3L);
+
+        when(repairCustomActionsRepository.findById(3L)).thenReturn(Optional.of(customAction));
+
+        // Act
+        repairService.removeCustomActionFromRepair(3L);
+
+        // Assert
+        verify(repairCustomActionsRepository, times(1)).delete(customAction);
+        verify(repairRepository, times(1)).addToCustomTotal(1L, new BigDecimal("-25.00"));
     }
 
     @Test
@@ -350,9 +623,9 @@ class RepairServiceTest {
 
         when(repairRepository.findById(1L)).thenReturn(Optional.of(testRepair));
         when(repairRepository.save(any(Repair.class))).thenReturn(paidRepair);
-        when(repairActionsRepository.findByRepairId(1L)).thenReturn(Arrays.asList());
-        when(repairPartsRepository.findByRepairId(1L)).thenReturn(Arrays.asList());
-        when(repairCustomActionsRepository.findByRepairId(1L)).thenReturn(Arrays.asList());
+        when(repairActionsRepository.findByRepairIdIn(anyCollection())).thenReturn(Arrays.asList());
+        when(repairPartsRepository.findByRepairIdIn(anyCollection())).thenReturn(Arrays.asList());
+        when(repairCustomActionsRepository.findByRepairIdIn(anyCollection())).thenReturn(Arrays.asList());
 
         // Act
         RepairResponseDTO result = repairService.markAsPaid(1L);
@@ -395,7 +668,8 @@ class RepairServiceTest {
         // Assert
         verify(repairRepository, times(1)).findById(1L);
         verify(repairPartsRepository, times(1)).findByRepairId(1L);
-        verify(partRepository, times(1)).save(any(Part.class));
+        verify(stockService, times(1)).returnToStock(Map.of(testPart, 2), 1L);
+        verify(partRepository, never()).save(any(Part.class));
         verify(repairRepository, times(1)).delete(testRepair);
     }
 
@@ -420,9 +694,9 @@ class RepairServiceTest {
         String status = "IN_PROGRESS";
         List<Repair> repairs = Arrays.asList(testRepair);
         when(repairRepository.findByStatus(status)).thenReturn(repairs);
-        when(repairActionsRepository.findByRepairId(anyLong())).thenReturn(Arrays.asList());
-        when(repairPartsRepository.findByRepairId(anyLong())).thenReturn(Arrays.asList());
-        when(repairCustomActionsRepository.findByRepairId(anyLong())).thenReturn(Arrays.asList());
+        when(repairActionsRepository.findByRepairIdIn(anyCollection())).thenReturn(Arrays.asList());
+        when(repairPartsRepository.findByRepairIdIn(anyCollection())).thenReturn(Arrays.asList());
+        when(repairCustomActionsRepository.findByRepairIdIn(anyCollection())).thenReturn(Arrays.asList());
 
         // Act
         List<RepairResponseDTO> result = repairService.getRepairsByStatus(status);
@@ -440,9 +714,9 @@ class RepairServiceTest {
         Boolean isPaid = false;
         List<Repair> repairs = Arrays.asList(testRepair);
         when(repairRepository.findByIsPaid(isPaid)).thenReturn(repairs);
-        when(repairActionsRepository.findByRepairId(anyLong())).thenReturn(Arrays.asList());
-        when(repairPartsRepository.findByRepairId(anyLong())).thenReturn(Arrays.asList());
-        when(repairCustomActionsRepository.findByRepairId(anyLong())).thenReturn(Arrays.asList());
+        when(repairActionsRepository.findByRepairIdIn(anyCollection())).thenReturn(Arrays.asList());
+        when(repairPartsRepository.findByRepairIdIn(anyCollection())).thenReturn(Arrays.asList());
+        when(repairCustomActionsRepository.findByRepairIdIn(anyCollection())).thenReturn(Arrays.asList());
 
         // Act
         List<RepairResponseDTO> result = repairService.getRepairsByPaymentStatus(isPaid);
@@ -453,4 +727,55 @@ class RepairServiceTest {
         assertEquals(isPaid, result.get(0).getIsPaid());
         verify(repairRepository, times(1)).findByIsPaid(isPaid);
     }
-}
\ No newline at end of file
+
+    @Test
+    void getRepairById_ShouldReturnStoredTotals() {
+        // Arrange
+        testRepair.setLabourTotal(new BigDecimal("195.00"));
+        testRepair.setPartsTotal(new BigDecimal("91.98"));
+        testRepair.setCustomTotal(new BigDecimal("25.00"));
+        when(repairRepository.findById(1L)).thenReturn(Optional.of(testRepair));
+        when(repairActionsRepository.findByRepairIdIn(anyCollection())).thenReturn(Arrays.asList());
+        when(repairPartsRepository.findByRepairIdIn(anyCollection())).thenReturn(Arrays.asList());
+        when(repairCustomActionsRepository.findByRepairIdIn(anyCollection())).thenReturn(Arrays.asList());
+
+        // Act
+        RepairResponseDTO result = repairService.getRepairById(1L);
+
+        // Assert
+        assertEquals(new BigDecimal("195.00"), result.getLabourTotal());
+        assertEquals(new BigDecimal("91.98"), result.getPartsTotal());
+        assertEquals(new BigDecimal("25.00"), result.getCustomTotal());
+        assertEquals(new BigDecimal("311.98"), result.getTotal());
+    }
+
+    @Test
+    void reconcileTotals_ShouldLockAndRecalculateDriftedRepairs() {
+        // Arrange
+        when(repairRepository.findIdsWithDriftedTotals()).thenReturn(Arrays.asList(1L, 2L));
+        when(repairRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(testRepair));
+        when(repairRepository.findByIdForUpdate(2L)).thenReturn(Optional.empty());
+
+        // Act
+        int corrected = repairService.reconcileTotals();
+
+        // Assert
+        assertEquals(2, corrected);
+        verify(repairRepository, times(1)).recalculateTotals(1L);
+        verify(repairRepository, never()).recalculateTotals(2L);
+    }
+
+    @Test
+    void reconcileTotals_ShouldDoNothing_WhenNoDrift() {
+        // Arrange
+        when(repairRepository.findIdsWithDriftedTotals()).thenReturn(Arrays.asList());
+
+        // Act
+        int corrected = repairService.reconcileTotals();
+
+        // Assert
+        assertEquals(0, corrected);
+        verify(repairRepository, never()).findByIdForUpdate(anyLong());
+        verify(repairRepository, never()).recalculateTotals(anyLong());
+    }
+}
@@ -0,0 +1,250 @@
+package nl.novi.garage.services;
+
+import nl.novi.garage.dtos.part.PartResponseDTO;
+import nl.novi.garage.models.Part;
+import nl.novi.garage.models.StockMovement;
+import nl.novi.garage.repositories.PartRepository;
+import nl.novi.garage.repositories.StockMovementRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StockServiceTest {
+
+    @Mock
+    private StockMovementRepository stockMovementRepository;
+    @Mock
+    private PartRepository partRepository;
+    @Mock
+    private CatalogCache<PartResponseDTO> partCatalogCache;
+
+    @InjectMocks
+    private StockService stockService;
+
+    private Part testPart;
+
+    @BeforeEach
+    void setUp() {
+        testPart = new Part();
+        testPart.setId(1L);
+        testPart.setName("Remblokken set");
+        testPart.setPrice(new BigDecimal("45.99"));
+        testPart.setStock(25);
+    }
+
+    @Test
+    void consume_ShouldDecreaseSnapshotAndRecordAppliedMovement_WhenEnoughStock() {
+        // Arrange
+        when(partRepository.decreaseStock(1L, 2)).thenReturn(1);
+
+        // Act
+        stockService.consume(testPart, 2, 3L);
+
+        // Assert
+        ArgumentCaptor<StockMovement> captor = ArgumentCaptor.forClass(StockMovement.class);
+        verify(stockMovementRepository, times(1)).save(captor.capture());
+        StockMovement movement = captor.getValue();
+        assertEquals(-2, movement.getQuantity());
+        assertEquals(StockMovement.CONSUMPTION, movement.getType());
+        assertEquals(3L, movement.getRepairId());
+        assertNotNull(movement.getCompactionBatch());
+        verify(stockMovementRepository, never()).assignPendingToBatchByPartId(any(UUID.class), anyLong());
+        verify(partCatalogCache, times(1)).invalidate(1L);
+    }
+
+    @Test
+    void consume_ShouldCompactPendingMovementsAndRetry_WhenSnapshotTooLow() {
+        // Arrange
+        when(partRepository.decreaseStock(1L, 30)).thenReturn(0, 1);
+        when(stockMovementRepository.assignPendingToBatchByPartId(any(UUID.class), eq(1L))).thenReturn(2);
+
+        // Act
+        stockService.consume(testPart, 30, 3L);
+
+        // Assert
+        verify(partRepository, times(1)).applyStockMovements(any(UUID.class));
+        verify(partRepository, times(2)).decreaseStock(1L, 30);
+        verify(stockMovementRepository, times(1)).save(any(StockMovement.class));
+    }
+
+    @Test
+    void consume_ShouldThrowException_WhenInsufficientStock() {
+        // Arrange
+        when(partRepository.decreaseStock(1L, 30)).thenReturn(0);
+        when(stockMovementRepository.assignPendingToBatchByPartId(any(UUID.class), eq(1L))).thenReturn(0);
+        when(partRepository.findStockById(1L)).thenReturn(25);
+        when(stockMovementRepository.sumPendingByPartId(1L)).thenReturn(0L);
+
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> stockService.consume(testPart, 30, 3L));
+
+        assertEquals("Insufficient stock. Available: 25, Required: 30", exception.getMessage());
+        verify(partRepository, never()).applyStockMovements(any(UUID.class));
+        verify(stockMovementRepository, never()).save(any(StockMovement.class));
+        verify(partCatalogCache, never()).invalidate(anyLong());
+    }
+
+    @Test
+    void receive_ShouldRecordPendingMovement_WithoutTouchingPart() {
+        // Act
+        stockService.receive(testPart, 10);
+
+        // Assert
+        ArgumentCaptor<StockMovement> captor = ArgumentCaptor.forClass(StockMovement.class);
+        verify(stockMovementRepository, times(1)).save(captor.capture());
+        assertEquals(10, captor.getValue().getQuantity());
+        assertEquals(StockMovement.RECEIPT, captor.getValue().getType());
+        assertNull(captor.getValue().getCompactionBatch());
+        verifyNoInteractions(partRepository);
+        verify(partCatalogCache, times(1)).invalidate(1L);
+    }
+
+    @Test
+    void returnToStock_ShouldInsertAllMovementsInOneBatch() {
+        // Arrange
+        Part part2 = new Part();
+        part2.setId(2L);
+        Map<Part, Integer> amounts = new LinkedHashMap<>();
+        amounts.put(testPart, 2);
+        amounts.put(part2, 1);
+
+        // Act
+        stockService.returnToStock(amounts, 3L);
+
+        // Assert
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<StockMovement>> captor = ArgumentCaptor.forClass(List.class);
+        verify(stockMovementRepository, times(1)).saveAll(captor.capture());
+        assertEquals(2, captor.getValue().size());
+        assertTrue(captor.getValue().stream().allMatch(m -> StockMovement.RETURN.equals(m.getType())
+                && m.getRepairId().equals(3L) && m.getCompactionBatch() == null));
+        verify(partCatalogCache, times(1)).invalidate(1L);
+        verify(partCatalogCache, times(1)).invalidate(2L);
+    }
+
+    @Test
+    void correct_ShouldRecordPendingMovement_WhenStockIncreases() {
+        // Arrange
+        when(partRepository.findStockById(1L)).thenReturn(25);
+        when(stockMovementRepository.sumPendingByPartId(1L)).thenReturn(3L);
+
+        // Act
+        stockService.correct(testPart, 30);
+
+        // Assert
+        ArgumentCaptor<StockMovement> captor = ArgumentCaptor.forClass(StockMovement.class);
+        verify(stockMovementRepository, times(1)).save(captor.capture());
+        assertEquals(2, captor.getValue().getQuantity());
+        assertEquals(StockMovement.CORRECTION, captor.getValue().getType());
+        assertNull(captor.getValue().getCompactionBatch());
+        verify(partRepository, never()).decreaseStock(anyLong(), anyInt());
+    }
+
+    @Test
+    void correct_ShouldDecreaseSnapshot_WhenStockDecreases() {
+        // Arrange
+        when(partRepository.findStockById(1L)).thenReturn(25);
+        when(stockMovementRepository.sumPendingByPartId(1L)).thenReturn(0L);
+        when(partRepository.decreaseStock(1L, 5)).thenReturn(1);
+
+        // Act
+        stockService.correct(testPart, 20);
+
+        // Assert
+        ArgumentCaptor<StockMovement> captor = ArgumentCaptor.forClass(StockMovement.class);
+        verify(stockMovementRepository, times(1)).save(captor.capture());
+        assertEquals(-5, captor.getValue().getQuantity());
+        assertNotNull(captor.getValue().getCompactionBatch());
+    }
+
+    @Test
+    void correct_ShouldDoNothing_WhenStockUnchanged() {
+        // Arrange
+        when(partRepository.findStockById(1L)).thenReturn(25);
+        when(stockMovementRepository.sumPendingByPartId(1L)).thenReturn(0L);
+
+        // Act
+        stockService.correct(testPart, 25);
+
+        // Assert
+        verify(stockMovementRepository, never()).save(any(StockMovement.class));
+    }
+
+    @Test
+    void getAvailableStock_ShouldAddPendingMovementsToSnapshots() {
+        // Arrange
+        Part part2 = new Part();
+        part2.setId(2L);
+        part2.setStock(40);
+        List<Object[]> pending = List.<Object[]>of(new Object[] { 1L, 5L });
+        when(stockMovementRepository.sumPendingByPartIdIn(anyCollection())).thenReturn(pending);
+
+        // Act
+        Map<Long, Integer> result = stockService.getAvailableStock(Arrays.asList(testPart, part2));
+
+        // Assert
+        assertEquals(30, result.get(1L));
+        assertEquals(40, result.get(2L));
+        verify(stockMovementRepository, times(1)).sumPendingByPartIdIn(anyCollection());
+    }
+
+    @Test
+    void getAvailableStock_ShouldThrowException_WhenPartNotFound() {
+        // Arrange
+        when(partRepository.findStockById(999L)).thenReturn(null);
+
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> stockService.getAvailableStock(999L));
+
+        assertEquals("Part not found with id: 999", exception.getMessage());
+    }
+
+    @Test
+    void compact_ShouldApplyClaimedBatch_WhenMovementsPending() {
+        // Arrange
+        when(stockMovementRepository.assignPendingToBatch(any(UUID.class))).thenReturn(4);
+        when(partRepository.applyStockMovements(any(UUID.class))).thenReturn(2);
+
+        // Act
+        int compactedParts = stockService.compact();
+
+        // Assert
+        assertEquals(2, compactedParts);
+        ArgumentCaptor<UUID> assigned = ArgumentCaptor.forClass(UUID.class);
+        ArgumentCaptor<UUID> applied = ArgumentCaptor.forClass(UUID.class);
+        verify(stockMovementRepository).assignPendingToBatch(assigned.capture());
+        verify(partRepository).applyStockMovements(applied.capture());
+        assertEquals(assigned.getValue(), applied.getValue());
+    }
+
+    @Test
+    void compact_ShouldSkipUpdate_WhenNothingPending() {
+        // Arrange
+        when(stockMovementRepository.assignPendingToBatch(any(UUID.class))).thenReturn(0);
+
+        // Act
+        int compactedParts = stockService.compact();
+
+        // Assert
+        assertEquals(0, compactedParts);
+        verify(partRepository, never()).applyStockMovements(any(UUID.class));
+    }
+}
@@ -0,0 +1,98 @@
+package nl.novi.garage.services;
+
+import nl.novi.garage.models.RevokedToken;
+import nl.novi.garage.repositories.RevokedTokenRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TokenRevocationServiceTest {
+
+    @Mock
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @InjectMocks
+    private TokenRevocationService tokenRevocationService;
+
+    @Test
+    void isRevoked_ShouldReturnFalse_WhenTokenIsUnknown() {
+        assertFalse(tokenRevocationService.isRevoked("token-1"));
+        assertFalse(tokenRevocationService.isRevoked(null));
+        verifyNoInteractions(revokedTokenRepository);
+    }
+
+    @Test
+    void revoke_ShouldStoreTokenAndDenyItImmediately() {
+        // Arrange
+        Instant expiresAt = Instant.now().plusSeconds(3600);
+        when(revokedTokenRepository.existsByTokenId("token-1")).thenReturn(false);
+
+        // Act
+        tokenRevocationService.revoke("token-1", expiresAt);
+
+        // Assert
+        assertTrue(tokenRevocationService.isRevoked("token-1"));
+        verify(revokedTokenRepository, times(1)).save(any(RevokedToken.class));
+    }
+
+    @Test
+    void revoke_ShouldNotStoreTwice_WhenTokenAlreadyRevoked() {
+        // Arrange
+        when(revokedTokenRepository.existsByTokenId("token-1")).thenReturn(true);
+
+        // Act
+        tokenRevocationService.revoke("token-1", Instant.now().plusSeconds(3600));
+
+        // Assert
+        assertTrue(tokenRevocationService.isRevoked("token-1"));
+        verify(revokedTokenRepository, never()).save(any(RevokedToken.class));
+    }
+
+    @Test
+    void revoke_ShouldThrowException_WhenTokenHasNoId() {
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> tokenRevocationService.revoke(null, Instant.now()));
+
+        assertEquals("Token has no ID and cannot be revoked", exception.getMessage());
+        verifyNoInteractions(revokedTokenRepository);
+    }
+
+    @Test
+    void refresh_ShouldLoadRevocationsFromOtherInstances() {
+        // Arrange
+        when(revokedTokenRepository.findActiveTokenIds(any(Instant.class))).thenReturn(List.of("token-2"));
+
+        // Act
+        tokenRevocationService.refresh();
+
+        // Assert
+        assertTrue(tokenRevocationService.isRevoked("token-2"));
+        assertFalse(tokenRevocationService.isRevoked("token-3"));
+        verify(revokedTokenRepository, times(1)).deleteExpired(any(Instant.class));
+    }
+
+    @Test
+    void refresh_ShouldKeepLocalRevocation_WhenNotYetVisibleInTable() {
+        // Arrange
+        when(revokedTokenRepository.existsByTokenId("token-1")).thenReturn(false);
+        when(revokedTokenRepository.findActiveTokenIds(any(Instant.class))).thenReturn(List.of());
+        tokenRevocationService.revoke("token-1", Instant.now().plusSeconds(3600));
+
+        // Act
+        tokenRevocationService.refresh();
+
+        // Assert
+        assertTrue(tokenRevocationService.isRevoked("token-1"));
+    }
+}
@@ -0,0 +1,2 @@
+INSERT INTO garages (id, name) VALUES (1, 'Garage Noord');
+INSERT INTO garages (id, name) VALUES (1, 'Duplicate id');
@@ -0,0 +1,2 @@
+-- Runs after V2, versions are compared as numbers
+UPDATE garages SET name = 'Garage Oost' WHERE id = 2;